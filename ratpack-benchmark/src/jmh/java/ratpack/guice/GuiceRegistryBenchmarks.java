@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.guice;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.reflect.TypeToken;
+import com.google.inject.*;
+import org.openjdk.jmh.annotations.*;
+import ratpack.guice.internal.GuiceUtil;
+import ratpack.guice.internal.InjectorBindingIndex;
+import ratpack.guice.internal.JustInTimeInjectorRegistry;
+
+import java.io.Serializable;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares registry lookups against a Guice injector with the previous approaches,
+ * which were to catch a {@link ConfigurationException} on a miss, and to scan all bindings to find all objects of a type.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class GuiceRegistryBenchmarks {
+
+  public interface Unbound {
+  }
+
+  public interface Service {
+  }
+
+  public static class ServiceImpl implements Service, Serializable {
+    private static final long serialVersionUID = 1;
+  }
+
+  private static final TypeToken<Unbound> UNBOUND = TypeToken.of(Unbound.class);
+  private static final TypeToken<Service> SERVICE = TypeToken.of(Service.class);
+  private static final TypeToken<Serializable> SERIALIZABLE = TypeToken.of(Serializable.class);
+
+  private Injector injector;
+  private JustInTimeInjectorRegistry registry;
+  private InjectorBindingIndex bindingIndex;
+
+  @Setup
+  public void setup() {
+    injector = com.google.inject.Guice.createInjector(new AbstractModule() {
+      @Override
+      protected void configure() {
+        bind(Service.class).to(ServiceImpl.class);
+        // pad the injector with bindings, as a real application has
+        for (int i = 0; i < 100; ++i) {
+          bind(String.class).annotatedWith(com.google.inject.name.Names.named("string" + i)).toInstance("string" + i);
+        }
+      }
+    });
+    registry = new JustInTimeInjectorRegistry(injector);
+    bindingIndex = new InjectorBindingIndex(injector);
+  }
+
+  @Benchmark
+  public Optional<Unbound> missWithException() {
+    try {
+      return Optional.of(injector.getInstance(Key.get(GuiceUtil.toTypeLiteral(UNBOUND))));
+    } catch (ConfigurationException e) {
+      return Optional.empty();
+    }
+  }
+
+  @Benchmark
+  public Optional<Unbound> miss() {
+    return registry.maybeGet(UNBOUND);
+  }
+
+  @Benchmark
+  public Optional<Service> hitWithGetInstance() {
+    return Optional.of(injector.getInstance(Key.get(GuiceUtil.toTypeLiteral(SERVICE))));
+  }
+
+  @Benchmark
+  public Optional<Service> hit() {
+    return registry.maybeGet(SERVICE);
+  }
+
+  @Benchmark
+  public ImmutableList<Provider<? extends Serializable>> allOfTypeWithScan() {
+    return GuiceUtil.allProvidersOfType(injector, SERIALIZABLE);
+  }
+
+  @Benchmark
+  public ImmutableList<Provider<? extends Serializable>> allOfTypeWithIndex() {
+    return bindingIndex.providers(SERIALIZABLE);
+  }
+
+}
@@ -26,6 +26,7 @@ import com.google.inject.Injector;
 import com.google.inject.matcher.Matchers;
 import com.google.inject.multibindings.Multibinder;
 import ratpack.codahale.metrics.internal.*;
+import ratpack.exec.EventLoopStallStats;
 import ratpack.func.Action;
 import ratpack.guice.ConfigurableModule;
 import ratpack.handling.HandlerDecorator;
@@ -107,6 +108,11 @@ import static ratpack.util.Exceptions.uncheck;
  * in the modules list to ensure that <b>all</b> handlers are included in the metric.
  * </p>
  * <p>
+ * If {@link ratpack.server.ServerConfig#getStallThreshold() event loop stall detection} is enabled,
+ * {@link Gauge} metrics for the total number of {@link ratpack.exec.EventLoopStallStats#getStallCount() stalls}
+ * and the number of {@link ratpack.exec.EventLoopStallStats#getStalledCount() currently stalled} event loops are also registered.
+ * </p>
+ * <p>
  * Additional custom metrics can be registered with the provided {@link MetricRegistry} instance
  * </p>
  * <p>
@@ -709,12 +715,19 @@ public class CodaHaleMetricsModule extends ConfigurableModule<CodaHaleMetricsMod
         }
       });
 
+      final MetricRegistry metricRegistry = injector.getInstance(MetricRegistry.class);
       if (config.isJvmMetrics()) {
-        final MetricRegistry metricRegistry = injector.getInstance(MetricRegistry.class);
         metricRegistry.registerAll(new GarbageCollectorMetricSet());
         metricRegistry.registerAll(new ThreadStatesGaugeSet());
         metricRegistry.registerAll(new MemoryUsageGaugeSet());
       }
+
+      event.getRegistry().maybeGet(EventLoopStallStats.class)
+        .filter(stats -> !stats.getThreshold().isZero())
+        .ifPresent(stats -> {
+          metricRegistry.register(MetricRegistry.name(EventLoopStallStats.class, "stalls"), (Gauge<Long>) stats::getStallCount);
+          metricRegistry.register(MetricRegistry.name(EventLoopStallStats.class, "stalled"), (Gauge<Integer>) stats::getStalledCount);
+        });
     }
   }
 
@@ -64,6 +64,24 @@ public class ServerConfigDataDeserializer extends JsonDeserializer<ServerConfigD
     if (serverNode.hasNonNull("maxContentLength")) {
       data.setMaxContentLength(serverNode.get("maxContentLength").asInt(ServerConfig.DEFAULT_MAX_CONTENT_LENGTH));
     }
+    if (serverNode.hasNonNull("streamRequestBodies")) {
+      data.setStreamRequestBodies(serverNode.get("streamRequestBodies").asBoolean(false));
+    }
+    if (serverNode.hasNonNull("responseFlushThreshold")) {
+      data.setResponseFlushThreshold(serverNode.get("responseFlushThreshold").asInt(0));
+    }
+    if (serverNode.hasNonNull("responseFlushInterval")) {
+      data.setResponseFlushInterval(serverNode.get("responseFlushInterval").asInt(ServerConfig.DEFAULT_RESPONSE_FLUSH_INTERVAL));
+    }
+    if (serverNode.hasNonNull("maxBlockingThreads")) {
+      data.setMaxBlockingThreads(serverNode.get("maxBlockingThreads").asInt(0));
+    }
+    if (serverNode.hasNonNull("blockingQueueSize")) {
+      data.setBlockingQueueSize(serverNode.get("blockingQueueSize").asInt(ServerConfig.DEFAULT_BLOCKING_QUEUE_SIZE));
+    }
+    if (serverNode.hasNonNull("stallThreshold")) {
+      data.setStallThreshold(serverNode.get("stallThreshold").asInt(0));
+    }
     if (serverNode.hasNonNull("ssl")) {
       data.setSslContext(toValue(codec, serverNode.get("ssl"), SSLContext.class));
     }
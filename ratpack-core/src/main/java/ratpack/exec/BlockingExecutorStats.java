@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+import java.time.Duration;
+
+/**
+ * Statistics about the threads that perform {@link ExecControl#blocking(java.util.concurrent.Callable) blocking operations}.
+ * <p>
+ * The statistics of the server's blocking threads are available from the server registry.
+ * Sustained queueing or long wait times indicate that the {@link ratpack.server.ServerConfig#getMaxBlockingThreads() max number of blocking threads} is too low.
+ * <p>
+ * The values are read without synchronisation, and are therefore only approximate while operations are in flight.
+ *
+ * @see ExecController#getBlockingExecutorStats()
+ */
+public interface BlockingExecutorStats {
+
+  /**
+   * The number of threads that are currently performing a blocking operation.
+   *
+   * @return the number of threads that are currently performing a blocking operation
+   */
+  int getActiveCount();
+
+  /**
+   * The number of threads that currently exist, whether busy or idle.
+   *
+   * @return the number of threads that currently exist
+   */
+  int getPoolSize();
+
+  /**
+   * The number of blocking operations that are waiting for a thread.
+   *
+   * @return the number of blocking operations that are waiting for a thread
+   */
+  int getQueueDepth();
+
+  /**
+   * The total number of blocking operations that have completed.
+   *
+   * @return the total number of blocking operations that have completed
+   */
+  long getCompletedCount();
+
+  /**
+   * The total number of blocking operations that were rejected because the queue was full.
+   *
+   * @return the total number of blocking operations that were rejected
+   */
+  long getRejectedCount();
+
+  /**
+   * The mean time that blocking operations have waited for a thread before starting.
+   *
+   * @return the mean time that blocking operations have waited for a thread
+   */
+  Duration getMeanWaitTime();
+
+  /**
+   * The longest time that a blocking operation has waited for a thread before starting.
+   *
+   * @return the longest time that a blocking operation has waited for a thread
+   */
+  Duration getMaxWaitTime();
+
+}
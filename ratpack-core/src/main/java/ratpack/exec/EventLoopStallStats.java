@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+import java.time.Duration;
+
+/**
+ * Statistics about execution segments that ran on an event loop for longer than the {@link ratpack.server.ServerConfig#getStallThreshold() stall threshold}.
+ * <p>
+ * While a segment runs, no other work can be done by its event loop, which stalls all of the connections served by it.
+ * This is typically caused by performing blocking IO or long computations without using {@link ExecControl#blocking(java.util.concurrent.Callable)}.
+ * Each stall is also logged as a warning, with the stack of the stalled thread.
+ * <p>
+ * The statistics of the server are available from the server registry.
+ * If stall detection is not enabled, all values are zero.
+ *
+ * @see ExecController#getEventLoopStallStats()
+ */
+public interface EventLoopStallStats {
+
+  /**
+   * How long a segment can run for before it is considered to be stalling its event loop.
+   *
+   * @return how long a segment can run for before it is considered to be stalling its event loop, or zero if stall detection is not enabled
+   */
+  Duration getThreshold();
+
+  /**
+   * The total number of segments that have been detected stalling their event loop.
+   *
+   * @return the total number of segments that have been detected stalling their event loop
+   */
+  long getStallCount();
+
+  /**
+   * The number of event loops that are currently stalled.
+   *
+   * @return the number of event loops that are currently stalled
+   */
+  int getStalledCount();
+
+  /**
+   * The longest time that a segment that was detected stalling its event loop ran for.
+   * <p>
+   * Segments are only included once they have finished running.
+   *
+   * @return the longest time that a stalling segment ran for
+   */
+  Duration getMaxStall();
+
+}
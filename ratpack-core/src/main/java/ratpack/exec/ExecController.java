@@ -89,6 +89,22 @@ public interface ExecController extends AutoCloseable {
 
   ExecutorService getBlockingExecutor();
 
+  /**
+   * Statistics about the threads that perform blocking operations.
+   *
+   * @return statistics about the threads that perform blocking operations
+   * @see ratpack.server.ServerConfig#getMaxBlockingThreads()
+   */
+  BlockingExecutorStats getBlockingExecutorStats();
+
+  /**
+   * Statistics about execution segments that ran on an event loop for longer than the stall threshold.
+   *
+   * @return statistics about execution segments that stalled their event loop
+   * @see ratpack.server.ServerConfig#getStallThreshold()
+   */
+  EventLoopStallStats getEventLoopStallStats();
+
   /**
    * The event loop group used by Netty for this application.
    * <p>
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+/**
+ * Receives timings of the segments of executions, for profiling purposes.
+ * <p>
+ * An execution is made up of segments of computation that run on its event loop, interleaved with waiting for asynchronous operations.
+ * A profiler is told how long each segment ran for, and how long it waited in the event loop's task queue before it could run.
+ * A segment that waits a long time in the queue indicates that other work on the same event loop is hogging it.
+ * Similarly, a profiler is told how long each {@link ExecControl#blocking(java.util.concurrent.Callable) blocking operation} ran for,
+ * and how long it waited for a blocking thread.
+ * <p>
+ * Profiling is opt-in.
+ * A profiler is used if one is present in the server registry when the server starts (only the first is used).
+ * When there is no profiler, the only overhead is a {@code null} check per segment.
+ * <p>
+ * Methods are called on the thread that ran the segment, immediately after it ran, and should therefore be fast and non blocking.
+ * Exceptions thrown by a profiler are logged and otherwise ignored.
+ *
+ * @see ratpack.handling.HandlerTimings
+ */
+public interface ExecProfiler {
+
+  /**
+   * Called after a segment of computation of an execution has run on its event loop.
+   * <p>
+   * The queued time is the time between the segment being ready to run and it starting to run.
+   * It is {@code 0} for segments that ran immediately after a previous segment of the same execution,
+   * or without needing to be scheduled.
+   *
+   * @param execution the execution
+   * @param queuedNanos how long the segment waited to run, in nanoseconds
+   * @param runNanos how long the segment ran for, in nanoseconds
+   * @throws Exception any
+   */
+  void compute(Execution execution, long queuedNanos, long runNanos) throws Exception;
+
+  /**
+   * Called after a blocking operation of an execution has run on a blocking thread.
+   *
+   * @param execution the execution
+   * @param queuedNanos how long the operation waited for a blocking thread, in nanoseconds
+   * @param runNanos how long the operation ran for, in nanoseconds
+   * @throws Exception any
+   */
+  void blocking(Execution execution, long queuedNanos, long runNanos) throws Exception;
+
+}
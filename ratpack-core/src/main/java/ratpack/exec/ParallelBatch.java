@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+import com.google.common.collect.ImmutableList;
+import ratpack.exec.internal.DefaultParallelBatch;
+import ratpack.func.Action;
+import ratpack.registry.RegistrySpec;
+import ratpack.stream.TransformablePublisher;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A batch of promises that are subscribed to in parallel, each in its own {@link ExecControl#fork() forked execution}.
+ * <p>
+ * A batch is created from a list of promises, and the outcome consumed as a list of values in the same order ({@link #yield()}),
+ * a list of results in the same order ({@link #yieldAll()}), or a stream of values in the order that they become available ({@link #publisher()}).
+ * <pre class="java">{@code
+ * import ratpack.exec.ParallelBatch;
+ * import ratpack.exec.Promise;
+ * import ratpack.test.exec.ExecHarness;
+ *
+ * import java.util.Arrays;
+ * import java.util.List;
+ * import java.util.stream.Collectors;
+ *
+ * import static org.junit.Assert.assertEquals;
+ *
+ * public class Example {
+ *   public static void main(String... args) throws Exception {
+ *     List<Integer> result = ExecHarness.yieldSingle(c -> {
+ *       List<Promise<Integer>> promises = Arrays.asList(1, 2, 3).stream()
+ *         .map(i -> c.blocking(() -> i * 2))
+ *         .collect(Collectors.toList());
+ *
+ *       return ParallelBatch.of(promises).maxConcurrency(2).yield();
+ *     }).getValueOrThrow();
+ *
+ *     assertEquals(Arrays.asList(2, 4, 6), result);
+ *   }
+ * }
+ * }</pre>
+ * <p>
+ * By default, the forked executions run on the event loop of the execution that subscribes to the batch, which avoids any cross thread handoff.
+ * When the promises involve significant computation, {@link #spread()} can be used to distribute them across all event loops.
+ * <p>
+ * Forked executions do not inherit the registry of the execution that subscribes to the batch.
+ * Objects that the promises need from the registry can be added to each forked execution via {@link #register(Action)}.
+ *
+ * @param <T> the type of promised value
+ */
+public interface ParallelBatch<T> {
+
+  /**
+   * Creates a batch of the given promises.
+   *
+   * @param promises the promises to subscribe to in parallel
+   * @param <T> the type of promised value
+   * @return a batch of the given promises
+   */
+  static <T> ParallelBatch<T> of(Iterable<? extends Promise<T>> promises) {
+    return new DefaultParallelBatch<>(ImmutableList.copyOf(promises));
+  }
+
+  /**
+   * Creates a batch of the given promises.
+   *
+   * @param promises the promises to subscribe to in parallel
+   * @param <T> the type of promised value
+   * @return a batch of the given promises
+   */
+  @SafeVarargs
+  static <T> ParallelBatch<T> of(Promise<T>... promises) {
+    return of(Arrays.asList(promises));
+  }
+
+  /**
+   * Limits the number of promises that are in flight at any one time.
+   * <p>
+   * By default, all promises of the batch are subscribed to at once.
+   *
+   * @param maxConcurrency the max number of promises to have in flight at once
+   * @return a batch with the given concurrency limit
+   */
+  ParallelBatch<T> maxConcurrency(int maxConcurrency);
+
+  /**
+   * Distributes the forked executions across all event loops, instead of the event loop of the subscribing execution.
+   *
+   * @return a batch that spreads its forked executions across event loops
+   */
+  ParallelBatch<T> spread();
+
+  /**
+   * Registers objects with each forked execution of the batch, before its promise is subscribed to.
+   *
+   * @param registry the additions to the registry of each forked execution
+   * @return a batch that registers the given objects with each forked execution
+   */
+  ParallelBatch<T> register(Action<? super RegistrySpec> registry);
+
+  /**
+   * Subscribes to all promises, yielding their values in the same order as the promises.
+   * <p>
+   * The returned promise fails as soon as any of the promises fails, with that failure.
+   * No further promises are subscribed to once one has failed, and the outcomes of the promises that are in flight are discarded.
+   *
+   * @return a promise for the values of the promises
+   */
+  Promise<List<T>> yield();
+
+  /**
+   * Subscribes to all promises, yielding their results in the same order as the promises.
+   * <p>
+   * The returned promise does not fail if any of the promises fail.
+   *
+   * @return a promise for the results of the promises
+   */
+  Promise<List<Result<T>>> yieldAll();
+
+  /**
+   * Subscribes to all promises, emitting their values in the order that they become available.
+   * <p>
+   * The stream errors as soon as any of the promises fails, and no further promises are subscribed to.
+   * Values that are produced faster than they are requested are buffered.
+   *
+   * @return a publisher of the values of the promises
+   */
+  TransformablePublisher<T> publisher();
+
+}
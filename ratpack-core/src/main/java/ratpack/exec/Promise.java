@@ -19,8 +19,13 @@ package ratpack.exec;
 import ratpack.exec.internal.CachingUpstream;
 import ratpack.exec.internal.DefaultOperation;
 import ratpack.exec.internal.ExecutionBacking;
+import ratpack.exec.internal.ExpiringCachingUpstream;
+import ratpack.exec.internal.HedgingUpstream;
+import ratpack.exec.internal.RetryingUpstream;
+import ratpack.exec.internal.TimeoutUpstream;
 import ratpack.func.*;
 
+import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 
@@ -704,6 +709,8 @@ public interface Promise<T> {
    *   }
    * }
    * }</pre>
+   * <p>
+   * To avoid caching failures, or to cache for a limited time, use {@link #cacheIf(Predicate)} or {@link #cacheFor(Duration)}.
    *
    * @return a caching promise.
    */
@@ -711,6 +718,89 @@ public interface Promise<T> {
     return transform(CachingUpstream::new);
   }
 
+  /**
+   * Caches the promised result if it satisfies the given predicate, and returns it to all subsequent subscribers.
+   * <p>
+   * Unlike {@link #cache()}, results that do not satisfy the predicate are not retained,
+   * and the next subscriber will subscribe to this promise again.
+   * A common use is to avoid caching failures, by using a predicate of {@code Result::isSuccess}.
+   * <pre class="java">{@code
+   * import ratpack.exec.Promise;
+   * import ratpack.exec.Result;
+   * import ratpack.test.exec.ExecHarness;
+   *
+   * import java.util.concurrent.atomic.AtomicInteger;
+   *
+   * import static org.junit.Assert.assertEquals;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     try (ExecHarness harness = ExecHarness.harness()) {
+   *       AtomicInteger counter = new AtomicInteger();
+   *       Promise<Integer> cached = harness.<Integer>promise(f -> {
+   *         int i = counter.getAndIncrement();
+   *         if (i == 0) {
+   *           f.error(new IllegalStateException("not yet"));
+   *         } else {
+   *           f.success(i);
+   *         }
+   *       }).cacheIf(Result::isSuccess);
+   *
+   *       assertEquals("not yet", harness.yield(e -> cached).getThrowable().getMessage());
+   *       assertEquals(Integer.valueOf(1), harness.yield(e -> cached).getValueOrThrow());
+   *       assertEquals(Integer.valueOf(1), harness.yield(e -> cached).getValueOrThrow());
+   *     }
+   *   }
+   * }
+   * }</pre>
+   * <p>
+   * Subscribers that arrive while a result is being produced wait for that result instead of subscribing again, even if they are part of different executions.
+   * This promise is subscribed to in a forked execution so that its result can be shared between executions.
+   * If the promise completes without a value, nothing is cached.
+   *
+   * @param predicate whether the result should be cached
+   * @return a caching promise
+   * @see #cacheFor(Duration)
+   */
+  default Promise<T> cacheIf(Predicate<? super Result<T>> predicate) {
+    return transform(up -> new ExpiringCachingUpstream<T>(up, predicate, null, null));
+  }
+
+  /**
+   * Caches the promised value for the given duration, and returns it to all subscribers during that time.
+   * <p>
+   * Failures are not cached.
+   * Once the value has expired, the next subscriber subscribes to this promise again.
+   * Subscribers that arrive while a value is being produced wait for that value instead of subscribing again, even if they are part of different executions.
+   * This makes the returned promise suitable as a single flight cache of a value that is expensive to produce and may change over time, such as a remote configuration value or token.
+   *
+   * @param timeToLive how long the promised value is cached for
+   * @return a caching promise
+   * @see #cacheFor(Duration, Duration)
+   */
+  default Promise<T> cacheFor(Duration timeToLive) {
+    return transform(up -> new ExpiringCachingUpstream<T>(up, Result::isSuccess, timeToLive, null));
+  }
+
+  /**
+   * Caches the promised value for the given duration, refreshing it ahead of expiry.
+   * <p>
+   * This behaves like {@link #cacheFor(Duration)}, except that once the cached value is older than {@code refreshAfter},
+   * the next subscriber is given the cached value while this promise is subscribed to again in a forked execution.
+   * Only one refresh is in flight at any time.
+   * The refreshed value replaces the cached value if it is successful.
+   * If the refresh fails, the cached value continues to be served until it expires, and the next subscriber triggers another refresh.
+   * <p>
+   * As long as the value is used more often than it expires, subscribers never wait for it to be produced.
+   *
+   * @param timeToLive how long the promised value is cached for
+   * @param refreshAfter how old the promised value must be before it is refreshed, which should be less than {@code timeToLive}
+   * @return a caching promise
+   */
+  default Promise<T> cacheFor(Duration timeToLive, Duration refreshAfter) {
+    return transform(up -> new ExpiringCachingUpstream<T>(up, Result::isSuccess, timeToLive, refreshAfter));
+  }
+
   /**
    * Allows the execution of the promise to be deferred to a later time.
    * <p>
@@ -885,4 +975,105 @@ public interface Promise<T> {
     return throttle.throttle(this);
   }
 
+  /**
+   * Fails the promise with a {@link java.util.concurrent.TimeoutException} if it does not complete within the given duration.
+   * <pre class="java">{@code
+   * import ratpack.test.exec.ExecHarness;
+   * import ratpack.exec.ExecResult;
+   *
+   * import java.time.Duration;
+   *
+   * import static org.junit.Assert.assertEquals;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     ExecResult<String> result = ExecHarness.yieldSingle(c ->
+   *         c.<String>promise(f -> {
+   *           // never fulfilled
+   *         })
+   *           .timeout(Duration.ofMillis(10))
+   *           .mapError(t -> t.getClass().getSimpleName())
+   *     );
+   *
+   *     assertEquals("TimeoutException", result.getValue());
+   *   }
+   * }
+   * }</pre>
+   * <p>
+   * The deadline is enforced by a timer on the execution's event loop.
+   * So that the execution can continue when the deadline passes, {@code this} promise is subscribed to in a {@link ExecControl#fork() forked execution}.
+   * If the deadline passes, the eventual outcome of {@code this} promise is discarded.
+   *
+   * @param timeout the max time to wait for the promise to complete
+   * @return a promise that fails if {@code this} promise does not complete in time
+   */
+  default Promise<T> timeout(Duration timeout) {
+    return transform(up -> new TimeoutUpstream<>(up, timeout));
+  }
+
+  /**
+   * Subscribes to {@code this} promise again if it fails, as determined by the given policy.
+   * <pre class="java">{@code
+   * import ratpack.test.exec.ExecHarness;
+   * import ratpack.exec.ExecResult;
+   * import ratpack.exec.RetryPolicy;
+   *
+   * import java.time.Duration;
+   * import java.util.concurrent.atomic.AtomicInteger;
+   *
+   * import static org.junit.Assert.assertEquals;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     AtomicInteger attempts = new AtomicInteger();
+   *     ExecResult<String> result = ExecHarness.yieldSingle(c ->
+   *         c.<String>promise(f -> {
+   *           if (attempts.incrementAndGet() < 3) {
+   *             f.error(new IllegalStateException("unavailable"));
+   *           } else {
+   *             f.success("attempt " + attempts.get());
+   *           }
+   *         })
+   *           .retry(RetryPolicy.exponentialBackoff(5, Duration.ofMillis(1), Duration.ofMillis(10)))
+   *     );
+   *
+   *     assertEquals("attempt 3", result.getValue());
+   *   }
+   * }
+   * }</pre>
+   * <p>
+   * The wait between attempts is scheduled on the execution's event loop, and does not block a thread.
+   * If the policy gives up, the promise fails with the error of the last attempt.
+   *
+   * @param retryPolicy determines whether and when to attempt again
+   * @return a promise that retries {@code this} promise on failure
+   */
+  default Promise<T> retry(RetryPolicy retryPolicy) {
+    return transform(up -> new RetryingUpstream<>(up, retryPolicy));
+  }
+
+  /**
+   * Subscribes to {@code this} promise again if it has not completed after the given duration, using whichever attempt completes first.
+   * <p>
+   * Hedging trades extra load for lower tail latency.
+   * The {@code after} duration is typically set to a high percentile (e.g. the 95th) of the latency of the operation,
+   * so that only the slowest few operations are duplicated.
+   * <p>
+   * Each attempt is subscribed to in its own {@link ExecControl#fork() forked execution}, and the outcomes of attempts that lose the race are discarded.
+   * An attempt that fails does not fail the promise while other attempts are in flight.
+   * If it fails while no other attempts are in flight, the next attempt is made immediately.
+   * The promise only fails if all attempts fail, with the error of the last attempt.
+   * As such, this operation should only be used with idempotent operations.
+   *
+   * @param after how long to wait for an attempt to complete before making another
+   * @param maxAttempts the max number of attempts, including the first
+   * @return a hedged promise
+   */
+  default Promise<T> hedge(Duration after, int maxAttempts) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("'maxAttempts' must be > 0");
+    }
+    return transform(up -> new HedgingUpstream<>(up, after, maxAttempts));
+  }
+
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+import ratpack.api.Nullable;
+import ratpack.func.Predicate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Determines whether and when a failed promise is {@link Promise#retry(RetryPolicy) retried}.
+ * <p>
+ * Retries are scheduled on the execution's event loop, so waiting for the next attempt does not block a thread.
+ *
+ * @see Promise#retry(RetryPolicy)
+ */
+@FunctionalInterface
+public interface RetryPolicy {
+
+  /**
+   * The time to wait before attempting again, after the given attempt failed with the given error.
+   *
+   * @param attempt the number of the attempt that failed, starting at {@code 1}
+   * @param error the error that the attempt failed with
+   * @return the time to wait before attempting again, or {@code null} if the error should not be retried
+   * @throws Exception any
+   */
+  @Nullable
+  Duration delay(int attempt, Throwable error) throws Exception;
+
+  /**
+   * A policy that makes at most the given number of attempts, waiting the given time between each.
+   *
+   * @param maxAttempts the max number of attempts, including the first
+   * @param delay the time to wait between attempts
+   * @return a retry policy
+   */
+  static RetryPolicy fixedDelay(int maxAttempts, Duration delay) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("'maxAttempts' must be > 0");
+    }
+    return (attempt, error) -> attempt < maxAttempts ? delay : null;
+  }
+
+  /**
+   * A policy that makes at most the given number of attempts, waiting an exponentially increasing, randomised time between each.
+   * <p>
+   * The wait before attempt {@code n + 1} is a random duration between zero and {@code initialDelay * 2^(n - 1)}, capped at {@code maxDelay}.
+   * The randomisation (i.e. “full jitter”) avoids many clients that failed at the same time from retrying at the same time.
+   *
+   * @param maxAttempts the max number of attempts, including the first
+   * @param initialDelay the upper bound of the wait before the second attempt
+   * @param maxDelay the upper bound of the wait before any attempt
+   * @return a retry policy
+   */
+  static RetryPolicy exponentialBackoff(int maxAttempts, Duration initialDelay, Duration maxDelay) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("'maxAttempts' must be > 0");
+    }
+    long initialNanos = initialDelay.toNanos();
+    long maxNanos = maxDelay.toNanos();
+    return (attempt, error) -> {
+      if (attempt >= maxAttempts) {
+        return null;
+      }
+      int shift = Math.min(attempt - 1, 62);
+      long bound = initialNanos > (maxNanos >> shift) ? maxNanos : initialNanos << shift;
+      return Duration.ofNanos(bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1));
+    };
+  }
+
+  /**
+   * A policy that only retries errors that satisfy the given predicate, as determined by {@code this} policy.
+   *
+   * @param predicate the predicate that errors must satisfy to be retried
+   * @return a retry policy
+   */
+  default RetryPolicy retryIf(Predicate<? super Throwable> predicate) {
+    return (attempt, error) -> predicate.apply(error) ? delay(attempt, error) : null;
+  }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import ratpack.exec.BlockingExecutorStats;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The executor of blocking operations, which records how long operations wait for a thread.
+ * <p>
+ * If unbounded, a thread is created for each operation that is started while all threads are busy (i.e. the behaviour of {@link Executors#newCachedThreadPool()}).
+ * If bounded, operations queue when all threads are busy, and are rejected when the queue is full.
+ */
+public class BlockingExecutor extends ThreadPoolExecutor implements BlockingExecutorStats {
+
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  private final LongAdder waited = new LongAdder();
+  private final LongAdder started = new LongAdder();
+  private final AtomicLong maxWait = new AtomicLong();
+  private final LongAdder rejected = new LongAdder();
+
+  private BlockingExecutor(int coreThreads, int maxThreads, BlockingQueue<Runnable> queue, ThreadFactory threadFactory) {
+    super(coreThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, queue, threadFactory);
+    setRejectedExecutionHandler((runnable, executor) -> {
+      rejected.increment();
+      throw new RejectedExecutionException("Blocking operation rejected as " + getQueue().size() + " operations are already waiting for one of " + getMaximumPoolSize() + " blocking threads");
+    });
+  }
+
+  public static BlockingExecutor unbounded(ThreadFactory threadFactory) {
+    return new BlockingExecutor(0, Integer.MAX_VALUE, new SynchronousQueue<>(), threadFactory);
+  }
+
+  public static BlockingExecutor bounded(int threads, int queueSize, ThreadFactory threadFactory) {
+    BlockingExecutor executor = new BlockingExecutor(threads, threads, queueSize > 0 ? new LinkedBlockingQueue<>(queueSize) : new SynchronousQueue<>(), threadFactory);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    long queuedAt = System.nanoTime();
+    super.execute(() -> {
+      long wait = System.nanoTime() - queuedAt;
+      waited.add(wait);
+      started.increment();
+      maxWait.accumulateAndGet(wait, Math::max);
+      command.run();
+    });
+  }
+
+  @Override
+  public int getQueueDepth() {
+    return getQueue().size();
+  }
+
+  @Override
+  public long getCompletedCount() {
+    return getCompletedTaskCount();
+  }
+
+  @Override
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  @Override
+  public Duration getMeanWaitTime() {
+    long count = started.sum();
+    return count == 0 ? Duration.ZERO : Duration.ofNanos(waited.sum() / count);
+  }
+
+  @Override
+  public Duration getMaxWaitTime() {
+    return Duration.ofNanos(maxWait.get());
+  }
+
+}
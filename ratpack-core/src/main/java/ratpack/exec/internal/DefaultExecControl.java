@@ -23,6 +23,7 @@ import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
+import ratpack.api.Nullable;
 import ratpack.exec.*;
 import ratpack.func.Action;
 import ratpack.func.BiAction;
@@ -35,9 +36,8 @@ import ratpack.util.Exceptions;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Supplier;
 
 import static ratpack.func.Action.noop;
 
@@ -48,10 +48,17 @@ public class DefaultExecControl implements ExecControl, ExecControlInternal {
   private static final int MAX_ERRORS_THRESHOLD = 5;
 
   private final ExecController execController;
+  private final StallWatchdog stallWatchdog;
   private ImmutableList<? extends ExecInterceptor> interceptors = ImmutableList.of();
+  private ExecProfiler profiler;
 
   public DefaultExecControl(ExecController execController) {
+    this(execController, null);
+  }
+
+  public DefaultExecControl(ExecController execController, @Nullable StallWatchdog stallWatchdog) {
     this.execController = execController;
+    this.stallWatchdog = stallWatchdog;
   }
 
   @Override
@@ -59,6 +66,11 @@ public class DefaultExecControl implements ExecControl, ExecControlInternal {
     this.interceptors = interceptors;
   }
 
+  @Override
+  public void setProfiler(@Nullable ExecProfiler profiler) {
+    this.profiler = profiler;
+  }
+
   @Override
   public Execution getExecution() throws UnmanagedThreadException {
     return ExecutionBacking.require().getExecution();
@@ -125,10 +137,10 @@ public class DefaultExecControl implements ExecControl, ExecControlInternal {
       @Override
       public void start(Action<? super Execution> action) {
         if (eventLoop.inEventLoop() && ExecutionBacking.get() == null) {
-          Exceptions.uncheck(() -> new ExecutionBacking(execController, eventLoop, interceptors, registry, action, onError, onComplete));
+          Exceptions.uncheck(() -> new ExecutionBacking(execController, eventLoop, interceptors, profiler, stallWatchdog, registry, action, onError, onComplete));
         } else {
           eventLoop.submit(() ->
-              new ExecutionBacking(execController, eventLoop, interceptors, registry, action, onError, onComplete)
+              new ExecutionBacking(execController, eventLoop, interceptors, profiler, stallWatchdog, registry, action, onError, onComplete)
           );
         }
       }
@@ -144,34 +156,13 @@ public class DefaultExecControl implements ExecControl, ExecControlInternal {
   public <T> Promise<T> blocking(final Callable<T> blockingOperation) {
     return directPromise(downstream -> {
       ExecutionBacking backing = ExecutionBacking.require();
-      backing.streamSubscribe(streamHandle ->
-          CompletableFuture.supplyAsync(
-            new Supplier<Result<T>>() {
-              Result<T> result;
-
-              @Override
-              public Result<T> get() {
-                try {
-                  ExecutionBacking.THREAD_BINDING.set(backing);
-                  backing.intercept(ExecInterceptor.ExecType.BLOCKING, backing.getAllInterceptors().iterator(), () -> {
-                    T value = blockingOperation.call();
-                    result = Result.success(value);
-                  });
-                  return result;
-                } catch (Exception e) {
-                  return Result.<T>error(e);
-                } finally {
-                  ExecutionBacking.THREAD_BINDING.remove();
-                }
-              }
-            }, execController.getBlockingExecutor()
-          ).thenAcceptAsync(v ->
-              streamHandle.complete(() ->
-                downstream.accept(v)
-              ),
-            backing.getEventLoop()
-          )
-      );
+      backing.streamSubscribe(streamHandle -> {
+        try {
+          execController.getBlockingExecutor().execute(new BlockingOperation<>(backing, streamHandle, blockingOperation, downstream));
+        } catch (RejectedExecutionException e) {
+          streamHandle.complete(() -> downstream.error(e));
+        }
+      });
     });
   }
 
@@ -242,4 +233,40 @@ public class DefaultExecControl implements ExecControl, ExecControlInternal {
     });
   }
 
+  private static class BlockingOperation<T> implements Runnable {
+    private final ExecutionBacking backing;
+    private final ExecutionBacking.StreamHandle streamHandle;
+    private final Callable<T> callable;
+    private final Downstream<? super T> downstream;
+    private final long submittedAt = System.nanoTime();
+    private Result<T> result;
+
+    private BlockingOperation(ExecutionBacking backing, ExecutionBacking.StreamHandle streamHandle, Callable<T> callable, Downstream<? super T> downstream) {
+      this.backing = backing;
+      this.streamHandle = streamHandle;
+      this.callable = callable;
+      this.downstream = downstream;
+    }
+
+    @Override
+    public void run() {
+      long startedAt = System.nanoTime();
+      try {
+        ExecutionBacking.THREAD_BINDING.set(backing);
+        backing.intercept(ExecInterceptor.ExecType.BLOCKING, backing.getAllInterceptors().iterator(), () ->
+            result = Result.success(callable.call())
+        );
+      } catch (Exception e) {
+        result = Result.error(e);
+      } finally {
+        ExecutionBacking.THREAD_BINDING.remove();
+      }
+      backing.profileBlocking(startedAt - submittedAt, System.nanoTime() - startedAt);
+
+      // completing from the blocking thread reschedules the continuation onto the execution's event loop
+      Result<T> value = result;
+      streamHandle.complete(() -> downstream.accept(value));
+    }
+  }
+
 }
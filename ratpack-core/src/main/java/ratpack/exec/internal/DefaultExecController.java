@@ -18,17 +18,19 @@ package ratpack.exec.internal;
 
 import io.netty.channel.EventLoopGroup;
 import io.netty.util.concurrent.DefaultThreadFactory;
+import ratpack.exec.BlockingExecutorStats;
+import ratpack.exec.EventLoopStallStats;
 import ratpack.exec.ExecController;
 import ratpack.util.internal.ChannelImplDetector;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 public class DefaultExecController implements ExecController {
 
-  private final ExecutorService blockingExecutor;
+  private final BlockingExecutor blockingExecutor;
+  private final StallWatchdog stallWatchdog;
   private final EventLoopGroup eventLoopGroup;
   private final DefaultExecControl control;
   private final int numThreads;
@@ -38,15 +40,28 @@ public class DefaultExecController implements ExecController {
   }
 
   public DefaultExecController(int numThreads) {
+    this(numThreads, 0, 0);
+  }
+
+  public DefaultExecController(int numThreads, int maxBlockingThreads, int blockingQueueSize) {
+    this(numThreads, maxBlockingThreads, blockingQueueSize, 0);
+  }
+
+  public DefaultExecController(int numThreads, int maxBlockingThreads, int blockingQueueSize, int stallThreshold) {
     this.numThreads = numThreads;
+    this.stallWatchdog = new StallWatchdog(stallThreshold);
     this.eventLoopGroup = ChannelImplDetector.eventLoopGroup(numThreads, new ExecControllerBindingThreadFactory(true, "ratpack-compute", Thread.MAX_PRIORITY));
-    this.blockingExecutor = Executors.newCachedThreadPool(new ExecControllerBindingThreadFactory(false, "ratpack-blocking", Thread.NORM_PRIORITY));
-    this.control = new DefaultExecControl(this);
+    ExecControllerBindingThreadFactory blockingThreadFactory = new ExecControllerBindingThreadFactory(false, "ratpack-blocking", Thread.NORM_PRIORITY);
+    this.blockingExecutor = maxBlockingThreads > 0
+      ? BlockingExecutor.bounded(maxBlockingThreads, blockingQueueSize, blockingThreadFactory)
+      : BlockingExecutor.unbounded(blockingThreadFactory);
+    this.control = new DefaultExecControl(this, stallWatchdog.isEnabled() ? stallWatchdog : null);
   }
 
   public void close() {
     eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS);
     blockingExecutor.shutdown();
+    stallWatchdog.close();
   }
 
   @Override
@@ -59,6 +74,16 @@ public class DefaultExecController implements ExecController {
     return blockingExecutor;
   }
 
+  @Override
+  public BlockingExecutorStats getBlockingExecutorStats() {
+    return blockingExecutor;
+  }
+
+  @Override
+  public EventLoopStallStats getEventLoopStallStats() {
+    return stallWatchdog;
+  }
+
   @Override
   public EventLoopGroup getEventLoopGroup() {
     return eventLoopGroup;
@@ -81,7 +106,16 @@ public class DefaultExecController implements ExecController {
     public Thread newThread(final Runnable r) {
       return super.newThread(() -> {
         ThreadBinding.bind(compute, DefaultExecController.this);
-        r.run();
+        if (compute) {
+          stallWatchdog.watchCurrentThread();
+          try {
+            r.run();
+          } finally {
+            stallWatchdog.unwatchCurrentThread();
+          }
+        } else {
+          r.run();
+        }
       });
     }
   }
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import com.google.common.collect.ImmutableList;
+import io.netty.channel.EventLoop;
+import org.reactivestreams.Subscription;
+import ratpack.exec.*;
+import ratpack.func.Action;
+import ratpack.registry.RegistrySpec;
+import ratpack.stream.Streams;
+import ratpack.stream.TransformablePublisher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+
+public class DefaultParallelBatch<T> implements ParallelBatch<T> {
+
+  private final ImmutableList<Promise<T>> promises;
+  private final int maxConcurrency;
+  private final boolean spread;
+  private final Action<? super RegistrySpec> registry;
+
+  public DefaultParallelBatch(ImmutableList<Promise<T>> promises) {
+    this(promises, Integer.MAX_VALUE, false, Action.noop());
+  }
+
+  private DefaultParallelBatch(ImmutableList<Promise<T>> promises, int maxConcurrency, boolean spread, Action<? super RegistrySpec> registry) {
+    this.promises = promises;
+    this.maxConcurrency = maxConcurrency;
+    this.spread = spread;
+    this.registry = registry;
+  }
+
+  @Override
+  public ParallelBatch<T> maxConcurrency(int maxConcurrency) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("'maxConcurrency' must be > 0");
+    }
+    return new DefaultParallelBatch<>(promises, maxConcurrency, spread, registry);
+  }
+
+  @Override
+  public ParallelBatch<T> spread() {
+    return new DefaultParallelBatch<>(promises, maxConcurrency, true, registry);
+  }
+
+  @Override
+  public ParallelBatch<T> register(Action<? super RegistrySpec> registry) {
+    return new DefaultParallelBatch<>(promises, maxConcurrency, spread, spec -> {
+      this.registry.execute(spec);
+      registry.execute(spec);
+    });
+  }
+
+  @Override
+  public Promise<List<T>> yield() {
+    return ExecControl.current().promise(f -> {
+      AtomicReferenceArray<T> values = new AtomicReferenceArray<>(promises.size());
+      AtomicBoolean failed = new AtomicBoolean();
+      new Fanout(true, (i, result) -> {
+        if (result.isError()) {
+          if (failed.compareAndSet(false, true)) {
+            f.error(result.getThrowable());
+          }
+        } else {
+          values.set(i, result.getValue());
+        }
+      }, () -> {
+        if (!failed.get()) {
+          List<T> list = new ArrayList<>(values.length());
+          for (int i = 0; i < values.length(); ++i) {
+            list.add(values.get(i));
+          }
+          f.success(list);
+        }
+      }).start();
+    });
+  }
+
+  @Override
+  public Promise<List<Result<T>>> yieldAll() {
+    return ExecControl.current().promise(f -> {
+      AtomicReferenceArray<Result<T>> results = new AtomicReferenceArray<>(promises.size());
+      new Fanout(false, results::set, () -> {
+        @SuppressWarnings("unchecked") Result<T>[] array = new Result[results.length()];
+        for (int i = 0; i < array.length; ++i) {
+          array[i] = results.get(i);
+        }
+        f.success(Arrays.asList(array));
+      }).start();
+    });
+  }
+
+  @Override
+  public TransformablePublisher<T> publisher() {
+    return Streams.buffer(subscriber -> {
+      Object lock = new Object();
+      AtomicBoolean stopped = new AtomicBoolean();
+      Fanout fanout = new Fanout(true, (i, result) -> {
+        synchronized (lock) {
+          if (!stopped.get()) {
+            if (result.isError()) {
+              stopped.set(true);
+              subscriber.onError(result.getThrowable());
+            } else {
+              subscriber.onNext(result.getValue());
+            }
+          }
+        }
+      }, () -> {
+        synchronized (lock) {
+          if (stopped.compareAndSet(false, true)) {
+            subscriber.onComplete();
+          }
+        }
+      });
+
+      subscriber.onSubscribe(new Subscription() {
+        @Override
+        public void request(long n) {
+          // the downstream buffer requests everything up front
+        }
+
+        @Override
+        public void cancel() {
+          stopped.set(true);
+          fanout.stop();
+        }
+      });
+
+      fanout.start();
+    });
+  }
+
+  /**
+   * Forks an execution for each promise, keeping at most {@link #maxConcurrency} in flight.
+   * <p>
+   * Each branch reports exactly once, from the thread of its execution, and the next promise is launched as each branch reports.
+   */
+  private class Fanout {
+
+    private final ExecController execController = ExecController.require();
+    private final EventLoop eventLoop;
+    private final boolean failFast;
+    private final BiConsumer<Integer, Result<T>> onResult;
+    private final Runnable onDone;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger remaining = new AtomicInteger(promises.size());
+    private final AtomicBoolean stopped = new AtomicBoolean();
+
+    Fanout(boolean failFast, BiConsumer<Integer, Result<T>> onResult, Runnable onDone) {
+      ExecutionBacking current = ExecutionBacking.get();
+      this.eventLoop = current == null ? execController.getEventLoopGroup().next() : current.getEventLoop();
+      this.failFast = failFast;
+      this.onResult = onResult;
+      this.onDone = onDone;
+    }
+
+    void start() {
+      if (promises.isEmpty()) {
+        onDone.run();
+        return;
+      }
+
+      int initial = Math.min(maxConcurrency, promises.size());
+      for (int i = 0; i < initial; ++i) {
+        launch();
+      }
+    }
+
+    void stop() {
+      stopped.set(true);
+    }
+
+    private void launch() {
+      int i = next.getAndIncrement();
+      if (i >= promises.size() || stopped.get()) {
+        return;
+      }
+
+      AtomicBoolean reported = new AtomicBoolean();
+      BiConsumer<Integer, Result<T>> reportOnce = (index, result) -> {
+        if (reported.compareAndSet(false, true)) {
+          branchDone(index, result);
+        }
+      };
+
+      execController.getControl().fork()
+        .eventLoop(spread ? execController.getEventLoopGroup().next() : eventLoop)
+        .register(registry)
+        .onError((execution, throwable) -> reportOnce.accept(i, Result.error(throwable)))
+        .onComplete(execution -> reportOnce.accept(i, Result.error(new IllegalStateException("promise " + i + " of parallel batch completed without a value"))))
+        .start(execution -> promises.get(i).result(result -> reportOnce.accept(i, result)));
+    }
+
+    private void branchDone(int i, Result<T> result) {
+      if (stopped.get()) {
+        return;
+      }
+
+      onResult.accept(i, result);
+      if (failFast && result.isError()) {
+        stopped.set(true);
+      } else if (remaining.decrementAndGet() == 0) {
+        onDone.run();
+      } else {
+        launch();
+      }
+    }
+  }
+
+}
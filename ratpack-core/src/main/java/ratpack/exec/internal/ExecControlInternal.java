@@ -17,11 +17,15 @@
 package ratpack.exec.internal;
 
 import com.google.common.collect.ImmutableList;
+import ratpack.api.Nullable;
 import ratpack.exec.ExecControl;
 import ratpack.exec.ExecInterceptor;
+import ratpack.exec.ExecProfiler;
 
 public interface ExecControlInternal extends ExecControl {
 
   void setDefaultInterceptors(ImmutableList<? extends ExecInterceptor> interceptors);
 
+  void setProfiler(@Nullable ExecProfiler profiler);
+
 }
@@ -22,6 +22,7 @@ import com.google.common.collect.Lists;
 import io.netty.channel.EventLoop;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ratpack.api.Nullable;
 import ratpack.exec.*;
 import ratpack.func.Action;
 import ratpack.func.BiAction;
@@ -37,9 +38,13 @@ public class ExecutionBacking {
 
   public final static ThreadLocal<ExecutionBacking> THREAD_BINDING = new ThreadLocal<>();
 
+  private static final long NOT_QUEUED = Long.MIN_VALUE;
+
   private final ImmutableList<? extends ExecInterceptor> globalInterceptors;
   private final ImmutableList<? extends ExecInterceptor> registryInterceptors;
   private List<ExecInterceptor> adhocInterceptors;
+  private final ExecProfiler profiler;
+  private final StallWatchdog stallWatchdog;
 
   // The “stream” must be a concurrent safe collection because stream events can arrive from other threads
   // All other collections do not need to be concurrent safe because they are only accessed on the event loop
@@ -57,12 +62,16 @@ public class ExecutionBacking {
     ExecController controller,
     EventLoop eventLoop,
     ImmutableList<? extends ExecInterceptor> globalInterceptors,
+    @Nullable ExecProfiler profiler,
+    @Nullable StallWatchdog stallWatchdog,
     Action<? super RegistrySpec> registry,
     Action<? super Execution> action,
     BiAction<? super Execution, ? super Throwable> onError,
     Action<? super Execution> onComplete
   ) throws Exception {
     this.eventLoop = eventLoop;
+    this.profiler = profiler;
+    this.stallWatchdog = stallWatchdog;
     this.onError = onError;
     this.onComplete = onComplete;
     this.execution = new DefaultExecution(eventLoop, controller, closeables);
@@ -171,10 +180,23 @@ public class ExecutionBacking {
   }
 
   public void eventLoopDrain() {
-    eventLoop.execute(this::drain);
+    scheduleDrain();
+  }
+
+  private void scheduleDrain() {
+    if (profiler == null) {
+      eventLoop.execute(this::drain);
+    } else {
+      long scheduledAt = System.nanoTime();
+      eventLoop.execute(() -> drain(scheduledAt));
+    }
   }
 
   private void drain() {
+    drain(NOT_QUEUED);
+  }
+
+  private void drain(long scheduledAt) {
     if (done) {
       return;
     }
@@ -186,11 +208,12 @@ public class ExecutionBacking {
 
     if (!eventLoop.inEventLoop() || threadBoundExecutionBacking != null) {
       if (!done) {
-        eventLoop.execute(this::drain);
+        scheduleDrain();
       }
       return;
     }
 
+    StallWatchdog.Watch watch = stallWatchdog == null ? null : stallWatchdog.currentWatch();
     try {
       THREAD_BINDING.set(this);
       while (true) {
@@ -211,8 +234,21 @@ public class ExecutionBacking {
           }
         } else {
           if (segment instanceof UserCode) {
+            if (watch != null) {
+              watch.start(this);
+            }
             try {
-              intercept(ExecInterceptor.ExecType.COMPUTE, segment);
+              if (profiler == null) {
+                intercept(ExecInterceptor.ExecType.COMPUTE, segment);
+              } else {
+                long startedAt = System.nanoTime();
+                try {
+                  intercept(ExecInterceptor.ExecType.COMPUTE, segment);
+                } finally {
+                  profileCompute(scheduledAt == NOT_QUEUED ? 0 : startedAt - scheduledAt, System.nanoTime() - startedAt);
+                  scheduledAt = NOT_QUEUED;
+                }
+              }
             } catch (final Throwable e) {
               Deque<Block> event = stream.element();
               event.clear();
@@ -226,6 +262,10 @@ public class ExecutionBacking {
                   });
                 }
               });
+            } finally {
+              if (watch != null) {
+                watch.stop();
+              }
             }
           } else {
             try {
@@ -241,6 +281,24 @@ public class ExecutionBacking {
     }
   }
 
+  private void profileCompute(long queuedNanos, long runNanos) {
+    try {
+      profiler.compute(execution, queuedNanos, runNanos);
+    } catch (Throwable e) {
+      LOGGER.warn("exception raised by exec profiler " + profiler, e);
+    }
+  }
+
+  void profileBlocking(long queuedNanos, long runNanos) {
+    if (profiler != null) {
+      try {
+        profiler.blocking(execution, queuedNanos, runNanos);
+      } catch (Throwable e) {
+        LOGGER.warn("exception raised by exec profiler " + profiler, e);
+      }
+    }
+  }
+
   private void intercept(ExecInterceptor.ExecType execType, Block segment) throws Exception {
     Iterator<? extends ExecInterceptor> iterator = getAllInterceptors().iterator();
     intercept(execType, iterator, segment);
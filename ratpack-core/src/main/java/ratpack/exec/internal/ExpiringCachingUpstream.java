@@ -0,0 +1,179 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import ratpack.api.Nullable;
+import ratpack.exec.*;
+import ratpack.func.Predicate;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A cache of an upstream's result that may expire, be refreshed ahead of expiry, or be conditional on the result.
+ * <p>
+ * Subscribers that miss the cache coalesce onto a single in flight connection to the upstream, regardless of which execution they belong to.
+ * The upstream is always connected to in a forked execution so that its result can be handed to subscribers of any execution,
+ * and so that a refresh ahead of expiry does not hold up the subscriber that triggered it.
+ */
+public class ExpiringCachingUpstream<T> implements Upstream<T> {
+
+  private final Upstream<? extends T> upstream;
+  private final Predicate<? super Result<T>> cacheIf;
+  private final long timeToLiveNanos;
+  private final long refreshAfterNanos;
+
+  private final AtomicReference<Entry<T>> entry = new AtomicReference<>();
+  private final AtomicReference<Flight> inFlight = new AtomicReference<>();
+
+  /**
+   * Constructor.
+   *
+   * @param upstream the upstream to cache the result of
+   * @param cacheIf whether a result should be cached
+   * @param timeToLive how long a cached result is served for, or {@code null} to serve it forever
+   * @param refreshAfter how old a cached result must be before it is refreshed ahead of expiry, or {@code null} to never refresh
+   */
+  public ExpiringCachingUpstream(Upstream<? extends T> upstream, Predicate<? super Result<T>> cacheIf, @Nullable Duration timeToLive, @Nullable Duration refreshAfter) {
+    this.upstream = upstream;
+    this.cacheIf = cacheIf;
+    this.timeToLiveNanos = timeToLive == null ? Long.MAX_VALUE : timeToLive.toNanos();
+    this.refreshAfterNanos = refreshAfter == null ? Long.MAX_VALUE : refreshAfter.toNanos();
+  }
+
+  private static class Entry<T> {
+    final Result<T> result;
+    final long createdAt;
+
+    Entry(Result<T> result, long createdAt) {
+      this.result = result;
+      this.createdAt = createdAt;
+    }
+
+    boolean olderThan(long nanos, long now) {
+      return nanos != Long.MAX_VALUE && now - createdAt >= nanos;
+    }
+  }
+
+  private class Job {
+    final Downstream<? super T> downstream;
+    final ExecutionBacking.StreamHandle streamHandle;
+
+    private Job(Downstream<? super T> downstream, ExecutionBacking.StreamHandle streamHandle) {
+      this.downstream = downstream;
+      this.streamHandle = streamHandle;
+    }
+  }
+
+  private class Flight {
+    final Queue<Job> waiting = new ConcurrentLinkedQueue<>();
+    final AtomicBoolean draining = new AtomicBoolean();
+    volatile ExecResult<T> result;
+
+    void add(Job job) {
+      waiting.add(job);
+      if (result != null) {
+        tryDrain();
+      }
+    }
+
+    void complete(ExecResult<T> result) {
+      this.result = result;
+      tryDrain();
+    }
+
+    private void tryDrain() {
+      if (draining.compareAndSet(false, true)) {
+        try {
+          Job job = waiting.poll();
+          while (job != null) {
+            Job finalJob = job;
+            job.streamHandle.complete(() -> finalJob.downstream.accept(result));
+            job = waiting.poll();
+          }
+        } finally {
+          draining.set(false);
+        }
+      }
+      if (!draining.get() && !waiting.isEmpty()) {
+        tryDrain();
+      }
+    }
+  }
+
+  @Override
+  public void connect(Downstream<? super T> downstream) throws Exception {
+    ExecutionBacking backing = ExecutionBacking.require();
+    Entry<T> cached = entry.get();
+    long now = System.nanoTime();
+
+    if (cached != null && !cached.olderThan(timeToLiveNanos, now)) {
+      if (cached.olderThan(refreshAfterNanos, now)) {
+        join(backing, null);
+      }
+      downstream.accept(cached.result);
+    } else {
+      backing.streamSubscribe(streamHandle -> join(backing, new Job(downstream, streamHandle)));
+    }
+  }
+
+  private void join(ExecutionBacking backing, @Nullable Job job) {
+    while (true) {
+      Flight flight = inFlight.get();
+      if (flight != null) {
+        if (job != null) {
+          flight.add(job);
+        }
+        return;
+      }
+
+      Flight newFlight = new Flight();
+      if (inFlight.compareAndSet(null, newFlight)) {
+        if (job != null) {
+          newFlight.add(job);
+        }
+        fetch(backing, newFlight);
+        return;
+      }
+    }
+  }
+
+  private void fetch(ExecutionBacking backing, Flight flight) {
+    ForkedUpstream.<T>connect(ExecController.require().getControl(), backing.getEventLoop(), upstream, result -> {
+      if (!result.isComplete() && shouldCache(result)) {
+        // don't retain the forked execution
+        Result<T> detached = result.isSuccess() ? Result.success(result.getValue()) : Result.<T>error(result.getThrowable());
+        entry.set(new Entry<>(detached, System.nanoTime()));
+      }
+      inFlight.set(null);
+      flight.complete(result);
+    });
+  }
+
+  private boolean shouldCache(ExecResult<T> result) {
+    try {
+      return cacheIf.apply(result);
+    } catch (Exception e) {
+      ExecutionBacking.LOGGER.warn("Exception thrown by promise cache predicate, not caching result", e);
+      return false;
+    }
+  }
+
+}
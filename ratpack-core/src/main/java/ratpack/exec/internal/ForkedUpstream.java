@@ -0,0 +1,67 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import io.netty.channel.EventLoop;
+import ratpack.exec.*;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Connects to an upstream in a forked execution, so that the current execution can move on without waiting for it.
+ * <p>
+ * An execution can only wait on one thing at a time, so operations that race an upstream against something else
+ * (e.g. a timer, or another attempt) connect to it in its own execution, and only relay its result if it wins the race.
+ */
+abstract class ForkedUpstream {
+
+  private ForkedUpstream() {
+  }
+
+  static <T> void connect(ExecControl execControl, EventLoop eventLoop, Upstream<? extends T> upstream, Consumer<? super ExecResult<T>> onResult) {
+    AtomicBoolean reported = new AtomicBoolean();
+    Consumer<ExecResult<T>> reportOnce = result -> {
+      if (reported.compareAndSet(false, true)) {
+        onResult.accept(result);
+      }
+    };
+
+    execControl.fork()
+      .eventLoop(eventLoop)
+      .onError((execution, throwable) -> reportOnce.accept(new ResultBackedExecResult<>(Result.<T>error(throwable), execution)))
+      .start(execution ->
+          upstream.connect(new Downstream<T>() {
+            @Override
+            public void success(T value) {
+              reportOnce.accept(new ResultBackedExecResult<>(Result.success(value), execution));
+            }
+
+            @Override
+            public void error(Throwable throwable) {
+              reportOnce.accept(new ResultBackedExecResult<>(Result.<T>error(throwable), execution));
+            }
+
+            @Override
+            public void complete() {
+              reportOnce.accept(new CompleteExecResult<>(execution));
+            }
+          })
+      );
+  }
+
+}
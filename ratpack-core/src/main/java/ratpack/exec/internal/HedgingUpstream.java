@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import io.netty.channel.EventLoop;
+import ratpack.exec.*;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class HedgingUpstream<T> implements Upstream<T> {
+
+  private final Upstream<? extends T> upstream;
+  private final Duration after;
+  private final int maxAttempts;
+
+  public HedgingUpstream(Upstream<? extends T> upstream, Duration after, int maxAttempts) {
+    this.upstream = upstream;
+    this.after = after;
+    this.maxAttempts = maxAttempts;
+  }
+
+  @Override
+  public void connect(Downstream<? super T> downstream) throws Exception {
+    ExecutionBacking backing = ExecutionBacking.require();
+    ExecControl execControl = ExecController.require().getControl();
+    backing.streamSubscribe(streamHandle ->
+        new Race(execControl, backing.getEventLoop(), streamHandle, downstream).launch()
+    );
+  }
+
+  // The attempts are forked onto the same event loop as the timer, so all of this happens on one thread
+  private class Race {
+    private final ExecControl execControl;
+    private final EventLoop eventLoop;
+    private final ExecutionBacking.StreamHandle streamHandle;
+    private final Downstream<? super T> downstream;
+
+    private int started;
+    private int pending;
+    private boolean done;
+    private ScheduledFuture<?> hedgeTimer;
+
+    private Race(ExecControl execControl, EventLoop eventLoop, ExecutionBacking.StreamHandle streamHandle, Downstream<? super T> downstream) {
+      this.execControl = execControl;
+      this.eventLoop = eventLoop;
+      this.streamHandle = streamHandle;
+      this.downstream = downstream;
+    }
+
+    private void launch() {
+      ++started;
+      ++pending;
+      cancelHedge();
+      if (started < maxAttempts) {
+        hedgeTimer = eventLoop.schedule(() -> {
+          if (!done) {
+            launch();
+          }
+        }, after.toNanos(), TimeUnit.NANOSECONDS);
+      }
+      ForkedUpstream.<T>connect(execControl, eventLoop, upstream, this::onResult);
+    }
+
+    private void onResult(ExecResult<T> result) {
+      --pending;
+      if (done) {
+        return;
+      }
+
+      if (result.isError()) {
+        if (pending > 0) {
+          // another attempt may still succeed
+          return;
+        } else if (started < maxAttempts) {
+          // no need to wait for the hedge delay when nothing is in flight
+          launch();
+          return;
+        }
+      }
+
+      done = true;
+      cancelHedge();
+      streamHandle.complete(() -> downstream.accept(result));
+    }
+
+    private void cancelHedge() {
+      if (hedgeTimer != null) {
+        hedgeTimer.cancel(false);
+        hedgeTimer = null;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import ratpack.exec.Downstream;
+import ratpack.exec.RetryPolicy;
+import ratpack.exec.Upstream;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+public class RetryingUpstream<T> implements Upstream<T> {
+
+  private final Upstream<? extends T> upstream;
+  private final RetryPolicy retryPolicy;
+
+  public RetryingUpstream(Upstream<? extends T> upstream, RetryPolicy retryPolicy) {
+    this.upstream = upstream;
+    this.retryPolicy = retryPolicy;
+  }
+
+  @Override
+  public void connect(Downstream<? super T> downstream) throws Exception {
+    attempt(downstream, 1);
+  }
+
+  private void attempt(Downstream<? super T> downstream, int attempt) throws Exception {
+    upstream.connect(new Downstream<T>() {
+      @Override
+      public void success(T value) {
+        downstream.success(value);
+      }
+
+      @Override
+      public void error(Throwable throwable) {
+        Duration delay;
+        try {
+          delay = retryPolicy.delay(attempt, throwable);
+        } catch (Throwable e) {
+          e.addSuppressed(throwable);
+          downstream.error(e);
+          return;
+        }
+
+        if (delay == null) {
+          downstream.error(throwable);
+        } else {
+          // the previous attempt has completed, so the execution can wait for the next without anything else in flight
+          ExecutionBacking backing = ExecutionBacking.require();
+          backing.streamSubscribe(streamHandle ->
+              backing.getEventLoop().schedule(() ->
+                  streamHandle.complete(() -> attempt(downstream, attempt + 1)),
+                delay.toNanos(), TimeUnit.NANOSECONDS
+              )
+          );
+        }
+      }
+
+      @Override
+      public void complete() {
+        downstream.complete();
+      }
+    });
+  }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.api.Nullable;
+import ratpack.exec.EventLoopStallStats;
+import ratpack.exec.Execution;
+import ratpack.http.Request;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detects execution segments that run on an event loop for longer than a threshold.
+ * <p>
+ * Each event loop thread publishes when it starts and finishes a segment, via its {@link Watch}.
+ * A single sampling thread periodically checks for segments that have been running for longer than the threshold,
+ * and reports each such segment once, while it is still running so that the stack of the thread shows the culprit.
+ */
+public class StallWatchdog implements EventLoopStallStats {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StallWatchdog.class);
+
+  private final long thresholdNanos;
+  private final Set<Watch> watches = Sets.newConcurrentHashSet();
+  private final ThreadLocal<Watch> currentWatch = new ThreadLocal<>();
+  private final LongAdder stallCount = new LongAdder();
+  private final AtomicLong maxStallNanos = new AtomicLong();
+  private final ScheduledExecutorService sampler;
+
+  public StallWatchdog(int thresholdMillis) {
+    this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    if (thresholdNanos > 0) {
+      long periodNanos = Math.max(thresholdNanos / 2, TimeUnit.MILLISECONDS.toNanos(1));
+      this.sampler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ratpack-stall-watchdog").build());
+      this.sampler.scheduleAtFixedRate(this::sample, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    } else {
+      this.sampler = null;
+    }
+  }
+
+  public boolean isEnabled() {
+    return sampler != null;
+  }
+
+  public void close() {
+    if (sampler != null) {
+      sampler.shutdownNow();
+    }
+  }
+
+  /**
+   * Registers the current thread as an event loop thread to be watched.
+   */
+  public void watchCurrentThread() {
+    if (isEnabled()) {
+      Watch watch = new Watch(Thread.currentThread());
+      currentWatch.set(watch);
+      watches.add(watch);
+    }
+  }
+
+  public void unwatchCurrentThread() {
+    Watch watch = currentWatch.get();
+    if (watch != null) {
+      currentWatch.remove();
+      watches.remove(watch);
+    }
+  }
+
+  /**
+   * The watch of the current thread.
+   *
+   * @return the watch of the current thread, or {@code null} if it is not an event loop thread or stalls are not being detected
+   */
+  @Nullable
+  public Watch currentWatch() {
+    return currentWatch.get();
+  }
+
+  public final class Watch {
+    private final Thread thread;
+    private volatile ExecutionBacking backing;
+    private volatile long startedAt;
+    private volatile long reportedStartedAt;
+
+    private Watch(Thread thread) {
+      this.thread = thread;
+    }
+
+    public void start(ExecutionBacking backing) {
+      this.backing = backing;
+      long now = System.nanoTime();
+      // zero means idle
+      this.startedAt = now == 0 ? 1 : now;
+    }
+
+    public void stop() {
+      long started = startedAt;
+      startedAt = 0;
+      backing = null;
+      if (started == reportedStartedAt) {
+        maxStallNanos.accumulateAndGet(System.nanoTime() - started, Math::max);
+      }
+    }
+  }
+
+  private void sample() {
+    long now = System.nanoTime();
+    for (Watch watch : watches) {
+      long started = watch.startedAt;
+      if (started != 0 && now - started >= thresholdNanos && watch.reportedStartedAt != started) {
+        ExecutionBacking backing = watch.backing;
+        watch.reportedStartedAt = started;
+        stallCount.increment();
+        report(watch.thread, now - started, backing);
+      }
+    }
+  }
+
+  private void report(Thread thread, long runningNanos, @Nullable ExecutionBacking backing) {
+    Throwable stack = new Throwable("Stack of stalled thread " + thread.getName());
+    stack.setStackTrace(thread.getStackTrace());
+    LOGGER.warn(String.format(
+      "Execution segment has been running on %s for %d ms, which exceeds the stall threshold of %d ms%s - no other work can be done by this event loop until it finishes (blocking operations should use ExecControl.blocking())",
+      thread.getName(), TimeUnit.NANOSECONDS.toMillis(runningNanos), TimeUnit.NANOSECONDS.toMillis(thresholdNanos), describe(backing)
+    ), stack);
+  }
+
+  private static String describe(@Nullable ExecutionBacking backing) {
+    if (backing == null) {
+      return "";
+    }
+    try {
+      // The registry is read from this thread while the execution may be using it, so this is best effort
+      Execution execution = backing.getExecution();
+      Optional<Request> request = execution.maybeGet(Request.class);
+      return request.map(r -> " while handling " + r.getMethod().getName() + " " + r.getUri()).orElse("");
+    } catch (RuntimeException e) {
+      return "";
+    }
+  }
+
+  @Override
+  public Duration getThreshold() {
+    return Duration.ofNanos(thresholdNanos);
+  }
+
+  @Override
+  public long getStallCount() {
+    return stallCount.sum();
+  }
+
+  @Override
+  public int getStalledCount() {
+    long now = System.nanoTime();
+    int stalled = 0;
+    for (Watch watch : watches) {
+      long started = watch.startedAt;
+      if (started != 0 && now - started >= thresholdNanos) {
+        ++stalled;
+      }
+    }
+    return stalled;
+  }
+
+  @Override
+  public Duration getMaxStall() {
+    return Duration.ofNanos(maxStallNanos.get());
+  }
+
+}
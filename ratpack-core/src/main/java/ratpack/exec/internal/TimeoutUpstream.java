@@ -0,0 +1,60 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import ratpack.exec.Downstream;
+import ratpack.exec.ExecController;
+import ratpack.exec.Upstream;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TimeoutUpstream<T> implements Upstream<T> {
+
+  private final Upstream<? extends T> upstream;
+  private final Duration timeout;
+
+  public TimeoutUpstream(Upstream<? extends T> upstream, Duration timeout) {
+    this.upstream = upstream;
+    this.timeout = timeout;
+  }
+
+  @Override
+  public void connect(Downstream<? super T> downstream) throws Exception {
+    ExecutionBacking backing = ExecutionBacking.require();
+    ExecController execController = ExecController.require();
+    backing.streamSubscribe(streamHandle -> {
+      AtomicBoolean done = new AtomicBoolean();
+      ScheduledFuture<?> timer = backing.getEventLoop().schedule(() -> {
+        if (done.compareAndSet(false, true)) {
+          streamHandle.complete(() -> downstream.error(new TimeoutException("Promise did not complete within " + timeout)));
+        }
+      }, timeout.toNanos(), TimeUnit.NANOSECONDS);
+
+      ForkedUpstream.<T>connect(execController.getControl(), backing.getEventLoop(), upstream, result -> {
+        if (done.compareAndSet(false, true)) {
+          timer.cancel(false);
+          streamHandle.complete(() -> downstream.accept(result));
+        }
+      });
+    });
+  }
+
+}
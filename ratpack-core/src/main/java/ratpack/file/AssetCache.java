@@ -0,0 +1,71 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.file;
+
+import ratpack.file.internal.DefaultAssetCache;
+import ratpack.file.internal.DefaultAssetCacheSpec;
+import ratpack.func.Action;
+
+/**
+ * An in memory cache of small, frequently requested static assets.
+ * <p>
+ * If an asset cache is available in the context registry, the handlers added by {@link ratpack.handling.Chain#assets(String, String...)} use it.
+ * Assets that are in the cache are sent directly from memory, without any file system access or blocking operations.
+ * Assets that are not in the cache are sent from the file system as usual, and are added to the cache if they are small enough.
+ * <p>
+ * The content, attributes, entity tag and content type of each asset are cached.
+ * Entries expire after {@link AssetCacheSpec#timeToLive(java.time.Duration) a period of time},
+ * which bounds how long changes to the files can go unnoticed.
+ * {@link #invalidateAll()} can be used to discard all entries immediately, for example after deploying new assets.
+ * <p>
+ * To use an asset cache, add one created by {@link #assetCache(Action)} to the server registry as an {@code AssetCache}.
+ */
+public interface AssetCache {
+
+  /**
+   * Creates a new asset cache.
+   *
+   * @param config the configuration of the cache
+   * @return a new asset cache
+   * @throws Exception any thrown by {@code config}
+   */
+  static AssetCache assetCache(Action<? super AssetCacheSpec> config) throws Exception {
+    DefaultAssetCacheSpec spec = new DefaultAssetCacheSpec();
+    config.execute(spec);
+    return new DefaultAssetCache(spec.getMaxEntries(), spec.getMaxBytes(), spec.getMaxEntrySize(), spec.getTimeToLive());
+  }
+
+  /**
+   * The number of assets currently in the cache.
+   *
+   * @return the number of assets currently in the cache
+   */
+  long getSize();
+
+  /**
+   * The total size in bytes of the content of the assets currently in the cache.
+   *
+   * @return the total size in bytes of the content of the assets currently in the cache
+   */
+  long getBytes();
+
+  /**
+   * Discards all cached assets.
+   */
+  void invalidateAll();
+
+}
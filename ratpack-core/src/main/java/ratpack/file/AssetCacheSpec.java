@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.file;
+
+import java.time.Duration;
+
+/**
+ * The configuration of an {@link AssetCache}.
+ *
+ * @see AssetCache#assetCache(ratpack.func.Action)
+ */
+public interface AssetCacheSpec {
+
+  /**
+   * The default max number of cached assets, {@value}.
+   */
+  int DEFAULT_MAX_ENTRIES = 1024;
+
+  /**
+   * The default max total size in bytes of cached assets, {@value}.
+   */
+  long DEFAULT_MAX_BYTES = 16 * 1024 * 1024;
+
+  /**
+   * The default max size in bytes of an individual asset that can be cached, {@value}.
+   */
+  int DEFAULT_MAX_ENTRY_SIZE = 64 * 1024;
+
+  /**
+   * The default time that an asset is cached for.
+   */
+  Duration DEFAULT_TIME_TO_LIVE = Duration.ofSeconds(10);
+
+  /**
+   * The max number of assets that will be cached.
+   * <p>
+   * When the cache is full, the least recently used assets are discarded.
+   * <p>
+   * Defaults to {@link #DEFAULT_MAX_ENTRIES}.
+   *
+   * @param maxEntries the max number of cached assets
+   * @return {@code this}
+   */
+  AssetCacheSpec maxEntries(int maxEntries);
+
+  /**
+   * The max total size in bytes of the assets that will be cached.
+   * <p>
+   * When the cache is full, the least recently used assets are discarded.
+   * <p>
+   * Defaults to {@link #DEFAULT_MAX_BYTES}.
+   *
+   * @param maxBytes the max total size in bytes of cached assets
+   * @return {@code this}
+   */
+  AssetCacheSpec maxBytes(long maxBytes);
+
+  /**
+   * The max size in bytes of an individual asset that will be cached.
+   * <p>
+   * Larger assets are always sent from the file system.
+   * <p>
+   * Defaults to {@link #DEFAULT_MAX_ENTRY_SIZE}.
+   *
+   * @param maxEntrySize the max size in bytes of an individual cached asset
+   * @return {@code this}
+   */
+  AssetCacheSpec maxEntrySize(int maxEntrySize);
+
+  /**
+   * The time that an asset is cached for, after which it is read from the file system again.
+   * <p>
+   * Changes to a file are not reflected in responses until the cached asset expires.
+   * <p>
+   * Defaults to {@link #DEFAULT_TIME_TO_LIVE}.
+   *
+   * @param timeToLive the time that an asset is cached for
+   * @return {@code this}
+   */
+  AssetCacheSpec timeToLive(Duration timeToLive);
+
+}
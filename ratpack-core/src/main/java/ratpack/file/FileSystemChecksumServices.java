@@ -16,6 +16,7 @@
 
 package ratpack.file;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import ratpack.file.internal.DefaultFileSystemChecksumService;
 import ratpack.file.internal.FileSystemChecksumServicePopulater;
 import ratpack.file.checksummer.Adler32Checksummer;
@@ -26,6 +27,7 @@ import ratpack.server.ServerConfig;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.nio.file.Files;
 
@@ -36,6 +38,9 @@ import java.nio.file.Files;
  *  Checksum service is backed by either predefined checksum calculation function (Noop. Adler32, MD5), or custom function.
  *  Custom function has to be provided in the form of {@code Function<InputStream, String>} (class implementing this interface or lambda expression).
  *  If checksummer function is not provided then Noop (no operation) calculation method is used. It does nothing, returns empty string as checksum.
+ *  <p>
+ *  Checksums are remembered until the size or modification time of the file changes.
+ *  When not in development mode, all matching files are checksummed in the background when the service is created, using a thread per core.
  *
  *
  * <pre>{@code
@@ -75,6 +80,9 @@ import java.nio.file.Files;
  */
 public abstract class FileSystemChecksumServices {
 
+  // The number of checksums remembered in development, where they are recalculated when files change
+  private static final long MAX_CACHED_CHECKSUMS = 1024;
+
   private FileSystemChecksumServices() {
   }
 
@@ -122,12 +130,16 @@ public abstract class FileSystemChecksumServices {
     if (fsb == null || !Files.isDirectory(fsb.getFile())) {
       throw new IllegalArgumentException("Non existing path related to server's base dir.");
     }
-    DefaultFileSystemChecksumService service = new DefaultFileSystemChecksumService(fsb, checksummer, exts);
     if (serverConfig.isDevelopment()) {
-      return service;
+      return new DefaultFileSystemChecksumService(fsb, checksummer, exts, MAX_CACHED_CHECKSUMS);
     } else {
+      // files are assumed not to change in production, so are cached by path alone
+      DefaultFileSystemChecksumService service = new DefaultFileSystemChecksumService(fsb, checksummer, exts, 0);
       CachingFileSystemChecksumService cachingService = new CachingFileSystemChecksumService(service);
-      new FileSystemChecksumServicePopulater(fsb.getFile(), exts, cachingService, Executors.newFixedThreadPool(5), 4).start();
+      int workers = Runtime.getRuntime().availableProcessors();
+      ExecutorService executor = Executors.newFixedThreadPool(workers + 1, new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ratpack-checksum-%d").build());
+      new FileSystemChecksumServicePopulater(fsb.getFile(), exts, cachingService, executor, workers).start();
+      executor.shutdown();
       return cachingService;
     }
   }
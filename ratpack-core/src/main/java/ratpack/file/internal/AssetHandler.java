@@ -17,9 +17,12 @@
 package ratpack.file.internal;
 
 import com.google.common.collect.ImmutableList;
+import ratpack.api.Nullable;
+import ratpack.file.AssetCache;
 import ratpack.handling.Context;
 import ratpack.handling.Handler;
 import ratpack.http.Request;
+import ratpack.http.internal.HttpHeaderConstants;
 import ratpack.path.PathBinding;
 
 import java.net.URI;
@@ -27,6 +30,7 @@ import java.net.URISyntaxException;
 import java.nio.file.Path;
 
 import static ratpack.file.internal.DefaultFileRenderer.readAttributes;
+import static ratpack.file.internal.DefaultFileRenderer.sendCached;
 import static ratpack.file.internal.DefaultFileRenderer.sendFile;
 import static ratpack.util.Exceptions.uncheck;
 
@@ -61,11 +65,20 @@ public class AssetHandler implements Handler {
   }
 
   private void servePath(final Context context, final Path file) throws Exception {
+    DefaultAssetCache cache = assetCache(context);
+    if (cache != null) {
+      CachedAsset cached = cache.get(file, context.getRequest().getHeaders().get(HttpHeaderConstants.ACCEPT_ENCODING));
+      if (cached != null) {
+        sendCached(context, cached);
+        return;
+      }
+    }
+
     readAttributes(context, file, attributes -> {
       if (attributes == null) {
         context.next();
       } else if (attributes.isRegularFile()) {
-        sendFile(context, file, attributes);
+        sendFile(context, file, attributes, cache);
       } else if (attributes.isDirectory()) {
         maybeSendFile(context, file, 0);
       } else {
@@ -84,7 +97,7 @@ public class AssetHandler implements Handler {
         if (attributes != null && attributes.isRegularFile()) {
           String path = context.getRequest().getPath();
           if (path.endsWith("/") || path.isEmpty()) {
-            sendFile(context, indexFile, attributes);
+            sendFile(context, indexFile, attributes, assetCache(context));
           } else {
             context.redirect(currentUriWithTrailingSlash(context));
           }
@@ -95,6 +108,14 @@ public class AssetHandler implements Handler {
     }
   }
 
+  @Nullable
+  private static DefaultAssetCache assetCache(Context context) {
+    return context.maybeGet(AssetCache.class)
+      .filter(DefaultAssetCache.class::isInstance)
+      .map(DefaultAssetCache.class::cast)
+      .orElse(null);
+  }
+
   private String currentUriWithTrailingSlash(Context context) {
     Request request = context.getRequest();
     String redirectUri = "/" + request.getPath() + "/";
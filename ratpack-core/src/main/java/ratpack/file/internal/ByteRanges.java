@@ -0,0 +1,152 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.file.internal;
+
+import com.google.common.collect.Lists;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parses the byte ranges of a {@code Range} request header, as per RFC 7233.
+ */
+public abstract class ByteRanges {
+
+  /**
+   * The max number of ranges that will be served in a single response, beyond which the whole representation is sent.
+   */
+  public static final int MAX_RANGES = 16;
+
+  private static final String BYTES_UNIT = "bytes=";
+
+  private ByteRanges() {
+  }
+
+  /**
+   * A range of bytes, with inclusive bounds.
+   */
+  public static final class Range {
+    private final long start;
+    private final long end;
+
+    public Range(long start, long end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    public long getStart() {
+      return start;
+    }
+
+    public long getEnd() {
+      return end;
+    }
+
+    public long getLength() {
+      return end - start + 1;
+    }
+
+    public String toContentRange(long size) {
+      return "bytes " + start + "-" + end + "/" + size;
+    }
+  }
+
+  /**
+   * Parses the given header value, for a representation of the given size.
+   * <p>
+   * Overlapping and adjacent ranges are coalesced, and the result is in ascending order.
+   *
+   * @param header the value of the range header
+   * @param size the size of the representation
+   * @return the satisfiable ranges, an empty list if none are satisfiable, or {@code null} if the header is to be ignored
+   */
+  public static List<Range> parse(String header, long size) {
+    if (size == 0 || !header.startsWith(BYTES_UNIT)) {
+      return null;
+    }
+
+    String[] specs = header.substring(BYTES_UNIT.length()).split(",");
+    if (specs.length > MAX_RANGES) {
+      return null;
+    }
+
+    List<Range> ranges = Lists.newArrayListWithCapacity(specs.length);
+    for (String spec : specs) {
+      spec = spec.trim();
+      int dash = spec.indexOf('-');
+      if (dash < 0) {
+        return null;
+      }
+
+      long first = parseLong(spec.substring(0, dash));
+      long last = parseLong(spec.substring(dash + 1));
+      if (dash == 0) {
+        // suffix range, i.e. the last n bytes
+        if (last < 0) {
+          return null;
+        } else if (last > 0) {
+          ranges.add(new Range(Math.max(0, size - last), size - 1));
+        }
+      } else {
+        if (first < 0 || (dash < spec.length() - 1 && (last < 0 || last < first))) {
+          return null;
+        } else if (first < size) {
+          ranges.add(new Range(first, last < 0 ? size - 1 : Math.min(last, size - 1)));
+        }
+      }
+    }
+
+    return coalesce(ranges);
+  }
+
+  private static List<Range> coalesce(List<Range> ranges) {
+    if (ranges.size() < 2) {
+      return ranges;
+    }
+
+    Collections.sort(ranges, (a, b) -> Long.compare(a.start, b.start));
+    List<Range> coalesced = Lists.newArrayListWithCapacity(ranges.size());
+    Range current = ranges.get(0);
+    for (Range range : ranges.subList(1, ranges.size())) {
+      if (range.start <= current.end + 1) {
+        current = new Range(current.start, Math.max(current.end, range.end));
+      } else {
+        coalesced.add(current);
+        current = range;
+      }
+    }
+    coalesced.add(current);
+    return coalesced;
+  }
+
+  private static long parseLong(String value) {
+    if (value.isEmpty()) {
+      return -1;
+    }
+    for (int i = 0; i < value.length(); ++i) {
+      if (!Character.isDigit(value.charAt(i))) {
+        return -1;
+      }
+    }
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.file.internal;
+
+import io.netty.buffer.ByteBuf;
+
+import java.nio.file.Path;
+
+/**
+ * A static asset held in memory by a {@link DefaultAssetCache}.
+ */
+public class CachedAsset {
+
+  private final Path file;
+  private final FileVariant variant;
+  private final long lastModified;
+  private final String contentType;
+  private final ByteBuf content;
+
+  CachedAsset(Path file, FileVariant variant, long lastModified, String contentType, ByteBuf content) {
+    this.file = file;
+    this.variant = variant;
+    this.lastModified = lastModified;
+    this.contentType = contentType;
+    this.content = content;
+  }
+
+  /**
+   * The requested file.
+   *
+   * @return the requested file
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * The representation of the file that is cached.
+   *
+   * @return the representation of the file that is cached
+   */
+  public FileVariant getVariant() {
+    return variant;
+  }
+
+  /**
+   * The last modified time of the requested file, in milliseconds since the epoch.
+   *
+   * @return the last modified time of the requested file
+   */
+  public long getLastModified() {
+    return lastModified;
+  }
+
+  /**
+   * The content type of the file.
+   *
+   * @return the content type of the file
+   */
+  public String getContentType() {
+    return contentType;
+  }
+
+  /**
+   * The content of the representation.
+   * <p>
+   * The content is shared between requests, so its indices must not be changed.
+   *
+   * @return the content of the representation
+   */
+  public ByteBuf getContent() {
+    return content;
+  }
+
+  /**
+   * Releases a reference to the content.
+   */
+  public void release() {
+    content.release();
+  }
+
+}
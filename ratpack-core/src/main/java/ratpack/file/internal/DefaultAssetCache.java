@@ -0,0 +1,189 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.file.internal;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.collect.ImmutableList;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.IllegalReferenceCountException;
+import ratpack.api.Nullable;
+import ratpack.file.AssetCache;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An asset cache backed by Guava caches.
+ * <p>
+ * The encodings that each file is available in are cached separately from the content of each representation,
+ * so that the representation to send can be selected from the request's {@code Accept-Encoding} header without touching the file system.
+ * <p>
+ * Each entry weighs at least {@code maxBytes / maxEntries}, so that bounding the total weight also bounds the number of entries.
+ * The content of an entry is released when the entry is removed, so readers must retain it while in use.
+ */
+public class DefaultAssetCache implements AssetCache {
+
+  private final int maxEntrySize;
+  private final Cache<Path, ImmutableList<String>> encodings;
+  private final Cache<Key, CachedAsset> assets;
+
+  public DefaultAssetCache(int maxEntries, long maxBytes, int maxEntrySize, Duration timeToLive) {
+    this.maxEntrySize = maxEntrySize;
+    long minWeight = Math.max(1, maxBytes / maxEntries);
+    this.encodings = CacheBuilder.newBuilder()
+      .maximumSize(maxEntries)
+      .expireAfterWrite(timeToLive.toNanos(), TimeUnit.NANOSECONDS)
+      .build();
+    this.assets = CacheBuilder.newBuilder()
+      .maximumWeight(maxBytes)
+      .<Key, CachedAsset>weigher((key, asset) -> (int) Math.min(Integer.MAX_VALUE, Math.max(minWeight, asset.getContent().readableBytes())))
+      .expireAfterWrite(timeToLive.toNanos(), TimeUnit.NANOSECONDS)
+      .removalListener((RemovalListener<Key, CachedAsset>) notification -> notification.getValue().release())
+      .build();
+  }
+
+  /**
+   * Returns the cached representation of the given file that is appropriate for the given {@code Accept-Encoding} header, if there is one.
+   * <p>
+   * The content of the returned asset has been retained on behalf of the caller, who must release it.
+   *
+   * @param file the requested file
+   * @param acceptEncoding the value of the request's {@code Accept-Encoding} header
+   * @return the cached representation, or {@code null} if it is not cached
+   */
+  @Nullable
+  public CachedAsset get(Path file, @Nullable String acceptEncoding) {
+    ImmutableList<String> available = encodings.getIfPresent(file);
+    if (available == null) {
+      return null;
+    }
+
+    String encoding = null;
+    if (acceptEncoding != null) {
+      for (String candidate : available) {
+        if (FileVariant.accepts(acceptEncoding, candidate)) {
+          encoding = candidate;
+          break;
+        }
+      }
+    }
+
+    CachedAsset asset = assets.getIfPresent(new Key(file, encoding));
+    if (asset == null) {
+      return null;
+    }
+
+    try {
+      asset.getContent().retain();
+    } catch (IllegalReferenceCountException e) {
+      // evicted and released concurrently
+      return null;
+    }
+    return asset;
+  }
+
+  /**
+   * Reads the given representation of a file into the cache, if it is small enough.
+   * <p>
+   * This method blocks.
+   *
+   * @param file the requested file
+   * @param attributes the attributes of the requested file
+   * @param variant the representation of the file that was selected
+   * @param contentType the content type of the file
+   * @throws IOException if the file cannot be read
+   */
+  public void load(Path file, BasicFileAttributes attributes, FileVariant variant, String contentType) throws IOException {
+    long size = variant.getAttributes().size();
+    if (size > maxEntrySize) {
+      return;
+    }
+
+    ByteBuf content = Unpooled.directBuffer((int) size, (int) size);
+    try (FileChannel channel = FileChannel.open(variant.getFile())) {
+      while (content.isWritable()) {
+        if (content.writeBytes(channel, content.writableBytes()) < 0) {
+          // truncated since the attributes were read, don't cache an inconsistent representation
+          content.release();
+          return;
+        }
+      }
+    } catch (Throwable e) {
+      content.release();
+      throw e;
+    }
+
+    encodings.put(file, variant.getEncodings());
+    assets.put(new Key(file, variant.getContentEncoding()), new CachedAsset(file, variant, attributes.lastModifiedTime().toMillis(), contentType, content));
+  }
+
+  @Override
+  public long getSize() {
+    return assets.size();
+  }
+
+  @Override
+  public long getBytes() {
+    long bytes = 0;
+    for (CachedAsset asset : assets.asMap().values()) {
+      bytes += asset.getContent().capacity();
+    }
+    return bytes;
+  }
+
+  @Override
+  public void invalidateAll() {
+    encodings.invalidateAll();
+    assets.invalidateAll();
+  }
+
+  private static class Key {
+    private final Path file;
+    private final String encoding;
+
+    private Key(Path file, @Nullable String encoding) {
+      this.file = file;
+      this.encoding = encoding;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return file.equals(key.file) && Objects.equals(encoding, key.encoding);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * file.hashCode() + Objects.hashCode(encoding);
+    }
+  }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.file.internal;
+
+import ratpack.file.AssetCacheSpec;
+
+import java.time.Duration;
+
+public class DefaultAssetCacheSpec implements AssetCacheSpec {
+
+  private int maxEntries = DEFAULT_MAX_ENTRIES;
+  private long maxBytes = DEFAULT_MAX_BYTES;
+  private int maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
+  private Duration timeToLive = DEFAULT_TIME_TO_LIVE;
+
+  @Override
+  public AssetCacheSpec maxEntries(int maxEntries) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("'maxEntries' must be > 0");
+    }
+    this.maxEntries = maxEntries;
+    return this;
+  }
+
+  @Override
+  public AssetCacheSpec maxBytes(long maxBytes) {
+    if (maxBytes < 1) {
+      throw new IllegalArgumentException("'maxBytes' must be > 0");
+    }
+    this.maxBytes = maxBytes;
+    return this;
+  }
+
+  @Override
+  public AssetCacheSpec maxEntrySize(int maxEntrySize) {
+    if (maxEntrySize < 0) {
+      throw new IllegalArgumentException("'maxEntrySize' must be >= 0");
+    }
+    this.maxEntrySize = maxEntrySize;
+    return this;
+  }
+
+  @Override
+  public AssetCacheSpec timeToLive(Duration timeToLive) {
+    if (timeToLive.isNegative() || timeToLive.isZero()) {
+      throw new IllegalArgumentException("'timeToLive' must be > 0");
+    }
+    this.timeToLive = timeToLive;
+    return this;
+  }
+
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  public int getMaxEntrySize() {
+    return maxEntrySize;
+  }
+
+  public Duration getTimeToLive() {
+    return timeToLive;
+  }
+
+}
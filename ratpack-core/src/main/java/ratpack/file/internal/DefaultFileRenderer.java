@@ -1,5 +1,5 @@
 /*
- * Copyright 2013 the original author or authors.
+ * Copyright 2015 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,25 +16,40 @@
 
 package ratpack.file.internal;
 
-import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.CharsetUtil;
+import ratpack.api.Nullable;
 import ratpack.exec.ExecControl;
 import ratpack.file.MimeTypes;
 import ratpack.func.Action;
+import ratpack.func.BiAction;
 import ratpack.handling.Context;
+import ratpack.http.MutableHeaders;
+import ratpack.http.Request;
 import ratpack.http.Response;
 import ratpack.http.internal.HttpHeaderConstants;
 import ratpack.render.RendererSupport;
 import ratpack.util.Exceptions;
 
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import static io.netty.handler.codec.http.HttpResponseStatus.NOT_MODIFIED;
+import static io.netty.handler.codec.http.HttpResponseStatus.*;
 
 public class DefaultFileRenderer extends RendererSupport<Path> {
 
+  // Multiple ranges are sent from memory, so beyond this total length the whole file is sent instead
+  private static final long MAX_MULTIPART_RANGES_LENGTH = 1024 * 1024;
+
   @Override
   public void render(Context context, Path targetFile) throws Exception {
     readAttributes(context, targetFile, attributes -> {
@@ -47,29 +62,247 @@ public class DefaultFileRenderer extends RendererSupport<Path> {
   }
 
   public static void sendFile(Context context, Path file, BasicFileAttributes attributes) {
+    sendFile(context, file, attributes, null);
+  }
+
+  /**
+   * Sends the given file, adding it to the given cache if there is one.
+   */
+  public static void sendFile(Context context, Path file, BasicFileAttributes attributes, @Nullable DefaultAssetCache cache) {
+    Request request = context.getRequest();
+    if (!request.getMethod().isGet()) {
+      context.clientError(405);
+      return;
+    }
+
+    String acceptEncoding = request.getHeaders().get(HttpHeaderConstants.ACCEPT_ENCODING);
+    MimeTypes mimeTypes = context.get(MimeTypes.class);
+    context.blocking(() -> {
+      FileVariant variant = FileVariant.select(file, attributes, acceptEncoding);
+      if (cache != null) {
+        cache.load(file, attributes, variant, mimeTypes.getContentType(file.getFileName().toString()));
+      }
+      return variant;
+    }).then(variant ->
+        respond(context, file, variant, attributes.lastModifiedTime().toMillis(), null)
+    );
+  }
+
+  /**
+   * Sends a cached asset from memory, without blocking.
+   * <p>
+   * The caller's reference to the content of the asset is always released.
+   */
+  public static void sendCached(Context context, CachedAsset asset) {
     if (!context.getRequest().getMethod().isGet()) {
+      asset.release();
       context.clientError(405);
       return;
     }
 
-    Date date = new Date(attributes.lastModifiedTime().toMillis());
+    respond(context, asset.getFile(), asset.getVariant(), asset.getLastModified(), asset);
+  }
+
+  private static void respond(Context context, Path file, FileVariant variant, long lastModified, @Nullable CachedAsset asset) {
+    Request request = context.getRequest();
+    Response response = context.getResponse();
+    MutableHeaders headers = response.getHeaders();
+    headers.set(HttpHeaderConstants.ETAG, variant.getEtag());
+    headers.set(HttpHeaderConstants.ACCEPT_RANGES, HttpHeaderConstants.BYTES);
+    if (!variant.getEncodings().isEmpty()) {
+      headers.set(HttpHeaderConstants.VARY, HttpHeaderConstants.ACCEPT_ENCODING);
+    }
 
-    context.lastModified(date, () -> {
-      final String ifNoneMatch = context.getRequest().getHeaders().get(HttpHeaderNames.IF_NONE_MATCH);
-      Response response = context.getResponse();
-      if (ifNoneMatch != null && ifNoneMatch.trim().equals("*")) {
-        response.status(NOT_MODIFIED.code()).send();
-        return;
+    Date date = new Date(lastModified);
+    String ifNoneMatch = request.getHeaders().get(HttpHeaderConstants.IF_NONE_MATCH);
+    if (ifNoneMatch == null) {
+      AtomicBoolean modified = new AtomicBoolean();
+      context.lastModified(date, () -> {
+        modified.set(true);
+        send(context, file, variant, date, asset);
+      });
+      if (!modified.get() && asset != null) {
+        asset.release();
+      }
+    } else if (matches(ifNoneMatch, variant.getEtag())) {
+      if (asset != null) {
+        asset.release();
       }
+      response.status(NOT_MODIFIED.code()).send();
+    } else {
+      // If-Modified-Since is to be ignored when If-None-Match is present
+      headers.setDate(HttpHeaderConstants.LAST_MODIFIED, date);
+      send(context, file, variant, date, asset);
+    }
+  }
 
+  private static void send(Context context, Path file, FileVariant variant, Date lastModified, @Nullable CachedAsset asset) {
+    Response response = context.getResponse();
+    MutableHeaders headers = response.getHeaders();
+    if (asset == null) {
       response.contentTypeIfNotSet(() -> context.get(MimeTypes.class).getContentType(file.getFileName().toString()));
-      response.getHeaders().set(HttpHeaderConstants.CONTENT_LENGTH, Long.toString(attributes.size()));
+    } else {
+      response.contentTypeIfNotSet(asset.getContentType());
+    }
+
+    long size = variant.getAttributes().size();
+    List<ByteRanges.Range> ranges = ranges(context.getRequest(), variant, lastModified, size);
+    if (ranges != null && ranges.isEmpty()) {
+      if (asset != null) {
+        asset.release();
+      }
+      headers.set(HttpHeaderConstants.CONTENT_RANGE, "bytes */" + size);
+      response.status(REQUESTED_RANGE_NOT_SATISFIABLE.code()).send();
+      return;
+    }
+
+    // Partial content must not be compressed on the fly, as the ranges are of the representation as stored
+    if (ranges != null && ranges.size() > 1) {
+      // the multipart framing itself is never encoded, and multiple ranges are only served for unencoded variants
+      headers.set(HttpHeaderConstants.CONTENT_ENCODING, HttpHeaderConstants.IDENTITY);
+    } else if (variant.getContentEncoding() != null) {
+      headers.set(HttpHeaderConstants.CONTENT_ENCODING, variant.getContentEncoding());
+    } else if (ranges != null) {
+      headers.set(HttpHeaderConstants.CONTENT_ENCODING, HttpHeaderConstants.IDENTITY);
+    }
+
+    if (ranges == null) {
+      if (asset == null) {
+        headers.set(HttpHeaderConstants.CONTENT_LENGTH, Long.toString(size));
+        sendFile(response, variant.getFile());
+      } else {
+        // the content is shared, so is sent through a view with its own indices
+        response.send(asset.getContent().duplicate());
+      }
+    } else if (ranges.size() == 1) {
+      ByteRanges.Range range = ranges.get(0);
+      headers.set(HttpHeaderConstants.CONTENT_RANGE, range.toContentRange(size));
+      response.status(PARTIAL_CONTENT.code());
+      if (asset == null) {
+        headers.set(HttpHeaderConstants.CONTENT_LENGTH, Long.toString(range.getLength()));
+        sendFile(response, variant.getFile());
+      } else {
+        response.send(asset.getContent().slice((int) range.getStart(), (int) range.getLength()));
+      }
+    } else {
+      sendRanges(context, variant.getFile(), asset, ranges, size);
+    }
+  }
+
+  private static List<ByteRanges.Range> ranges(Request request, FileVariant variant, Date lastModified, long size) {
+    String range = request.getHeaders().get(HttpHeaderConstants.RANGE);
+    if (range == null) {
+      return null;
+    }
+
+    String ifRange = request.getHeaders().get(HttpHeaderConstants.IF_RANGE);
+    if (ifRange != null) {
+      ifRange = ifRange.trim();
+      if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+        if (!ifRange.equals(variant.getEtag())) {
+          return null;
+        }
+      } else {
+        Date date = request.getHeaders().getDate(HttpHeaderConstants.IF_RANGE);
+        if (date == null || date.getTime() / 1000 != lastModified.getTime() / 1000) {
+          return null;
+        }
+      }
+    }
+
+    List<ByteRanges.Range> ranges = ByteRanges.parse(range, size);
+    if (ranges != null && ranges.size() > 1) {
+      // A multipart body can't carry a content encoding, so the whole encoded variant is sent instead
+      if (variant.getContentEncoding() != null) {
+        return null;
+      }
+      long length = 0;
+      for (ByteRanges.Range r : ranges) {
+        length += r.getLength();
+      }
+      if (length > MAX_MULTIPART_RANGES_LENGTH) {
+        return null;
+      }
+    }
+    return ranges;
+  }
+
+  private static void sendRanges(Context context, Path file, @Nullable CachedAsset asset, List<ByteRanges.Range> ranges, long size) {
+    Response response = context.getResponse();
+    String contentType = response.getHeaders().get(HttpHeaderConstants.CONTENT_TYPE);
+    String boundary = UUID.randomUUID().toString();
+    ByteBufAllocator allocator = context.get(ByteBufAllocator.class);
+
+    if (asset == null) {
+      context.blocking(() -> {
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+          return multipart(allocator, boundary, contentType, ranges, size, (body, range) -> {
+            InputStream in = Channels.newInputStream(channel.position(range.getStart()));
+            long remaining = range.getLength();
+            while (remaining > 0) {
+              int read = body.writeBytes(in, (int) Math.min(remaining, 8192));
+              if (read < 0) {
+                throw new IllegalStateException("File " + file + " was truncated while being read");
+              }
+              remaining -= read;
+            }
+          });
+        }
+      }).then(body -> sendMultipart(response, boundary, body));
+    } else {
+      ByteBuf content = asset.getContent();
+      ByteBuf body;
       try {
-        response.sendFile(file);
-      } catch (Exception e) {
-        throw Exceptions.uncheck(e);
+        body = Exceptions.uncheck(() -> multipart(allocator, boundary, contentType, ranges, size, (b, range) ->
+            b.writeBytes(content, (int) range.getStart(), (int) range.getLength())
+        ));
+      } finally {
+        asset.release();
       }
-    });
+      sendMultipart(response, boundary, body);
+    }
+  }
+
+  private static ByteBuf multipart(ByteBufAllocator allocator, String boundary, String contentType, List<ByteRanges.Range> ranges, long size, BiAction<? super ByteBuf, ? super ByteRanges.Range> writeRange) throws Exception {
+    ByteBuf body = allocator.buffer();
+    try {
+      for (ByteRanges.Range range : ranges) {
+        String partHeaders = "--" + boundary + "\r\n"
+          + HttpHeaderConstants.CONTENT_TYPE + ": " + contentType + "\r\n"
+          + HttpHeaderConstants.CONTENT_RANGE + ": " + range.toContentRange(size) + "\r\n\r\n";
+        body.writeBytes(partHeaders.getBytes(CharsetUtil.US_ASCII));
+        writeRange.execute(body, range);
+        body.writeBytes("\r\n".getBytes(CharsetUtil.US_ASCII));
+      }
+      body.writeBytes(("--" + boundary + "--\r\n").getBytes(CharsetUtil.US_ASCII));
+      return body;
+    } catch (Throwable e) {
+      body.release();
+      throw e;
+    }
+  }
+
+  private static void sendMultipart(Response response, String boundary, ByteBuf body) {
+    response.status(PARTIAL_CONTENT.code());
+    response.send("multipart/byteranges; boundary=" + boundary, body);
+  }
+
+  private static boolean matches(String ifNoneMatch, String etag) {
+    for (String candidate : ifNoneMatch.split(",")) {
+      candidate = candidate.trim();
+      if (candidate.equals("*") || candidate.equals(etag) || (candidate.startsWith("W/") && candidate.substring(2).equals(etag))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void sendFile(Response response, Path file) {
+    try {
+      response.sendFile(file);
+    } catch (Exception e) {
+      throw Exceptions.uncheck(e);
+    }
   }
 
   public static void readAttributes(ExecControl execContext, Path file, Action<? super BasicFileAttributes> then) throws Exception {
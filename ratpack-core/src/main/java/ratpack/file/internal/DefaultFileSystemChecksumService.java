@@ -16,6 +16,8 @@
 
 package ratpack.file.internal;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import ratpack.api.Nullable;
 import ratpack.file.FileSystemBinding;
 import ratpack.file.FileSystemChecksumService;
@@ -25,19 +27,26 @@ import java.util.List;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.BasicFileAttributes;
 
+/**
+ * Calculates checksums of files, remembering a bounded number of them until the size or modification time of the file changes.
+ * <p>
+ * If the service is wrapped by a cache of its own, no checksums need to be remembered, which is indicated by a maximum of {@code 0}.
+ */
 public class DefaultFileSystemChecksumService implements FileSystemChecksumService {
 
   private final Function<? super InputStream, ? extends String> checksummer;
   private final FileSystemBinding fileSystemBinding;
   private final List<String> fileEndsWith;
+  private final Cache<Path, Entry> checksums;
 
-  public DefaultFileSystemChecksumService(FileSystemBinding fileSystemBinding, Function<? super InputStream, ? extends String> checksummer, List<String> fileEndsWith) {
+  public DefaultFileSystemChecksumService(FileSystemBinding fileSystemBinding, Function<? super InputStream, ? extends String> checksummer, List<String> fileEndsWith, long maxCachedChecksums) {
     this.checksummer = checksummer;
     this.fileSystemBinding = fileSystemBinding;
     this.fileEndsWith = fileEndsWith;
+    this.checksums = maxCachedChecksums > 0 ? CacheBuilder.newBuilder().maximumSize(maxCachedChecksums).<Path, Entry>build() : null;
   }
 
   /**
@@ -67,9 +76,37 @@ public class DefaultFileSystemChecksumService implements FileSystemChecksumServi
   }
 
   private String getChecksum(Path child) throws Exception {
-    try (InputStream inputStream = Files.newInputStream(child, StandardOpenOption.READ)) {
+    if (checksums == null) {
+      return calculateChecksum(child);
+    }
+
+    BasicFileAttributes attributes = Files.readAttributes(child, BasicFileAttributes.class);
+    long size = attributes.size();
+    long lastModified = attributes.lastModifiedTime().toMillis();
+    Entry entry = checksums.getIfPresent(child);
+    if (entry == null || entry.size != size || entry.lastModified != lastModified) {
+      entry = new Entry(size, lastModified, calculateChecksum(child));
+      checksums.put(child, entry);
+    }
+    return entry.checksum;
+  }
+
+  private String calculateChecksum(Path child) throws Exception {
+    try (InputStream inputStream = Files.newInputStream(child)) {
       return checksummer.apply(inputStream);
     }
   }
 
+  private static class Entry {
+    private final long size;
+    private final long lastModified;
+    private final String checksum;
+
+    private Entry(long size, long lastModified, String checksum) {
+      this.size = size;
+      this.lastModified = lastModified;
+      this.checksum = checksum;
+    }
+  }
+
 }
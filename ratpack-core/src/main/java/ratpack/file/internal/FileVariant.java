@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.file.internal;
+
+import com.google.common.collect.ImmutableList;
+import ratpack.api.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * The representation of a file to send in response to a request, which may be a precompressed sibling of the file.
+ * <p>
+ * If the client accepts it, a sibling of the file with a {@code .br} or {@code .gz} extension that is at least as new as the file is sent instead,
+ * with the corresponding content encoding.
+ * As it is already compressed, it can be sent as is without being compressed on the fly.
+ */
+public class FileVariant {
+
+  private static final String[][] ENCODINGS = {{"br", ".br"}, {"gzip", ".gz"}};
+
+  private final Path file;
+  private final BasicFileAttributes attributes;
+  private final String contentEncoding;
+  private final ImmutableList<String> encodings;
+  private final String etag;
+
+  private FileVariant(Path file, BasicFileAttributes attributes, @Nullable String contentEncoding, ImmutableList<String> encodings, String etag) {
+    this.file = file;
+    this.attributes = attributes;
+    this.contentEncoding = contentEncoding;
+    this.encodings = encodings;
+    this.etag = etag;
+  }
+
+  /**
+   * Selects the representation of the given file to send, and computes its entity tag.
+   * <p>
+   * This method blocks.
+   *
+   * @param file the requested file
+   * @param attributes the attributes of the requested file
+   * @param acceptEncoding the value of the request's {@code Accept-Encoding} header
+   * @return the representation to send
+   * @throws IOException if the file cannot be read
+   */
+  public static FileVariant select(Path file, BasicFileAttributes attributes, @Nullable String acceptEncoding) throws IOException {
+    ImmutableList.Builder<String> encodings = ImmutableList.builder();
+    Path selected = null;
+    BasicFileAttributes selectedAttributes = null;
+    String selectedEncoding = null;
+
+    String fileName = file.getFileName().toString();
+    for (String[] encoding : ENCODINGS) {
+      Path sibling = file.resolveSibling(fileName + encoding[1]);
+      if (Files.isRegularFile(sibling)) {
+        BasicFileAttributes siblingAttributes = Files.readAttributes(sibling, BasicFileAttributes.class);
+        if (siblingAttributes.lastModifiedTime().compareTo(attributes.lastModifiedTime()) >= 0) {
+          encodings.add(encoding[0]);
+          if (selected == null && acceptEncoding != null && accepts(acceptEncoding, encoding[0])) {
+            selected = sibling;
+            selectedAttributes = siblingAttributes;
+            selectedEncoding = encoding[0];
+          }
+        }
+      }
+    }
+
+    if (selected == null) {
+      return new FileVariant(file, attributes, null, encodings.build(), etag(attributes, null));
+    } else {
+      return new FileVariant(selected, selectedAttributes, selectedEncoding, encodings.build(), etag(selectedAttributes, selectedEncoding));
+    }
+  }
+
+  /**
+   * The file to send.
+   *
+   * @return the file to send
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * The attributes of the file to send.
+   *
+   * @return the attributes of the file to send
+   */
+  public BasicFileAttributes getAttributes() {
+    return attributes;
+  }
+
+  /**
+   * The content encoding of the file to send, or {@code null} if it is not encoded.
+   *
+   * @return the content encoding of the file to send
+   */
+  @Nullable
+  public String getContentEncoding() {
+    return contentEncoding;
+  }
+
+  /**
+   * The content encodings that the file is available in, in order of preference.
+   * <p>
+   * If not empty, the representation that is sent depends on the request's {@code Accept-Encoding} header.
+   *
+   * @return the content encodings that the file is available in
+   */
+  public ImmutableList<String> getEncodings() {
+    return encodings;
+  }
+
+  /**
+   * The strong entity tag of the file to send, derived from its size, modification time and content encoding.
+   *
+   * @return the strong entity tag of the file to send
+   */
+  public String getEtag() {
+    return etag;
+  }
+
+  /**
+   * Whether or not the given {@code Accept-Encoding} header value accepts the given content encoding.
+   *
+   * @param acceptEncoding the value of the request's {@code Accept-Encoding} header
+   * @param encoding a content encoding
+   * @return whether or not the encoding is accepted
+   */
+  public static boolean accepts(String acceptEncoding, String encoding) {
+    for (String coding : acceptEncoding.split(",")) {
+      String[] params = coding.split(";");
+      if (params[0].trim().equalsIgnoreCase(encoding)) {
+        for (int i = 1; i < params.length; ++i) {
+          String param = params[i].trim();
+          if (param.startsWith("q=")) {
+            try {
+              return Double.parseDouble(param.substring(2)) > 0;
+            } catch (NumberFormatException e) {
+              return false;
+            }
+          }
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Derived from the attributes so that the content never has to be read, and includes the encoding so that each variant has its own tag
+  private static String etag(BasicFileAttributes attributes, @Nullable String contentEncoding) {
+    String etag = Long.toHexString(attributes.size()) + "-" + Long.toHexString(attributes.lastModifiedTime().toMillis());
+    return "\"" + (contentEncoding == null ? etag : etag + "-" + contentEncoding) + "\"";
+  }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.handling;
+
+import com.google.common.collect.ImmutableSortedMap;
+import ratpack.exec.ExecProfiler;
+import ratpack.handling.internal.DefaultHandlerTimings;
+
+import java.time.Duration;
+
+/**
+ * An {@link ExecProfiler} that aggregates execution timings by the handler that was active at the time, to find the handlers that hog event loops.
+ * <p>
+ * For each handler, the time spent computing on the event loop, the time spent waiting in the event loop's task queue,
+ * the time spent performing {@link ratpack.exec.ExecControl#blocking(java.util.concurrent.Callable) blocking operations}
+ * and the time spent waiting for a blocking thread are recorded in histograms.
+ * Timings of executions that are not handling a request are recorded under the key {@value #NON_REQUEST}.
+ * <p>
+ * Timings are only recorded when the timings object is added to the server registry, as it is opt-in.
+ * <pre class="java">{@code
+ * import ratpack.handling.HandlerTimings;
+ * import ratpack.test.embed.EmbeddedApp;
+ *
+ * import static org.junit.Assert.assertFalse;
+ *
+ * public class Example {
+ *   public static void main(String... args) throws Exception {
+ *     HandlerTimings timings = HandlerTimings.handlerTimings();
+ *     EmbeddedApp.of(s -> s
+ *       .registryOf(r -> r.add(HandlerTimings.class, timings))
+ *       .handler(r -> ctx -> ctx.blocking(() -> "ok").then(ctx::render))
+ *     ).test(httpClient -> {
+ *       httpClient.getText();
+ *       assertFalse(timings.getSnapshot().isEmpty());
+ *     });
+ *   }
+ * }
+ * }</pre>
+ * <p>
+ * The timings are also available from the server registry, so that they can be exposed by a handler or a metrics reporter.
+ * Recorded durations are accurate to within approximately 6%.
+ */
+public interface HandlerTimings extends ExecProfiler {
+
+  /**
+   * The key that timings of executions that are not handling a request are recorded under: {@value}.
+   */
+  String NON_REQUEST = "(non request)";
+
+  /**
+   * Creates a new, empty, set of timings.
+   *
+   * @return a new set of timings
+   */
+  static HandlerTimings handlerTimings() {
+    return new DefaultHandlerTimings();
+  }
+
+  /**
+   * A snapshot of the timings recorded so far, keyed by the description of the handler.
+   *
+   * @return a snapshot of the timings recorded so far
+   */
+  ImmutableSortedMap<String, Snapshot> getSnapshot();
+
+  /**
+   * Discards all timings recorded so far.
+   */
+  void reset();
+
+  /**
+   * The timings recorded for one handler.
+   */
+  interface Snapshot {
+
+    /**
+     * How long segments of computation ran for on the event loop.
+     *
+     * @return how long segments of computation ran for on the event loop
+     */
+    Timer getCompute();
+
+    /**
+     * How long segments of computation waited in the event loop's task queue before running.
+     *
+     * @return how long segments of computation waited in the event loop's task queue
+     */
+    Timer getEventLoopQueueing();
+
+    /**
+     * How long blocking operations ran for.
+     *
+     * @return how long blocking operations ran for
+     */
+    Timer getBlocking();
+
+    /**
+     * How long blocking operations waited for a blocking thread.
+     *
+     * @return how long blocking operations waited for a blocking thread
+     */
+    Timer getBlockingQueueing();
+
+  }
+
+  /**
+   * The distribution of a recorded duration.
+   */
+  interface Timer {
+
+    /**
+     * The number of recorded durations.
+     *
+     * @return the number of recorded durations
+     */
+    long getCount();
+
+    /**
+     * The mean recorded duration.
+     *
+     * @return the mean recorded duration, or zero if there are none
+     */
+    Duration getMean();
+
+    /**
+     * The longest recorded duration.
+     *
+     * @return the longest recorded duration, or zero if there are none
+     */
+    Duration getMax();
+
+    /**
+     * The duration that the given percentage of recorded durations are less than or equal to.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the duration at the given percentile, or zero if there are none
+     */
+    Duration getPercentile(double percentile);
+
+  }
+
+}
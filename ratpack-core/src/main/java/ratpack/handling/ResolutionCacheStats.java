@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.handling;
+
+/**
+ * Statistics about how often the renderers and parsers to use for a request are resolved from a cache.
+ * <p>
+ * Finding the {@link ratpack.render.Renderer renderer} for an object passed to {@link Context#render(Object)},
+ * and the {@link ratpack.parse.Parser parsers} for a {@link Context#parse(ratpack.parse.Parse)} call,
+ * requires checking every renderer or parser in the registry.
+ * The result of this for the renderers and parsers of the server registry is cached,
+ * by the runtime type of the object to render and by the content type and options type of the parse respectively.
+ * <p>
+ * The cache is bypassed when a handler has added renderers, renderable decorators or parsers to the context registry,
+ * as the result then depends on the request.
+ * Registries that handlers add to the context that do not contain renderers or parsers (e.g. path bindings) do not affect the cache.
+ * <p>
+ * The statistics of the server are available from the server registry.
+ */
+public interface ResolutionCacheStats {
+
+  /**
+   * The statistics of the resolution of renderers.
+   *
+   * @return the statistics of the resolution of renderers
+   */
+  CacheStats getRenderers();
+
+  /**
+   * The statistics of the resolution of parsers.
+   *
+   * @return the statistics of the resolution of parsers
+   */
+  CacheStats getParsers();
+
+  /**
+   * The statistics of a resolution cache.
+   */
+  interface CacheStats {
+
+    /**
+     * The number of resolutions that were served by the cache.
+     *
+     * @return the number of resolutions that were served by the cache
+     */
+    long getHitCount();
+
+    /**
+     * The number of resolutions that were not yet cached, and were resolved from the server registry.
+     *
+     * @return the number of resolutions that were not yet cached
+     */
+    long getMissCount();
+
+    /**
+     * The number of resolutions that could not use the cache, because a handler had added renderers or parsers to the context registry.
+     *
+     * @return the number of resolutions that could not use the cache
+     */
+    long getBypassCount();
+
+    /**
+     * The ratio of resolutions that were served by the cache to all resolutions.
+     * <p>
+     * If there have been no resolutions, this is {@code 1.0}.
+     *
+     * @return the ratio of resolutions that were served by the cache to all resolutions
+     */
+    double getHitRatio();
+
+  }
+
+}
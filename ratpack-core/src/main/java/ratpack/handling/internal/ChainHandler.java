@@ -18,19 +18,20 @@ package ratpack.handling.internal;
 
 import ratpack.handling.Context;
 import ratpack.handling.Handler;
+import ratpack.path.internal.PathRoutingHandler;
 
 import java.util.List;
 
-public class ChainHandler implements Handler {
+public class ChainHandler implements InlineHandler {
 
   private final Handler[] handlers;
 
   public ChainHandler(List<? extends Handler> handlers) {
-    this.handlers = handlers.toArray(new Handler[handlers.size()]);
+    this(handlers.toArray(new Handler[handlers.size()]));
   }
 
   public ChainHandler(Handler... handlers) {
-    this.handlers = handlers;
+    this.handlers = PathRoutingHandler.compile(handlers);
   }
 
   public static Handler[] unpack(Handler handler) {
@@ -45,6 +46,14 @@ public class ChainHandler implements Handler {
     context.insert(handlers);
   }
 
+  @Override
+  public boolean inline(DefaultContext context) {
+    if (handlers.length > 0) {
+      context.push(handlers);
+    }
+    return true;
+  }
+
   public Handler[] getHandlers() {
     return handlers;
   }
@@ -17,7 +17,6 @@
 package ratpack.handling.internal;
 
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.reflect.TypeToken;
 import io.netty.channel.EventLoop;
@@ -25,6 +24,7 @@ import io.netty.handler.codec.http.HttpResponseStatus;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ratpack.api.Nullable;
 import ratpack.error.ClientErrorHandler;
 import ratpack.error.ServerErrorHandler;
 import ratpack.event.internal.EventRegistry;
@@ -52,6 +52,7 @@ import ratpack.registry.Registries;
 import ratpack.registry.Registry;
 import ratpack.render.NoSuchRendererException;
 import ratpack.render.internal.RenderController;
+import ratpack.render.internal.RendererResolution;
 import ratpack.server.ServerConfig;
 import ratpack.stream.TransformablePublisher;
 import ratpack.util.Exceptions;
@@ -68,25 +69,28 @@ import static io.netty.handler.codec.http.HttpResponseStatus.NOT_MODIFIED;
 
 public class DefaultContext implements Context {
 
-  private static final TypeToken<Parser<?>> PARSER_TYPE_TOKEN = new TypeToken<Parser<?>>() {
-  };
-
   private final static Logger LOGGER = LoggerFactory.getLogger(DefaultContext.class);
 
   public static class ApplicationConstants {
+    private final Registry registry;
     private final RenderController renderController;
+    private final ResolutionCache resolutionCache;
     private final ServerConfig serverConfig;
     private final ExecControl execControl;
     private final Handler end;
 
     public ApplicationConstants(Registry registry, RenderController renderController, Handler end) {
+      this.registry = registry;
       this.renderController = renderController;
+      this.resolutionCache = registry.maybeGet(ResolutionCache.class).orElseGet(ResolutionCache::new);
       this.serverConfig = registry.get(ServerConfig.class);
       this.execControl = registry.get(ExecController.class).getControl();
       this.end = end;
     }
   }
 
+  private static final int INITIAL_CHAIN_DEPTH = 8;
+
   public static class RequestConstants {
     private final ApplicationConstants applicationConstants;
 
@@ -95,7 +99,10 @@ public class DefaultContext implements Context {
     private final DirectChannelAccess directChannelAccess;
     private final EventRegistry<RequestOutcome> onCloseRegistry;
 
-    private final Deque<ChainIndex> indexes = Lists.newLinkedList();
+    // A stack of cursors into the chains being dispatched, which are reused as they are pushed and popped
+    private ChainIndex[] indexes = new ChainIndex[INITIAL_CHAIN_DEPTH];
+    private int depth;
+    private int hops;
 
     public Response response;
     public Context context;
@@ -111,18 +118,52 @@ public class DefaultContext implements Context {
       this.onCloseRegistry = onCloseRegistry;
     }
 
+    /**
+     * The number of handlers that the request has been dispatched to so far.
+     *
+     * @return the number of handlers that the request has been dispatched to so far
+     */
+    public int getHops() {
+      return hops;
+    }
+
+    private void push(Handler[] handlers, Registry registry, @Nullable Registry joined, boolean first) {
+      if (depth == indexes.length) {
+        indexes = Arrays.copyOf(indexes, depth * 2);
+      }
+      ChainIndex index = indexes[depth];
+      if (index == null) {
+        index = new ChainIndex();
+        indexes[depth] = index;
+      }
+      index.reset(handlers, registry, joined, first);
+      ++depth;
+    }
+
+    private ChainIndex peek() {
+      return indexes[depth - 1];
+    }
+
+    private void pop() {
+      indexes[--depth].reset(null, null, null, false);
+    }
+
   }
 
   private static class ChainIndex implements Iterator<Handler> {
-    final Handler[] handlers;
+    Handler[] handlers;
     Registry registry;
-    final boolean first;
+    // the registries joined to the application registry to form the registry, which determine whether resolutions can be cached
+    Registry joined;
+    boolean first;
     int i;
 
-    private ChainIndex(Handler[] handlers, Registry registry, boolean first) {
+    void reset(Handler[] handlers, Registry registry, Registry joined, boolean first) {
       this.handlers = handlers;
       this.registry = registry;
+      this.joined = joined;
       this.first = first;
+      this.i = 0;
     }
 
     public Handler next() {
@@ -140,8 +181,9 @@ public class DefaultContext implements Context {
   public static void start(EventLoop eventLoop, ExecControl execControl, final RequestConstants requestConstants, Registry registry, Handler[] handlers, Action<? super Execution> onComplete) {
     PathBinding initialPathBinding = new DefaultPathBinding("/".concat(requestConstants.request.getPath()), "", ImmutableMap.of(), Optional.empty());
     Registry pathBindingRegistry = Registries.just(PathBinding.class, initialPathBinding);
-    ChainIndex index = new ChainIndex(handlers, registry.join(pathBindingRegistry), true);
-    requestConstants.indexes.push(index);
+    // the initial path binding does not affect resolutions, so only a different root registry needs to be considered
+    Registry joined = registry == requestConstants.applicationConstants.registry ? null : registry;
+    requestConstants.push(handlers, registry.join(pathBindingRegistry), joined, true);
 
     DefaultContext context = new DefaultContext(requestConstants);
     requestConstants.context = context;
@@ -163,11 +205,17 @@ public class DefaultContext implements Context {
   }
 
   private Registry getRegistry() {
-    return requestConstants.indexes.peek().registry;
+    return requestConstants.peek().registry;
   }
 
-  private void setRegistry(Registry registry) {
-    requestConstants.indexes.peek().registry = registry;
+  private void joinRegistry(Registry registry) {
+    ChainIndex index = requestConstants.peek();
+    index.registry = index.registry.join(registry);
+    index.joined = joined(index.joined, registry);
+  }
+
+  private static Registry joined(@Nullable Registry joined, Registry registry) {
+    return joined == null ? registry : joined.join(registry);
   }
 
   @Override
@@ -215,6 +263,16 @@ public class DefaultContext implements Context {
     return requestConstants.applicationConstants.serverConfig;
   }
 
+  /**
+   * The handler that the request is currently dispatched to.
+   *
+   * @return the handler that the request is currently dispatched to, or {@code null} if it has not been dispatched yet
+   */
+  @Nullable
+  public Handler getCurrentHandler() {
+    return requestConstants.handler;
+  }
+
   public Request getRequest() {
     return requestConstants.request;
   }
@@ -224,59 +282,86 @@ public class DefaultContext implements Context {
   }
 
   public void next() {
-    Handler handler = null;
-
-    ChainIndex index = requestConstants.indexes.peek();
-    while (handler == null) {
+    ChainIndex index = requestConstants.peek();
+    while (true) {
+      Handler handler;
       if (index.hasNext()) {
         handler = index.next();
-        if (handler.getClass().equals(ChainHandler.class)) {
-          requestConstants.indexes.push(new ChainIndex(((ChainHandler) handler).getHandlers(), getRegistry(), false));
-          index = requestConstants.indexes.peek();
-          handler = null;
-        }
       } else if (index.first) {
         handler = requestConstants.applicationConstants.end;
       } else {
-        requestConstants.indexes.pop();
-        index = requestConstants.indexes.peek();
+        requestConstants.pop();
+        index = requestConstants.peek();
+        continue;
       }
-    }
 
-    try {
+      ++requestConstants.hops;
       requestConstants.handler = handler;
-      handler.handle(this);
-    } catch (Throwable e) {
-      if (e instanceof HandlerException) {
-        throw (HandlerException) e;
-      } else {
-        throw new HandlerException(e);
+      try {
+        // Routing handlers are applied here rather than calling next()/insert() themselves, so the stack doesn't grow with each
+        if (handler instanceof InlineHandler && ((InlineHandler) handler).inline(this)) {
+          index = requestConstants.peek();
+          continue;
+        }
+        handler.handle(this);
+      } catch (Throwable e) {
+        if (e instanceof HandlerException) {
+          throw (HandlerException) e;
+        } else {
+          throw new HandlerException(e);
+        }
       }
+      return;
     }
   }
 
   @Override
   public void next(Registry registry) {
-    setRegistry(getRegistry().join(registry));
+    joinRegistry(registry);
     next();
   }
 
   public void insert(Handler... handlers) {
+    push(handlers);
+    next();
+  }
+
+  public void insert(final Registry registry, final Handler... handlers) {
+    push(registry, handlers);
+    next();
+  }
+
+  /**
+   * Pushes the given handlers to be dispatched to next, without dispatching.
+   * <p>
+   * This is the equivalent of {@link #insert(Handler...)} for an {@link InlineHandler}.
+   *
+   * @param handlers the handlers to dispatch to next
+   */
+  public void push(Handler... handlers) {
     if (handlers.length == 0) {
       throw new IllegalArgumentException("handlers is zero length");
     }
 
-    requestConstants.indexes.push(new ChainIndex(handlers, getRegistry(), false));
-    next();
+    ChainIndex index = requestConstants.peek();
+    requestConstants.push(handlers, index.registry, index.joined, false);
   }
 
-  public void insert(final Registry registry, final Handler... handlers) {
+  /**
+   * Pushes the given handlers to be dispatched to next with the given registry, without dispatching.
+   * <p>
+   * This is the equivalent of {@link #insert(Registry, Handler...)} for an {@link InlineHandler}.
+   *
+   * @param registry the registry to make available to the handlers
+   * @param handlers the handlers to dispatch to next
+   */
+  public void push(Registry registry, Handler... handlers) {
     if (handlers.length == 0) {
       throw new IllegalArgumentException("handlers is zero length");
     }
 
-    requestConstants.indexes.push(new ChainIndex(handlers, getRegistry().join(registry), false));
-    next();
+    ChainIndex index = requestConstants.peek();
+    requestConstants.push(handlers, index.registry.join(registry), joined(index.joined, registry), false);
   }
 
   public PathTokens getPathTokens() {
@@ -303,23 +388,34 @@ public class DefaultContext implements Context {
     }
   }
 
+  /**
+   * Resolves the decorators and renderer to use for the given type of object, in the current registry.
+   *
+   * @param type the runtime type of the object to render
+   * @return the decorators and renderer to use
+   */
+  public RendererResolution resolveRenderers(Class<?> type) {
+    ChainIndex index = requestConstants.peek();
+    return requestConstants.applicationConstants.resolutionCache.renderers(index.registry, index.joined, type);
+  }
+
   @Override
   public <T, O> T parse(Parse<T, O> parse) throws Exception {
     String requestContentType = requestConstants.request.getBody().getContentType().getType();
     if (requestContentType == null) {
       requestContentType = "text/plain";
     }
-    final String finalRequestContentType = requestContentType;
 
-    return getRegistry()
-      .first(PARSER_TYPE_TOKEN, parser -> {
-        if (parser.getContentType().equalsIgnoreCase(finalRequestContentType) && parser.getOptsType().isInstance(parse.getOpts())) {
-          Parser<O> cast = Types.cast(parser);
-          return cast.parse(DefaultContext.this, getRequest().getBody(), parse);
-        }
-        return null;
-      })
-      .orElseThrow(() -> new NoSuchParserException(parse.getType(), parse.getOpts(), finalRequestContentType));
+    ChainIndex index = requestConstants.peek();
+    for (Parser<?> parser : requestConstants.applicationConstants.resolutionCache.parsers(index.registry, index.joined, requestContentType, parse.getOpts())) {
+      Parser<O> cast = Types.cast(parser);
+      T parsed = cast.parse(this, getRequest().getBody(), parse);
+      if (parsed != null) {
+        return parsed;
+      }
+    }
+
+    throw new NoSuchParserException(parse.getType(), parse.getOpts(), requestContentType);
   }
 
   @Override
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.handling.internal;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.MapMaker;
+import ratpack.exec.Execution;
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+import ratpack.handling.HandlerTimings;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class DefaultHandlerTimings implements HandlerTimings {
+
+  private final ConcurrentMap<String, Timings> timings = new ConcurrentHashMap<>();
+
+  // Describing a handler can be expensive (e.g. inspecting the bytecode of anonymous classes), so is done once per class.
+  // Keyed by class rather than instance, as many handlers (e.g. lambdas inserted by other handlers) are created per request.
+  private final ConcurrentMap<Class<?>, String> descriptions = new MapMaker().weakKeys().makeMap();
+
+  private static class Timings {
+    final DurationHistogram compute = new DurationHistogram();
+    final DurationHistogram eventLoopQueueing = new DurationHistogram();
+    final DurationHistogram blocking = new DurationHistogram();
+    final DurationHistogram blockingQueueing = new DurationHistogram();
+  }
+
+  @Override
+  public void compute(Execution execution, long queuedNanos, long runNanos) {
+    Timings timings = timings(execution);
+    timings.compute.record(runNanos);
+    timings.eventLoopQueueing.record(queuedNanos);
+  }
+
+  @Override
+  public void blocking(Execution execution, long queuedNanos, long runNanos) {
+    Timings timings = timings(execution);
+    timings.blocking.record(runNanos);
+    timings.blockingQueueing.record(queuedNanos);
+  }
+
+  private Timings timings(Execution execution) {
+    String key = key(execution);
+    Timings existing = timings.get(key);
+    return existing == null ? timings.computeIfAbsent(key, k -> new Timings()) : existing;
+  }
+
+  private String key(Execution execution) {
+    Optional<Context> context = execution.maybeGet(Context.class);
+    if (context.isPresent() && context.get() instanceof DefaultContext) {
+      Handler handler = ((DefaultContext) context.get()).getCurrentHandler();
+      if (handler != null) {
+        Class<?> describedClass = handler instanceof DescribingHandler ? ((DescribingHandler) handler).getDescribedClass() : handler.getClass();
+        String description = descriptions.get(describedClass);
+        return description == null ? descriptions.computeIfAbsent(describedClass, c -> describe(handler)) : description;
+      }
+    }
+    return NON_REQUEST;
+  }
+
+  private static String describe(Handler handler) {
+    StringBuilder description = new StringBuilder();
+    if (handler instanceof DescribingHandler) {
+      ((DescribingHandler) handler).describeTo(description);
+    } else {
+      DescribingHandlers.describeTo(handler, description);
+    }
+    return description.toString();
+  }
+
+  @Override
+  public ImmutableSortedMap<String, Snapshot> getSnapshot() {
+    ImmutableSortedMap.Builder<String, Snapshot> builder = ImmutableSortedMap.naturalOrder();
+    for (Map.Entry<String, Timings> entry : timings.entrySet()) {
+      Timings value = entry.getValue();
+      HandlerTimings.Timer compute = value.compute.snapshot();
+      HandlerTimings.Timer eventLoopQueueing = value.eventLoopQueueing.snapshot();
+      HandlerTimings.Timer blocking = value.blocking.snapshot();
+      HandlerTimings.Timer blockingQueueing = value.blockingQueueing.snapshot();
+      builder.put(entry.getKey(), new Snapshot() {
+        @Override
+        public HandlerTimings.Timer getCompute() {
+          return compute;
+        }
+
+        @Override
+        public HandlerTimings.Timer getEventLoopQueueing() {
+          return eventLoopQueueing;
+        }
+
+        @Override
+        public HandlerTimings.Timer getBlocking() {
+          return blocking;
+        }
+
+        @Override
+        public HandlerTimings.Timer getBlockingQueueing() {
+          return blockingQueueing;
+        }
+      });
+    }
+    return builder.build();
+  }
+
+  @Override
+  public void reset() {
+    timings.clear();
+  }
+
+}
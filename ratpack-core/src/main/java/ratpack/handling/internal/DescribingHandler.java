@@ -22,4 +22,13 @@ public interface DescribingHandler extends Handler {
 
   void describeTo(StringBuilder stringBuilder);
 
+  /**
+   * The class that the description is derived from, which handlers of the same described class share.
+   *
+   * @return the class that the description is derived from
+   */
+  default Class<?> getDescribedClass() {
+    return getClass();
+  }
+
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.handling.internal;
+
+import ratpack.handling.Handler;
+
+/**
+ * A handler that only routes the request, which the context can apply as part of dispatching rather than by calling into the handler.
+ * <p>
+ * Such handlers {@link DefaultContext#push push} handlers instead of {@link ratpack.handling.Context#insert inserting} them,
+ * and return instead of calling {@link ratpack.handling.Context#next()}, so that passing through them doesn't grow the stack.
+ * <p>
+ * The {@link #handle(ratpack.handling.Context)} method must still implement the same behaviour, for contexts that don't support this.
+ */
+public interface InlineHandler extends Handler {
+
+  /**
+   * Applies this handler during dispatch.
+   *
+   * @param context the context of the request
+   * @return {@code true} if dispatch should continue with the next handler, or {@code false} if {@link #handle(ratpack.handling.Context)} should be called
+   * @throws Exception any
+   */
+  boolean inline(DefaultContext context) throws Exception;
+
+}
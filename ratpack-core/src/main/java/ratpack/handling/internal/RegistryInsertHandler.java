@@ -20,7 +20,7 @@ import ratpack.handling.Context;
 import ratpack.handling.Handler;
 import ratpack.registry.Registry;
 
-public class RegistryInsertHandler implements Handler {
+public class RegistryInsertHandler implements InlineHandler {
 
   private final Handler handler;
   private final Registry registry;
@@ -34,4 +34,10 @@ public class RegistryInsertHandler implements Handler {
     context.insert(registry, handler);
   }
 
+  @Override
+  public boolean inline(DefaultContext context) {
+    context.push(registry, handler);
+    return true;
+  }
+
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.handling.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.reflect.TypeToken;
+import ratpack.api.Nullable;
+import ratpack.handling.ResolutionCacheStats;
+import ratpack.parse.Parser;
+import ratpack.registry.Registry;
+import ratpack.render.internal.RendererResolution;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the renderers and parsers to use for a request, as resolved from the server registry.
+ * <p>
+ * Resolutions are cached when the registry of the context is the server registry, joined with registries that do not provide renderers or parsers.
+ * The server registry does not change after it is built, so such resolutions are the same for every request.
+ * The renderers and parsers are cached as the instances found in the registry at the time, and are not looked up again.
+ * <p>
+ * Parser resolutions are keyed by the request content type, which is supplied by the client,
+ * so the number of cached parser resolutions is bounded and further ones are not cached.
+ */
+public class ResolutionCache implements ResolutionCacheStats {
+
+  private static final TypeToken<Parser<?>> PARSER_TYPE = new TypeToken<Parser<?>>() {};
+
+  static final int MAX_PARSER_RESOLUTIONS = 256;
+
+  private final ConcurrentMap<Class<?>, RendererResolution> rendererResolutions = new ConcurrentHashMap<>();
+  private final ConcurrentMap<ParserKey, ImmutableList<Parser<?>>> parserResolutions = new ConcurrentHashMap<>();
+
+  private final Stats rendererStats = new Stats();
+  private final Stats parserStats = new Stats();
+
+  /**
+   * Resolves the decorators and renderer for the given type.
+   *
+   * @param registry the registry of the context
+   * @param joined the registries joined to the server registry to form the registry of the context, or {@code null} if none
+   * @param type the runtime type of the object to render
+   * @return the decorators and renderer for the type
+   */
+  public RendererResolution renderers(Registry registry, @Nullable Registry joined, Class<?> type) {
+    if (joined != null && RendererResolution.isAffectedBy(joined)) {
+      rendererStats.bypasses.increment();
+      return RendererResolution.resolve(registry, type);
+    }
+
+    RendererResolution resolution = rendererResolutions.get(type);
+    if (resolution == null) {
+      rendererStats.misses.increment();
+      resolution = RendererResolution.resolve(registry, type);
+      rendererResolutions.putIfAbsent(type, resolution);
+    } else {
+      rendererStats.hits.increment();
+    }
+    return resolution;
+  }
+
+  /**
+   * Resolves the parsers that may be able to parse a request body, in the order that they should be tried.
+   *
+   * @param registry the registry of the context
+   * @param joined the registries joined to the server registry to form the registry of the context, or {@code null} if none
+   * @param contentType the content type of the request body
+   * @param opts the parse options
+   * @return the parsers that may be able to parse the request body
+   */
+  public ImmutableList<Parser<?>> parsers(Registry registry, @Nullable Registry joined, String contentType, @Nullable Object opts) {
+    Class<?> optsType = opts == null ? null : opts.getClass();
+    if (joined != null && joined.maybeGet(PARSER_TYPE).isPresent()) {
+      parserStats.bypasses.increment();
+      return resolveParsers(registry, contentType, optsType);
+    }
+
+    ParserKey key = new ParserKey(contentType, optsType);
+    ImmutableList<Parser<?>> resolution = parserResolutions.get(key);
+    if (resolution == null) {
+      parserStats.misses.increment();
+      resolution = resolveParsers(registry, contentType, optsType);
+      if (parserResolutions.size() < MAX_PARSER_RESOLUTIONS) {
+        parserResolutions.putIfAbsent(key, resolution);
+      }
+    } else {
+      parserStats.hits.increment();
+    }
+    return resolution;
+  }
+
+  private static ImmutableList<Parser<?>> resolveParsers(Registry registry, String contentType, @Nullable Class<?> optsType) {
+    if (optsType == null) {
+      return ImmutableList.of();
+    }
+
+    ImmutableList.Builder<Parser<?>> parsers = ImmutableList.builder();
+    for (Parser<?> parser : registry.getAll(PARSER_TYPE)) {
+      if (parser.getContentType().equalsIgnoreCase(contentType) && parser.getOptsType().isAssignableFrom(optsType)) {
+        parsers.add(parser);
+      }
+    }
+    return parsers.build();
+  }
+
+  @Override
+  public CacheStats getRenderers() {
+    return rendererStats;
+  }
+
+  @Override
+  public CacheStats getParsers() {
+    return parserStats;
+  }
+
+  private static class Stats implements CacheStats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+
+    @Override
+    public long getHitCount() {
+      return hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+      return misses.sum();
+    }
+
+    @Override
+    public long getBypassCount() {
+      return bypasses.sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+      long hitCount = getHitCount();
+      long total = hitCount + getMissCount() + getBypassCount();
+      return total == 0 ? 1.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+      return "CacheStats{hits=" + getHitCount() + ", misses=" + getMissCount() + ", bypasses=" + getBypassCount() + '}';
+    }
+  }
+
+  private static class ParserKey {
+    private final String contentType;
+    private final Class<?> optsType;
+
+    ParserKey(String contentType, @Nullable Class<?> optsType) {
+      this.contentType = contentType;
+      this.optsType = optsType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+
+      ParserKey that = (ParserKey) o;
+
+      return contentType.equals(that.contentType) && Objects.equals(optsType, that.optsType);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * contentType.hashCode() + Objects.hashCode(optsType);
+    }
+  }
+
+}
@@ -16,10 +16,12 @@
 
 package ratpack.health;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedMap;
-import com.google.common.collect.Maps;
+import com.google.common.collect.Lists;
 import com.google.common.reflect.TypeToken;
 import ratpack.exec.ExecControl;
+import ratpack.exec.ParallelBatch;
 import ratpack.exec.Promise;
 import ratpack.exec.Throttle;
 import ratpack.handling.Context;
@@ -27,10 +29,10 @@ import ratpack.handling.Handler;
 import ratpack.registry.Registry;
 
 import java.util.Collections;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 /**
  * A handler that executes {@link HealthCheck health checks} and renders the results.
@@ -93,6 +95,9 @@ import java.util.concurrent.atomic.AtomicInteger;
  * <pre>{@code name : HEALTHY|UNHEALTHY [message] [exception]}</pre>
  * <p>
  * To change the output format, simply add your own renderer for this type to the registry.
+ * <p>
+ * Health check names are expected to be unique.
+ * If more than one health check has the same name, the results contain the result of the last of them in registry order.
  *
  * <h3>Concurrency</h3>
  * <p>
@@ -225,30 +230,21 @@ public class HealthCheckHandler implements Handler {
   }
 
   private Promise<HealthCheckResults> execute(ExecControl execControl, Registry registry, Iterable<? extends HealthCheck> healthChecks) {
-    Iterator<? extends HealthCheck> iterator = healthChecks.iterator();
-    if (!iterator.hasNext()) {
-      return execControl.promiseOf(new HealthCheckResults(ImmutableSortedMap.of()));
-    }
-
-    return execControl.<Map<String, HealthCheck.Result>>promise(f -> {
-      AtomicInteger counter = new AtomicInteger();
-      Map<String, HealthCheck.Result> results = Maps.newConcurrentMap();
-      while (iterator.hasNext()) {
-        counter.incrementAndGet();
-        HealthCheck healthCheck = iterator.next();
-        execControl.fork().start(e ->
-            execute(e, registry, healthCheck)
-              .throttled(throttle)
-              .then(r -> {
-                results.put(healthCheck.getName(), r);
-                if (counter.decrementAndGet() == 0 && !iterator.hasNext()) {
-                  f.success(results);
-                }
-              })
-        );
-      }
-    })
-      .map(ImmutableSortedMap::copyOf)
+    List<HealthCheck> checks = ImmutableList.copyOf(healthChecks);
+    // each check is only invoked once its promise is subscribed to, within its own forked execution
+    List<Promise<HealthCheck.Result>> promises = Lists.transform(checks, healthCheck ->
+      execControl.promiseOf(healthCheck).flatMap(check -> execute(execControl, registry, check)).throttled(throttle)
+    );
+
+    return ParallelBatch.of(promises).yield()
+      .map(results -> {
+        // health checks with the same name replace each other, the last one winning
+        SortedMap<String, HealthCheck.Result> byName = new TreeMap<>();
+        for (int i = 0; i < checks.size(); ++i) {
+          byName.put(checks.get(i).getName(), results.get(i));
+        }
+        return ImmutableSortedMap.copyOfSorted(byName);
+      })
       .map(HealthCheckResults::new);
   }
 }
@@ -18,9 +18,12 @@ package ratpack.http;
 
 import com.google.common.net.HostAndPort;
 import com.google.common.reflect.TypeToken;
+import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.cookie.Cookie;
 import ratpack.api.Nullable;
+import ratpack.exec.Promise;
 import ratpack.registry.MutableRegistry;
+import ratpack.stream.TransformablePublisher;
 import ratpack.util.MultiValueMap;
 
 import java.util.Set;
@@ -103,11 +106,50 @@ public interface Request extends MutableRegistry {
    * The body of the request.
    * <p>
    * If this request does not have a body, an non null object is still returned but it effectively has no data.
+   * <p>
+   * If the server is {@link ratpack.server.ServerConfig#isStreamRequestBodies() streaming request bodies},
+   * the body is only available once it has been received via {@link #readBody()}.
+   * This also applies to {@link ratpack.handling.Context#parse(Class) parsing} the body, which uses this method.
    *
    * @return the body of the request
+   * @throws IllegalStateException if the server is streaming request bodies and the body has not been {@link #readBody() read}
+   * @see #readBody()
+   * @see #getBodyStream()
    */
   TypedData getBody();
 
+  /**
+   * Receives the entire body of the request.
+   * <p>
+   * If the server is {@link ratpack.server.ServerConfig#isStreamRequestBodies() streaming request bodies},
+   * this subscribes to the {@link #getBodyStream() body stream} and buffers the body in memory.
+   * Once the promised body has been received, it is also returned by {@link #getBody()}, which allows it to be {@link ratpack.handling.Context#parse(Class) parsed}.
+   * Otherwise, the body has already been received and is promised immediately.
+   * <p>
+   * As the body stream can only be subscribed to once, the body must not be read via both this method and {@link #getBodyStream()} when streaming.
+   *
+   * @return a promise for the body of the request
+   */
+  Promise<TypedData> readBody();
+
+  /**
+   * The body of the request, as a stream of buffers.
+   * <p>
+   * If the server is {@link ratpack.server.ServerConfig#isStreamRequestBodies() streaming request bodies},
+   * the buffers are emitted as they are received from the client.
+   * Reading from the connection is suspended while there is received content that has not been requested by the subscriber,
+   * which allows large bodies to be processed (e.g. proxied or written to disk) without holding them in memory.
+   * Otherwise, the already received body is emitted as a single buffer.
+   * <p>
+   * The stream can only be subscribed to once, regardless of whether the body is streamed.
+   * The subscriber takes ownership of each emitted buffer, and is responsible for releasing it.
+   * If the body exceeds the {@link ratpack.server.ServerConfig#getMaxContentLength() max content length}, the stream will be terminated with an error.
+   * If the request is handled without the stream being subscribed to, the body is discarded.
+   *
+   * @return the body of the request, as a stream of buffers
+   */
+  TransformablePublisher<ByteBuf> getBodyStream();
+
   /**
    * The request headers.
    *
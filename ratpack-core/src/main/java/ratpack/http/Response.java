@@ -169,6 +169,8 @@ public interface Response extends ResponseMetaData {
 
   /**
    * Prevents the response from being compressed.
+   * <p>
+   * This has no effect if the response already has a content encoding, such as when sending a precompressed file.
    *
    * @return {@code this}
    */
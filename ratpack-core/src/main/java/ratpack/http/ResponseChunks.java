@@ -124,6 +124,22 @@ public class ResponseChunks implements Renderable {
     return new ResponseChunks(contentType, byteBufAllocator -> publisher);
   }
 
+  /**
+   * Transmit each set of bytes emitted by the publisher created by the given function as a chunk.
+   * <p>
+   * The function is given the byte buffer allocator of the response when rendered.
+   * This allows the publisher to write its chunks into pooled buffers, without having to obtain an allocator upfront.
+   * <p>
+   * The content type of the response is set to the given content type.
+   *
+   * @param contentType the value for the content-type header
+   * @param publisherFactory a function that creates a publisher of byte buffers, given the allocator to use
+   * @return a renderable object
+   */
+  public static ResponseChunks allocatedBufferChunks(CharSequence contentType, Function<? super ByteBufAllocator, ? extends Publisher<? extends ByteBuf>> publisherFactory) {
+    return new ResponseChunks(contentType, publisherFactory);
+  }
+
   private final Function<? super ByteBufAllocator, ? extends Publisher<? extends ByteBuf>> publisherFactory;
   private final CharSequence contentType;
 
@@ -35,4 +35,21 @@ public interface SentResponse {
    */
   Headers getHeaders();
 
+  /**
+   * The number of bytes of the response body that were written.
+   *
+   * @return the number of bytes of the response body that were written
+   */
+  long getBytesWritten();
+
+  /**
+   * The number of times that the response was flushed to the client.
+   * <p>
+   * Responses with a body that is fully buffered in memory are flushed once.
+   * Streamed responses are flushed once for each item, unless a {@link ratpack.server.ServerConfig#getResponseFlushThreshold() flush threshold} is set.
+   *
+   * @return the number of times that the response was flushed to the client
+   */
+  int getFlushes();
+
 }
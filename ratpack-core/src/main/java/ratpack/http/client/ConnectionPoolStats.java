@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.client;
+
+/**
+ * Statistics about the connections pooled by a {@link HttpClient}, across all hosts and event loops.
+ * <p>
+ * The statistics of the server's http client are available from the server registry.
+ * <p>
+ * The values are read without synchronisation, and are therefore only approximate while requests are in flight.
+ *
+ * @see HttpClient#getConnectionPoolStats()
+ */
+public interface ConnectionPoolStats {
+
+  /**
+   * The number of connections that are currently being used for a request.
+   *
+   * @return the number of connections that are currently being used for a request
+   */
+  int getActiveCount();
+
+  /**
+   * The number of open connections that are waiting in the pool to be reused.
+   *
+   * @return the number of open connections that are waiting in the pool to be reused
+   */
+  int getIdleCount();
+
+  /**
+   * The number of requests that are waiting for a connection, because the pool for the target host is at capacity.
+   *
+   * @return the number of requests that are waiting for a connection
+   */
+  int getPendingAcquireCount();
+
+  /**
+   * The total number of connections that have been opened.
+   *
+   * @return the total number of connections that have been opened
+   */
+  long getCreatedCount();
+
+  /**
+   * The total number of times that a pooled connection has been reused for a request.
+   *
+   * @return the total number of times that a pooled connection has been reused
+   */
+  long getReusedCount();
+
+  /**
+   * The total number of pooled connections that have been closed after being idle for longer than the {@link HttpClientConfigSpec#poolIdleTimeout(java.time.Duration) idle timeout}.
+   *
+   * @return the total number of pooled connections that have been closed due to being idle
+   */
+  long getEvictedCount();
+
+}
@@ -21,6 +21,7 @@ import ratpack.exec.ExecController;
 import ratpack.exec.Promise;
 import ratpack.func.Action;
 import ratpack.http.client.internal.DefaultHttpClient;
+import ratpack.http.client.internal.DefaultHttpClientConfigSpec;
 import ratpack.registry.Registry;
 import ratpack.server.ServerConfig;
 
@@ -95,7 +96,7 @@ public interface HttpClient {
    * @return An instance of a HttpClient
    */
   static HttpClient httpClient(ServerConfig serverConfig, Registry registry) {
-    return new DefaultHttpClient(registry.get(ExecController.class), registry.get(ByteBufAllocator.class), serverConfig.getMaxContentLength());
+    return httpClient(registry.get(ExecController.class), registry.get(ByteBufAllocator.class), serverConfig.getMaxContentLength());
   }
 
   /**
@@ -107,7 +108,26 @@ public interface HttpClient {
    * @return An instance of a HttpClient
    */
   static HttpClient httpClient(ExecController execController, ByteBufAllocator byteBufAllocator, int maxContentLengthBytes) {
-    return new DefaultHttpClient(execController, byteBufAllocator, maxContentLengthBytes);
+    DefaultHttpClientConfigSpec spec = new DefaultHttpClientConfigSpec();
+    spec.maxContentLength(maxContentLengthBytes);
+    return new DefaultHttpClient(execController, byteBufAllocator, spec);
+  }
+
+  /**
+   * A method to create an instance of the default implementation of HttpClient, configured by the given action.
+   * <p>
+   * Connections made by the returned client are kept alive and pooled, as configured by the {@link HttpClientConfigSpec}.
+   *
+   * @param execController The ExecController used while making the requests.
+   * @param byteBufAllocator What ByteBufAllocator to use with the underlying Netty request.
+   * @param action An action that configures the client
+   * @return An instance of a HttpClient
+   * @throws Exception any thrown by {@code action}
+   */
+  static HttpClient httpClient(ExecController execController, ByteBufAllocator byteBufAllocator, Action<? super HttpClientConfigSpec> action) throws Exception {
+    DefaultHttpClientConfigSpec spec = new DefaultHttpClientConfigSpec();
+    action.execute(spec);
+    return new DefaultHttpClient(execController, byteBufAllocator, spec);
   }
 
   /**
@@ -155,4 +175,12 @@ public interface HttpClient {
    * @see ratpack.http.client.StreamedResponse
    */
   Promise<StreamedResponse> requestStream(URI uri, final Action<? super RequestSpec> requestConfigurer);
+
+  /**
+   * The current state of the pool of connections used by this client.
+   *
+   * @return the current state of the pool of connections used by this client
+   */
+  ConnectionPoolStats getConnectionPoolStats();
+
 }
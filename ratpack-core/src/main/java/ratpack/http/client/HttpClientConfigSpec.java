@@ -0,0 +1,163 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.client;
+
+import javax.net.ssl.SSLContext;
+import java.time.Duration;
+
+/**
+ * The configuration of a {@link HttpClient}.
+ * <p>
+ * Connections are pooled per event loop.
+ * Each request is sent on a connection that belongs to the event loop of the execution that made the request,
+ * which means that the connection is never shared between threads.
+ * As such, the pool limits apply per target host, per event loop.
+ *
+ * @see HttpClient#httpClient(ratpack.exec.ExecController, io.netty.buffer.ByteBufAllocator, ratpack.func.Action)
+ */
+public interface HttpClientConfigSpec {
+
+  /**
+   * The default max number of connections to a single host, per event loop, {@value}.
+   */
+  int DEFAULT_POOL_SIZE = 16;
+
+  /**
+   * The default max number of requests that can be waiting for a connection to a single host, per event loop, {@value}.
+   */
+  int DEFAULT_MAX_PENDING_ACQUIRES = 1024;
+
+  /**
+   * The default time that a pooled connection can be idle before it is closed.
+   */
+  Duration DEFAULT_POOL_IDLE_TIMEOUT = Duration.ofSeconds(60);
+
+  /**
+   * The default time to wait for a connection to be established.
+   */
+  Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(30);
+
+  /**
+   * The default time that a request can wait for a pooled connection to become available.
+   */
+  Duration DEFAULT_ACQUIRE_TIMEOUT = Duration.ofSeconds(30);
+
+  /**
+   * The default time that a resolved host address is cached for.
+   */
+  Duration DEFAULT_DNS_CACHE_TTL = Duration.ofSeconds(30);
+
+  /**
+   * The max number of bytes a response body can be when it is {@link HttpClient#request(java.net.URI, ratpack.func.Action) aggregated}.
+   * <p>
+   * Defaults to {@link ratpack.server.ServerConfig#DEFAULT_MAX_CONTENT_LENGTH}.
+   *
+   * @param maxContentLength the max content length of an aggregated response
+   * @return {@code this}
+   */
+  HttpClientConfigSpec maxContentLength(int maxContentLength);
+
+  /**
+   * The max number of connections that will be opened to a single host, per event loop.
+   * <p>
+   * Connections are kept alive and reused between requests.
+   * If the pool size is {@code 0}, connections are not pooled and are closed after each request.
+   * <p>
+   * Defaults to {@link #DEFAULT_POOL_SIZE}.
+   *
+   * @param poolSize the max number of connections to a single host, per event loop
+   * @return {@code this}
+   */
+  HttpClientConfigSpec poolSize(int poolSize);
+
+  /**
+   * The time that a pooled connection can be idle before it is closed.
+   * <p>
+   * Defaults to {@link #DEFAULT_POOL_IDLE_TIMEOUT}.
+   *
+   * @param idleTimeout the time that a pooled connection can be idle before it is closed
+   * @return {@code this}
+   */
+  HttpClientConfigSpec poolIdleTimeout(Duration idleTimeout);
+
+  /**
+   * The max number of requests that can be waiting for a connection to a single host, per event loop, when all pooled connections are in use.
+   * <p>
+   * Requests made when this many requests are already waiting will fail immediately.
+   * <p>
+   * Defaults to {@link #DEFAULT_MAX_PENDING_ACQUIRES}.
+   *
+   * @param maxPendingAcquires the max number of requests that can be waiting for a connection
+   * @return {@code this}
+   */
+  HttpClientConfigSpec maxPendingAcquires(int maxPendingAcquires);
+
+  /**
+   * The time that a request can wait for a pooled connection to become available, before failing with a {@link java.util.concurrent.TimeoutException}.
+   * <p>
+   * Requests only wait when all pooled connections to the host are in use, up to the {@link #maxPendingAcquires(int) max pending acquires}.
+   * <p>
+   * Defaults to {@link #DEFAULT_ACQUIRE_TIMEOUT}.
+   *
+   * @param acquireTimeout the time to wait for a pooled connection
+   * @return {@code this}
+   */
+  HttpClientConfigSpec acquireTimeout(Duration acquireTimeout);
+
+  /**
+   * The time to wait for a connection to a host to be established, before failing the request with a {@link io.netty.channel.ConnectTimeoutException}.
+   * <p>
+   * This does not include the time taken to resolve the host's address.
+   * <p>
+   * Defaults to {@link #DEFAULT_CONNECT_TIMEOUT}.
+   *
+   * @param connectTimeout the time to wait for a connection to be established
+   * @return {@code this}
+   */
+  HttpClientConfigSpec connectTimeout(Duration connectTimeout);
+
+  /**
+   * The time that the address of a host is cached for, once resolved.
+   * <p>
+   * Host names are resolved on the {@link ratpack.exec.ExecController#getBlockingExecutor() blocking executor}, so that event loops are never blocked waiting for DNS.
+   * Concurrent requests for the same host share a single lookup.
+   * Failed lookups are not cached.
+   * The JVM's own address cache (see {@code networkaddress.cache.ttl}) still applies to the lookups themselves.
+   * <p>
+   * If the ttl is zero, addresses are not cached and are resolved each time a new connection is opened.
+   * <p>
+   * Defaults to {@link #DEFAULT_DNS_CACHE_TTL}.
+   *
+   * @param ttl the time that a resolved address is cached for
+   * @return {@code this}
+   */
+  HttpClientConfigSpec dnsCacheTtl(Duration ttl);
+
+  /**
+   * The SSL context to use for {@code https} requests.
+   * <p>
+   * A single SSL context is used for all connections made by the client, with each engine created for the target host and port.
+   * This allows TLS sessions to be resumed when new connections are made to a host, avoiding a full handshake.
+   * <p>
+   * Defaults to {@link SSLContext#getDefault()}.
+   *
+   * @param sslContext the SSL context to use for {@code https} requests
+   * @return {@code this}
+   */
+  HttpClientConfigSpec sslContext(SSLContext sslContext);
+
+}
@@ -17,12 +17,14 @@
 package ratpack.http.client;
 
 import io.netty.buffer.ByteBuf;
+import org.reactivestreams.Publisher;
 import ratpack.func.Action;
 import ratpack.http.MutableHeaders;
 
 import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.time.Duration;
 
 import static java.time.temporal.ChronoUnit.SECONDS;
@@ -164,6 +166,50 @@ public interface RequestSpec {
      */
     Body text(CharSequence text, Charset charset);
 
+    /**
+     * Specifies the request body as a stream of byte buffers, that are sent to the server as they are emitted.
+     * <p>
+     * Unlike the other methods of this interface, the body is not buffered in memory before the request is sent.
+     * Buffers are only requested from the publisher while the connection is writable, so a slow server applies back pressure to the publisher.
+     * Ownership of each emitted buffer is transferred to the client, which will release it once written.
+     * <p>
+     * The body is sent using chunked transfer encoding, unless a {@code "Content-Length"} header has been set.
+     * Use {@link #publisher(Publisher, long)} if the length of the body is known up front.
+     * <p>
+     * The publisher is subscribed to once per request made.
+     * If the request is redirected with a {@code 307} status, the publisher will be subscribed to again for the redirected request.
+     *
+     * @param publisher the publisher of the request body
+     * @return this
+     * @see #publisher(Publisher, long)
+     */
+    Body publisher(Publisher<? extends ByteBuf> publisher);
+
+    /**
+     * Specifies the request body as a stream of byte buffers of a known length.
+     * <p>
+     * Behaves the same as {@link #publisher(Publisher)}, except that the {@code "Content-Length"} header is set to the given value instead of using chunked transfer encoding.
+     * The publisher must emit exactly {@code contentLength} bytes.
+     *
+     * @param publisher the publisher of the request body
+     * @param contentLength the total number of bytes that the publisher will emit
+     * @return this
+     */
+    Body publisher(Publisher<? extends ByteBuf> publisher, long contentLength);
+
+    /**
+     * Specifies the request body as the content of the given file.
+     * <p>
+     * The file is not read into memory.
+     * Its content is streamed to the server when the request is sent, with the {@code "Content-Length"} header set to the size of the file at that time.
+     * When the connection is not secured with TLS and the file is on the default file system, the file is transferred with zero copy, directly from the file system to the socket.
+     * Otherwise, it is read in chunks as the connection becomes writable.
+     *
+     * @param file the file to send as the request body
+     * @return this
+     */
+    Body file(Path file);
+
   }
 
 }
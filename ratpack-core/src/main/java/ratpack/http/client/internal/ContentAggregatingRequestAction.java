@@ -38,8 +38,8 @@ class ContentAggregatingRequestAction extends RequestActionSupport<ReceivedRespo
 
   private final int maxContentLengthBytes;
 
-  public ContentAggregatingRequestAction(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator, int maxContentLengthBytes) {
-    super(requestConfigurer, uri, execution, byteBufAllocator);
+  public ContentAggregatingRequestAction(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator, HttpChannelPool channelPool, int maxContentLengthBytes) {
+    super(requestConfigurer, uri, execution, byteBufAllocator, channelPool);
     this.maxContentLengthBytes = maxContentLengthBytes;
   }
 
@@ -55,6 +55,7 @@ class ContentAggregatingRequestAction extends RequestActionSupport<ReceivedRespo
         final ByteBufBackedTypedData typedData = new ByteBufBackedTypedData(responseBuffer, DefaultMediaType.get(contentType));
         final Status status = new DefaultStatus(msg.status());
 
+        release(ctx.channel(), msg);
         success(fulfiller, new DefaultReceivedResponse(status, headers, typedData));
       }
 
@@ -68,7 +69,7 @@ class ContentAggregatingRequestAction extends RequestActionSupport<ReceivedRespo
 
   @Override
   protected RequestActionSupport<ReceivedResponse> buildRedirectRequestAction(Action<? super RequestSpec> redirectRequestConfig, URI locationUrl) {
-    return new ContentAggregatingRequestAction(redirectRequestConfig, locationUrl, execution, byteBufAllocator, maxContentLengthBytes);
+    return new ContentAggregatingRequestAction(redirectRequestConfig, locationUrl, execution, byteBufAllocator, channelPool, maxContentLengthBytes);
   }
 
   private static ByteBuf initBufferReleaseOnExecutionClose(final ByteBuf responseBuffer, Execution execution) {
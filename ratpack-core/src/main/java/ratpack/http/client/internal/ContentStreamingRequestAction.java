@@ -50,13 +50,13 @@ import static ratpack.util.Exceptions.uncheck;
 class ContentStreamingRequestAction extends RequestActionSupport<StreamedResponse> {
   private final AtomicBoolean subscribedTo = new AtomicBoolean();
 
-  public ContentStreamingRequestAction(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator) {
-    super(requestConfigurer, uri, execution, byteBufAllocator);
+  public ContentStreamingRequestAction(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator, HttpChannelPool channelPool) {
+    super(requestConfigurer, uri, execution, byteBufAllocator, channelPool);
   }
 
   @Override
   protected RequestActionSupport<StreamedResponse> buildRedirectRequestAction(Action<? super RequestSpec> redirectRequestConfig, URI locationUrl) {
-    return new ContentStreamingRequestAction(redirectRequestConfig, locationUrl, execution, byteBufAllocator);
+    return new ContentStreamingRequestAction(redirectRequestConfig, locationUrl, execution, byteBufAllocator, channelPool);
   }
 
   @Override
@@ -75,7 +75,7 @@ class ContentStreamingRequestAction extends RequestActionSupport<StreamedRespons
         final Headers headers = new NettyHeadersBackedHeaders(msg.headers());
         final Status status = new DefaultStatus(msg.status());
 
-        success(fulfiller, new DefaultStreamedResponse(p, status, headers));
+        success(fulfiller, new DefaultStreamedResponse(p, msg, status, headers));
       }
 
       @Override
@@ -88,11 +88,13 @@ class ContentStreamingRequestAction extends RequestActionSupport<StreamedRespons
 
   private class DefaultStreamedResponse implements StreamedResponse {
     private final ChannelPipeline channelPipeline;
+    private final HttpResponse response;
     private final Status status;
     private final Headers headers;
 
-    public DefaultStreamedResponse(ChannelPipeline p, Status status, Headers headers) {
+    public DefaultStreamedResponse(ChannelPipeline p, HttpResponse response, Status status, Headers headers) {
       this.channelPipeline = p;
+      this.response = response;
       this.status = status;
       this.headers = headers;
     }
@@ -114,7 +116,7 @@ class ContentStreamingRequestAction extends RequestActionSupport<StreamedRespons
 
     @Override
     public TransformablePublisher<ByteBuf> getBody() {
-      return Streams.transformable(new HttpContentPublisher(channelPipeline));
+      return Streams.transformable(new HttpContentPublisher(channelPipeline, response));
     }
 
     @Override
@@ -140,10 +142,12 @@ class ContentStreamingRequestAction extends RequestActionSupport<StreamedRespons
   private class HttpContentPublisher implements Publisher<ByteBuf> {
     private Subscriber<? super ByteBuf> subscriber;
     private final ChannelPipeline channelPipeline;
+    private final HttpResponse response;
     private final AtomicBoolean stopped = new AtomicBoolean();
 
-    public HttpContentPublisher(ChannelPipeline p) {
+    public HttpContentPublisher(ChannelPipeline p, HttpResponse response) {
       this.channelPipeline = p;
+      this.response = response;
     }
 
     @Override
@@ -158,6 +162,7 @@ class ContentStreamingRequestAction extends RequestActionSupport<StreamedRespons
           subscriber.onNext(msg.content());
 
           if (msg instanceof LastHttpContent && stopped.compareAndSet(false, true)) {
+            release(ctx.channel(), response);
             subscriber.onComplete();
           }
         }
@@ -194,8 +199,10 @@ class ContentStreamingRequestAction extends RequestActionSupport<StreamedRespons
 
         @Override
         public void cancel() {
-          stopped.set(true);
-          channelPipeline.channel().close();
+          // once the response has been fully read, the connection may already be in use by another request
+          if (stopped.compareAndSet(false, true)) {
+            channelPipeline.channel().close();
+          }
         }
       });
     }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.client.internal;
+
+import ratpack.http.client.ConnectionPoolStats;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+class DefaultConnectionPoolStats implements ConnectionPoolStats {
+
+  final AtomicInteger active = new AtomicInteger();
+  final AtomicInteger idle = new AtomicInteger();
+  final AtomicInteger pendingAcquires = new AtomicInteger();
+  final LongAdder created = new LongAdder();
+  final LongAdder reused = new LongAdder();
+  final LongAdder evicted = new LongAdder();
+
+  @Override
+  public int getActiveCount() {
+    return active.get();
+  }
+
+  @Override
+  public int getIdleCount() {
+    return idle.get();
+  }
+
+  @Override
+  public int getPendingAcquireCount() {
+    return pendingAcquires.get();
+  }
+
+  @Override
+  public long getCreatedCount() {
+    return created.sum();
+  }
+
+  @Override
+  public long getReusedCount() {
+    return reused.sum();
+  }
+
+  @Override
+  public long getEvictedCount() {
+    return evicted.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "ConnectionPoolStats{active=" + getActiveCount() + ", idle=" + getIdleCount() + ", pendingAcquires=" + getPendingAcquireCount()
+      + ", created=" + getCreatedCount() + ", reused=" + getReusedCount() + ", evicted=" + getEvictedCount() + "}";
+  }
+}
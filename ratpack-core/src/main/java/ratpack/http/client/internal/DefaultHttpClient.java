@@ -22,6 +22,7 @@ import ratpack.exec.ExecController;
 import ratpack.exec.Execution;
 import ratpack.exec.Promise;
 import ratpack.func.Action;
+import ratpack.http.client.ConnectionPoolStats;
 import ratpack.http.client.HttpClient;
 import ratpack.http.client.ReceivedResponse;
 import ratpack.http.client.RequestSpec;
@@ -36,11 +37,18 @@ public class DefaultHttpClient implements HttpClient {
   private final ExecController execController;
   private final ByteBufAllocator byteBufAllocator;
   private final int maxContentLengthBytes;
+  private final HttpChannelPool channelPool;
 
-  public DefaultHttpClient(ExecController execController, ByteBufAllocator byteBufAllocator, int maxContentLengthBytes) {
+  public DefaultHttpClient(ExecController execController, ByteBufAllocator byteBufAllocator, DefaultHttpClientConfigSpec spec) {
     this.execController = execController;
     this.byteBufAllocator = byteBufAllocator;
-    this.maxContentLengthBytes = maxContentLengthBytes;
+    this.maxContentLengthBytes = spec.getMaxContentLength();
+    this.channelPool = new HttpChannelPool(spec, execController.getBlockingExecutor());
+  }
+
+  @Override
+  public ConnectionPoolStats getConnectionPoolStats() {
+    return channelPool.getStats();
   }
 
   @Override
@@ -66,7 +74,7 @@ public class DefaultHttpClient implements HttpClient {
     final Execution execution = execControl.getExecution();
 
     try {
-      ContentAggregatingRequestAction requestAction = new ContentAggregatingRequestAction(requestConfigurer, uri, execution, byteBufAllocator, maxContentLengthBytes);
+      ContentAggregatingRequestAction requestAction = new ContentAggregatingRequestAction(requestConfigurer, uri, execution, byteBufAllocator, channelPool, maxContentLengthBytes);
       return execController.getControl().promise(requestAction);
     } catch (Exception e) {
       throw uncheck(e);
@@ -79,7 +87,7 @@ public class DefaultHttpClient implements HttpClient {
     final Execution execution = execControl.getExecution();
 
     try {
-      ContentStreamingRequestAction requestAction = new ContentStreamingRequestAction(requestConfigurer, uri, execution, byteBufAllocator);
+      ContentStreamingRequestAction requestAction = new ContentStreamingRequestAction(requestConfigurer, uri, execution, byteBufAllocator, channelPool);
       return execController.getControl().promise(requestAction);
     } catch (Exception e) {
       throw uncheck(e);
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.client.internal;
+
+import ratpack.api.Nullable;
+import ratpack.http.client.HttpClientConfigSpec;
+import ratpack.server.ServerConfig;
+
+import javax.net.ssl.SSLContext;
+import java.time.Duration;
+
+public class DefaultHttpClientConfigSpec implements HttpClientConfigSpec {
+
+  private int maxContentLength = ServerConfig.DEFAULT_MAX_CONTENT_LENGTH;
+  private int poolSize = DEFAULT_POOL_SIZE;
+  private Duration poolIdleTimeout = DEFAULT_POOL_IDLE_TIMEOUT;
+  private int maxPendingAcquires = DEFAULT_MAX_PENDING_ACQUIRES;
+  private Duration acquireTimeout = DEFAULT_ACQUIRE_TIMEOUT;
+  private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+  private Duration dnsCacheTtl = DEFAULT_DNS_CACHE_TTL;
+  private SSLContext sslContext;
+
+  @Override
+  public HttpClientConfigSpec maxContentLength(int maxContentLength) {
+    this.maxContentLength = maxContentLength;
+    return this;
+  }
+
+  @Override
+  public HttpClientConfigSpec poolSize(int poolSize) {
+    if (poolSize < 0) {
+      throw new IllegalArgumentException("'poolSize' must be >= 0");
+    }
+    this.poolSize = poolSize;
+    return this;
+  }
+
+  @Override
+  public HttpClientConfigSpec poolIdleTimeout(Duration idleTimeout) {
+    if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+      throw new IllegalArgumentException("'idleTimeout' must be > 0");
+    }
+    this.poolIdleTimeout = idleTimeout;
+    return this;
+  }
+
+  @Override
+  public HttpClientConfigSpec maxPendingAcquires(int maxPendingAcquires) {
+    if (maxPendingAcquires < 0) {
+      throw new IllegalArgumentException("'maxPendingAcquires' must be >= 0");
+    }
+    this.maxPendingAcquires = maxPendingAcquires;
+    return this;
+  }
+
+  @Override
+  public HttpClientConfigSpec acquireTimeout(Duration acquireTimeout) {
+    if (acquireTimeout.isNegative() || acquireTimeout.isZero()) {
+      throw new IllegalArgumentException("'acquireTimeout' must be > 0");
+    }
+    this.acquireTimeout = acquireTimeout;
+    return this;
+  }
+
+  @Override
+  public HttpClientConfigSpec connectTimeout(Duration connectTimeout) {
+    if (connectTimeout.isNegative() || connectTimeout.isZero()) {
+      throw new IllegalArgumentException("'connectTimeout' must be > 0");
+    }
+    this.connectTimeout = connectTimeout;
+    return this;
+  }
+
+  @Override
+  public HttpClientConfigSpec dnsCacheTtl(Duration ttl) {
+    if (ttl.isNegative()) {
+      throw new IllegalArgumentException("'ttl' must be >= 0");
+    }
+    this.dnsCacheTtl = ttl;
+    return this;
+  }
+
+  @Override
+  public HttpClientConfigSpec sslContext(SSLContext sslContext) {
+    this.sslContext = sslContext;
+    return this;
+  }
+
+  public int getMaxContentLength() {
+    return maxContentLength;
+  }
+
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  public Duration getPoolIdleTimeout() {
+    return poolIdleTimeout;
+  }
+
+  public int getMaxPendingAcquires() {
+    return maxPendingAcquires;
+  }
+
+  public Duration getAcquireTimeout() {
+    return acquireTimeout;
+  }
+
+  public Duration getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  public Duration getDnsCacheTtl() {
+    return dnsCacheTtl;
+  }
+
+  @Nullable
+  public SSLContext getSslContext() {
+    return sslContext;
+  }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.client.internal;
+
+import io.netty.util.NetUtil;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Resolves host names off the event loop, caching the results for a fixed time.
+ * <p>
+ * Lookups are performed on the given executor, as {@link InetAddress#getByName(String)} blocks.
+ * Concurrent resolutions of the same host share a single lookup.
+ * Failed lookups are not cached, so that the next resolution of the host tries again.
+ * IP address literals are never looked up.
+ */
+class HostResolver {
+
+  private final Executor executor;
+  private final long ttlNanos;
+  private final ConcurrentMap<String, Lookup> lookups = new ConcurrentHashMap<>();
+
+  HostResolver(Executor executor, long ttlNanos) {
+    this.executor = executor;
+    this.ttlNanos = ttlNanos;
+  }
+
+  /**
+   * Resolves the address of the given host.
+   * <p>
+   * The returned future may already be complete, if the host is an IP address literal or its address is cached.
+   * Otherwise, it is completed on the lookup executor.
+   *
+   * @param host the host name or address
+   * @return a future for the address of the host
+   */
+  CompletableFuture<InetAddress> resolve(String host) {
+    byte[] literal = NetUtil.createByteArrayFromIpAddressString(host);
+    if (literal != null) {
+      CompletableFuture<InetAddress> future = new CompletableFuture<>();
+      try {
+        future.complete(InetAddress.getByAddress(host, literal));
+      } catch (UnknownHostException e) {
+        future.completeExceptionally(e);
+      }
+      return future;
+    }
+
+    if (ttlNanos == 0) {
+      return lookup(host, new Lookup()).future;
+    }
+
+    while (true) {
+      Lookup existing = lookups.get(host);
+      if (existing != null && !existing.isExpired()) {
+        return existing.future;
+      }
+
+      Lookup lookup = new Lookup();
+      boolean won = existing == null ? lookups.putIfAbsent(host, lookup) == null : lookups.replace(host, existing, lookup);
+      if (won) {
+        return lookup(host, lookup).future;
+      }
+    }
+  }
+
+  private Lookup lookup(String host, Lookup lookup) {
+    try {
+      executor.execute(() -> {
+        try {
+          InetAddress address = InetAddress.getByName(host);
+          lookup.expiresAt = System.nanoTime() + ttlNanos;
+          lookup.future.complete(address);
+        } catch (Throwable t) {
+          failed(host, lookup, t);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      failed(host, lookup, e);
+    }
+    return lookup;
+  }
+
+  private void failed(String host, Lookup lookup, Throwable throwable) {
+    lookups.remove(host, lookup);
+    lookup.future.completeExceptionally(throwable);
+  }
+
+  private static class Lookup {
+    private final CompletableFuture<InetAddress> future = new CompletableFuture<>();
+    private volatile long expiresAt;
+
+    // in flight lookups never expire, so that they are shared
+    private boolean isExpired() {
+      return future.isDone() && System.nanoTime() - expiresAt >= 0;
+    }
+  }
+
+}
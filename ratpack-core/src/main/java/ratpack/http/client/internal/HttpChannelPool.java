@@ -0,0 +1,364 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.client.internal;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.*;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
+import ratpack.http.client.ConnectionPoolStats;
+import ratpack.util.internal.ChannelImplDetector;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The connections of a http client, pooled by target host and event loop.
+ * <p>
+ * A connection is only ever used by executions bound to its event loop.
+ * Each per host pool is only accessed from its event loop, and is therefore not synchronised.
+ */
+class HttpChannelPool {
+
+  private static final AttributeKey<HostPool> HOST_POOL_ATTRIBUTE_KEY = AttributeKey.valueOf(HttpChannelPool.class.getName());
+  private static final AttributeKey<Boolean> REUSED_ATTRIBUTE_KEY = AttributeKey.valueOf(HttpChannelPool.class.getName() + ".reused");
+
+  private static final String SSL_HANDLER_NAME = "ssl";
+  private static final String CODEC_HANDLER_NAME = "codec";
+  private static final String IDLE_HANDLER_NAME = "idleTimeout";
+
+  // Handlers that live for the life of the connection, all others are per request and removed on release
+  private static final Set<String> CONNECTION_HANDLER_NAMES = ImmutableSet.of(SSL_HANDLER_NAME, CODEC_HANDLER_NAME);
+
+  private final ConcurrentMap<Key, HostPool> pools = new ConcurrentHashMap<>();
+  private final DefaultConnectionPoolStats stats = new DefaultConnectionPoolStats();
+
+  private final int poolSize;
+  private final long idleTimeoutNanos;
+  private final int maxPendingAcquires;
+  private final long acquireTimeoutNanos;
+  private final int connectTimeoutMillis;
+  private final SSLContext sslContext;
+  private final HostResolver hostResolver;
+
+  HttpChannelPool(DefaultHttpClientConfigSpec spec, Executor blockingExecutor) {
+    this.poolSize = spec.getPoolSize();
+    this.idleTimeoutNanos = spec.getPoolIdleTimeout().toNanos();
+    this.maxPendingAcquires = spec.getMaxPendingAcquires();
+    this.acquireTimeoutNanos = spec.getAcquireTimeout().toNanos();
+    this.connectTimeoutMillis = Ints.saturatedCast(spec.getConnectTimeout().toMillis());
+    this.sslContext = spec.getSslContext();
+    this.hostResolver = new HostResolver(blockingExecutor, spec.getDnsCacheTtl().toNanos());
+  }
+
+  /**
+   * Whether connections are kept alive and reused.
+   *
+   * @return whether connections are kept alive and reused
+   */
+  boolean isPooling() {
+    return poolSize > 0;
+  }
+
+  ConnectionPoolStats getStats() {
+    return stats;
+  }
+
+  /**
+   * Acquires a connection to the given host, that is bound to the given event loop.
+   * <p>
+   * The returned future may be completed immediately, on connection, or when a connection is released by another request.
+   * If no connection becomes available within the acquire timeout, the future fails with a {@link TimeoutException}.
+   *
+   * @param eventLoop the event loop of the requesting execution
+   * @param ssl whether the connection should use ssl
+   * @param host the host to connect to
+   * @param port the port to connect to
+   * @param fresh whether idle connections should be skipped, as when retrying a request that failed on one
+   * @return a future for the connection
+   */
+  Future<Channel> acquire(EventLoop eventLoop, boolean ssl, String host, int port, boolean fresh) {
+    Promise<Channel> promise = eventLoop.newPromise();
+    Key key = new Key(eventLoop, ssl, host, port);
+    // Always deferred, so that any release already scheduled by a previous request is processed first
+    eventLoop.execute(() -> pools.computeIfAbsent(key, HostPool::new).acquire(promise, fresh));
+    return promise;
+  }
+
+  /**
+   * Whether the connection was used for a previous request, and so may have since been closed by the server.
+   *
+   * @param channel the connection
+   * @return whether the connection was used for a previous request
+   */
+  static boolean isReused(Channel channel) {
+    return Boolean.TRUE.equals(channel.attr(REUSED_ATTRIBUTE_KEY).get());
+  }
+
+  /**
+   * Returns a connection to its pool after a request, removing all per request handlers.
+   * <p>
+   * If the connection cannot be reused, it is closed.
+   *
+   * @param channel the connection
+   * @param reusable whether the connection can be used for another request
+   */
+  static void release(Channel channel, boolean reusable) {
+    HostPool pool = channel.attr(HOST_POOL_ATTRIBUTE_KEY).get();
+    // Deferred, as this is typically called from within a per request handler that is about to be removed
+    channel.eventLoop().execute(() -> pool.release(channel, reusable));
+  }
+
+  private static final class Key {
+    private final EventLoop eventLoop;
+    private final boolean ssl;
+    private final String host;
+    private final int port;
+
+    private Key(EventLoop eventLoop, boolean ssl, String host, int port) {
+      this.eventLoop = eventLoop;
+      this.ssl = ssl;
+      this.host = host;
+      this.port = port;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+
+      Key key = (Key) o;
+      return eventLoop == key.eventLoop && ssl == key.ssl && port == key.port && host.equals(key.host);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(System.identityHashCode(eventLoop), ssl, host, port);
+    }
+
+    @Override
+    public String toString() {
+      return (ssl ? "https://" : "http://") + host + ":" + port;
+    }
+  }
+
+  private final class HostPool {
+    private final Key key;
+    private final Bootstrap bootstrap;
+
+    // Most recently released last, so that the least used connections are the ones that idle out
+    private final Deque<Channel> idle = new ArrayDeque<>();
+    private final Queue<Promise<Channel>> pending = new ArrayDeque<>();
+
+    // all open or opening connections, whether active or idle
+    private int size;
+
+    private HostPool(Key key) {
+      this.key = key;
+      this.bootstrap = new Bootstrap()
+        .group(key.eventLoop)
+        .channel(ChannelImplDetector.getSocketChannelImpl())
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+        .handler(new ChannelInitializer<SocketChannel>() {
+          @Override
+          protected void initChannel(SocketChannel ch) throws Exception {
+            ChannelPipeline p = ch.pipeline();
+
+            if (key.ssl) {
+              // Engines created for the peer share the context's session cache, allowing sessions to be resumed
+              SSLEngine engine = (sslContext == null ? SSLContext.getDefault() : sslContext).createSSLEngine(key.host, key.port);
+              engine.setUseClientMode(true);
+              p.addLast(SSL_HANDLER_NAME, new SslHandler(engine));
+            }
+
+            p.addLast(CODEC_HANDLER_NAME, new HttpClientCodec());
+          }
+        });
+    }
+
+    private void acquire(Promise<Channel> promise, boolean fresh) {
+      Channel channel = fresh ? null : pollIdle();
+      if (channel != null) {
+        stats.reused.increment();
+        promise.setSuccess(channel);
+      } else if (!isPooling() || size < poolSize) {
+        connect(promise);
+      } else if (pending.size() < maxPendingAcquires) {
+        stats.pendingAcquires.incrementAndGet();
+        pending.add(promise);
+        ScheduledFuture<?> timeout = key.eventLoop.schedule(() -> {
+          if (pending.remove(promise)) {
+            stats.pendingAcquires.decrementAndGet();
+            promise.tryFailure(new TimeoutException("Timed out after " + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + "ms waiting for a connection to " + key));
+          }
+        }, acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        promise.addListener(f -> timeout.cancel(false));
+      } else {
+        promise.setFailure(new IllegalStateException("Too many requests (" + pending.size() + ") are waiting for a connection to " + key));
+      }
+    }
+
+    private Channel pollIdle() {
+      Channel channel = idle.pollLast();
+      while (channel != null) {
+        stats.idle.decrementAndGet();
+        stats.active.incrementAndGet();
+        channel.pipeline().remove(IDLE_HANDLER_NAME);
+        if (channel.isActive()) {
+          return channel;
+        } else {
+          // closed but the close listener has not yet run, which will account for it as an active connection
+          channel = idle.pollLast();
+        }
+      }
+      return null;
+    }
+
+    private void connect(Promise<Channel> promise) {
+      ++size;
+      stats.active.incrementAndGet();
+
+      hostResolver.resolve(key.host).whenComplete((address, error) -> {
+        if (key.eventLoop.inEventLoop()) {
+          connect(promise, address, error);
+        } else {
+          key.eventLoop.execute(() -> connect(promise, address, error));
+        }
+      });
+    }
+
+    private void connect(Promise<Channel> promise, InetAddress address, Throwable resolveError) {
+      if (resolveError != null) {
+        stats.active.decrementAndGet();
+        removed();
+        promise.tryFailure(resolveError);
+        return;
+      }
+
+      ChannelFuture connectFuture = bootstrap.connect(new InetSocketAddress(address, key.port));
+      Channel channel = connectFuture.channel();
+      channel.attr(HOST_POOL_ATTRIBUTE_KEY).set(this);
+      channel.closeFuture().addListener(f -> closed(channel));
+      connectFuture.addListener(f -> {
+        if (connectFuture.isSuccess()) {
+          stats.created.increment();
+          if (!promise.trySuccess(channel)) {
+            release(channel, true);
+          }
+        } else {
+          channel.close();
+          promise.tryFailure(connectFuture.cause());
+        }
+      });
+    }
+
+    private void release(Channel channel, boolean reusable) {
+      ChannelPipeline pipeline = channel.pipeline();
+      for (String name : pipeline.toMap().keySet()) {
+        if (!CONNECTION_HANDLER_NAMES.contains(name)) {
+          pipeline.remove(name);
+        }
+      }
+
+      if (!reusable || !isPooling() || !channel.isActive()) {
+        channel.close();
+        return;
+      }
+
+      channel.config().setAutoRead(true);
+      // set before handing it over, as the acquirer's listener runs within trySuccess()
+      channel.attr(REUSED_ATTRIBUTE_KEY).set(true);
+
+      Promise<Channel> next = pending.poll();
+      while (next != null) {
+        stats.pendingAcquires.decrementAndGet();
+        if (next.trySuccess(channel)) {
+          stats.reused.increment();
+          return;
+        }
+        next = pending.poll();
+      }
+
+      stats.active.decrementAndGet();
+      stats.idle.incrementAndGet();
+      pipeline.addLast(IDLE_HANDLER_NAME, new IdleStateHandler(0, 0, idleTimeoutNanos, TimeUnit.NANOSECONDS) {
+        @Override
+        protected void channelIdle(ChannelHandlerContext ctx, IdleStateEvent evt) throws Exception {
+          stats.evicted.increment();
+          ctx.close();
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+          ctx.close();
+        }
+      });
+      idle.addLast(channel);
+    }
+
+    private void closed(Channel channel) {
+      if (idle.remove(channel)) {
+        stats.idle.decrementAndGet();
+      } else {
+        stats.active.decrementAndGet();
+      }
+      removed();
+    }
+
+    // a connection that counted towards the pool size has gone, which makes room for pending requests
+    private void removed() {
+      --size;
+      while (size < poolSize && !pending.isEmpty()) {
+        stats.pendingAcquires.decrementAndGet();
+        Promise<Channel> next = pending.poll();
+        if (!next.isDone()) {
+          connect(next);
+        }
+      }
+
+      if (size == 0) {
+        pools.remove(key, this);
+      }
+    }
+  }
+
+}
@@ -16,14 +16,18 @@
 
 package ratpack.http.client.internal;
 
-import io.netty.bootstrap.Bootstrap;
+import com.google.common.collect.ImmutableSet;
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.*;
-import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.PrematureChannelClosureException;
 import io.netty.handler.codec.http.*;
 import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedNioFile;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.util.concurrent.Future;
+import org.reactivestreams.Publisher;
 import ratpack.exec.Execution;
 import ratpack.exec.Fulfiller;
 import ratpack.func.Action;
@@ -35,11 +39,14 @@ import ratpack.http.internal.DefaultStatus;
 import ratpack.http.internal.HttpHeaderConstants;
 import ratpack.http.internal.NettyHeadersBackedHeaders;
 import ratpack.http.internal.NettyHeadersBackedMutableHeaders;
-import ratpack.util.internal.ChannelImplDetector;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLEngine;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
@@ -50,6 +57,9 @@ abstract class RequestActionSupport<T> implements RequestAction<T> {
 
   private static final Pattern ABSOLUTE_PATTERN = Pattern.compile("^https?://.*");
 
+  // the server may have processed a request before the connection failed, so only requests that can safely be repeated are retried
+  private static final Set<String> IDEMPOTENT_METHODS = ImmutableSet.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE", "TRACE");
+
   private final Action<? super RequestSpec> requestConfigurer;
   private final boolean finalUseSsl;
   private final String host;
@@ -59,12 +69,23 @@ abstract class RequestActionSupport<T> implements RequestAction<T> {
   private final URI uri;
   private final RequestParams requestParams;
   private final AtomicBoolean fired = new AtomicBoolean();
+  private final AtomicBoolean released = new AtomicBoolean();
+  private boolean keepAlive;
+  private volatile boolean bodyWritten = true;
+  private volatile FileChannel bodyFileChannel;
+  private volatile long bodyFileLength;
+  private Channel channel;
+  private boolean responseStarted;
+  private boolean retried;
+  private boolean bodyRetained;
 
   protected final Execution execution;
   protected final ByteBufAllocator byteBufAllocator;
+  protected final HttpChannelPool channelPool;
 
-  public RequestActionSupport(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator) {
+  public RequestActionSupport(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator, HttpChannelPool channelPool) {
     this.execution = execution;
+    this.channelPool = channelPool;
     this.requestConfigurer = requestConfigurer;
     this.byteBufAllocator = byteBufAllocator;
     this.uri = uri;
@@ -92,127 +113,293 @@ abstract class RequestActionSupport<T> implements RequestAction<T> {
   }
 
   public void execute(final Fulfiller<? super T> fulfiller) throws Exception {
+    execute(fulfiller, false);
+  }
+
+  private void execute(Fulfiller<? super T> fulfiller, boolean fresh) {
+    Path bodyFile = requestSpecBacking.getBodyFile();
+    if (bodyFile == null) {
+      connect(fulfiller, fresh);
+    } else {
+      // Opening the file may block, so is done before connecting instead of when the request is written on the event loop
+      execution.getController().getBlockingExecutor().execute(() -> {
+        try {
+          bodyFileChannel = FileChannel.open(bodyFile, StandardOpenOption.READ);
+          bodyFileLength = bodyFileChannel.size();
+        } catch (Exception e) {
+          closeBodyFile();
+          execution.getEventLoop().execute(() -> error(fulfiller, e));
+          return;
+        }
+        execution.getEventLoop().execute(() -> connect(fulfiller, fresh));
+      });
+    }
+  }
+
+  private void connect(Fulfiller<? super T> fulfiller, boolean fresh) {
+    Future<Channel> acquireFuture = channelPool.acquire(execution.getEventLoop(), finalUseSsl, host, port, fresh);
+    acquireFuture.addListener(f1 -> {
+      if (acquireFuture.isSuccess()) {
+        Channel channel = acquireFuture.getNow();
+        try {
+          send(channel, fulfiller);
+        } catch (Exception e) {
+          closeBodyFile();
+          channel.close();
+          error(fulfiller, e);
+        }
+      } else {
+        closeBodyFile();
+        error(fulfiller, acquireFuture.cause());
+      }
+    });
+  }
+
+  private void closeBodyFile() {
+    if (bodyFileChannel != null) {
+      try {
+        bodyFileChannel.close();
+      } catch (IOException ignore) {
+        // nothing useful can be done
+      }
+    }
+  }
+
+  private void send(Channel channel, Fulfiller<? super T> fulfiller) throws Exception {
     final AtomicBoolean redirecting = new AtomicBoolean();
+    ChannelPipeline p = channel.pipeline();
+    this.channel = channel;
+    responseStarted = false;
+    boolean mayRetry = !retried && HttpChannelPool.isReused(channel) && isIdempotent();
 
-    final Bootstrap b = new Bootstrap();
-    b.group(this.execution.getEventLoop())
-      .channel(ChannelImplDetector.getSocketChannelImpl())
-      .handler(new ChannelInitializer<SocketChannel>() {
-        @Override
-        protected void initChannel(SocketChannel ch) throws Exception {
-          ChannelPipeline p = ch.pipeline();
-
-          if (finalUseSsl) {
-            SSLEngine engine = SSLContext.getDefault().createSSLEngine();
-            engine.setUseClientMode(true);
-            p.addLast("ssl", new SslHandler(engine));
-          }
+    p.addLast("readTimeout", new ReadTimeoutHandler(requestParams.readTimeoutNanos, TimeUnit.NANOSECONDS));
 
-          p.addLast("codec", new HttpClientCodec());
-          p.addLast("readTimeout", new ReadTimeoutHandler(requestParams.readTimeoutNanos, TimeUnit.NANOSECONDS));
+    p.addLast("redirectHandler", new SimpleChannelInboundHandler<HttpObject>(false) {
+      boolean readComplete;
 
-          p.addLast("redirectHandler", new SimpleChannelInboundHandler<HttpObject>(false) {
-            boolean readComplete;
+      @Override
+      public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        if (!readComplete) {
+          fail(ctx.channel(), fulfiller, new PrematureChannelClosureException("Server " + uri + " closed the connection prematurely"));
+        }
+        super.channelReadComplete(ctx);
+      }
+
+      @Override
+      public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+        if (ctx.channel() != RequestActionSupport.this.channel || isRetryable(ctx.channel(), cause)) {
+          fail(ctx.channel(), fulfiller, cause);
+        } else {
+          super.exceptionCaught(ctx, cause);
+        }
+      }
 
-            @Override
-            public void channelInactive(ChannelHandlerContext ctx) throws Exception {
-              if (!readComplete) {
-                error(fulfiller, new PrematureChannelClosureException("Server " + uri + " closed the connection prematurely"));
+      @Override
+      protected void channelRead0(ChannelHandlerContext ctx, HttpObject msg) throws Exception {
+        if (!responseStarted) {
+          responseStarted = true;
+          releaseBody();
+        }
+        if (msg instanceof HttpResponse) {
+          readComplete = true;
+          final HttpResponse response = (HttpResponse) msg;
+          final Headers headers = new NettyHeadersBackedHeaders(response.headers());
+          final Status status = new DefaultStatus(response.status());
+          int maxRedirects = requestSpecBacking.getMaxRedirects();
+          String locationValue = headers.get("Location");
+
+          //Check for redirect and location header if it is follow redirect if we have request forwarding left
+          if (shouldRedirect(status) && maxRedirects > 0 && locationValue != null) {
+            redirecting.compareAndSet(false, true);
+
+            // the body of the redirect response is not read, so the connection can't be reused
+            release(channel, false);
+
+            Action<? super RequestSpec> redirectRequestConfig = Action.join(requestConfigurer, s -> {
+              if (status.getCode() == 301 || status.getCode() == 302) {
+                s.method("GET");
               }
-              super.channelReadComplete(ctx);
-            }
 
-            @Override
-            public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
-              super.exceptionCaught(ctx, cause);
-            }
 
-            @Override
-            protected void channelRead0(ChannelHandlerContext ctx, HttpObject msg) throws Exception {
-              if (msg instanceof HttpResponse) {
-                readComplete = true;
-                final HttpResponse response = (HttpResponse) msg;
-                final Headers headers = new NettyHeadersBackedHeaders(response.headers());
-                final Status status = new DefaultStatus(response.status());
-                int maxRedirects = requestSpecBacking.getMaxRedirects();
-                String locationValue = headers.get("Location");
-
-                //Check for redirect and location header if it is follow redirect if we have request forwarding left
-                if (shouldRedirect(status) && maxRedirects > 0 && locationValue != null) {
-                  redirecting.compareAndSet(false, true);
-
-                  Action<? super RequestSpec> redirectRequestConfig = Action.join(requestConfigurer, s -> {
-                    if (status.getCode() == 301 || status.getCode() == 302) {
-                      s.method("GET");
-                    }
-
-
-                    s.redirects(maxRedirects - 1);
-                  });
-
-                  URI locationUrl;
-                  if (ABSOLUTE_PATTERN.matcher(locationValue).matches()) {
-                    locationUrl = new URI(locationValue);
-                  } else {
-                    locationUrl = new URI(uri.getScheme(), null, uri.getHost(), uri.getPort(), locationValue, null, null);
-                  }
-
-                  buildRedirectRequestAction(redirectRequestConfig, locationUrl).execute(fulfiller);
-                } else {
-                  p.remove(this);
-                }
-              }
+              s.redirects(maxRedirects - 1);
+            });
 
-              if (!redirecting.get()) {
-                ctx.fireChannelRead(msg);
-              }
+            URI locationUrl;
+            if (ABSOLUTE_PATTERN.matcher(locationValue).matches()) {
+              locationUrl = new URI(locationValue);
+            } else {
+              locationUrl = new URI(uri.getScheme(), null, uri.getHost(), uri.getPort(), locationValue, null, null);
             }
-          });
 
-          addResponseHandlers(p, fulfiller);
+            buildRedirectRequestAction(redirectRequestConfig, locationUrl).execute(fulfiller);
+          } else {
+            p.remove(this);
+          }
         }
 
-        @Override
-        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
-          ctx.close();
-          error(fulfiller, cause);
+        if (!redirecting.get()) {
+          ctx.fireChannelRead(msg);
         }
-      });
+      }
+    });
 
-    ChannelFuture connectFuture = b.connect(host, port);
-    connectFuture.addListener(f1 -> {
-      if (connectFuture.isSuccess()) {
-        String fullPath = getFullPath(uri);
-        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.valueOf(requestSpecBacking.getMethod()), fullPath, requestSpecBacking.getBody());
-        if (headers.get(HttpHeaderConstants.HOST) == null) {
-          headers.set(HttpHeaderConstants.HOST, host);
-        }
-        headers.set(HttpHeaderConstants.CONNECTION, HttpHeaderValues.CLOSE);
-        int contentLength = request.content().readableBytes();
-        if (contentLength > 0) {
-          headers.set(HttpHeaderConstants.CONTENT_LENGTH, Integer.toString(contentLength, 10));
-        }
+    addResponseHandlers(p, fulfiller);
+
+    String fullPath = getFullPath(uri);
+    HttpMethod method = HttpMethod.valueOf(requestSpecBacking.getMethod());
+    Publisher<? extends ByteBuf> bodyPublisher = requestSpecBacking.getBodyPublisher();
+
+    HttpRequest request;
+    if (bodyFileChannel != null) {
+      request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, method, fullPath);
+      headers.set(HttpHeaderConstants.CONTENT_LENGTH, Long.toString(bodyFileLength));
+    } else if (bodyPublisher != null) {
+      request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, method, fullPath);
+      long bodyLength = requestSpecBacking.getBodyPublisherContentLength();
+      if (bodyLength >= 0) {
+        headers.set(HttpHeaderConstants.CONTENT_LENGTH, Long.toString(bodyLength));
+      } else if (headers.get(HttpHeaderConstants.CONTENT_LENGTH) == null) {
+        headers.set(HttpHeaderConstants.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
+      }
+    } else {
+      ByteBuf body = requestSpecBacking.getBody();
+      // writing the request releases the body, so it is retained in case it needs to be sent again on another connection
+      bodyRetained = mayRetry;
+      request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, fullPath, mayRetry ? body.duplicate().retain() : body);
+      int contentLength = ((FullHttpRequest) request).content().readableBytes();
+      if (contentLength > 0) {
+        headers.set(HttpHeaderConstants.CONTENT_LENGTH, Integer.toString(contentLength, 10));
+      }
+    }
 
-        HttpHeaders requestHeaders = request.headers();
+    if (headers.get(HttpHeaderConstants.HOST) == null) {
+      headers.set(HttpHeaderConstants.HOST, host);
+    }
+    if (!channelPool.isPooling()) {
+      headers.set(HttpHeaderConstants.CONNECTION, HttpHeaderValues.CLOSE);
+    }
 
-        for (String name : headers.getNames()) {
-          requestHeaders.set(name, headers.getAll(name));
-        }
+    HttpHeaders requestHeaders = request.headers();
 
-        ChannelFuture writeFuture = connectFuture.channel().writeAndFlush(request);
-        writeFuture.addListener(f2 -> {
-          if (!writeFuture.isSuccess()) {
-            writeFuture.channel().close();
-            error(fulfiller, writeFuture.cause());
-          }
-        });
-      } else {
-        connectFuture.channel().close();
-        error(fulfiller, connectFuture.cause());
+    for (String name : headers.getNames()) {
+      requestHeaders.set(name, headers.getAll(name));
+    }
+
+    keepAlive = HttpHeaderUtil.isKeepAlive(request);
+
+    if (bodyFileChannel != null) {
+      bodyWritten = false;
+      writeFile(channel, request, requestSpecBacking.getBodyFile(), fulfiller);
+    } else if (bodyPublisher != null) {
+      bodyWritten = false;
+      RequestBodyWriter bodyWriter = new RequestBodyWriter(channel, HttpHeaderUtil.getContentLength(request, -1L), e -> error(fulfiller, e), () -> bodyWritten = true);
+      p.addLast("requestBodyWriter", bodyWriter);
+      addErrorListener(channel.writeAndFlush(request), fulfiller);
+      bodyWriter.write(bodyPublisher);
+    } else {
+      addErrorListener(channel.writeAndFlush(request), fulfiller);
+    }
+  }
+
+  private void writeFile(Channel channel, HttpRequest request, Path file, Fulfiller<? super T> fulfiller) throws Exception {
+    ChannelPipeline p = channel.pipeline();
+    boolean zeroCopy = p.get(SslHandler.class) == null && file.getFileSystem().equals(FileSystems.getDefault());
+    if (!zeroCopy) {
+      // removed along with the other per request handlers when the connection is released
+      p.addLast("chunkedWriter", new ChunkedWriteHandler());
+    }
+
+    // the file channel is closed by the region or chunked input once written
+    addErrorListener(channel.write(request), fulfiller);
+    if (zeroCopy) {
+      addErrorListener(channel.write(new DefaultFileRegion(bodyFileChannel, 0, bodyFileLength)), fulfiller);
+    } else {
+      addErrorListener(channel.write(new ChunkedNioFile(bodyFileChannel)), fulfiller);
+    }
+
+    ChannelFuture lastFuture = channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+    lastFuture.addListener(f -> {
+      if (lastFuture.isSuccess()) {
+        bodyWritten = true;
+      }
+    });
+    addErrorListener(lastFuture, fulfiller);
+  }
+
+  private void addErrorListener(ChannelFuture writeFuture, Fulfiller<? super T> fulfiller) {
+    writeFuture.addListener(f -> {
+      if (!writeFuture.isSuccess()) {
+        fail(writeFuture.channel(), fulfiller, writeFuture.cause());
+        writeFuture.channel().close();
       }
     });
   }
 
+  /**
+   * Fails the request, unless it can be retried on a new connection.
+   * <p>
+   * A pooled connection may have been closed by the server while idle, which is only noticed when it is next used.
+   * If that happens before any of the response is received, an idempotent request is sent again on a new connection, once.
+   *
+   * @param channel the connection that failed
+   * @param fulfiller the fulfiller of the request
+   * @param cause the failure
+   */
+  private void fail(Channel channel, Fulfiller<? super T> fulfiller, Throwable cause) {
+    if (channel != this.channel) {
+      // already being retried on another connection
+      return;
+    }
+
+    if (isRetryable(channel, cause)) {
+      retried = true;
+      this.channel = null;
+      closeBodyFile();
+      channel.close().addListener(f -> execute(fulfiller, true));
+    } else {
+      error(fulfiller, cause);
+    }
+  }
+
+  private boolean isRetryable(Channel channel, Throwable cause) {
+    return !retried
+      && !responseStarted
+      && HttpChannelPool.isReused(channel)
+      && isIdempotent()
+      && requestSpecBacking.getBodyPublisher() == null // can't be subscribed to again
+      && (cause instanceof IOException || cause instanceof PrematureChannelClosureException);
+  }
+
+  private boolean isIdempotent() {
+    return IDEMPOTENT_METHODS.contains(requestSpecBacking.getMethod().toUpperCase());
+  }
+
+  private void releaseBody() {
+    if (bodyRetained) {
+      bodyRetained = false;
+      requestSpecBacking.getBody().release();
+    }
+  }
+
+  /**
+   * Returns the connection to the pool once the response has been completely read.
+   * <p>
+   * The connection is reused if both the request and the response allow it to be kept alive,
+   * and the request body was completely written before the response was received.
+   *
+   * @param channel the connection the response was read from
+   * @param response the response
+   */
+  protected void release(Channel channel, HttpResponse response) {
+    release(channel, keepAlive && bodyWritten && HttpHeaderUtil.isKeepAlive(response));
+  }
+
+  private void release(Channel channel, boolean reusable) {
+    if (released.compareAndSet(false, true)) {
+      HttpChannelPool.release(channel, reusable);
+    }
+  }
+
   protected abstract RequestAction<T> buildRedirectRequestAction(Action<? super RequestSpec> redirectRequestConfig, URI locationUrl);
 
   protected abstract void addResponseHandlers(ChannelPipeline p, Fulfiller<? super T> fulfiller);
@@ -224,6 +411,7 @@ abstract class RequestActionSupport<T> implements RequestAction<T> {
   }
 
   protected void error(Fulfiller<?> fulfiller, Throwable error) {
+    releaseBody();
     if (fired.compareAndSet(false, true)) {
       fulfiller.error(error);
     }
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.client.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.function.Consumer;
+
+/**
+ * Writes a streamed request body to a connection, after the head of the request has been written.
+ * <p>
+ * Back pressure is applied by only requesting the next buffer from the publisher once the previous one has been written and the channel is writable.
+ * The subscription is cancelled if this handler is removed from the pipeline before the body has been completely written,
+ * which happens when the connection is released because the server responded early.
+ * <p>
+ * All state is confined to the channel's event loop.
+ * Publisher signals that arrive on other threads are rescheduled onto the event loop.
+ */
+class RequestBodyWriter extends ChannelInboundHandlerAdapter implements Subscriber<ByteBuf> {
+
+  private final Channel channel;
+  private final long contentLength;
+  private final Consumer<? super Throwable> onError;
+  private final Runnable onWritten;
+
+  private Subscription subscription;
+  private long written;
+  private boolean awaitingWritability;
+  private boolean done;
+
+  /**
+   * Constructor.
+   *
+   * @param channel the connection to write to
+   * @param contentLength the declared length of the body, or {@code -1} if it is being sent chunked
+   * @param onError called if the body could not be written, before the connection is closed
+   * @param onWritten called once the entire body has been written
+   */
+  RequestBodyWriter(Channel channel, long contentLength, Consumer<? super Throwable> onError, Runnable onWritten) {
+    this.channel = channel;
+    this.contentLength = contentLength;
+    this.onError = onError;
+    this.onWritten = onWritten;
+  }
+
+  /**
+   * Starts writing the body, which must only be done once this handler has been added to the channel's pipeline.
+   *
+   * @param publisher the body
+   */
+  void write(Publisher<? extends ByteBuf> publisher) {
+    publisher.subscribe(this);
+  }
+
+  @Override
+  public void onSubscribe(Subscription s) {
+    onEventLoop(() -> {
+      if (subscription != null || done) {
+        s.cancel();
+      } else {
+        subscription = s;
+        s.request(1);
+      }
+    });
+  }
+
+  @Override
+  public void onNext(ByteBuf byteBuf) {
+    onEventLoop(() -> {
+      if (done) {
+        byteBuf.release();
+        return;
+      }
+
+      written += byteBuf.readableBytes();
+      if (contentLength >= 0 && written > contentLength) {
+        byteBuf.release();
+        fail(new IllegalStateException("Request body publisher emitted more than the declared content length of " + contentLength + " bytes"));
+        return;
+      }
+
+      channel.writeAndFlush(new DefaultHttpContent(byteBuf)).addListener(future -> {
+        if (future.isSuccess()) {
+          requestNext();
+        } else {
+          fail(future.cause());
+        }
+      });
+    });
+  }
+
+  @Override
+  public void onError(Throwable t) {
+    onEventLoop(() -> {
+      if (!done) {
+        fail(t);
+      }
+    });
+  }
+
+  @Override
+  public void onComplete() {
+    onEventLoop(() -> {
+      if (done) {
+        return;
+      }
+
+      if (contentLength >= 0 && written != contentLength) {
+        fail(new IllegalStateException("Request body publisher emitted " + written + " bytes, but declared a content length of " + contentLength + " bytes"));
+        return;
+      }
+
+      done = true;
+      channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(future -> {
+        if (future.isSuccess()) {
+          onWritten.run();
+        } else {
+          onError.accept(future.cause());
+          channel.close();
+        }
+      });
+    });
+  }
+
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+    if (awaitingWritability && ctx.channel().isWritable()) {
+      awaitingWritability = false;
+      requestNext();
+    }
+    super.channelWritabilityChanged(ctx);
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+    if (!done) {
+      done = true;
+      if (subscription != null) {
+        subscription.cancel();
+      }
+    }
+  }
+
+  private void requestNext() {
+    if (done) {
+      return;
+    }
+
+    if (channel.isWritable()) {
+      subscription.request(1);
+    } else {
+      awaitingWritability = true;
+    }
+  }
+
+  private void fail(Throwable throwable) {
+    done = true;
+    if (subscription != null) {
+      subscription.cancel();
+    }
+    onError.accept(throwable);
+    channel.close();
+  }
+
+  private void onEventLoop(Runnable runnable) {
+    if (channel.eventLoop().inEventLoop()) {
+      runnable.run();
+    } else {
+      channel.eventLoop().execute(runnable);
+    }
+  }
+
+}
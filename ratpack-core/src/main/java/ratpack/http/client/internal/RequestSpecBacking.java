@@ -22,6 +22,7 @@ import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
 import io.netty.util.CharsetUtil;
+import org.reactivestreams.Publisher;
 import ratpack.api.Nullable;
 import ratpack.func.Action;
 import ratpack.http.MutableHeaders;
@@ -31,6 +32,7 @@ import ratpack.http.internal.HttpHeaderConstants;
 import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.time.Duration;
 
 class RequestSpecBacking {
@@ -41,6 +43,9 @@ class RequestSpecBacking {
   private final RequestParams requestParams;
 
   private ByteBuf bodyByteBuf;
+  private Publisher<? extends ByteBuf> bodyPublisher;
+  private long bodyPublisherContentLength = -1;
+  private Path bodyFile;
 
   private String method = "GET";
   private int maxRedirects = 10;
@@ -66,6 +71,25 @@ class RequestSpecBacking {
     return bodyByteBuf;
   }
 
+  @Nullable
+  public Publisher<? extends ByteBuf> getBodyPublisher() {
+    return bodyPublisher;
+  }
+
+  /**
+   * The declared length of the body publisher, or {@code -1} if unknown.
+   *
+   * @return the declared length of the body publisher
+   */
+  public long getBodyPublisherContentLength() {
+    return bodyPublisherContentLength;
+  }
+
+  @Nullable
+  public Path getBodyFile() {
+    return bodyFile;
+  }
+
   public RequestSpec asSpec() {
     return new Spec();
   }
@@ -110,10 +134,18 @@ class RequestSpecBacking {
     }
 
     private void setBodyByteBuf(ByteBuf byteBuf) {
+      clearBody();
+      bodyByteBuf = byteBuf;
+    }
+
+    private void clearBody() {
       if (bodyByteBuf != null) {
         bodyByteBuf.release();
+        bodyByteBuf = null;
       }
-      bodyByteBuf = byteBuf;
+      bodyPublisher = null;
+      bodyPublisherContentLength = -1;
+      bodyFile = null;
     }
 
 
@@ -166,6 +198,29 @@ class RequestSpecBacking {
         return this;
       }
 
+      @Override
+      public Body publisher(Publisher<? extends ByteBuf> publisher) {
+        clearBody();
+        bodyPublisher = publisher;
+        return this;
+      }
+
+      @Override
+      public Body publisher(Publisher<? extends ByteBuf> publisher, long contentLength) {
+        Preconditions.checkArgument(contentLength >= 0, "'contentLength' must be >= 0");
+        clearBody();
+        bodyPublisher = publisher;
+        bodyPublisherContentLength = contentLength;
+        return this;
+      }
+
+      @Override
+      public Body file(Path file) {
+        clearBody();
+        bodyFile = file;
+        return this;
+      }
+
       private void maybeSetContentType(CharSequence s) {
         if (!headers.contains(HttpHeaderConstants.CONTENT_TYPE.toString())) {
           headers.set(HttpHeaderConstants.CONTENT_TYPE, s);
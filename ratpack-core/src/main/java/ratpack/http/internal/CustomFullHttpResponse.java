@@ -0,0 +1,42 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+
+/**
+ * A complete response, that uses the given headers instead of copying them.
+ */
+public class CustomFullHttpResponse extends DefaultFullHttpResponse {
+
+  private final HttpHeaders httpHeaders;
+
+  public CustomFullHttpResponse(HttpResponseStatus httpResponseStatus, HttpHeaders httpHeaders, ByteBuf content) {
+    super(HttpVersion.HTTP_1_1, httpResponseStatus, content, false);
+    this.httpHeaders = httpHeaders;
+  }
+
+  @Override
+  public HttpHeaders headers() {
+    return httpHeaders;
+  }
+
+}
@@ -20,10 +20,15 @@ import com.google.common.base.Strings;
 import com.google.common.net.HostAndPort;
 import com.google.common.reflect.TypeToken;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.QueryStringDecoder;
 import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import ratpack.exec.Promise;
 import ratpack.func.Function;
 import ratpack.http.Headers;
 import ratpack.http.HttpMethod;
@@ -32,20 +37,27 @@ import ratpack.http.TypedData;
 import ratpack.registry.MutableRegistry;
 import ratpack.registry.NotInRegistryException;
 import ratpack.registry.internal.SimpleMutableRegistry;
+import ratpack.stream.Streams;
+import ratpack.stream.TransformablePublisher;
 import ratpack.util.MultiValueMap;
 import ratpack.util.internal.ImmutableDelegatingMultiValueMap;
 
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
+import static ratpack.exec.ExecControl.execControl;
+import static ratpack.exec.Execution.execution;
+
 public class DefaultRequest implements Request {
 
   private final MutableRegistry registry = new SimpleMutableRegistry();
 
   private final Headers headers;
-  private final ByteBuf content;
+  private ByteBuf content;
+  private final TransformablePublisher<ByteBuf> bodyStream;
   private final String rawUri;
   private final HttpMethod method;
   private final InetSocketAddress remoteSocket;
@@ -60,14 +72,47 @@ public class DefaultRequest implements Request {
   private Set<Cookie> cookies;
 
   public DefaultRequest(Headers headers, io.netty.handler.codec.http.HttpMethod method, String rawUri, InetSocketAddress remoteSocket, InetSocketAddress localSocket, ByteBuf content) {
+    this(headers, method, rawUri, remoteSocket, localSocket, content, receivedBodyStream(content));
+  }
+
+  public DefaultRequest(Headers headers, io.netty.handler.codec.http.HttpMethod method, String rawUri, InetSocketAddress remoteSocket, InetSocketAddress localSocket, TransformablePublisher<ByteBuf> bodyStream) {
+    this(headers, method, rawUri, remoteSocket, localSocket, null, bodyStream);
+  }
+
+  private DefaultRequest(Headers headers, io.netty.handler.codec.http.HttpMethod method, String rawUri, InetSocketAddress remoteSocket, InetSocketAddress localSocket, ByteBuf content, TransformablePublisher<ByteBuf> bodyStream) {
     this.headers = headers;
     this.content = content;
+    this.bodyStream = bodyStream;
     this.method = DefaultHttpMethod.valueOf(method);
     this.rawUri = rawUri;
     this.remoteSocket = remoteSocket;
     this.localSocket = localSocket;
   }
 
+  // emits the already received body, enforcing the same single subscription as a streamed body
+  private static TransformablePublisher<ByteBuf> receivedBodyStream(ByteBuf content) {
+    AtomicBoolean subscribed = new AtomicBoolean();
+    TransformablePublisher<ByteBuf> stream = Streams.yield(r -> r.getRequestNum() == 0 && content.isReadable() ? content.duplicate().retain() : null);
+    return Streams.transformable(subscriber -> {
+      if (subscribed.compareAndSet(false, true)) {
+        stream.subscribe(subscriber);
+      } else {
+        subscriber.onSubscribe(new Subscription() {
+          @Override
+          public void request(long n) {
+
+          }
+
+          @Override
+          public void cancel() {
+
+          }
+        });
+        subscriber.onError(new IllegalStateException("The request body can only be read once"));
+      }
+    });
+  }
+
   public MultiValueMap<String, String> getQueryParams() {
     if (queryParams == null) {
       QueryStringDecoder queryStringDecoder = new QueryStringDecoder(getUri());
@@ -190,12 +235,58 @@ public class DefaultRequest implements Request {
 
   @Override
   public TypedData getBody() {
+    if (content == null) {
+      throw new IllegalStateException("The request body is being streamed and has not been read, use readBody() or getBodyStream() (see ServerConfig.isStreamRequestBodies())");
+    }
     if (body == null) {
       body = new ByteBufBackedTypedData(content, DefaultMediaType.get(headers.get(HttpHeaderNames.CONTENT_TYPE)));
     }
     return body;
   }
 
+  @Override
+  public Promise<TypedData> readBody() {
+    if (content != null) {
+      return execControl().promiseOf(getBody());
+    }
+
+    return execControl().<ByteBuf>promise(f -> bodyStream.subscribe(new Subscriber<ByteBuf>() {
+      // unbounded, so that the components are never consolidated by copying
+      private final CompositeByteBuf buffer = Unpooled.compositeBuffer(Integer.MAX_VALUE);
+
+      @Override
+      public void onSubscribe(Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+      }
+
+      @Override
+      public void onNext(ByteBuf item) {
+        buffer.addComponent(item);
+        buffer.writerIndex(buffer.writerIndex() + item.readableBytes());
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        buffer.release();
+        f.error(t);
+      }
+
+      @Override
+      public void onComplete() {
+        f.success(buffer);
+      }
+    })).map(buffer -> {
+      execution().onCleanup(buffer::release);
+      content = buffer;
+      return getBody();
+    });
+  }
+
+  @Override
+  public TransformablePublisher<ByteBuf> getBodyStream() {
+    return bodyStream;
+  }
+
   @Override
   public Headers getHeaders() {
     return headers;
@@ -205,7 +205,10 @@ public class DefaultResponse implements Response {
 
   @Override
   public Response noCompress() {
-    headers.set(HttpHeaderNames.CONTENT_ENCODING, HttpHeaderValues.IDENTITY);
+    // Content that is already encoded (e.g. a precompressed file) won't be compressed again anyway
+    if (!headers.contains(HttpHeaderNames.CONTENT_ENCODING)) {
+      headers.set(HttpHeaderNames.CONTENT_ENCODING, HttpHeaderValues.IDENTITY);
+    }
     return this;
   }
 
@@ -24,10 +24,18 @@ public class DefaultSentResponse implements SentResponse {
 
   private final Headers headers;
   private final Status status;
+  private final long bytesWritten;
+  private final int flushes;
 
   public DefaultSentResponse(Headers headers, Status status) {
+    this(headers, status, 0, 0);
+  }
+
+  public DefaultSentResponse(Headers headers, Status status, long bytesWritten, int flushes) {
     this.headers = headers;
     this.status = status;
+    this.bytesWritten = bytesWritten;
+    this.flushes = flushes;
   }
 
   @Override
@@ -40,4 +48,14 @@ public class DefaultSentResponse implements SentResponse {
     return status;
   }
 
+  @Override
+  public long getBytesWritten() {
+    return bytesWritten;
+  }
+
+  @Override
+  public int getFlushes() {
+    return flushes;
+  }
+
 }
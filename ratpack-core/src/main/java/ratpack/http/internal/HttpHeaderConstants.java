@@ -47,6 +47,15 @@ public abstract class HttpHeaderConstants {
   public static final CharSequence SET_COOKIE = HttpHeaderNames.SET_COOKIE;
   public static final CharSequence ALLOW = HttpHeaderNames.ALLOW;
   public static final CharSequence LOCATION = HttpHeaderNames.LOCATION;
+  public static final CharSequence ETAG = HttpHeaderNames.ETAG;
+  public static final CharSequence IF_NONE_MATCH = HttpHeaderNames.IF_NONE_MATCH;
+  public static final CharSequence ACCEPT_ENCODING = HttpHeaderNames.ACCEPT_ENCODING;
+  public static final CharSequence VARY = HttpHeaderNames.VARY;
+  public static final CharSequence RANGE = HttpHeaderNames.RANGE;
+  public static final CharSequence IF_RANGE = HttpHeaderNames.IF_RANGE;
+  public static final CharSequence CONTENT_RANGE = HttpHeaderNames.CONTENT_RANGE;
+  public static final CharSequence ACCEPT_RANGES = HttpHeaderNames.ACCEPT_RANGES;
+  public static final CharSequence BYTES = HttpHeaderValues.BYTES;
 
   public static final CharSequence X_FORWARDED_HOST = new AsciiString("X-Forwarded-Host");
   public static final CharSequence X_FORWARDED_PROTO = new AsciiString("X-Forwarded-Proto");
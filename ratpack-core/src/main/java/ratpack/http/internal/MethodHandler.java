@@ -19,9 +19,11 @@ package ratpack.http.internal;
 import io.netty.handler.codec.http.HttpMethod;
 import ratpack.handling.Context;
 import ratpack.handling.Handler;
+import ratpack.handling.internal.DefaultContext;
+import ratpack.handling.internal.InlineHandler;
 import ratpack.http.Response;
 
-public class MethodHandler implements Handler {
+public class MethodHandler implements InlineHandler {
 
   private final ratpack.http.HttpMethod method;
 
@@ -35,9 +37,14 @@ public class MethodHandler implements Handler {
     this.method = DefaultHttpMethod.valueOf(HttpMethod.valueOf(method));
   }
 
+  @Override
+  public boolean inline(DefaultContext context) {
+    return matches(context);
+  }
+
   public void handle(Context context) {
     ratpack.http.HttpMethod requestMethod = context.getRequest().getMethod();
-    if (requestMethod == method || requestMethod.name(method.getName())) {
+    if (matches(context)) {
       context.next();
     } else if (requestMethod.isOptions()) {
       Response response = context.getResponse();
@@ -47,4 +54,9 @@ public class MethodHandler implements Handler {
       context.clientError(405);
     }
   }
+
+  private boolean matches(Context context) {
+    ratpack.http.HttpMethod requestMethod = context.getRequest().getMethod();
+    return requestMethod == method || requestMethod.name(method.getName());
+  }
 }
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.*;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import ratpack.stream.TransformablePublisher;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * A single subscriber publisher of the content of a request that is being received.
+ * <p>
+ * Content is fed in by the channel handler as it is decoded.
+ * Back pressure is applied by turning off auto read on the channel while there is buffered content that has not been requested.
+ * <p>
+ * All state is confined to the channel's event loop.
+ * Subscriber signals that arrive on other threads are rescheduled onto the event loop.
+ */
+public class RequestBodyPublisher implements TransformablePublisher<ByteBuf> {
+
+  private static final Subscription NOOP_SUBSCRIPTION = new Subscription() {
+    @Override
+    public void request(long n) {
+
+    }
+
+    @Override
+    public void cancel() {
+
+    }
+  };
+
+  private final Channel channel;
+  private final long maxContentLength;
+  private final Queue<ByteBuf> buffered = new ArrayDeque<>();
+
+  private boolean continueExpected;
+  private boolean subscribed;
+  private Subscriber<? super ByteBuf> subscriber;
+  private long demand;
+  private long received;
+  private boolean complete;
+  private boolean discarding;
+  private boolean draining;
+  private boolean readingSuspended;
+  private Throwable error;
+
+  public RequestBodyPublisher(Channel channel, HttpRequest request, long maxContentLength) {
+    this.channel = channel;
+    this.maxContentLength = maxContentLength;
+    this.continueExpected = HttpHeaderUtil.is100ContinueExpected(request);
+
+    if (HttpHeaderUtil.getContentLength(request, -1L) > maxContentLength) {
+      continueExpected = false;
+      fail(tooLong());
+    }
+  }
+
+  /**
+   * Feeds content received for the request.
+   * <p>
+   * Must be called on the channel's event loop. Ownership of the content is transferred to this object.
+   *
+   * @param httpContent the received content
+   */
+  public void add(HttpContent httpContent) {
+    ByteBuf content = httpContent.content();
+    if (discarding) {
+      content.release();
+    } else if ((received += content.readableBytes()) > maxContentLength) {
+      content.release();
+      fail(tooLong());
+    } else if (content.isReadable()) {
+      buffered.add(content);
+    } else {
+      content.release();
+    }
+
+    if (httpContent instanceof LastHttpContent) {
+      complete = true;
+    }
+
+    drain();
+  }
+
+  /**
+   * Signals that the channel closed, which fails any in progress read.
+   */
+  public void channelClosed() {
+    if (!complete) {
+      complete = true;
+      fail(new ClosedChannelException());
+      drain();
+    }
+  }
+
+  /**
+   * Discards the body if nobody has subscribed to it, so that the connection can progress to the next request.
+   */
+  public void discardIfUnread() {
+    if (!subscribed) {
+      discard();
+      updateAutoRead();
+    }
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super ByteBuf> s) {
+    onEventLoop(() -> {
+      if (subscribed) {
+        s.onSubscribe(NOOP_SUBSCRIPTION);
+        s.onError(new IllegalStateException("The request body can only be read once"));
+      } else if (discarding && error == null) {
+        s.onSubscribe(NOOP_SUBSCRIPTION);
+        s.onError(new IllegalStateException("The request body has been discarded as the request has been handled"));
+      } else {
+        subscribed = true;
+        subscriber = s;
+        s.onSubscribe(new Subscription() {
+          @Override
+          public void request(long n) {
+            onEventLoop(() -> requested(n));
+          }
+
+          @Override
+          public void cancel() {
+            onEventLoop(() -> {
+              subscriber = null;
+              discard();
+              updateAutoRead();
+            });
+          }
+        });
+        drain();
+      }
+    });
+  }
+
+  private void requested(long n) {
+    if (subscriber == null) {
+      return;
+    }
+
+    if (n < 1) {
+      fail(new IllegalArgumentException("3.9 While the Subscription is not cancelled, Subscription.request(long n) MUST throw a java.lang.IllegalArgumentException if the argument is <= 0."));
+    } else {
+      demand += n;
+      if (demand < 0) {
+        demand = Long.MAX_VALUE;
+      }
+      if (continueExpected) {
+        continueExpected = false;
+        channel.writeAndFlush(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.CONTINUE, Unpooled.EMPTY_BUFFER));
+      }
+    }
+
+    drain();
+  }
+
+  private TooLongFrameException tooLong() {
+    return new TooLongFrameException("Request body exceeded the max content length of " + maxContentLength + " bytes");
+  }
+
+  private void fail(Throwable throwable) {
+    if (error == null) {
+      error = throwable;
+    }
+    discard();
+  }
+
+  private void discard() {
+    discarding = true;
+    ByteBuf content = buffered.poll();
+    while (content != null) {
+      content.release();
+      content = buffered.poll();
+    }
+  }
+
+  private void drain() {
+    if (draining) {
+      return;
+    }
+
+    draining = true;
+    try {
+      while (subscriber != null && error == null && demand > 0 && !buffered.isEmpty()) {
+        if (demand != Long.MAX_VALUE) {
+          --demand;
+        }
+        subscriber.onNext(buffered.poll());
+      }
+
+      if (subscriber != null) {
+        if (error != null) {
+          Subscriber<? super ByteBuf> s = subscriber;
+          subscriber = null;
+          s.onError(error);
+        } else if (complete && buffered.isEmpty()) {
+          Subscriber<? super ByteBuf> s = subscriber;
+          subscriber = null;
+          s.onComplete();
+        }
+      }
+    } finally {
+      draining = false;
+    }
+
+    updateAutoRead();
+  }
+
+  private void updateAutoRead() {
+    boolean suspend = !complete && !discarding && !buffered.isEmpty();
+    if (suspend != readingSuspended) {
+      readingSuspended = suspend;
+      channel.config().setAutoRead(!suspend);
+    }
+  }
+
+  private void onEventLoop(Runnable runnable) {
+    if (channel.eventLoop().inEventLoop()) {
+      runnable.run();
+    } else {
+      channel.eventLoop().execute(runnable);
+    }
+  }
+
+}
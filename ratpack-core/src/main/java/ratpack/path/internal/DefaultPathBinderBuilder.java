@@ -16,10 +16,13 @@
 
 package ratpack.path.internal;
 
+import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import ratpack.path.PathBinder;
 import ratpack.path.PathBinderBuilder;
 
+import java.util.List;
 import java.util.regex.Pattern;
 
 public class DefaultPathBinderBuilder implements PathBinderBuilder {
@@ -28,6 +31,11 @@ public class DefaultPathBinderBuilder implements PathBinderBuilder {
   private boolean addedOptional;
   private boolean addedToken;
 
+  private StringBuilder literalPrefix = new StringBuilder();
+  private boolean literalPrefixComplete;
+  private List<TokenPathBinder.Part> parts = Lists.newArrayList();
+  private boolean simple = true;
+
   public PathBinderBuilder tokenWithPattern(String token, String pattern) {
     if (addedOptional) {
       throw new IllegalArgumentException(String.format("Cannot add mandatory parameter %s after optional parameters", token));
@@ -35,6 +43,7 @@ public class DefaultPathBinderBuilder implements PathBinderBuilder {
     addedToken = true;
     tokensBuilder.add(token);
     this.pattern.append(String.format("(?:(?:^|/)(%s))", pattern));
+    complex();
     return this;
   }
 
@@ -43,6 +52,7 @@ public class DefaultPathBinderBuilder implements PathBinderBuilder {
     addedToken = true;
     tokensBuilder.add(token);
     this.pattern.append(String.format("(?:(?:^|/)(%s))?", pattern));
+    complex();
     return this;
   }
 
@@ -53,6 +63,8 @@ public class DefaultPathBinderBuilder implements PathBinderBuilder {
     addedToken = true;
     tokensBuilder.add(token);
     pattern.append("(?:(?:^|/)([^/?&#]+))");
+    literalPrefixComplete = true;
+    parts.add(TokenPathBinder.Part.token(token));
     return this;
   }
 
@@ -61,22 +73,55 @@ public class DefaultPathBinderBuilder implements PathBinderBuilder {
     addedToken = true;
     tokensBuilder.add(token);
     pattern.append("(?:(?:^|/)([^/?&#]*))?");
+    complex();
     return this;
   }
 
   public PathBinderBuilder literalPattern(String pattern) {
     this.pattern.append("(?:(?:^|/)").append(String.format("(?:%s)", pattern)).append(")");
+    complex();
     return this;
   }
 
   public PathBinderBuilder literal(String literal) {
     this.pattern.append(String.format("\\Q%s\\E", literal));
+    if (!literalPrefixComplete) {
+      literalPrefix.append(literal);
+    }
+    if (parts.isEmpty()) {
+      parts.add(TokenPathBinder.Part.literal(literal));
+    } else {
+      TokenPathBinder.Part last = parts.get(parts.size() - 1);
+      if (last.literal != null) {
+        parts.set(parts.size() - 1, TokenPathBinder.Part.literal(last.literal.concat(literal)));
+      } else if (literal.startsWith("/")) {
+        parts.add(TokenPathBinder.Part.literal(literal));
+      } else {
+        // a token followed by anything other than a new segment needs backtracking
+        simple = false;
+      }
+    }
     return this;
   }
 
+  private void complex() {
+    literalPrefixComplete = true;
+    simple = false;
+  }
+
   public PathBinder build(boolean exact) {
     String regex = (addedToken ? "(\\Q\\E" : "(") + pattern + (addedToken ? "\\Q\\E)" : ")") + (exact ? "(?:/|$)" : "(?:/.*)?");
     Pattern compiled = Pattern.compile(regex);
-    return new TokenPathBinder(tokensBuilder.build(), compiled);
+    return new TokenPathBinder(tokensBuilder.build(), compiled, literalPrefixSegments(), simple ? ImmutableList.copyOf(parts) : null, exact);
+  }
+
+  // Only a prefix of whole, non empty, segments is used to select routes, anything else can match any path
+  private ImmutableList<String> literalPrefixSegments() {
+    String prefix = literalPrefix.toString();
+    if (prefix.isEmpty() || prefix.startsWith("/") || prefix.endsWith("/") || prefix.contains("//")) {
+      return ImmutableList.of();
+    } else {
+      return ImmutableList.copyOf(Splitter.on('/').split(prefix));
+    }
   }
 }
@@ -16,81 +16,52 @@
 
 package ratpack.path.internal;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import ratpack.handling.Context;
 import ratpack.handling.Handler;
+import ratpack.handling.internal.DefaultContext;
+import ratpack.handling.internal.InlineHandler;
 import ratpack.path.PathBinder;
 import ratpack.path.PathBinding;
 import ratpack.registry.Registries;
-import ratpack.registry.Registry;
 
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
 
-public class PathHandler implements Handler {
-
-  private static final LoadingCache<CacheKey, Optional<Registry>> CACHE = CacheBuilder.newBuilder()
-    .maximumSize(2048) // TODO - make this tuneable
-    .build(new CacheLoader<CacheKey, Optional<Registry>>() {
-      @Override
-      public Optional<Registry> load(CacheKey key) throws Exception {
-        return key.pathBinder.bind(key.path, key.parentBinding).map(b ->
-            Registries.just(PathBinding.class, b)
-        );
-      }
-    });
-
-  private static class CacheKey {
-    private final PathBinder pathBinder;
-    private final String path;
-    private final Optional<PathBinding> parentBinding;
-
-    public CacheKey(PathBinder pathBinder, String path, Optional<PathBinding> parentBinding) {
-      this.pathBinder = pathBinder;
-      this.path = path;
-      this.parentBinding = parentBinding;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) {
-        return true;
-      }
-      if (o == null || getClass() != o.getClass()) {
-        return false;
-      }
-
-      CacheKey cacheKey = (CacheKey) o;
-
-      return parentBinding.equals(cacheKey.parentBinding) && path.equals(cacheKey.path) && pathBinder.equals(cacheKey.pathBinder);
-    }
-
-    @Override
-    public int hashCode() {
-      int result = pathBinder.hashCode();
-      result = 31 * result + path.hashCode();
-      result = 31 * result + parentBinding.hashCode();
-      return result;
-    }
-  }
+public class PathHandler implements InlineHandler {
 
   private final PathBinder binder;
   private final Handler handler;
+  private final Handler[] handlers;
 
   public PathHandler(PathBinder binder, Handler handler) {
     this.binder = binder;
     this.handler = handler;
+    this.handlers = new Handler[]{handler};
   }
 
-  public void handle(Context context) throws ExecutionException {
-    Optional<Registry> registry = CACHE.get(new CacheKey(binder, context.getRequest().getPath(), context.maybeGet(PathBinding.class)));
-    if (registry.isPresent()) {
-      context.insert(registry.get(), handler);
+  PathBinder getBinder() {
+    return binder;
+  }
+
+  Handler getHandler() {
+    return handler;
+  }
+
+  public void handle(Context context) {
+    Optional<PathBinding> binding = binder.bind(context.getRequest().getPath(), context.maybeGet(PathBinding.class));
+    if (binding.isPresent()) {
+      context.insert(Registries.just(PathBinding.class, binding.get()), handlers);
     } else {
       context.next();
     }
   }
 
+  @Override
+  public boolean inline(DefaultContext context) {
+    Optional<PathBinding> binding = binder.bind(context.getRequest().getPath(), context.maybeGet(PathBinding.class));
+    if (binding.isPresent()) {
+      context.push(Registries.just(PathBinding.class, binding.get()), handlers);
+    }
+    return true;
+  }
+
 }
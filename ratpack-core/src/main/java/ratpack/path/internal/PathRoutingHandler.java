@@ -0,0 +1,153 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.path.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import ratpack.func.BiAction;
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+import ratpack.handling.internal.DefaultContext;
+import ratpack.handling.internal.InlineHandler;
+import ratpack.path.PathBinder;
+import ratpack.path.PathBinding;
+import ratpack.registry.Registries;
+import ratpack.registry.Registry;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A run of consecutive {@link PathHandler path handlers} of a chain, compiled into a single handler.
+ * <p>
+ * Rather than trying each binder in turn, the routes that may bind the request path are selected by a {@link SegmentTrie}.
+ * Routes are still tried in the order they were declared, and if the handler of a bound route calls {@link Context#next()},
+ * routing continues with the subsequent routes as if they had been separate handlers.
+ */
+public class PathRoutingHandler implements InlineHandler {
+
+  private final PathBinder[] binders;
+  private final Handler[][] handlers;
+  private final SegmentTrie trie;
+
+  private PathRoutingHandler(List<PathHandler> routes) {
+    this.binders = new PathBinder[routes.size()];
+    this.handlers = new Handler[routes.size()][];
+    List<ImmutableList<String>> prefixes = Lists.newArrayListWithCapacity(routes.size());
+    for (int i = 0; i < routes.size(); ++i) {
+      PathHandler route = routes.get(i);
+      binders[i] = route.getBinder();
+      handlers[i] = new Handler[]{route.getHandler()};
+      prefixes.add(binders[i] instanceof TokenPathBinder ? ((TokenPathBinder) binders[i]).getLiteralPrefix() : ImmutableList.of());
+    }
+    this.trie = new SegmentTrie(prefixes);
+  }
+
+  /**
+   * Replaces each run of consecutive path handlers in the given handlers with a single routing handler.
+   *
+   * @param handlers the handlers of a chain
+   * @return the given handlers, with runs of path handlers compiled
+   */
+  public static Handler[] compile(Handler[] handlers) {
+    List<Handler> compiled = Lists.newArrayListWithCapacity(handlers.length);
+    List<PathHandler> run = Lists.newArrayList();
+    for (Handler handler : handlers) {
+      if (handler instanceof PathHandler) {
+        run.add((PathHandler) handler);
+      } else {
+        addRun(compiled, run);
+        compiled.add(handler);
+      }
+    }
+    addRun(compiled, run);
+
+    return compiled.size() == handlers.length ? handlers : compiled.toArray(new Handler[compiled.size()]);
+  }
+
+  private static void addRun(List<Handler> compiled, List<PathHandler> run) {
+    if (run.size() == 1) {
+      compiled.add(run.get(0));
+    } else if (run.size() > 1) {
+      compiled.add(new PathRoutingHandler(run));
+    }
+    run.clear();
+  }
+
+  @Override
+  public void handle(Context context) throws Exception {
+    if (!route(context, context.maybeGet(PathBinding.class), 0, context::insert)) {
+      context.next();
+    }
+  }
+
+  @Override
+  public boolean inline(DefaultContext context) throws Exception {
+    route(context, context.maybeGet(PathBinding.class), 0, context::push);
+    return true;
+  }
+
+  private boolean route(Context context, Optional<PathBinding> parentBinding, int from, BiAction<Registry, Handler[]> insert) throws Exception {
+    String requestPath = context.getRequest().getPath();
+    int[] candidates = trie.candidates(parentBinding.isPresent() ? parentBinding.get().getPastBinding() : requestPath);
+
+    int i = Arrays.binarySearch(candidates, from);
+    for (i = i < 0 ? -i - 1 : i; i < candidates.length; ++i) {
+      int index = candidates[i];
+      Optional<PathBinding> binding = binders[index].bind(requestPath, parentBinding);
+      if (binding.isPresent()) {
+        Registry registry = Registries.just(PathBinding.class, binding.get());
+        if (i + 1 < candidates.length) {
+          insert.execute(registry, new Handler[]{handlers[index][0], new Continuation(parentBinding, index + 1)});
+        } else {
+          insert.execute(registry, handlers[index]);
+        }
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Continues routing with the subsequent routes, if the handler of a bound route calls {@link Context#next()}.
+   */
+  private class Continuation implements InlineHandler {
+    private final Optional<PathBinding> parentBinding;
+    private final int from;
+
+    private Continuation(Optional<PathBinding> parentBinding, int from) {
+      this.parentBinding = parentBinding;
+      this.from = from;
+    }
+
+    @Override
+    public void handle(Context context) throws Exception {
+      if (!route(context, parentBinding, from, context::insert)) {
+        context.next();
+      }
+    }
+
+    @Override
+    public boolean inline(DefaultContext context) throws Exception {
+      route(context, parentBinding, from, context::push);
+      return true;
+    }
+  }
+
+}
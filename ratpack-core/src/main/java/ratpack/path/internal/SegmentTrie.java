@@ -0,0 +1,154 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.path.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Selects candidate routes for a path by the literal segments that the path starts with.
+ * <p>
+ * Each route is indexed by the literal segments that any path it binds must start with.
+ * A lookup walks the segments of the path, so costs in proportion to the depth of the path rather than the number of routes.
+ * Lookups do not allocate.
+ */
+class SegmentTrie {
+
+  private static final int[] NO_ROUTES = new int[0];
+
+  private final Node root;
+
+  /**
+   * Constructor.
+   *
+   * @param prefixes the literal segment prefix of each route, in route order
+   */
+  SegmentTrie(List<? extends List<String>> prefixes) {
+    Builder rootBuilder = new Builder();
+    for (int i = 0; i < prefixes.size(); ++i) {
+      Builder builder = rootBuilder;
+      for (String segment : prefixes.get(i)) {
+        builder = builder.children.computeIfAbsent(segment, s -> new Builder());
+      }
+      builder.routes.add(i);
+    }
+    this.root = rootBuilder.build(NO_ROUTES);
+  }
+
+  /**
+   * The indexes of the routes that may bind the given path, in route order.
+   *
+   * @param path the path, without a leading slash
+   * @return the indexes of the routes that may bind the path
+   */
+  int[] candidates(String path) {
+    Node node = root;
+    int start = 0;
+    int length = path.length();
+    while (start <= length) {
+      int end = path.indexOf('/', start);
+      if (end < 0) {
+        end = length;
+      }
+      Node child = node.child(path, start, end);
+      if (child == null) {
+        break;
+      }
+      node = child;
+      start = end + 1;
+    }
+    return node.routes;
+  }
+
+  private static final class Builder {
+    private final Map<String, Builder> children = Maps.newLinkedHashMap();
+    private final List<Integer> routes = Lists.newArrayList();
+
+    Node build(int[] parentRoutes) {
+      int[] routes = merge(parentRoutes, Ints.toArray(this.routes));
+      Map<String, Node> builtChildren = Maps.newLinkedHashMap();
+      for (Map.Entry<String, Builder> child : children.entrySet()) {
+        builtChildren.put(child.getKey(), child.getValue().build(routes));
+      }
+      return new Node(routes, builtChildren);
+    }
+
+    private static int[] merge(int[] left, int[] right) {
+      if (right.length == 0) {
+        return left;
+      }
+      int[] merged = new int[left.length + right.length];
+      int l = 0;
+      int r = 0;
+      for (int i = 0; i < merged.length; ++i) {
+        merged[i] = r == right.length || l < left.length && left[l] < right[r] ? left[l++] : right[r++];
+      }
+      return merged;
+    }
+  }
+
+  private static final class Node {
+    // the routes that may bind a path that reaches this node, including those of the ancestors of this node
+    private final int[] routes;
+
+    // an open addressing hash table, so that segments can be looked up without creating a string
+    private final String[] keys;
+    private final Node[] nodes;
+    private final int mask;
+
+    Node(int[] routes, Map<String, Node> children) {
+      this.routes = routes;
+      int capacity = Integer.highestOneBit(Math.max(1, children.size()) * 2) * 2;
+      this.keys = new String[capacity];
+      this.nodes = new Node[capacity];
+      this.mask = capacity - 1;
+      for (Map.Entry<String, Node> child : children.entrySet()) {
+        String key = child.getKey();
+        int i = key.hashCode() & mask;
+        while (keys[i] != null) {
+          i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        nodes[i] = child.getValue();
+      }
+    }
+
+    Node child(String path, int start, int end) {
+      int length = end - start;
+      int hash = 0;
+      for (int i = start; i < end; ++i) {
+        hash = 31 * hash + path.charAt(i);
+      }
+
+      int i = hash & mask;
+      String key = keys[i];
+      while (key != null) {
+        if (key.length() == length && path.regionMatches(start, key, 0, length)) {
+          return nodes[i];
+        }
+        i = (i + 1) & mask;
+        key = keys[i];
+      }
+      return null;
+    }
+  }
+
+}
@@ -32,16 +32,59 @@ public class TokenPathBinder implements PathBinder {
 
   private final ImmutableList<String> tokenNames;
   private final Pattern regex;
+  private final ImmutableList<String> literalPrefix;
+  private final ImmutableList<Part> parts;
+  private final boolean exact;
 
-  protected TokenPathBinder(ImmutableList<String> tokenNames, Pattern regex) {
+  /**
+   * A literal or a mandatory token of a path that can be bound without the regex.
+   */
+  static final class Part {
+    final String literal;
+    final String token;
+
+    private Part(String literal, String token) {
+      this.literal = literal;
+      this.token = token;
+    }
+
+    static Part literal(String literal) {
+      return new Part(literal, null);
+    }
+
+    static Part token(String token) {
+      return new Part(null, token);
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param tokenNames the names of the tokens, in order
+   * @param regex the regex that matches the path, with the bound path as the first group and the token values as the subsequent groups
+   * @param literalPrefix the leading literal segments of the path, that any bound path must start with
+   * @param parts the parts of the path if they can be matched without the regex, otherwise {@code null}
+   * @param exact whether the binder only binds paths that are exactly the pattern
+   */
+  protected TokenPathBinder(ImmutableList<String> tokenNames, Pattern regex, ImmutableList<String> literalPrefix, ImmutableList<Part> parts, boolean exact) {
     this.tokenNames = tokenNames;
     this.regex = regex;
+    this.literalPrefix = literalPrefix;
+    this.parts = parts;
+    this.exact = exact;
+  }
+
+  ImmutableList<String> getLiteralPrefix() {
+    return literalPrefix;
   }
 
   public Optional<PathBinding> bind(String path, Optional<PathBinding> parentBinding) {
     if (parentBinding.isPresent()) {
       path = parentBinding.get().getPastBinding();
     }
+    if (parts != null) {
+      return bindParts(path, parentBinding);
+    }
     Matcher matcher = regex.matcher(path);
     if (matcher.matches()) {
       MatchResult matchResult = matcher.toMatchResult();
@@ -61,7 +104,55 @@ public class TokenPathBinder implements PathBinder {
     }
   }
 
+  // Equivalent to the regex for paths made of literals and mandatory tokens, where the tokens can't backtrack
+  private Optional<PathBinding> bindParts(String path, Optional<PathBinding> parentBinding) {
+    int pos = 0;
+    ImmutableMap.Builder<String, String> paramsBuilder = null;
+    for (Part part : parts) {
+      if (part.literal != null) {
+        if (!path.startsWith(part.literal, pos)) {
+          return Optional.empty();
+        }
+        pos += part.literal.length();
+      } else {
+        if (pos < path.length() && path.charAt(pos) == '/') {
+          ++pos;
+        } else if (pos > 0) {
+          return Optional.empty();
+        }
+        int end = pos;
+        while (end < path.length() && isTokenChar(path.charAt(end))) {
+          ++end;
+        }
+        if (end == pos) {
+          return Optional.empty();
+        }
+        if (paramsBuilder == null) {
+          paramsBuilder = ImmutableMap.builder();
+        }
+        paramsBuilder.put(part.token, decodeURIComponent(path.substring(pos, end)));
+        pos = end;
+      }
+    }
+
+    int remaining = path.length() - pos;
+    boolean matches = remaining == 0 || path.charAt(pos) == '/' && (!exact || remaining == 1);
+    if (matches) {
+      ImmutableMap<String, String> params = paramsBuilder == null ? ImmutableMap.of() : paramsBuilder.build();
+      return Optional.of(new DefaultPathBinding(path, path.substring(0, pos), params, parentBinding));
+    } else {
+      return Optional.empty();
+    }
+  }
+
+  private static boolean isTokenChar(char c) {
+    return c != '/' && c != '?' && c != '&' && c != '#';
+  }
+
   private String decodeURIComponent(String s) {
+    if (s.indexOf('%') < 0) {
+      return s;
+    }
     String str;
     try {
       str = URLDecoder.decode(s.replaceAll("\\+", "%2B"), "UTF-8");
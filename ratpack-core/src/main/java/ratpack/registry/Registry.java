@@ -19,7 +19,7 @@ package ratpack.registry;
 import com.google.common.reflect.TypeToken;
 import ratpack.func.Function;
 import ratpack.registry.internal.EmptyRegistry;
-import ratpack.registry.internal.HierarchicalRegistry;
+import ratpack.registry.internal.FlatRegistry;
 
 import java.util.Optional;
 
@@ -230,7 +230,7 @@ public interface Registry {
     } else if (child == EmptyRegistry.INSTANCE) {
       return this;
     } else {
-      return new HierarchicalRegistry(this, child);
+      return FlatRegistry.joined(this, child);
     }
   }
 }
@@ -45,6 +45,10 @@ public class CachingRegistry implements Registry {
     this.delegate = delegate;
   }
 
+  Registry getDelegate() {
+    return delegate;
+  }
+
   private static <K, V> V compute(Map<K, V> map, K key, Function<? super K, ? extends V> supplier) {
     V value = map.get(key);
     if (value == null) {
@@ -21,10 +21,12 @@ import com.google.common.reflect.TypeToken;
 public class DefaultRegistryEntry<T> implements RegistryEntry<T> {
 
   private final TypeToken<T> type;
+  private final Class<?> rawType;
   private final T object;
 
   public DefaultRegistryEntry(TypeToken<T> type, T object) {
     this.type = type;
+    this.rawType = RegistryEntries.rawType(type);
     this.object = object;
   }
 
@@ -33,6 +35,11 @@ public class DefaultRegistryEntry<T> implements RegistryEntry<T> {
     return type;
   }
 
+  @Override
+  public Class<?> getRawType() {
+    return rawType;
+  }
+
   @Override
   public T get() {
     return object;
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.registry.internal;
+
+import com.google.common.reflect.TypeToken;
+import ratpack.api.Nullable;
+import ratpack.func.Function;
+import ratpack.registry.Registry;
+import ratpack.util.Types;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * An immutable registry of a small number of entries, held in an array in lookup order.
+ * <p>
+ * Handlers commonly join small registries to the registry of a request, such as the path binding of each matched path.
+ * Joining such registries produces a single flat registry instead of a chain of {@link HierarchicalRegistry} layers,
+ * which would be walked on each lookup and would allocate nested iterators for {@link #getAll(TypeToken)}.
+ * When joining small registries to a larger one, they are flattened into the child of a single hierarchical registry,
+ * so that the chain does not grow deeper with each join.
+ * <p>
+ * Lookups compare the raw types of the entries before the full types, which makes looking up types that are plain classes
+ * (e.g. {@code PathBinding}) a scan of a short array with no allocation.
+ */
+public final class FlatRegistry implements Registry {
+
+  static final int MAX_ENTRIES = 16;
+
+  private final RegistryEntry<?>[] entries;
+
+  private FlatRegistry(RegistryEntry<?>[] entries) {
+    this.entries = entries;
+  }
+
+  /**
+   * Joins the given registries, flattening them where possible.
+   * <p>
+   * This is the implementation of {@link Registry#join(Registry)}, and preserves its lookup order.
+   *
+   * @param parent the parent registry
+   * @param child the child registry
+   * @return a registry which is the combination of the parent and the child
+   */
+  public static Registry joined(Registry parent, Registry child) {
+    RegistryEntry<?>[] childEntries = entries(child);
+    if (childEntries != null) {
+      RegistryEntry<?>[] parentEntries = entries(parent);
+      if (parentEntries != null) {
+        if (childEntries.length + parentEntries.length <= MAX_ENTRIES) {
+          return new FlatRegistry(concat(childEntries, parentEntries));
+        }
+      } else if (parent instanceof HierarchicalRegistry) {
+        HierarchicalRegistry hierarchical = (HierarchicalRegistry) parent;
+        RegistryEntry<?>[] layerEntries = entries(hierarchical.getChild());
+        if (layerEntries != null && childEntries.length + layerEntries.length <= MAX_ENTRIES) {
+          return new HierarchicalRegistry(hierarchical.getParent(), new FlatRegistry(concat(childEntries, layerEntries)));
+        }
+      }
+    }
+
+    return new HierarchicalRegistry(parent, child);
+  }
+
+  /**
+   * The entries of the registry in lookup order, if it is an immutable entry based registry that is small enough to be flattened.
+   */
+  @Nullable
+  private static RegistryEntry<?>[] entries(Registry registry) {
+    if (registry instanceof FlatRegistry) {
+      return ((FlatRegistry) registry).entries;
+    } else if (registry instanceof SingleEntryRegistry) {
+      return new RegistryEntry<?>[]{((SingleEntryRegistry) registry).getEntry()};
+    } else if (registry instanceof CachingRegistry && ((CachingRegistry) registry).getDelegate() instanceof MultiEntryRegistry) {
+      // registries built by DefaultRegistryBuilder, whose entries are immutable
+      MultiEntryRegistry multiEntryRegistry = (MultiEntryRegistry) ((CachingRegistry) registry).getDelegate();
+      if (multiEntryRegistry.getEntries().size() <= MAX_ENTRIES) {
+        return multiEntryRegistry.getEntries().toArray(new RegistryEntry<?>[multiEntryRegistry.getEntries().size()]);
+      }
+    }
+    return null;
+  }
+
+  private static RegistryEntry<?>[] concat(RegistryEntry<?>[] first, RegistryEntry<?>[] second) {
+    RegistryEntry<?>[] entries = Arrays.copyOf(first, first.length + second.length);
+    System.arraycopy(second, 0, entries, first.length, second.length);
+    return entries;
+  }
+
+  @Override
+  public <O> Optional<O> maybeGet(TypeToken<O> type) {
+    Class<?> rawType = RegistryEntries.rawType(type);
+    for (RegistryEntry<?> entry : entries) {
+      if (RegistryEntries.isAssignable(type, rawType, entry)) {
+        O cast = Types.cast(entry.get());
+        return Optional.of(cast);
+      }
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public <O> Iterable<? extends O> getAll(TypeToken<O> type) {
+    Class<?> rawType = RegistryEntries.rawType(type);
+    return () -> new Iterator<O>() {
+      int i = advance(0);
+
+      private int advance(int from) {
+        int index = from;
+        while (index < entries.length && !RegistryEntries.isAssignable(type, rawType, entries[index])) {
+          ++index;
+        }
+        return index;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return i < entries.length;
+      }
+
+      @Override
+      public O next() {
+        if (i == entries.length) {
+          throw new NoSuchElementException();
+        }
+        O next = Types.cast(entries[i].get());
+        i = advance(i + 1);
+        return next;
+      }
+    };
+  }
+
+  @Override
+  public <T, O> Optional<O> first(TypeToken<T> type, Function<? super T, ? extends O> function) throws Exception {
+    Class<?> rawType = RegistryEntries.rawType(type);
+    for (RegistryEntry<?> entry : entries) {
+      if (RegistryEntries.isAssignable(type, rawType, entry)) {
+        T cast = Types.cast(entry.get());
+        O result = function.apply(cast);
+        if (result != null) {
+          return Optional.of(result);
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    FlatRegistry that = (FlatRegistry) o;
+
+    return Arrays.equals(entries, that.entries);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(entries);
+  }
+
+  @Override
+  public String toString() {
+    return "FlatRegistry{" + Arrays.toString(entries) + '}';
+  }
+}
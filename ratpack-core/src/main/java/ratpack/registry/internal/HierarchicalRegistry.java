@@ -33,6 +33,14 @@ public class HierarchicalRegistry implements Registry {
     this.child = child;
   }
 
+  Registry getParent() {
+    return parent;
+  }
+
+  Registry getChild() {
+    return child;
+  }
+
   @Override
   public <O> Optional<O> maybeGet(TypeToken<O> type) {
     Optional<O> object = child.maybeGet(type);
@@ -25,6 +25,7 @@ import java.util.function.Supplier;
 public class LazyRegistryEntry<T> implements RegistryEntry<T> {
 
   private final TypeToken<T> type;
+  private final Class<?> rawType;
   private final Supplier<? extends T> supplier;
   private final Lock lock = new ReentrantLock();
 
@@ -32,6 +33,7 @@ public class LazyRegistryEntry<T> implements RegistryEntry<T> {
 
   public LazyRegistryEntry(TypeToken<T> type, Supplier<? extends T> supplier) {
     this.type = type;
+    this.rawType = RegistryEntries.rawType(type);
     this.supplier = supplier;
   }
 
@@ -40,6 +42,11 @@ public class LazyRegistryEntry<T> implements RegistryEntry<T> {
     return type;
   }
 
+  @Override
+  public Class<?> getRawType() {
+    return rawType;
+  }
+
   @Override
   public T get() {
     if (object == null) {
@@ -33,14 +33,19 @@ public class MultiEntryRegistry implements Registry {
     this.entries = entries;
   }
 
+  List<? extends RegistryEntry<?>> getEntries() {
+    return entries;
+  }
+
   @Override
   public String toString() {
     return "Registry{" + entries + '}';
   }
 
   public <O> Optional<O> maybeGet(TypeToken<O> type) {
+    Class<?> rawType = RegistryEntries.rawType(type);
     for (RegistryEntry<?> entry : entries) {
-      if (type.isAssignableFrom(entry.getType())) {
+      if (RegistryEntries.isAssignable(type, rawType, entry)) {
         @SuppressWarnings("unchecked") O cast = (O) entry.get();
         return Optional.of(cast);
       }
@@ -50,6 +55,7 @@ public class MultiEntryRegistry implements Registry {
   }
 
   public <O> Iterable<? extends O> getAll(final TypeToken<O> type) {
+    final Class<?> rawType = RegistryEntries.rawType(type);
     //noinspection Convert2Lambda
     return new Iterable<O>() {
       @Override
@@ -67,7 +73,7 @@ public class MultiEntryRegistry implements Registry {
 
             while (delegate.hasNext()) {
               RegistryEntry<?> entry = delegate.next();
-              if (type.isAssignableFrom(entry.getType())) {
+              if (RegistryEntries.isAssignable(type, rawType, entry)) {
                 @SuppressWarnings("unchecked") O cast = (O) entry.get();
                 next = cast;
                 return true;
@@ -95,8 +101,9 @@ public class MultiEntryRegistry implements Registry {
 
   @Override
   public <T, O> Optional<O> first(TypeToken<T> type, Function<? super T, ? extends O> function) throws Exception {
+    Class<?> rawType = RegistryEntries.rawType(type);
     for (RegistryEntry<?> entry : entries) {
-      if (type.isAssignableFrom(entry.getType())) {
+      if (RegistryEntries.isAssignable(type, rawType, entry)) {
         RegistryEntry<? extends T> cast = Types.cast(entry);
         O result = function.apply(cast.get());
         if (result != null) {
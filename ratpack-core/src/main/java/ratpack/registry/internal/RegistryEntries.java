@@ -0,0 +1,56 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.registry.internal;
+
+import com.google.common.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+
+final class RegistryEntries {
+
+  private RegistryEntries() {
+  }
+
+  /**
+   * The raw type of the given type.
+   * <p>
+   * {@link TypeToken#getRawType()} visits the type to compute this, which is avoided for the common case of a type that is a plain class.
+   *
+   * @param type the type
+   * @return the raw type of the type
+   */
+  static Class<?> rawType(TypeToken<?> type) {
+    Type javaType = type.getType();
+    return javaType instanceof Class ? (Class<?>) javaType : type.getRawType();
+  }
+
+  /**
+   * Whether the given entry provides objects of the given type.
+   * <p>
+   * The raw types are compared first, which is cheap and rules out most entries.
+   * If the type is a plain class this is also sufficient, as that is all that {@link TypeToken#isAssignableFrom(TypeToken)} compares in that case.
+   *
+   * @param type the requested type
+   * @param rawType the raw type of the requested type
+   * @param entry the entry
+   * @return whether the entry provides objects of the type
+   */
+  static boolean isAssignable(TypeToken<?> type, Class<?> rawType, RegistryEntry<?> entry) {
+    return rawType.isAssignableFrom(entry.getRawType()) && (type.getType() instanceof Class || type.isAssignableFrom(entry.getType()));
+  }
+
+}
@@ -22,6 +22,13 @@ public interface RegistryEntry<T> {
 
   TypeToken<T> getType();
 
+  /**
+   * The raw type of {@link #getType()}, which is computed once as it is relatively expensive to compute and compared on every lookup.
+   *
+   * @return the raw type of this entry
+   */
+  Class<?> getRawType();
+
   T get();
 
 }
@@ -31,9 +31,13 @@ public class SingleEntryRegistry implements Registry {
     this.entry = entry;
   }
 
+  RegistryEntry<?> getEntry() {
+    return entry;
+  }
+
   @Override
   public <O> Optional<O> maybeGet(TypeToken<O> type) {
-    if (type.isAssignableFrom(entry.getType())) {
+    if (RegistryEntries.isAssignable(type, RegistryEntries.rawType(type), entry)) {
       @SuppressWarnings("unchecked") O cast = (O) entry.get();
       return Optional.of(cast);
     } else {
@@ -16,25 +16,18 @@
 
 package ratpack.render.internal;
 
-import com.google.common.collect.Iterables;
-import com.google.common.reflect.TypeToken;
 import ratpack.exec.Promise;
-import ratpack.handling.Context;
+import ratpack.handling.internal.DefaultContext;
 import ratpack.render.NoSuchRendererException;
 import ratpack.render.RenderableDecorator;
 import ratpack.render.Renderer;
 import ratpack.render.RendererException;
 import ratpack.util.Types;
 
-import java.util.Iterator;
-
 public class DefaultRenderController implements RenderController {
 
-  private static final TypeToken<Renderer<?>> RENDERER_TYPE = new TypeToken<Renderer<?>>() {};
-  private static final TypeToken<RenderableDecorator<?>> RENDERABLE_DECORATOR_TYPE = new TypeToken<RenderableDecorator<?>>() {};
-
   @Override
-  public void render(final Object toRender, final Context context) throws Exception {
+  public void render(final Object toRender, final DefaultContext context) throws Exception {
     if (toRender == null) {
       context.clientError(404);
       return;
@@ -43,36 +36,32 @@ public class DefaultRenderController implements RenderController {
     doRender(toRender, context);
   }
 
-  private <T> void doRender(T toRender, Context context) throws Exception {
+  private <T> void doRender(T toRender, DefaultContext context) throws Exception {
     Class<T> type = Types.cast(toRender.getClass());
+    RendererResolution resolution = context.resolveRenderers(type);
 
-    Iterator<? extends RenderableDecorator<?>> decorators = Iterables.filter(context.getAll(RENDERABLE_DECORATOR_TYPE), d -> d.getType().isAssignableFrom(type)).iterator();
-    if (decorators.hasNext()) {
+    if (resolution.getDecorators().isEmpty()) {
+      doRender(resolution.getRenderer(), context, toRender);
+    } else {
       Promise<T> promise = context.promiseOf(toRender);
-      while (decorators.hasNext()) {
-        RenderableDecorator<T> cast = Types.cast(decorators.next());
+      for (RenderableDecorator<?> decorator : resolution.getDecorators()) {
+        RenderableDecorator<T> cast = Types.cast(decorator);
         promise = promise.flatMap(r -> cast.decorate(context, r));
       }
-      promise.then(r -> doRender(context, type, r));
-    } else {
-      doRender(context, type, toRender);
+      promise.then(r -> doRender(resolution.getRenderer(), context, r));
     }
   }
 
-  private <T> void doRender(Context context, Class<T> type, T decorated) {
-    Iterable<? extends Renderer<?>> renderers = context.getAll(RENDERER_TYPE);
-    for (Renderer<?> renderer : renderers) {
-      if (renderer.getType().isAssignableFrom(type)) {
-        Renderer<T> cast = Types.cast(renderer);
-        try {
-          cast.render(context, decorated);
-          return;
-        } catch (Exception e) {
-          throw new RendererException(renderer, decorated, e);
-        }
-      }
+  private <T> void doRender(Renderer<?> renderer, DefaultContext context, T decorated) {
+    if (renderer == null) {
+      throw new NoSuchRendererException(decorated);
     }
 
-    throw new NoSuchRendererException(decorated);
+    Renderer<T> cast = Types.cast(renderer);
+    try {
+      cast.render(context, decorated);
+    } catch (Exception e) {
+      throw new RendererException(renderer, decorated, e);
+    }
   }
 }
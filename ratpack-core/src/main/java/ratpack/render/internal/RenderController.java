@@ -16,10 +16,10 @@
 
 package ratpack.render.internal;
 
-import ratpack.handling.Context;
+import ratpack.handling.internal.DefaultContext;
 
 public interface RenderController {
 
-  void render(Object object, Context context) throws Exception;
+  void render(Object object, DefaultContext context) throws Exception;
 
 }
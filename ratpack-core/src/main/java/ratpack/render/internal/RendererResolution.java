@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.render.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.reflect.TypeToken;
+import ratpack.api.Nullable;
+import ratpack.registry.Registry;
+import ratpack.render.RenderableDecorator;
+import ratpack.render.Renderer;
+
+/**
+ * The decorators and renderer that apply to a type of object, as found in a registry.
+ */
+public final class RendererResolution {
+
+  private static final TypeToken<Renderer<?>> RENDERER_TYPE = new TypeToken<Renderer<?>>() {};
+  private static final TypeToken<RenderableDecorator<?>> RENDERABLE_DECORATOR_TYPE = new TypeToken<RenderableDecorator<?>>() {};
+
+  private final ImmutableList<RenderableDecorator<?>> decorators;
+  private final Renderer<?> renderer;
+
+  private RendererResolution(ImmutableList<RenderableDecorator<?>> decorators, @Nullable Renderer<?> renderer) {
+    this.decorators = decorators;
+    this.renderer = renderer;
+  }
+
+  public static RendererResolution resolve(Registry registry, Class<?> type) {
+    ImmutableList.Builder<RenderableDecorator<?>> decorators = ImmutableList.builder();
+    for (RenderableDecorator<?> decorator : registry.getAll(RENDERABLE_DECORATOR_TYPE)) {
+      if (decorator.getType().isAssignableFrom(type)) {
+        decorators.add(decorator);
+      }
+    }
+
+    Renderer<?> renderer = null;
+    for (Renderer<?> candidate : registry.getAll(RENDERER_TYPE)) {
+      if (candidate.getType().isAssignableFrom(type)) {
+        renderer = candidate;
+        break;
+      }
+    }
+
+    return new RendererResolution(decorators.build(), renderer);
+  }
+
+  /**
+   * Whether the given registry provides any renderers or renderable decorators, which would affect resolution if joined to a registry.
+   *
+   * @param registry the registry to check
+   * @return whether the given registry provides any renderers or renderable decorators
+   */
+  public static boolean isAffectedBy(Registry registry) {
+    return registry.maybeGet(RENDERER_TYPE).isPresent() || registry.maybeGet(RENDERABLE_DECORATOR_TYPE).isPresent();
+  }
+
+  public ImmutableList<RenderableDecorator<?>> getDecorators() {
+    return decorators;
+  }
+
+  @Nullable
+  public Renderer<?> getRenderer() {
+    return renderer;
+  }
+
+}
@@ -63,6 +63,16 @@ public interface ServerConfig extends ConfigData {
    */
   int DEFAULT_MAX_CONTENT_LENGTH = 1048576;
 
+  /**
+   * The default max number of milliseconds that streamed response content is held before being flushed, {@value}.
+   */
+  int DEFAULT_RESPONSE_FLUSH_INTERVAL = 10;
+
+  /**
+   * The default max number of blocking operations that can be queued when all blocking threads are busy, {@value}.
+   */
+  int DEFAULT_BLOCKING_QUEUE_SIZE = 1024;
+
   /**
    * The default number of threads an application should use.
    *
@@ -224,6 +234,81 @@ public interface ServerConfig extends ConfigData {
    */
   int getMaxContentLength();
 
+  /**
+   * Whether or not request bodies are streamed to the application as they are received.
+   * <p>
+   * By default, the entire request body is received and buffered in memory before the request is handed to the application,
+   * making it available via {@link ratpack.http.Request#getBody()}.
+   * If this is {@code true}, requests are handed to the application as soon as the request head has been received.
+   * The body must then be read via {@link ratpack.http.Request#getBodyStream()}, which applies back pressure to the client,
+   * or received in full via {@link ratpack.http.Request#readBody()} before using {@link ratpack.http.Request#getBody()} or parsing it.
+   * <p>
+   * The {@link #getMaxContentLength() max content length} is enforced in both modes.
+   *
+   * @return whether or not request bodies are streamed to the application as they are received
+   */
+  boolean isStreamRequestBodies();
+
+  /**
+   * The number of bytes of a streamed response to buffer before flushing them to the client.
+   * <p>
+   * By default, this is {@code 0}, and each item of a streamed response (e.g. each server sent event) is flushed as soon as it is written,
+   * and the next item is only requested once it has been written.
+   * If greater than {@code 0}, items are requested in batches sized to fill the channel's write buffer,
+   * and written items are only flushed once this many bytes are pending or the {@link #getResponseFlushInterval() flush interval} elapses.
+   * This significantly reduces the cost of streaming many small items, at the expense of latency.
+   *
+   * @return the number of bytes of a streamed response to buffer before flushing them to the client
+   */
+  int getResponseFlushThreshold();
+
+  /**
+   * The max number of milliseconds that streamed response content is buffered before being flushed, when a {@link #getResponseFlushThreshold() flush threshold} is set.
+   *
+   * @return the max number of milliseconds that streamed response content is buffered before being flushed
+   */
+  int getResponseFlushInterval();
+
+  /**
+   * The max number of threads that will be used to perform {@link ratpack.exec.ExecControl#blocking(java.util.concurrent.Callable) blocking operations}.
+   * <p>
+   * By default, this is {@code 0}, and a new thread is created whenever a blocking operation is started while all existing blocking threads are busy.
+   * If greater than {@code 0}, at most this many blocking operations run at once,
+   * and further operations wait in a queue of at most {@link #getBlockingQueueSize()} operations.
+   * Operations started when the queue is full fail with a {@link java.util.concurrent.RejectedExecutionException}.
+   * <p>
+   * Note that a bounded pool can deadlock if blocking operations wait on other blocking operations,
+   * e.g. via {@link ratpack.exec.Promise#block()}.
+   * <p>
+   * The {@link ratpack.exec.BlockingExecutorStats} of the blocking threads are available from the server registry,
+   * and can be used to choose a size.
+   *
+   * @return the max number of threads used to perform blocking operations, or {@code 0} if unbounded
+   */
+  int getMaxBlockingThreads();
+
+  /**
+   * The max number of blocking operations that can be waiting for a thread, when the number of {@link #getMaxBlockingThreads() blocking threads} is bounded.
+   *
+   * @return the max number of blocking operations that can be waiting for a thread
+   */
+  int getBlockingQueueSize();
+
+  /**
+   * How long, in milliseconds, a single execution segment can run on an event loop before it is reported as stalling the event loop.
+   * <p>
+   * An execution segment that runs for a long time (e.g. because it performs blocking IO directly instead of via {@link ratpack.exec.ExecControl#blocking(java.util.concurrent.Callable)})
+   * delays every other connection that is served by the same event loop.
+   * When this value is greater than {@code 0}, a watchdog thread samples the event loop threads,
+   * and logs a warning with the stack of the thread and the request being handled when a segment runs for longer than this.
+   * The number of stalls is available via the {@link ratpack.exec.EventLoopStallStats} in the server registry.
+   * <p>
+   * By default, this is {@code 0}, which disables stall detection.
+   *
+   * @return the number of milliseconds a segment can run for before it is reported, or {@code 0} if stalls are not detected
+   */
+  int getStallThreshold();
+
   /**
    * Whether or not the base dir of the application has been set.
    *
@@ -319,6 +404,71 @@ public interface ServerConfig extends ConfigData {
      */
     Builder maxContentLength(int maxContentLength);
 
+    /**
+     * Whether or not request bodies should be streamed to the application as they are received.
+     * <p>
+     * Default value is {@code false}.
+     * @param streamRequestBodies whether or not request bodies should be streamed to the application as they are received
+     * @return {@code this}
+     * @see ServerConfig#isStreamRequestBodies()
+     */
+    Builder streamRequestBodies(boolean streamRequestBodies);
+
+    /**
+     * The number of bytes of a streamed response to buffer before flushing them to the client.
+     * <p>
+     * Default value is {@code 0}, which flushes each item as it is written.
+     *
+     * @param responseFlushThreshold the number of bytes of a streamed response to buffer before flushing them to the client
+     * @return {@code this}
+     * @see ServerConfig#getResponseFlushThreshold()
+     */
+    Builder responseFlushThreshold(int responseFlushThreshold);
+
+    /**
+     * The max number of milliseconds that streamed response content is buffered before being flushed.
+     * <p>
+     * Default value is {@value ServerConfig#DEFAULT_RESPONSE_FLUSH_INTERVAL}.
+     *
+     * @param responseFlushInterval the max number of milliseconds that streamed response content is buffered before being flushed
+     * @return {@code this}
+     * @see ServerConfig#getResponseFlushInterval()
+     */
+    Builder responseFlushInterval(int responseFlushInterval);
+
+    /**
+     * The max number of threads that will be used to perform blocking operations.
+     * <p>
+     * Default value is {@code 0}, which does not bound the number of threads.
+     *
+     * @param maxBlockingThreads the max number of threads that will be used to perform blocking operations
+     * @return {@code this}
+     * @see ServerConfig#getMaxBlockingThreads()
+     */
+    Builder maxBlockingThreads(int maxBlockingThreads);
+
+    /**
+     * The max number of blocking operations that can be waiting for a thread, when the number of blocking threads is bounded.
+     * <p>
+     * Default value is {@value ServerConfig#DEFAULT_BLOCKING_QUEUE_SIZE}.
+     *
+     * @param blockingQueueSize the max number of blocking operations that can be waiting for a thread
+     * @return {@code this}
+     * @see ServerConfig#getBlockingQueueSize()
+     */
+    Builder blockingQueueSize(int blockingQueueSize);
+
+    /**
+     * How long, in milliseconds, a single execution segment can run on an event loop before it is reported as stalling the event loop.
+     * <p>
+     * Default value is {@code 0}, which disables stall detection.
+     *
+     * @param stallThreshold the number of milliseconds a segment can run for before it is reported
+     * @return {@code this}
+     * @see ServerConfig#getStallThreshold()
+     */
+    Builder stallThreshold(int stallThreshold);
+
     /**
      * The SSL context to use if the application serves content over HTTPS.
      *
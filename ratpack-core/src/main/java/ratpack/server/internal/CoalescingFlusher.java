@@ -0,0 +1,78 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.server.internal;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Defers flushes of writes made while the channel is reading until the read is complete.
+ * <p>
+ * Responses to requests that are handled synchronously as they are read, such as pipelined keep-alive requests,
+ * are then flushed together with a single flush.
+ * Writes made at any other time are flushed immediately.
+ * <p>
+ * Each write is given a counter that is incremented when the flush that sends it actually happens,
+ * so that flushes that are coalesced away are not counted.
+ * <p>
+ * All methods must be called on the channel's event loop, except {@link #writeAndFlush(Object, AtomicInteger)}.
+ */
+public class CoalescingFlusher {
+
+  private final Channel channel;
+  private boolean reading;
+  private boolean flushPending;
+  private final List<AtomicInteger> pendingFlushCounts = new ArrayList<>(2);
+
+  public CoalescingFlusher(Channel channel) {
+    this.channel = channel;
+  }
+
+  public void readStarted() {
+    reading = true;
+  }
+
+  public void readComplete() {
+    reading = false;
+    if (flushPending) {
+      flushPending = false;
+      for (AtomicInteger flushCount : pendingFlushCounts) {
+        flushCount.incrementAndGet();
+      }
+      pendingFlushCounts.clear();
+      channel.flush();
+    }
+  }
+
+  public ChannelFuture writeAndFlush(Object message, AtomicInteger flushCount) {
+    if (reading && channel.eventLoop().inEventLoop()) {
+      flushPending = true;
+      if (!pendingFlushCounts.contains(flushCount)) {
+        pendingFlushCounts.add(flushCount);
+      }
+      return channel.write(message);
+    } else {
+      flushCount.incrementAndGet();
+      return channel.writeAndFlush(message);
+    }
+  }
+
+}
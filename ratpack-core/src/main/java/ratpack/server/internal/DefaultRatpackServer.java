@@ -22,12 +22,13 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.*;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpRequestDecoder;
 import io.netty.handler.codec.http.HttpResponseEncoder;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.util.AttributeKey;
 import io.netty.util.ResourceLeakDetector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,8 +55,10 @@ import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
 import java.io.File;
 import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
 import java.util.Iterator;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -73,6 +76,9 @@ public class DefaultRatpackServer implements RatpackServer {
   public static final TypeToken<HandlerDecorator> HANDLER_DECORATOR_TYPE_TOKEN = TypeToken.of(HandlerDecorator.class);
   private static final Logger LOGGER = LoggerFactory.getLogger(RatpackServer.class);
 
+  // Messages received while the handler for the current request is being resolved in development mode, which may be the content of a streamed request
+  private static final AttributeKey<Queue<Object>> PENDING_MESSAGES_ATTRIBUTE_KEY = AttributeKey.valueOf(DefaultRatpackServer.class.getName() + ".pending");
+
   protected final Action<? super RatpackServerSpec> definitionFactory;
 
   protected InetSocketAddress boundAddress;
@@ -110,7 +116,7 @@ public class DefaultRatpackServer implements RatpackServer {
     }
 
     serverConfig = definitionBuild.getServerConfig();
-    execController = new DefaultExecController(serverConfig.getThreads());
+    execController = new DefaultExecController(serverConfig.getThreads(), serverConfig.getMaxBlockingThreads(), serverConfig.getBlockingQueueSize(), serverConfig.getStallThreshold());
     ChannelHandler channelHandler = buildHandler(definitionBuild);
     channel = buildChannel(serverConfig, channelHandler);
 
@@ -209,7 +215,9 @@ public class DefaultRatpackServer implements RatpackServer {
 
           pipeline.addLast("decoder", new HttpRequestDecoder(4096, 8192, 8192, false));
           pipeline.addLast("encoder", new HttpResponseEncoder());
-          pipeline.addLast("aggregator", new HttpObjectAggregator(serverConfig.getMaxContentLength()));
+          if (!serverConfig.isStreamRequestBodies()) {
+            pipeline.addLast("aggregator", new HttpObjectAggregator(serverConfig.getMaxContentLength()));
+          }
           pipeline.addLast("deflater", new SmartHttpContentCompressor());
           pipeline.addLast("chunkedWriter", new ChunkedWriteHandler());
           pipeline.addLast("adapter", handlerAdapter);
@@ -380,7 +388,7 @@ public class DefaultRatpackServer implements RatpackServer {
   }
 
   @ChannelHandler.Sharable
-  private class ReloadHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+  private class ReloadHandler extends ChannelInboundHandlerAdapter {
     private ServerConfig lastServerConfig;
     private DefinitionBuild definitionBuild;
     private final Throttle reloadThrottle = Throttle.ofSize(1);
@@ -388,7 +396,6 @@ public class DefaultRatpackServer implements RatpackServer {
     private ChannelHandler inner;
 
     public ReloadHandler(DefinitionBuild definition) {
-      super(false);
       this.definitionBuild = definition;
       this.lastServerConfig = definitionBuild.getServerConfig();
       try {
@@ -400,7 +407,19 @@ public class DefaultRatpackServer implements RatpackServer {
     }
 
     @Override
-    protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest msg) throws Exception {
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+      Queue<Object> pendingMessages = ctx.attr(PENDING_MESSAGES_ATTRIBUTE_KEY).get();
+      if (pendingMessages != null) {
+        pendingMessages.add(msg);
+      } else if (msg instanceof HttpRequest) {
+        ctx.attr(PENDING_MESSAGES_ATTRIBUTE_KEY).set(new ArrayDeque<>());
+        reloadIfNeeded(ctx, (HttpRequest) msg);
+      } else {
+        ctx.fireChannelRead(msg);
+      }
+    }
+
+    private void reloadIfNeeded(ChannelHandlerContext ctx, HttpRequest msg) {
       execController.getControl().fork().start(e ->
           e.<ChannelHandler>promise(f -> {
             boolean rebuild = false;
@@ -433,11 +452,7 @@ public class DefaultRatpackServer implements RatpackServer {
             }
           })
             .throttled(reloadThrottle)
-            .blockingMap(adapter -> {
-              delegate(ctx, adapter, msg);
-              return true;
-            })
-            .then(Action.noop())
+            .then(adapter -> ctx.executor().execute(() -> uncheck(() -> delegate(ctx, adapter, msg))))
       );
     }
 
@@ -449,7 +464,7 @@ public class DefaultRatpackServer implements RatpackServer {
       }
     }
 
-    private void delegate(ChannelHandlerContext ctx, ChannelHandler delegate, FullHttpRequest msg) {
+    private void delegate(ChannelHandlerContext ctx, ChannelHandler delegate, HttpRequest msg) throws Exception {
       try {
         ctx.pipeline().remove("inner");
       } catch (Exception ignore) {
@@ -457,6 +472,15 @@ public class DefaultRatpackServer implements RatpackServer {
       }
       ctx.pipeline().addLast("inner", delegate);
       ctx.fireChannelRead(msg);
+
+      // If one of these is the next request, the messages after it will be queued again until it is delegated
+      Queue<Object> pendingMessages = ctx.attr(PENDING_MESSAGES_ATTRIBUTE_KEY).getAndSet(null);
+      for (Object pendingMessage : pendingMessages) {
+        channelRead(ctx, pendingMessage);
+      }
+
+      // The messages were delivered after the read that received them completed, so signal completion again for the delegate
+      ctx.fireChannelReadComplete();
     }
   }
 }
@@ -16,11 +16,13 @@
 
 package ratpack.server.internal;
 
+import com.google.common.io.ByteStreams;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.*;
 import io.netty.handler.codec.http.*;
 import io.netty.handler.ssl.SslHandler;
-import io.netty.handler.stream.ChunkedNioStream;
+import io.netty.handler.stream.ChunkedStream;
+import io.netty.util.ReferenceCountUtil;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
@@ -36,59 +38,70 @@ import ratpack.http.SentResponse;
 import ratpack.http.internal.*;
 
 import java.io.FileInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DefaultResponseTransmitter implements ResponseTransmitter {
 
   private final static Logger LOGGER = LoggerFactory.getLogger(DefaultResponseTransmitter.class);
   private static final Runnable NOOP_RUNNABLE = () -> {
   };
+  private static final long MAX_STREAM_BATCH_SIZE = 1024;
+  private static final String CONTENT_RANGE_BYTES_PREFIX = "bytes ";
 
   private final AtomicBoolean transmitted;
   private final ExecControl execControl;
   private final Channel channel;
-  private final FullHttpRequest nettyRequest;
+  private final CoalescingFlusher flusher;
+  private final HttpRequest nettyRequest;
   private final Request ratpackRequest;
   private final HttpHeaders responseHeaders;
   private final DefaultEventController<RequestOutcome> requestOutcomeEventController;
   private final boolean isKeepAlive;
   private final boolean isSsl;
+  private final int flushThreshold;
+  private final int flushInterval;
 
   private long stopTime;
+  private volatile long bytesWritten;
+  private final AtomicInteger flushes = new AtomicInteger();
 
   private Runnable onWritabilityChanged = NOOP_RUNNABLE;
 
-  public DefaultResponseTransmitter(AtomicBoolean transmitted, ExecControl execControl, Channel channel, FullHttpRequest nettyRequest, Request ratpackRequest, HttpHeaders responseHeaders, DefaultEventController<RequestOutcome> requestOutcomeEventController) {
+  public DefaultResponseTransmitter(AtomicBoolean transmitted, ExecControl execControl, Channel channel, CoalescingFlusher flusher, HttpRequest nettyRequest, Request ratpackRequest, HttpHeaders responseHeaders, DefaultEventController<RequestOutcome> requestOutcomeEventController, int flushThreshold, int flushInterval) {
     this.transmitted = transmitted;
     this.execControl = execControl;
     this.channel = channel;
-    this.nettyRequest = nettyRequest.retain();
+    this.flusher = flusher;
+    this.nettyRequest = ReferenceCountUtil.retain(nettyRequest);
     this.ratpackRequest = ratpackRequest;
     this.responseHeaders = responseHeaders;
     this.requestOutcomeEventController = requestOutcomeEventController;
     this.isKeepAlive = HttpHeaderUtil.isKeepAlive(nettyRequest);
     this.isSsl = channel.pipeline().get(SslHandler.class) != null;
+    this.flushThreshold = flushThreshold;
+    this.flushInterval = flushInterval;
   }
 
-  private ChannelFuture pre(HttpResponseStatus responseStatus) {
+  private HttpResponse pre(HttpResponseStatus responseStatus) {
     if (transmitted.compareAndSet(false, true)) {
       stopTime = System.nanoTime();
 
       HttpResponse headersResponse = new CustomHttpResponse(responseStatus, responseHeaders);
-      nettyRequest.release();
+      ReferenceCountUtil.release(nettyRequest);
 
       if (isKeepAlive) {
         headersResponse.headers().set(HttpHeaderConstants.CONNECTION, HttpHeaderConstants.KEEP_ALIVE);
       }
 
-      if (channel.isOpen()) {
-        return channel.writeAndFlush(headersResponse).addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
-      } else {
-        return null;
-      }
+      return headersResponse;
     } else {
       String msg = "attempt at double transmission for: " + ratpackRequest.getRawUri();
       LOGGER.warn(msg, new DoubleTransmissionException(msg));
@@ -98,42 +111,67 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
 
   @Override
   public void transmit(HttpResponseStatus responseStatus, ByteBuf body) {
-    transmit(responseStatus, new DefaultHttpContent(body));
+    HttpResponse headersResponse = pre(responseStatus);
+    if (headersResponse == null || !channel.isOpen()) {
+      body.release();
+      return;
+    }
+
+    // The body is already in memory, so send the whole response as one message with a single flush
+    FullHttpResponse response = new CustomFullHttpResponse(responseStatus, headersResponse.headers(), body);
+    bytesWritten = body.readableBytes();
+    ChannelFuture future = flusher.writeAndFlush(response, flushes);
+    future.addListener(isKeepAlive ? ChannelFutureListener.CLOSE_ON_FAILURE : ChannelFutureListener.CLOSE);
+    notifyListeners(responseStatus, future);
   }
 
   private void transmit(final HttpResponseStatus responseStatus, Object body) {
-    ChannelFuture channelFuture = pre(responseStatus);
-    if (channelFuture == null) {
+    HttpResponse headersResponse = pre(responseStatus);
+    if (headersResponse == null || !channel.isOpen()) {
+      ReferenceCountUtil.release(body);
       return;
     }
 
-    channelFuture.addListener(future -> {
-      if (channel.isOpen()) {
-        channel.write(body);
-        post(responseStatus);
-      }
-    });
+    channel.write(headersResponse).addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+    channel.write(body);
+    post(responseStatus);
   }
 
   @Override
   public void transmit(HttpResponseStatus status, Path file) {
     String sizeString = responseHeaders.get(HttpHeaderConstants.CONTENT_LENGTH);
     long size = sizeString == null ? 0 : Long.parseLong(sizeString);
-    boolean compress = !responseHeaders.contains(HttpHeaderConstants.CONTENT_ENCODING, HttpHeaderConstants.IDENTITY, true);
+    long position = position(status);
+    // Content that already has an encoding (e.g. precompressed files, or partial content) is not compressed on the fly, so can be sent as is
+    boolean compress = !responseHeaders.contains(HttpHeaderConstants.CONTENT_ENCODING);
 
     responseHeaders.set(HttpHeaderConstants.CONTENT_LENGTH, size);
 
     if (!isSsl && !compress && file.getFileSystem().equals(FileSystems.getDefault())) {
       execControl.blocking(() -> new FileInputStream(file.toFile()).getChannel()).then(fileChannel -> {
-        FileRegion defaultFileRegion = new DefaultFileRegion(fileChannel, 0, size);
+        FileRegion defaultFileRegion = new DefaultFileRegion(fileChannel, position, size);
+        bytesWritten = size;
         transmit(status, defaultFileRegion);
       });
     } else {
-      execControl.blocking(() ->
-          Files.newByteChannel(file)
-      ).then(fileChannel ->
-          transmit(status, new HttpChunkedInput(new ChunkedNioStream(fileChannel)))
-      );
+      execControl.blocking(() -> {
+        SeekableByteChannel fileChannel = Files.newByteChannel(file);
+        fileChannel.position(position);
+        return fileChannel;
+      }).then(fileChannel -> {
+        bytesWritten = size;
+        transmit(status, new HttpChunkedInput(new ChunkedStream(ByteStreams.limit(Channels.newInputStream(fileChannel), size))));
+      });
+    }
+  }
+
+  // The start of the range of the file to send, for partial content
+  private long position(HttpResponseStatus status) {
+    String contentRange = status.code() == HttpResponseStatus.PARTIAL_CONTENT.code() ? responseHeaders.get(HttpHeaderConstants.CONTENT_RANGE) : null;
+    if (contentRange == null || !contentRange.startsWith(CONTENT_RANGE_BYTES_PREFIX)) {
+      return 0;
+    } else {
+      return Long.parseLong(contentRange.substring(CONTENT_RANGE_BYTES_PREFIX.length(), contentRange.indexOf('-')));
     }
   }
 
@@ -142,6 +180,10 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
     return new Subscriber<ByteBuf>() {
       private Subscription subscription;
       private final AtomicBoolean done = new AtomicBoolean();
+      private final AtomicLong outstanding = new AtomicLong();
+      private final AtomicLong unflushed = new AtomicLong();
+      private final AtomicBoolean flushScheduled = new AtomicBoolean();
+      private volatile long items;
 
       private final ChannelFutureListener cancelOnFailure = future -> {
         if (!done.get()) {
@@ -158,6 +200,43 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
         }
       }
 
+      private void requestMore() {
+        if (channel.isWritable() && !done.get()) {
+          long n = batchSize();
+          if (outstanding.compareAndSet(0, n)) {
+            subscription.request(n);
+          }
+        }
+      }
+
+      // Without a flush threshold, items are requested one at a time.
+      // Otherwise, enough items to fill the channel's write buffer are requested, going by the average size of the items so far.
+      private long batchSize() {
+        long received = items;
+        if (flushThreshold <= 0 || received == 0) {
+          return 1;
+        }
+        long averageSize = Math.max(1, bytesWritten / received);
+        return Math.max(1, Math.min(MAX_STREAM_BATCH_SIZE, channel.config().getWriteBufferHighWaterMark() / averageSize));
+      }
+
+      private void flush() {
+        unflushed.set(0);
+        flushes.incrementAndGet();
+        channel.flush();
+      }
+
+      private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+          channel.eventLoop().schedule(() -> {
+            flushScheduled.set(false);
+            if (!done.get() && unflushed.get() > 0) {
+              flush();
+            }
+          }, flushInterval, TimeUnit.MILLISECONDS);
+        }
+      }
+
       @Override
       public void onSubscribe(Subscription subscription) {
         if (subscription == null) {
@@ -170,32 +249,34 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
 
         this.subscription = subscription;
 
-        onWritabilityChanged = () -> {
-          if (channel.isWritable() && !done.get()) {
-            this.subscription.request(1);
-          }
-        };
+        onWritabilityChanged = this::requestMore;
 
-        ChannelFuture channelFuture = pre(responseStatus);
-        if (channelFuture == null) {
+        HttpResponse headersResponse = pre(responseStatus);
+        if (headersResponse == null || !channel.isOpen()) {
           subscription.cancel();
           notifyListeners(responseStatus, channel.close());
         } else {
-          channelFuture.addListener(cancelOnFailure);
-          if (channel.isWritable()) {
-            this.subscription.request(1);
-          }
+          flusher.writeAndFlush(headersResponse, flushes).addListener(ChannelFutureListener.CLOSE_ON_FAILURE).addListener(cancelOnFailure);
+          requestMore();
         }
       }
 
       @Override
       public void onNext(ByteBuf o) {
+        outstanding.decrementAndGet();
         if (channel.isOpen()) {
-          channel.writeAndFlush(new DefaultHttpContent(o)).addListener(cancelOnFailure);
-          if (channel.isWritable()) {
-            subscription.request(1);
+          int size = o.readableBytes();
+          bytesWritten += size;
+          ++items;
+          channel.write(new DefaultHttpContent(o)).addListener(cancelOnFailure);
+          if (unflushed.addAndGet(size) >= flushThreshold) {
+            flush();
+          } else {
+            scheduleFlush();
           }
+          requestMore();
         } else {
+          o.release();
           cancel();
         }
       }
@@ -222,7 +303,7 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
 
   private void post(HttpResponseStatus responseStatus) {
     if (channel.isOpen()) {
-      ChannelFuture lastContentFuture = channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+      ChannelFuture lastContentFuture = flusher.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT, flushes);
       if (!isKeepAlive) {
         lastContentFuture.addListener(ChannelFutureListener.CLOSE);
       }
@@ -235,7 +316,7 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
   private void notifyListeners(final HttpResponseStatus responseStatus, ChannelFuture future) {
     if (requestOutcomeEventController.isHasListeners()) {
       future.addListener(ignore -> {
-        SentResponse sentResponse = new DefaultSentResponse(new NettyHeadersBackedHeaders(responseHeaders), new DefaultStatus(responseStatus));
+        SentResponse sentResponse = new DefaultSentResponse(new NettyHeadersBackedHeaders(responseHeaders), new DefaultStatus(responseStatus), bytesWritten, flushes.get());
         RequestOutcome requestOutcome = new DefaultRequestOutcome(ratpackRequest, sentResponse, stopTime);
         requestOutcomeEventController.fire(requestOutcome);
       });
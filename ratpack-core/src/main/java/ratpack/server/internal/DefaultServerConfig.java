@@ -86,6 +86,36 @@ public class DefaultServerConfig extends DelegatingConfigData implements ServerC
     return serverConfigData.getMaxContentLength();
   }
 
+  @Override
+  public boolean isStreamRequestBodies() {
+    return serverConfigData.isStreamRequestBodies();
+  }
+
+  @Override
+  public int getResponseFlushThreshold() {
+    return serverConfigData.getResponseFlushThreshold();
+  }
+
+  @Override
+  public int getResponseFlushInterval() {
+    return serverConfigData.getResponseFlushInterval();
+  }
+
+  @Override
+  public int getMaxBlockingThreads() {
+    return serverConfigData.getMaxBlockingThreads();
+  }
+
+  @Override
+  public int getBlockingQueueSize() {
+    return serverConfigData.getBlockingQueueSize();
+  }
+
+  @Override
+  public int getStallThreshold() {
+    return serverConfigData.getStallThreshold();
+  }
+
   @Override
   public boolean isHasBaseDir() {
     return serverConfigData.getBaseDir() != null;
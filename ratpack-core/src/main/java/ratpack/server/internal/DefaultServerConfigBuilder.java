@@ -92,6 +92,42 @@ public class DefaultServerConfigBuilder extends DefaultConfigDataSpec implements
     return this;
   }
 
+  @Override
+  public ServerConfig.Builder streamRequestBodies(boolean streamRequestBodies) {
+    serverConfigData.put("streamRequestBodies", streamRequestBodies);
+    return this;
+  }
+
+  @Override
+  public ServerConfig.Builder responseFlushThreshold(int responseFlushThreshold) {
+    serverConfigData.put("responseFlushThreshold", responseFlushThreshold);
+    return this;
+  }
+
+  @Override
+  public ServerConfig.Builder responseFlushInterval(int responseFlushInterval) {
+    serverConfigData.put("responseFlushInterval", responseFlushInterval);
+    return this;
+  }
+
+  @Override
+  public ServerConfig.Builder maxBlockingThreads(int maxBlockingThreads) {
+    serverConfigData.put("maxBlockingThreads", maxBlockingThreads);
+    return this;
+  }
+
+  @Override
+  public ServerConfig.Builder blockingQueueSize(int blockingQueueSize) {
+    serverConfigData.put("blockingQueueSize", blockingQueueSize);
+    return this;
+  }
+
+  @Override
+  public ServerConfig.Builder stallThreshold(int stallThreshold) {
+    serverConfigData.put("stallThreshold", stallThreshold);
+    return this;
+  }
+
   @Override
   public ServerConfig.Builder ssl(SSLContext sslContext) {
     serverConfigData.putPOJO("ssl", sslContext);
@@ -79,6 +79,36 @@ public class DelegatingServerConfig extends DelegatingConfigData implements Serv
     return delegate.getMaxContentLength();
   }
 
+  @Override
+  public boolean isStreamRequestBodies() {
+    return delegate.isStreamRequestBodies();
+  }
+
+  @Override
+  public int getResponseFlushThreshold() {
+    return delegate.getResponseFlushThreshold();
+  }
+
+  @Override
+  public int getResponseFlushInterval() {
+    return delegate.getResponseFlushInterval();
+  }
+
+  @Override
+  public int getMaxBlockingThreads() {
+    return delegate.getMaxBlockingThreads();
+  }
+
+  @Override
+  public int getBlockingQueueSize() {
+    return delegate.getBlockingQueueSize();
+  }
+
+  @Override
+  public int getStallThreshold() {
+    return delegate.getStallThreshold();
+  }
+
   @Override
   public boolean isHasBaseDir() {
     return delegate.isHasBaseDir();
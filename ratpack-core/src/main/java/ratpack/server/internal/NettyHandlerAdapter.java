@@ -21,8 +21,10 @@ import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.*;
 import io.netty.handler.codec.http.*;
+import io.netty.util.Attribute;
 import io.netty.util.AttributeKey;
 import io.netty.util.CharsetUtil;
+import io.netty.util.ReferenceCountUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ratpack.event.internal.DefaultEventController;
@@ -38,6 +40,7 @@ import ratpack.handling.internal.ChainHandler;
 import ratpack.handling.internal.DefaultContext;
 import ratpack.handling.internal.DescribingHandler;
 import ratpack.handling.internal.DescribingHandlers;
+import ratpack.http.Headers;
 import ratpack.http.MutableHeaders;
 import ratpack.http.Request;
 import ratpack.http.Response;
@@ -52,9 +55,11 @@ import java.nio.CharBuffer;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 @ChannelHandler.Sharable
-public class NettyHandlerAdapter extends SimpleChannelInboundHandler<FullHttpRequest> {
+public class NettyHandlerAdapter extends ChannelInboundHandlerAdapter {
 
   private static final AttributeKey<DefaultResponseTransmitter> RESPONSE_TRANSMITTER_ATTRIBUTE_KEY = AttributeKey.valueOf(DefaultResponseTransmitter.class.getName());
+  private static final AttributeKey<RequestBodyPublisher> REQUEST_BODY_ATTRIBUTE_KEY = AttributeKey.valueOf(RequestBodyPublisher.class.getName());
+  private static final AttributeKey<CoalescingFlusher> FLUSHER_ATTRIBUTE_KEY = AttributeKey.valueOf(CoalescingFlusher.class.getName());
   private static final AttributeKey<Action<Object>> CHANNEL_SUBSCRIBER_ATTRIBUTE_KEY = AttributeKey.valueOf("ratpack.subscriber");
 
   private final static Logger LOGGER = LoggerFactory.getLogger(NettyHandlerAdapter.class);
@@ -66,49 +71,73 @@ public class NettyHandlerAdapter extends SimpleChannelInboundHandler<FullHttpReq
 
   private final Registry serverRegistry;
   private final boolean development;
+  private final int maxContentLength;
+  private final int responseFlushThreshold;
+  private final int responseFlushInterval;
   private final ExecControl execControl;
 
   public NettyHandlerAdapter(Registry serverRegistry, Handler handler) throws Exception {
-    super(false);
-
     this.handlers = ChainHandler.unpack(handler);
     this.serverRegistry = serverRegistry;
     this.applicationConstants = new DefaultContext.ApplicationConstants(this.serverRegistry, new DefaultRenderController(), Handlers.notFound());
     this.execController = serverRegistry.get(ExecController.class);
     this.execControl = execController.getControl();
-    this.development = serverRegistry.get(ServerConfig.class).isDevelopment();
+    ServerConfig serverConfig = serverRegistry.get(ServerConfig.class);
+    this.development = serverConfig.isDevelopment();
+    this.maxContentLength = serverConfig.getMaxContentLength();
+    this.responseFlushThreshold = serverConfig.getResponseFlushThreshold();
+    this.responseFlushInterval = serverConfig.getResponseFlushInterval();
   }
 
   @Override
-  public void channelRead(ChannelHandlerContext channelHandlerContext, Object msg) throws Exception {
-    if (!(msg instanceof FullHttpRequest)) {
-      Action<Object> subscriber = channelHandlerContext.attr(CHANNEL_SUBSCRIBER_ATTRIBUTE_KEY).get();
+  public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+    flusher(ctx).readStarted();
+    if (msg instanceof HttpRequest) {
+      newRequest(ctx, (HttpRequest) msg);
+    } else if (msg instanceof HttpContent && ctx.attr(REQUEST_BODY_ATTRIBUTE_KEY).get() != null) {
+      RequestBodyPublisher requestBody = ctx.attr(REQUEST_BODY_ATTRIBUTE_KEY).get();
+      if (msg instanceof LastHttpContent) {
+        ctx.attr(REQUEST_BODY_ATTRIBUTE_KEY).set(null);
+      }
+      requestBody.add((HttpContent) msg);
+    } else {
+      Action<Object> subscriber = ctx.attr(CHANNEL_SUBSCRIBER_ATTRIBUTE_KEY).get();
       if (subscriber != null) {
         subscriber.execute(msg);
-        return;
+      } else {
+        ctx.fireChannelRead(msg);
       }
     }
-    super.channelRead(channelHandlerContext, msg);
   }
 
-  public void channelRead0(final ChannelHandlerContext ctx, final FullHttpRequest nettyRequest) throws Exception {
+  private void newRequest(final ChannelHandlerContext ctx, final HttpRequest nettyRequest) throws Exception {
     if (!nettyRequest.decoderResult().isSuccess()) {
       sendError(ctx, HttpResponseStatus.BAD_REQUEST);
-      nettyRequest.release();
+      ReferenceCountUtil.release(nettyRequest);
       return;
     }
 
     final Channel channel = ctx.channel();
     InetSocketAddress remoteAddress = (InetSocketAddress) channel.remoteAddress();
     InetSocketAddress socketAddress = (InetSocketAddress) channel.localAddress();
-
-    final Request request = new DefaultRequest(new NettyHeadersBackedHeaders(nettyRequest.headers()), nettyRequest.method(), nettyRequest.uri(), remoteAddress, socketAddress, nettyRequest.content());
+    final Headers requestHeaders = new NettyHeadersBackedHeaders(nettyRequest.headers());
+
+    final Request request;
+    final RequestBodyPublisher requestBody;
+    if (nettyRequest instanceof FullHttpRequest) {
+      requestBody = null;
+      request = new DefaultRequest(requestHeaders, nettyRequest.method(), nettyRequest.uri(), remoteAddress, socketAddress, ((FullHttpRequest) nettyRequest).content());
+    } else {
+      requestBody = new RequestBodyPublisher(channel, nettyRequest, maxContentLength);
+      ctx.attr(REQUEST_BODY_ATTRIBUTE_KEY).set(requestBody);
+      request = new DefaultRequest(requestHeaders, nettyRequest.method(), nettyRequest.uri(), remoteAddress, socketAddress, requestBody);
+    }
     final HttpHeaders nettyHeaders = new DefaultHttpHeaders(false);
     final MutableHeaders responseHeaders = new NettyHeadersBackedMutableHeaders(nettyHeaders);
     final DefaultEventController<RequestOutcome> requestOutcomeEventController = new DefaultEventController<>();
     final AtomicBoolean transmitted = new AtomicBoolean(false);
 
-    final DefaultResponseTransmitter responseTransmitter = new DefaultResponseTransmitter(transmitted, execControl, channel, nettyRequest, request, nettyHeaders, requestOutcomeEventController);
+    final DefaultResponseTransmitter responseTransmitter = new DefaultResponseTransmitter(transmitted, execControl, channel, flusher(ctx), nettyRequest, request, nettyHeaders, requestOutcomeEventController, responseFlushThreshold, responseFlushInterval);
 
     ctx.attr(RESPONSE_TRANSMITTER_ATTRIBUTE_KEY).set(responseTransmitter);
 
@@ -127,6 +156,14 @@ public class NettyHandlerAdapter extends SimpleChannelInboundHandler<FullHttpReq
     requestConstants.response = response;
 
     DefaultContext.start(channel.eventLoop(), execController.getControl(), requestConstants, serverRegistry, handlers, execution -> {
+      if (requestBody != null) {
+        requestBody.discardIfUnread();
+      }
+
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("{} request to {} was dispatched to {} handlers", request.getMethod().getName(), request.getUri(), requestConstants.getHops());
+      }
+
       if (!transmitted.get()) {
         Handler lastHandler = requestConstants.handler;
         StringBuilder description = new StringBuilder();
@@ -174,11 +211,36 @@ public class NettyHandlerAdapter extends SimpleChannelInboundHandler<FullHttpReq
     }
   }
 
+  @Override
+  public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+    flusher(ctx).readComplete();
+    super.channelReadComplete(ctx);
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    RequestBodyPublisher requestBody = ctx.attr(REQUEST_BODY_ATTRIBUTE_KEY).getAndSet(null);
+    if (requestBody != null) {
+      requestBody.channelClosed();
+    }
+    super.channelInactive(ctx);
+  }
+
   @Override
   public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
     ctx.attr(RESPONSE_TRANSMITTER_ATTRIBUTE_KEY).get().writabilityChanged();
   }
 
+  private static CoalescingFlusher flusher(ChannelHandlerContext ctx) {
+    Attribute<CoalescingFlusher> attribute = ctx.attr(FLUSHER_ATTRIBUTE_KEY);
+    CoalescingFlusher flusher = attribute.get();
+    if (flusher == null) {
+      flusher = new CoalescingFlusher(ctx.channel());
+      attribute.set(flusher);
+    }
+    return flusher;
+  }
+
   private boolean isIgnorableException(Throwable throwable) {
     // There really does not seem to be a better way of detecting this kind of exception
     return throwable instanceof IOException && throwable.getMessage().equals("Connection reset by peer");
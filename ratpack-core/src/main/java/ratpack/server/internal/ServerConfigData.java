@@ -36,6 +36,12 @@ public class ServerConfigData {
   private URI publicAddress;
   private SSLContext sslContext;
   private int maxContentLength = ServerConfig.DEFAULT_MAX_CONTENT_LENGTH;
+  private boolean streamRequestBodies;
+  private int responseFlushThreshold;
+  private int responseFlushInterval = ServerConfig.DEFAULT_RESPONSE_FLUSH_INTERVAL;
+  private int maxBlockingThreads;
+  private int blockingQueueSize = ServerConfig.DEFAULT_BLOCKING_QUEUE_SIZE;
+  private int stallThreshold;
 
   public ServerConfigData(ServerEnvironment serverEnvironment) {
     this.port = serverEnvironment.getPort();
@@ -67,6 +73,30 @@ public class ServerConfigData {
     return maxContentLength;
   }
 
+  public boolean isStreamRequestBodies() {
+    return streamRequestBodies;
+  }
+
+  public int getResponseFlushThreshold() {
+    return responseFlushThreshold;
+  }
+
+  public int getResponseFlushInterval() {
+    return responseFlushInterval;
+  }
+
+  public int getMaxBlockingThreads() {
+    return maxBlockingThreads;
+  }
+
+  public int getBlockingQueueSize() {
+    return blockingQueueSize;
+  }
+
+  public int getStallThreshold() {
+    return stallThreshold;
+  }
+
   public void setBaseDir(String baseDir) {
     setBaseDir(Paths.get(baseDir));
   }
@@ -115,6 +145,30 @@ public class ServerConfigData {
     this.maxContentLength = maxContentLength;
   }
 
+  public void setStreamRequestBodies(boolean streamRequestBodies) {
+    this.streamRequestBodies = streamRequestBodies;
+  }
+
+  public void setResponseFlushThreshold(int responseFlushThreshold) {
+    this.responseFlushThreshold = responseFlushThreshold;
+  }
+
+  public void setResponseFlushInterval(int responseFlushInterval) {
+    this.responseFlushInterval = responseFlushInterval;
+  }
+
+  public void setMaxBlockingThreads(int maxBlockingThreads) {
+    this.maxBlockingThreads = maxBlockingThreads;
+  }
+
+  public void setBlockingQueueSize(int blockingQueueSize) {
+    this.blockingQueueSize = blockingQueueSize;
+  }
+
+  public void setStallThreshold(int stallThreshold) {
+    this.stallThreshold = stallThreshold;
+  }
+
   public Path getBaseDir() {
     return baseDir;
   }
@@ -26,9 +26,12 @@ import ratpack.error.ServerErrorHandler;
 import ratpack.error.internal.DefaultDevelopmentErrorHandler;
 import ratpack.error.internal.DefaultProductionErrorHandler;
 import ratpack.error.internal.ErrorHandler;
+import ratpack.exec.BlockingExecutorStats;
+import ratpack.exec.EventLoopStallStats;
 import ratpack.exec.ExecControl;
 import ratpack.exec.ExecController;
 import ratpack.exec.ExecInterceptor;
+import ratpack.exec.ExecProfiler;
 import ratpack.exec.internal.DefaultExecController;
 import ratpack.file.FileSystemBinding;
 import ratpack.file.MimeTypes;
@@ -39,7 +42,9 @@ import ratpack.form.internal.FormParser;
 import ratpack.func.Function;
 import ratpack.handling.Redirector;
 import ratpack.handling.internal.DefaultRedirector;
+import ratpack.handling.internal.ResolutionCache;
 import ratpack.health.internal.HealthCheckResultsRenderer;
+import ratpack.http.client.ConnectionPoolStats;
 import ratpack.http.client.HttpClient;
 import ratpack.registry.Registries;
 import ratpack.registry.Registry;
@@ -62,6 +67,7 @@ public abstract class ServerRegistry {
 
     ImmutableList<? extends ExecInterceptor> interceptors = ImmutableList.copyOf(userRegistry.getAll(ExecInterceptor.class));
     execController.getControl().setDefaultInterceptors(interceptors);
+    execController.getControl().setProfiler(userRegistry.maybeGet(ExecProfiler.class).orElse(null));
 
     return baseRegistry.join(userRegistry);
   }
@@ -79,6 +85,7 @@ public abstract class ServerRegistry {
 
   public static Registry buildBaseRegistry(RatpackServer ratpackServer, ExecController execController, ServerConfig serverConfig) {
     ErrorHandler errorHandler = serverConfig.isDevelopment() ? new DefaultDevelopmentErrorHandler() : new DefaultProductionErrorHandler();
+    HttpClient httpClient = HttpClient.httpClient(execController, PooledByteBufAllocator.DEFAULT, serverConfig.getMaxContentLength());
 
     RegistryBuilder baseRegistryBuilder;
     try {
@@ -87,11 +94,14 @@ public abstract class ServerRegistry {
         .add(ByteBufAllocator.class, PooledByteBufAllocator.DEFAULT)
         .add(ExecController.class, execController)
         .add(ExecControl.class, execController.getControl())
+        .add(BlockingExecutorStats.class, execController.getBlockingExecutorStats())
+        .add(EventLoopStallStats.class, execController.getEventLoopStallStats())
         .add(MimeTypes.class, new ActivationBackedMimeTypes())
         .add(PublicAddress.class, new DefaultPublicAddress(serverConfig.getPublicAddress(), serverConfig.getSSLContext() == null ? HTTP_SCHEME : HTTPS_SCHEME))
         .add(Redirector.class, new DefaultRedirector())
         .add(ClientErrorHandler.class, errorHandler)
         .add(ServerErrorHandler.class, errorHandler)
+        .add(ResolutionCache.class, new ResolutionCache())
         .with(new DefaultFileRenderer().register())
         .with(new PromiseRenderer().register())
         .with(new PublisherRenderer().register())
@@ -107,7 +117,8 @@ public abstract class ServerRegistry {
           ratpackServer.stop();
           return null;
         }))
-        .add(HttpClient.class, HttpClient.httpClient(execController, PooledByteBufAllocator.DEFAULT, serverConfig.getMaxContentLength()))
+        .add(HttpClient.class, httpClient)
+        .add(ConnectionPoolStats.class, httpClient.getConnectionPoolStats())
         .add(ServerSentEventStreamClient.class, ServerSentEventStreamClient.sseStreamClient(execController, PooledByteBufAllocator.DEFAULT))
         .add(HealthCheckResultsRenderer.class, new HealthCheckResultsRenderer());
 
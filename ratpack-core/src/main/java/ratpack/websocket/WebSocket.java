@@ -35,4 +35,16 @@ public interface WebSocket {
   @NonBlocking
   void send(ByteBuf text);
 
+  /**
+   * Sends the given bytes as a binary message.
+   * <p>
+   * The default implementation throws {@link UnsupportedOperationException}, and is overridden by the web sockets that Ratpack creates.
+   *
+   * @param data the content of the message
+   */
+  @NonBlocking
+  default void sendBinary(ByteBuf data) {
+    throw new UnsupportedOperationException(getClass().getName() + " does not support sending binary messages");
+  }
+
 }
@@ -16,12 +16,51 @@
 
 package ratpack.websocket;
 
+import io.netty.buffer.ByteBuf;
+
 public interface WebSocketMessage<T> {
 
   WebSocket getConnection();
 
+  /**
+   * The text of a text message.
+   * <p>
+   * For a fragment of a message, this is the text of the fragment.
+   * A character that is split across fragments is part of the text of the fragment that completes it.
+   *
+   * @return the text of the message
+   * @throws IllegalStateException if this is a binary message
+   */
   String getText();
 
+  /**
+   * The raw content of the message.
+   * <p>
+   * The buffer is released once the message handler returns.
+   * It must be {@link ByteBuf#retain() retained} if it is to be used after that.
+   *
+   * @return the raw content of the message
+   */
+  ByteBuf getBuffer();
+
+  /**
+   * Whether this is a text message, as opposed to a binary message.
+   * <p>
+   * Continuation fragments have the type of the message that they continue.
+   *
+   * @return whether this is a text message
+   */
+  boolean isText();
+
+  /**
+   * Whether this is the last fragment of a message.
+   * <p>
+   * Messages that are not fragmented consist of a single, final, fragment.
+   *
+   * @return whether this is the last fragment of a message
+   */
+  boolean isFinalFragment();
+
   T getOpenResult();
 
 }
@@ -24,6 +24,16 @@ public interface WebSocketSpec<T> {
 
   WebSocketSpec<T> path(String path);
 
+  /**
+   * Whether to compress messages with the permessage-deflate extension, if the client supports it.
+   * <p>
+   * Defaults to {@code false}.
+   *
+   * @param compress whether to compress messages
+   * @return this
+   */
+  WebSocketSpec<T> compress(boolean compress);
+
   WebSocketSpec<T> onClose(Action<WebSocketClose<T>> action);
 
   WebSocketSpec<T> onMessage(Action<WebSocketMessage<T>> action);
@@ -62,7 +62,7 @@ public abstract class WebSockets {
   }
 
   public static void websocket(Context context, WebSocketHandler<?> handler) {
-    WebSocketEngine.connect(context, "/", context.get(ServerConfig.class).getMaxContentLength(), handler);
+    WebSocketEngine.connect(context, "/", context.get(ServerConfig.class).getMaxContentLength(), false, handler);
   }
 
   /**
@@ -18,6 +18,7 @@ package ratpack.websocket.internal;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
 import ratpack.websocket.WebSocket;
@@ -63,4 +64,9 @@ public class DefaultWebSocket implements WebSocket {
     channel.writeAndFlush(new TextWebSocketFrame(text));
   }
 
+  @Override
+  public void sendBinary(ByteBuf data) {
+    channel.writeAndFlush(new BinaryWebSocketFrame(data));
+  }
+
 }
@@ -33,6 +33,7 @@ public class DefaultWebSocketConnector<T> implements WebSocketConnector<T> {
 
     private String path = "/";
     private int maxLength;
+    private boolean compress;
 
     private Spec(int maxLength) {
       this.maxLength = maxLength;
@@ -44,6 +45,12 @@ public class DefaultWebSocketConnector<T> implements WebSocketConnector<T> {
       return this;
     }
 
+    @Override
+    public WebSocketSpec<T> compress(boolean compress) {
+      this.compress = compress;
+      return this;
+    }
+
     @Override
     public WebSocketSpec<T> onClose(Action<WebSocketClose<T>> action) {
       this.closeHandler = action;
@@ -72,7 +79,7 @@ public class DefaultWebSocketConnector<T> implements WebSocketConnector<T> {
   public void connect(Action<? super WebSocketSpec<T>> specAction) throws Exception {
     Spec spec = new Spec(context.get(ServerConfig.class).getMaxContentLength());
     specAction.execute(spec);
-    WebSocketEngine.connect(context, spec.path, spec.maxLength, new BuiltWebSocketHandler<>(open, spec.closeHandler, spec.messageHandler));
+    WebSocketEngine.connect(context, spec.path, spec.maxLength, spec.compress, new BuiltWebSocketHandler<>(open, spec.closeHandler, spec.messageHandler));
 
   }
 
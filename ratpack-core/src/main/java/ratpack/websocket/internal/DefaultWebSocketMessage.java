@@ -16,18 +16,24 @@
 
 package ratpack.websocket.internal;
 
+import io.netty.buffer.ByteBuf;
+import ratpack.api.Nullable;
 import ratpack.websocket.WebSocket;
 import ratpack.websocket.WebSocketMessage;
 
 public class DefaultWebSocketMessage<T> implements WebSocketMessage<T> {
 
   private final WebSocket webSocket;
+  private final ByteBuf buffer;
   private final String text;
+  private final boolean finalFragment;
   private final T openResult;
 
-  public DefaultWebSocketMessage(WebSocket webSocket, String text, T openResult) {
+  public DefaultWebSocketMessage(WebSocket webSocket, ByteBuf buffer, @Nullable String text, boolean finalFragment, T openResult) {
     this.webSocket = webSocket;
+    this.buffer = buffer;
     this.text = text;
+    this.finalFragment = finalFragment;
     this.openResult = openResult;
   }
 
@@ -38,9 +44,27 @@ public class DefaultWebSocketMessage<T> implements WebSocketMessage<T> {
 
   @Override
   public String getText() {
+    if (text == null) {
+      throw new IllegalStateException("Cannot get the text of a binary message");
+    }
     return text;
   }
 
+  @Override
+  public ByteBuf getBuffer() {
+    return buffer;
+  }
+
+  @Override
+  public boolean isText() {
+    return text != null;
+  }
+
+  @Override
+  public boolean isFinalFragment() {
+    return finalFragment;
+  }
+
   @Override
   public T getOpenResult() {
     return openResult;
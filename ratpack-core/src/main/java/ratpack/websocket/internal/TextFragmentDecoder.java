@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.websocket.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.CharsetUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Decodes the fragments of a text message, carrying over bytes of a character that is split across fragments.
+ * <p>
+ * Only used on the channel's event loop.
+ */
+class TextFragmentDecoder {
+
+  private final CharsetDecoder decoder = CharsetUtil.UTF_8.newDecoder()
+    .onMalformedInput(CodingErrorAction.REPLACE)
+    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+  private ByteBuffer remainder;
+
+  /**
+   * Decodes the next fragment of the message.
+   *
+   * @param content the content of the fragment
+   * @param finalFragment whether this is the last fragment of the message
+   * @return the characters that are complete at the end of the fragment
+   * @throws CharacterCodingException if the content can't be decoded
+   */
+  String decode(ByteBuf content, boolean finalFragment) throws CharacterCodingException {
+    ByteBuffer in;
+    if (remainder == null) {
+      in = content.nioBuffer();
+    } else {
+      in = ByteBuffer.allocate(remainder.remaining() + content.readableBytes());
+      in.put(remainder);
+      content.getBytes(content.readerIndex(), in);
+      in.flip();
+      remainder = null;
+    }
+
+    CharBuffer out = CharBuffer.allocate((int) (in.remaining() * decoder.maxCharsPerByte()) + 1);
+    CoderResult result = decoder.decode(in, out, finalFragment);
+    if (result.isError()) {
+      result.throwException();
+    }
+
+    if (finalFragment) {
+      decoder.flush(out);
+      decoder.reset();
+    } else if (in.hasRemaining()) {
+      remainder = ByteBuffer.allocate(in.remaining());
+      remainder.put(in);
+      remainder.flip();
+    }
+
+    out.flip();
+    return out.toString();
+  }
+
+}
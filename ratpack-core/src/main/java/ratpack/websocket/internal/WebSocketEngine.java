@@ -16,14 +16,17 @@
 
 package ratpack.websocket.internal;
 
+import com.google.common.collect.Maps;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
-import io.netty.handler.codec.http.DefaultFullHttpRequest;
-import io.netty.handler.codec.http.FullHttpRequest;
-import io.netty.handler.codec.http.HttpMethod;
-import io.netty.handler.codec.http.HttpVersion;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.*;
 import io.netty.handler.codec.http.websocketx.*;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionData;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtension;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateServerExtensionHandshaker;
+import io.netty.util.ReferenceCountUtil;
 import ratpack.handling.Context;
 import ratpack.handling.direct.DirectChannelAccess;
 import ratpack.http.Request;
@@ -33,9 +36,12 @@ import ratpack.websocket.WebSocketHandler;
 
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.concurrent.CountDownLatch;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static io.netty.handler.codec.http.HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS;
 import static io.netty.handler.codec.http.HttpHeaderNames.SEC_WEBSOCKET_KEY;
 import static io.netty.handler.codec.http.HttpHeaderNames.SEC_WEBSOCKET_VERSION;
 import static io.netty.handler.codec.http.HttpMethod.valueOf;
@@ -45,6 +51,10 @@ import static ratpack.util.Exceptions.uncheck;
 public class WebSocketEngine {
 
   public static <T> void connect(final Context context, String path, int maxLength, final WebSocketHandler<T> handler) {
+    connect(context, path, maxLength, false, handler);
+  }
+
+  public static <T> void connect(final Context context, String path, int maxLength, boolean compress, final WebSocketHandler<T> handler) {
     PublicAddress publicAddress = context.get(PublicAddress.class);
     URI address = publicAddress.getAddress(context);
     URI httpPath = address.resolve(path);
@@ -56,41 +66,102 @@ public class WebSocketEngine {
       throw uncheck(e);
     }
 
-    WebSocketServerHandshakerFactory factory = new WebSocketServerHandshakerFactory(wsPath.toString(), null, false, maxLength);
-
     Request request = context.getRequest();
+    WebSocketServerExtension extension = compress ? negotiateCompression(request.getHeaders().get(SEC_WEBSOCKET_EXTENSIONS)) : null;
+
+    // Extensions use the reserved bits of frames, which the decoder rejects unless allowed
+    WebSocketServerHandshakerFactory factory = new WebSocketServerHandshakerFactory(wsPath.toString(), null, extension != null, maxLength);
+
     HttpMethod method = valueOf(request.getMethod().getName());
     FullHttpRequest nettyRequest = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, request.getUri());
     nettyRequest.headers().add(SEC_WEBSOCKET_VERSION, request.getHeaders().get(SEC_WEBSOCKET_VERSION));
     nettyRequest.headers().add(SEC_WEBSOCKET_KEY, request.getHeaders().get(SEC_WEBSOCKET_KEY));
 
+    HttpHeaders responseHeaders = new DefaultHttpHeaders();
+    if (extension != null) {
+      responseHeaders.add(SEC_WEBSOCKET_EXTENSIONS, toHeaderValue(extension.newReponseData()));
+    }
+
     final WebSocketServerHandshaker handshaker = factory.newHandshaker(nettyRequest);
 
     final DirectChannelAccess directChannelAccess = context.getDirectChannelAccess();
     final Channel channel = directChannelAccess.getChannel();
 
-    handshaker.handshake(channel, nettyRequest).addListener(new HandshakeFutureListener<>(context, handshaker, handler));
+    handshaker.handshake(channel, nettyRequest, responseHeaders, channel.newPromise()).addListener(new HandshakeFutureListener<>(context, handshaker, extension, handler));
+  }
+
+  private static WebSocketServerExtension negotiateCompression(String extensionsHeader) {
+    if (extensionsHeader == null) {
+      return null;
+    }
+
+    PerMessageDeflateServerExtensionHandshaker extensionHandshaker = new PerMessageDeflateServerExtensionHandshaker();
+    for (String offer : extensionsHeader.split(",")) {
+      String[] parts = offer.split(";");
+      Map<String, String> parameters = Maps.newHashMap();
+      for (int i = 1; i < parts.length; ++i) {
+        String[] parameter = parts[i].split("=", 2);
+        parameters.put(parameter[0].trim(), parameter.length > 1 ? parameter[1].trim().replace("\"", "") : null);
+      }
+
+      WebSocketServerExtension extension = extensionHandshaker.handshakeExtension(new WebSocketExtensionData(parts[0].trim(), parameters));
+      if (extension != null) {
+        return extension;
+      }
+    }
+
+    return null;
+  }
+
+  private static String toHeaderValue(WebSocketExtensionData data) {
+    StringBuilder builder = new StringBuilder(data.name());
+    for (Map.Entry<String, String> parameter : data.parameters().entrySet()) {
+      builder.append("; ").append(parameter.getKey());
+      if (parameter.getValue() != null) {
+        builder.append("=").append(parameter.getValue());
+      }
+    }
+    return builder.toString();
   }
 
+  /**
+   * Connects the handler to the channel once the handshake is complete.
+   * <p>
+   * All of the state here is only accessed on the channel's event loop.
+   * Frames that are received before the handler has opened are queued, and delivered once it has.
+   */
   private static class HandshakeFutureListener<T> implements ChannelFutureListener {
 
     private final Context context;
     private final WebSocketServerHandshaker handshaker;
+    private final WebSocketServerExtension extension;
     private final WebSocketHandler<T> handler;
 
-    private volatile T openResult;
-    private final CountDownLatch openLatch = new CountDownLatch(1);
+    private final Queue<Object> pending = new ArrayDeque<>();
+    private boolean opened;
+    private boolean openFailed;
+    private final TextFragmentDecoder textDecoder = new TextFragmentDecoder();
+    private boolean continuingText;
+    private T openResult;
 
-    public HandshakeFutureListener(Context context, WebSocketServerHandshaker handshaker, WebSocketHandler<T> handler) {
+    public HandshakeFutureListener(Context context, WebSocketServerHandshaker handshaker, WebSocketServerExtension extension, WebSocketHandler<T> handler) {
       this.context = context;
       this.handshaker = handshaker;
+      this.extension = extension;
       this.handler = handler;
     }
 
     public void operationComplete(ChannelFuture future) throws Exception {
       if (future.isSuccess()) {
+        final Channel channel = context.getDirectChannelAccess().getChannel();
+        if (extension != null) {
+          ChannelPipeline pipeline = channel.pipeline();
+          pipeline.addAfter("wsencoder", "wsextensiondecoder", extension.newExtensionDecoder());
+          pipeline.addAfter("wsencoder", "wsextensionencoder", extension.newExtensionEncoder());
+        }
+
         final AtomicBoolean open = new AtomicBoolean(true);
-        final WebSocket webSocket = new DefaultWebSocket(context.getDirectChannelAccess().getChannel(), open, () -> {
+        final WebSocket webSocket = new DefaultWebSocket(channel, open, () -> {
           try {
             handler.onClose(new DefaultWebSocketClose<>(false, openResult));
           } catch (Exception e) {
@@ -99,37 +170,65 @@ public class WebSocketEngine {
         });
 
         context.getDirectChannelAccess().takeOwnership(msg -> {
-          openLatch.await();
-          Channel channel = context.getDirectChannelAccess().getChannel();
-          if (channel.isOpen()) {
-            if (msg instanceof WebSocketFrame) {
-              WebSocketFrame frame = (WebSocketFrame) msg;
-              if (frame instanceof CloseWebSocketFrame) {
-                open.set(false);
-                handshaker.close(channel, (CloseWebSocketFrame) frame.retain()).addListener(future1 -> handler.onClose(new DefaultWebSocketClose<>(true, openResult)));
-                return;
-              }
-              if (frame instanceof PingWebSocketFrame) {
-                channel.write(new PongWebSocketFrame(frame.content().retain()));
-                return;
-              }
-              if (frame instanceof TextWebSocketFrame) {
-                TextWebSocketFrame textWebSocketFrame = (TextWebSocketFrame) frame;
-                handler.onMessage(new DefaultWebSocketMessage<>(webSocket, textWebSocketFrame.text(), openResult));
-              }
-            }
+          if (opened) {
+            receive(channel, webSocket, open, msg);
+          } else if (openFailed) {
+            ReferenceCountUtil.release(msg);
+          } else {
+            pending.add(msg);
           }
         });
 
         try {
           openResult = handler.onOpen(webSocket);
         } catch (Exception e) {
-          handshaker.close(context.getDirectChannelAccess().getChannel(), new CloseWebSocketFrame(1011, e.getMessage()));
+          // the handler never opened, so is not given any messages
+          openFailed = true;
+          open.set(false);
+          Object msg = pending.poll();
+          while (msg != null) {
+            ReferenceCountUtil.release(msg);
+            msg = pending.poll();
+          }
+          handshaker.close(channel, new CloseWebSocketFrame(1011, e.getMessage()));
+          return;
+        }
+
+        opened = true;
+        Object msg = pending.poll();
+        while (msg != null) {
+          receive(channel, webSocket, open, msg);
+          msg = pending.poll();
         }
-        openLatch.countDown();
       } else {
         context.error(toException(future.cause()));
       }
     }
+
+    private void receive(Channel channel, WebSocket webSocket, AtomicBoolean open, Object msg) throws Exception {
+      try {
+        if (channel.isOpen() && msg instanceof WebSocketFrame) {
+          WebSocketFrame frame = (WebSocketFrame) msg;
+          if (frame instanceof CloseWebSocketFrame) {
+            open.set(false);
+            handshaker.close(channel, (CloseWebSocketFrame) frame.retain()).addListener(future1 -> handler.onClose(new DefaultWebSocketClose<>(true, openResult)));
+          } else if (frame instanceof PingWebSocketFrame) {
+            channel.writeAndFlush(new PongWebSocketFrame(frame.content().retain()));
+          } else if (frame instanceof TextWebSocketFrame) {
+            continuingText = true;
+            String text = textDecoder.decode(frame.content(), frame.isFinalFragment());
+            handler.onMessage(new DefaultWebSocketMessage<>(webSocket, frame.content(), text, frame.isFinalFragment(), openResult));
+          } else if (frame instanceof BinaryWebSocketFrame) {
+            continuingText = false;
+            handler.onMessage(new DefaultWebSocketMessage<>(webSocket, frame.content(), null, frame.isFinalFragment(), openResult));
+          } else if (frame instanceof ContinuationWebSocketFrame) {
+            String text = continuingText ? textDecoder.decode(frame.content(), frame.isFinalFragment()) : null;
+            handler.onMessage(new DefaultWebSocketMessage<>(webSocket, frame.content(), text, frame.isFinalFragment(), openResult));
+          }
+        }
+      } finally {
+        ReferenceCountUtil.release(msg);
+      }
+    }
   }
 }
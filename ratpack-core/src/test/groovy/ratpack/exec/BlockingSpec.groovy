@@ -23,6 +23,9 @@ import ratpack.test.exec.ExecHarness
 import ratpack.test.internal.RatpackGroovyDslSpec
 import ratpack.test.internal.SimpleErrorHandler
 
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.RejectedExecutionException
+
 import static ratpack.util.Exceptions.uncheck
 
 class BlockingSpec extends RatpackGroovyDslSpec {
@@ -266,4 +269,36 @@ class BlockingSpec extends RatpackGroovyDslSpec {
     then:
     thrown(UnmanagedThreadException)
   }
+
+  def "blocking operations are rejected when all blocking threads are busy and the queue is full"() {
+    given:
+    serverConfig { maxBlockingThreads(1).blockingQueueSize(0) }
+
+    when:
+    handlers {
+      get {
+        def release = new CountDownLatch(1)
+        def occupied = new CountDownLatch(1)
+        get(ExecController).blockingExecutor.execute {
+          occupied.countDown()
+          release.await()
+        }
+        occupied.await()
+
+        blocking {
+          "unreachable"
+        } onError {
+          def stats = get(BlockingExecutorStats)
+          def description = "$it.class.name:$stats.activeCount:$stats.rejectedCount"
+          release.countDown()
+          render description
+        } then {
+          render it
+        }
+      }
+    }
+
+    then:
+    text == "${RejectedExecutionException.name}:1:1"
+  }
 }
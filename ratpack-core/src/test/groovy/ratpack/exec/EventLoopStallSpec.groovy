@@ -0,0 +1,60 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec
+
+import ratpack.test.internal.RatpackGroovyDslSpec
+
+import java.time.Duration
+
+class EventLoopStallSpec extends RatpackGroovyDslSpec {
+
+  def "segments that run longer than the threshold are detected"() {
+    given:
+    serverConfig { stallThreshold(50) }
+
+    when:
+    handlers {
+      get {
+        sleep 300
+        render "ok"
+      }
+      get("stats") {
+        def stats = get(EventLoopStallStats)
+        render "$stats.threshold:$stats.stallCount:${stats.maxStall >= Duration.ofMillis(250)}"
+      }
+    }
+
+    then:
+    text == "ok"
+    getText("stats") == "${Duration.ofMillis(50)}:1:true"
+  }
+
+  def "stalls are not detected by default"() {
+    when:
+    handlers {
+      get {
+        sleep 100
+        def stats = get(EventLoopStallStats)
+        render "$stats.threshold:$stats.stallCount"
+      }
+    }
+
+    then:
+    text == "${Duration.ZERO}:0"
+  }
+
+}
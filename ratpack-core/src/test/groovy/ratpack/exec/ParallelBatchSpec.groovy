@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec
+
+import ratpack.stream.Streams
+import ratpack.test.exec.ExecHarness
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicInteger
+
+class ParallelBatchSpec extends Specification {
+
+  @AutoCleanup
+  ExecHarness execHarness = ExecHarness.harness()
+
+  def "yields values in the order of the promises"() {
+    when:
+    def result = execHarness.yield { e ->
+      ParallelBatch.of((1..5).collect { i -> e.blocking { sleep((6 - i) * 10); i } }).yield()
+    }
+
+    then:
+    result.valueOrThrow == [1, 2, 3, 4, 5]
+  }
+
+  def "yields nothing for an empty batch"() {
+    expect:
+    execHarness.yield { ParallelBatch.of([]).yield() }.valueOrThrow == []
+  }
+
+  def "limits the number of promises in flight"() {
+    given:
+    def inFlight = new AtomicInteger()
+    def maxInFlight = new AtomicInteger()
+
+    when:
+    def result = execHarness.yield { e ->
+      def promises = (1..10).collect { i ->
+        e.blocking {
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math.&max)
+          sleep 10
+          inFlight.decrementAndGet()
+          i
+        }
+      }
+      ParallelBatch.of(promises).maxConcurrency(3).spread().yield()
+    }
+
+    then:
+    result.valueOrThrow == (1..10).toList()
+    maxInFlight.get() <= 3
+  }
+
+  def "fails fast with the first error"() {
+    given:
+    def subscribed = new AtomicInteger()
+
+    when:
+    def result = execHarness.yield { e ->
+      def promises = (1..5).collect { i ->
+        e.blocking {
+          subscribed.incrementAndGet()
+          if (i == 2) {
+            throw new IllegalStateException("!")
+          }
+          i
+        }
+      }
+      ParallelBatch.of(promises).maxConcurrency(1).yield()
+    }
+
+    then:
+    result.throwable instanceof IllegalStateException
+    subscribed.get() == 2
+  }
+
+  def "yields the result of each promise"() {
+    when:
+    def results = execHarness.yield { e ->
+      ParallelBatch.of(e.promiseOf(1), e.<Integer> failedPromise(new IllegalStateException("!")), e.promiseOf(3)).yieldAll()
+    }.valueOrThrow
+
+    then:
+    results*.success == [true, false, true]
+    results[0].value == 1
+    results[1].throwable instanceof IllegalStateException
+    results[2].value == 3
+  }
+
+  def "forked executions are given the registered objects"() {
+    when:
+    def result = execHarness.yield { e ->
+      def promises = (1..3).collect { i -> e.promise { f -> f.success(Execution.current().get(String) + i) } }
+      ParallelBatch.of(promises).register { it.add(String, "foo") }.yield()
+    }
+
+    then:
+    result.valueOrThrow == ["foo1", "foo2", "foo3"]
+  }
+
+  def "publishes values in the order they become available"() {
+    when:
+    def result = execHarness.yield { e ->
+      def promises = (1..3).collect { i -> e.blocking { sleep((4 - i) * 50); i } }
+      Streams.toList(ParallelBatch.of(promises).publisher())
+    }
+
+    then:
+    result.valueOrThrow == [3, 2, 1]
+  }
+
+  def "publisher errors with the first error"() {
+    when:
+    def result = execHarness.yield { e ->
+      Streams.toList(ParallelBatch.of(e.promiseOf(1), e.<Integer> failedPromise(new IllegalStateException("!"))).maxConcurrency(1).publisher())
+    }
+
+    then:
+    result.throwable instanceof IllegalStateException
+  }
+
+}
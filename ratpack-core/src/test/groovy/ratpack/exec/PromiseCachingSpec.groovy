@@ -20,9 +20,12 @@ import ratpack.func.Action
 import ratpack.test.exec.ExecHarness
 import spock.lang.AutoCleanup
 import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
 
+import java.time.Duration
 import java.util.concurrent.ConcurrentLinkedQueue
 import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicInteger
 
 class PromiseCachingSpec extends Specification {
 
@@ -151,4 +154,77 @@ class PromiseCachingSpec extends Specification {
     events.toList() == [e, "complete"]
   }
 
+  def "failures are not cached by cacheIf"() {
+    given:
+    def counter = new AtomicInteger()
+    def cached = control.promise { f ->
+      def i = counter.getAndIncrement()
+      i == 0 ? f.error(new IllegalStateException("!")) : f.success(i)
+    }.cacheIf { it.success }
+
+    expect:
+    execHarness.yield { cached }.throwable instanceof IllegalStateException
+    execHarness.yield { cached }.value == 1
+    execHarness.yield { cached }.value == 1
+    counter.get() == 2
+  }
+
+  def "cached value expires"() {
+    given:
+    def counter = new AtomicInteger()
+    def cached = control.promise { f -> f.success(counter.getAndIncrement()) }.cacheFor(Duration.ofMillis(100))
+
+    when:
+    def first = execHarness.yield { cached }.value
+    def second = execHarness.yield { cached }.value
+    sleep 150
+
+    then:
+    first == 0
+    second == 0
+
+    and:
+    execHarness.yield { cached }.value == 1
+  }
+
+  def "concurrent subscribers share a single subscription"() {
+    given:
+    def counter = new AtomicInteger()
+    def release = new CountDownLatch(1)
+    def cached = control.blocking { release.await(); counter.getAndIncrement() }.cacheFor(Duration.ofMinutes(1))
+    def results = new ConcurrentLinkedQueue()
+    def done = new CountDownLatch(5)
+
+    when:
+    5.times {
+      execHarness.fork().onComplete { done.countDown() }.start { cached.then { results << it } }
+    }
+    sleep 50
+    release.countDown()
+    done.await()
+
+    then:
+    results.toList() == [0, 0, 0, 0, 0]
+    counter.get() == 1
+  }
+
+  def "stale value is served while refreshing"() {
+    given:
+    def counter = new AtomicInteger()
+    def cached = control.promise { f -> f.success(counter.getAndIncrement()) }.cacheFor(Duration.ofMinutes(1), Duration.ofMillis(200))
+
+    when:
+    def first = execHarness.yield { cached }.value
+    sleep 250
+
+    then:
+    first == 0
+
+    and:
+    execHarness.yield { cached }.value == 0
+    new PollingConditions(timeout: 5, delay: 0.05).eventually {
+      assert execHarness.yield { cached }.value == 1
+    }
+  }
+
 }
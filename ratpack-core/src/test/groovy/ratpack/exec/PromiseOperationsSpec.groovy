@@ -22,7 +22,10 @@ import spock.lang.AutoCleanup
 import spock.lang.Specification
 import spock.util.concurrent.BlockingVariable
 
+import java.time.Duration
 import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicInteger
 
 import static ratpack.func.Action.throwException
 
@@ -276,4 +279,71 @@ class PromiseOperationsSpec extends Specification {
     events == ["yield", "blocking", "wiretap", "foo", "complete"]
   }
 
+  def "promise times out if not completed in time"() {
+    when:
+    def result = ExecHarness.yieldSingle {
+      it.blocking { sleep 1000; "slow" }.timeout(Duration.ofMillis(50))
+    }
+
+    then:
+    result.throwable instanceof TimeoutException
+
+    when:
+    result = ExecHarness.yieldSingle {
+      it.blocking { "fast" }.timeout(Duration.ofSeconds(5))
+    }
+
+    then:
+    result.value == "fast"
+  }
+
+  def "failed promise is retried as per policy"() {
+    given:
+    def attempts = new AtomicInteger()
+
+    when:
+    def result = ExecHarness.yieldSingle {
+      it.blocking {
+        if (attempts.incrementAndGet() < 3) {
+          throw new IllegalStateException("attempt $attempts")
+        }
+        "ok"
+      }.retry(RetryPolicy.fixedDelay(3, Duration.ofMillis(10)))
+    }
+
+    then:
+    result.value == "ok"
+    attempts.get() == 3
+
+    when:
+    attempts.set(-10)
+    result = ExecHarness.yieldSingle {
+      it.blocking {
+        throw new IllegalStateException("attempt ${attempts.incrementAndGet()}")
+      }.retry(RetryPolicy.exponentialBackoff(2, Duration.ofMillis(1), Duration.ofMillis(10)))
+    }
+
+    then:
+    result.throwable.message == "attempt -8"
+  }
+
+  def "slow promise is hedged with another attempt"() {
+    given:
+    def attempts = new AtomicInteger()
+
+    when:
+    def result = ExecHarness.yieldSingle {
+      it.blocking {
+        def attempt = attempts.incrementAndGet()
+        if (attempt == 1) {
+          sleep 1000
+        }
+        "attempt $attempt".toString()
+      }.hedge(Duration.ofMillis(50), 3)
+    }
+
+    then:
+    result.value == "attempt 2"
+    attempts.get() == 2
+  }
 }
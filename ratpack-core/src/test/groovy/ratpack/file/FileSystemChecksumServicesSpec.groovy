@@ -329,4 +329,31 @@ class FileSystemChecksumServicesSpec extends Specification {
     then:
     thrown NoSuchFileException
   }
+
+  def "checksum is only recalculated when the file changes"() {
+    given:
+    ServerConfig serverConfig = ServerConfig.baseDir(this.baseDir.build()).development(true).build()
+    def file = baseDir.file("test.js", "function(){}")
+    int calculations = 0
+    def service = FileSystemChecksumServices.service(serverConfig, { is ->
+      ++calculations
+      return is.text
+    })
+
+    when:
+    def first = service.checksum("test.js")
+    def second = service.checksum("test.js")
+
+    then:
+    first == "function(){}"
+    second == first
+    calculations == 1
+
+    when:
+    file.text = "function(){ return 1; }"
+
+    then:
+    service.checksum("test.js") == "function(){ return 1; }"
+    calculations == 2
+  }
 }
@@ -31,6 +31,9 @@ import spock.lang.Unroll
 import spock.util.concurrent.BlockingVariable
 import spock.util.concurrent.PollingConditions
 
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
+
 import static io.netty.handler.codec.http.HttpHeaders.Names.*
 import static io.netty.handler.codec.http.HttpResponseStatus.*
 import static java.nio.file.Files.getLastModifiedTime
@@ -429,7 +432,229 @@ class StaticFileSpec extends RatpackGroovyDslSpec {
     response.statusCode == 404
   }
 
-  private static Date parseDateHeader(ReceivedResponse response, String name) {
+  def "serves byte ranges of static files"() {
+    given:
+    file "public/file.txt", "0123456789"
+
+    when:
+    handlers {
+      assets "public"
+    }
+
+    and:
+    requestSpec { it.headers.set(RANGE, range) }
+
+    then:
+    def response = get("file.txt")
+    response.statusCode == statusCode.code()
+    response.body.text == body
+    response.headers.get(CONTENT_RANGE) == contentRange
+
+    where:
+    range          | statusCode                      | body         | contentRange
+    "bytes=2-4"    | PARTIAL_CONTENT                 | "234"        | "bytes 2-4/10"
+    "bytes=7-"     | PARTIAL_CONTENT                 | "789"        | "bytes 7-9/10"
+    "bytes=-2"     | PARTIAL_CONTENT                 | "89"         | "bytes 8-9/10"
+    "bytes=5-100"  | PARTIAL_CONTENT                 | "56789"      | "bytes 5-9/10"
+    "bytes=10-12"  | REQUESTED_RANGE_NOT_SATISFIABLE | ""           | "bytes */10"
+    "bytes=4-2"    | OK                              | "0123456789" | null
+    "items=1-2"    | OK                              | "0123456789" | null
+  }
+
+  def "serves multiple byte ranges of static files"() {
+    given:
+    file "public/file.txt", "0123456789"
+
+    when:
+    handlers {
+      assets "public"
+    }
+
+    and:
+    requestSpec { it.headers.set(RANGE, "bytes=0-1,4-5,5-6") }
+
+    then:
+    def response = get("file.txt")
+    response.statusCode == PARTIAL_CONTENT.code()
+    response.headers.get(CONTENT_TYPE).startsWith("multipart/byteranges; boundary=")
+    def boundary = response.headers.get(CONTENT_TYPE) - "multipart/byteranges; boundary="
+    response.body.text == "--$boundary\r\ncontent-type: text/plain\r\ncontent-range: bytes 0-1/10\r\n\r\n01\r\n" +
+      "--$boundary\r\ncontent-type: text/plain\r\ncontent-range: bytes 4-6/10\r\n\r\n456\r\n" +
+      "--$boundary--\r\n"
+  }
+
+  def "ignores ranges if the file has changed"() {
+    given:
+    file "public/file.txt", "0123456789"
+
+    when:
+    handlers {
+      assets "public"
+    }
+
+    and:
+    requestSpec {
+      it.headers.set(RANGE, "bytes=2-4")
+      it.headers.set(IF_RANGE, '"not-the-etag"')
+    }
+
+    then:
+    def response = get("file.txt")
+    response.statusCode == OK.code()
+    response.body.text == "0123456789"
+  }
+
+  def "static files have a strong etag derived from their size and modification time"() {
+    given:
+    def file = file "public/file.txt", "hello!"
+
+    when:
+    handlers {
+      assets "public"
+    }
+
+    then:
+    def etag = get("file.txt").headers.get(ETAG)
+    etag == '"' + Long.toHexString(6) + "-" + Long.toHexString(getLastModifiedTime(file).toMillis()) + '"'
+
+    when:
+    requestSpec { it.headers.set(IF_NONE_MATCH, etag) }
+
+    then:
+    get("file.txt").statusCode == NOT_MODIFIED.code()
+
+    when:
+    file.text = "changed"
+    requestSpec { it.headers.set(IF_NONE_MATCH, etag) }
+
+    then:
+    with(get("file.txt")) {
+      statusCode == OK.code()
+      body.text == "changed"
+      headers.get(ETAG) != etag
+    }
+  }
+
+  def "serves precompressed siblings of static files if accepted"() {
+    given:
+    file "public/file.txt", "hello!"
+    def compressed = new ByteArrayOutputStream()
+    new GZIPOutputStream(compressed).withStream { it << "hello!".bytes }
+    def gz = file "public/file.txt.gz"
+    gz.bytes = compressed.toByteArray()
+
+    when:
+    handlers {
+      assets "public"
+    }
+
+    then:
+    with(get("file.txt")) {
+      headers.get(CONTENT_ENCODING) == null
+      headers.get(VARY).equalsIgnoreCase(ACCEPT_ENCODING)
+      body.text == "hello!"
+    }
+
+    when:
+    requestSpec { it.headers.set(ACCEPT_ENCODING, "br;q=0, gzip") }
+
+    then:
+    with(get("file.txt")) {
+      headers.get(CONTENT_ENCODING) == "gzip"
+      headers.get(CONTENT_TYPE) == "text/plain"
+      headers.get(CONTENT_LENGTH) == compressed.size().toString()
+      new GZIPInputStream(new ByteArrayInputStream(body.bytes)).text == "hello!"
+    }
+  }
+
+  def "serves whole precompressed sibling when multiple ranges are requested"() {
+    given:
+    file "public/file.txt", "0123456789"
+    def compressed = new ByteArrayOutputStream()
+    new GZIPOutputStream(compressed).withStream { it << "0123456789".bytes }
+    def gz = file "public/file.txt.gz"
+    gz.bytes = compressed.toByteArray()
+
+    when:
+    handlers {
+      assets "public"
+    }
+
+    and:
+    requestSpec {
+      it.headers.set(ACCEPT_ENCODING, "gzip")
+      it.headers.set(RANGE, "bytes=0-1,4-5")
+    }
+
+    then:
+    with(get("file.txt")) {
+      statusCode == OK.code()
+      headers.get(CONTENT_ENCODING) == "gzip"
+      new GZIPInputStream(new ByteArrayInputStream(body.bytes)).text == "0123456789"
+    }
+
+    when:
+    requestSpec {
+      it.headers.remove(ACCEPT_ENCODING)
+      it.headers.set(RANGE, "bytes=0-1,4-5")
+    }
+
+    then:
+    with(get("file.txt")) {
+      statusCode == PARTIAL_CONTENT.code()
+      headers.get(CONTENT_TYPE).startsWith("multipart/byteranges; boundary=")
+      headers.get(CONTENT_ENCODING) == "identity"
+    }
+  }
+
+  def "serves cached assets from memory until invalidated"() {
+    given:
+    def file = file "public/file.txt", "hello!"
+    def big = file "public/big.txt", "a" * 100
+    def cache = AssetCache.assetCache { it.maxEntrySize(10) }
+
+    when:
+    bindings {
+      bindInstance AssetCache, cache
+    }
+    handlers {
+      assets "public"
+    }
+
+    then:
+    getText("file.txt") == "hello!"
+    getText("big.txt") == "a" * 100
+    cache.size == 1
+    cache.bytes == 6
+
+    when:
+    file.text = "changed"
+    big.text = "b" * 100
+
+    then:
+    getText("file.txt") == "hello!"
+    getText("big.txt") == "b" * 100
+
+    when:
+    requestSpec { it.headers.set(RANGE, "bytes=1-2") }
+
+    then:
+    with(get("file.txt")) {
+      statusCode == PARTIAL_CONTENT.code()
+      headers.get(CONTENT_RANGE) == "bytes 1-2/6"
+      body.text == "el"
+    }
+
+    when:
+    cache.invalidateAll()
+    resetRequest()
+
+    then:
+    cache.size == 0
+    getText("file.txt") == "changed"
+  }
+
+ReceivedResponse response, String name) {
     HttpHeaderDateFormat.get().parse(response.headers.get(name))
   }
 
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.handling
+
+import ratpack.test.internal.RatpackGroovyDslSpec
+
+import java.time.Duration
+
+class HandlerTimingsSpec extends RatpackGroovyDslSpec {
+
+  def timings = HandlerTimings.handlerTimings()
+
+  def "records computation and blocking time"() {
+    given:
+    bindings {
+      bindInstance HandlerTimings, timings
+    }
+
+    when:
+    handlers {
+      all {
+        blocking { sleep 100 } then { render "ok" }
+      }
+    }
+
+    then:
+    text == "ok"
+
+    and:
+    def snapshots = timings.snapshot.values()
+    snapshots*.compute*.count.sum() > 0
+    snapshots*.blocking*.count.sum() == 1
+    snapshots*.blocking*.max.max() >= Duration.ofMillis(90)
+  }
+
+  def "records nothing when not in the registry"() {
+    when:
+    handlers {
+      all { render "ok" }
+    }
+
+    then:
+    text == "ok"
+    timings.snapshot.isEmpty()
+  }
+
+}
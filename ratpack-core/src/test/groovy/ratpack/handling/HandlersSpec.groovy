@@ -73,4 +73,19 @@ class HandlersSpec extends RatpackGroovyDslSpec {
     then:
     text == "ok"
   }
+
+  def "deeply nested routing handlers do not grow the stack"() {
+    when:
+    Handler handler = { it.render "ok" } as Handler
+    10000.times {
+      handler = chain(Handlers.get(), handler)
+    }
+
+    handlers {
+      all(handler)
+    }
+
+    then:
+    text == "ok"
+  }
 }
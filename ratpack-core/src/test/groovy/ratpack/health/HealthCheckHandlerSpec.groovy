@@ -27,6 +27,7 @@ import ratpack.render.Renderer
 import ratpack.test.internal.RatpackGroovyDslSpec
 
 import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
 
 class HealthCheckHandlerSpec extends RatpackGroovyDslSpec {
 
@@ -256,6 +257,30 @@ class HealthCheckHandlerSpec extends RatpackGroovyDslSpec {
     assert results[1].contains("HEALTHY")
   }
 
+  def "health checks are invoked in parallel"() {
+    given:
+    CountDownLatch latch = new CountDownLatch(1)
+
+    when:
+    handlers {
+      register {
+        add HealthCheck.of("baz") { ec, r ->
+          def counted = latch.await(5, TimeUnit.SECONDS)
+          ec.promiseOf(counted ? HealthCheck.Result.healthy() : HealthCheck.Result.unhealthy("not invoked in parallel"))
+        }
+        add HealthCheck.of("quux") { ec, r ->
+          latch.countDown()
+          ec.promiseOf(HealthCheck.Result.healthy())
+        }
+      }
+      get("health-checks", new HealthCheckHandler())
+    }
+
+    then:
+    def result = getText("health-checks")
+    result.split("\n") as List == ["baz : HEALTHY", "quux : HEALTHY"]
+  }
+
   def "duplicated health checks renders only once"() {
     when:
     bindings {
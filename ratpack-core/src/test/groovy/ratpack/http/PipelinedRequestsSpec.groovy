@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http
+
+import io.netty.util.CharsetUtil
+import ratpack.test.internal.RatpackGroovyDslSpec
+
+class PipelinedRequestsSpec extends RatpackGroovyDslSpec {
+
+  def "responses to pipelined requests are sent in order"() {
+    given:
+    handlers {
+      get(":name") {
+        render "hello ${pathTokens.name}"
+      }
+    }
+
+    when:
+    def socket = new Socket()
+    socket.connect(new InetSocketAddress(address.host, address.port))
+    socket.outputStream.with {
+      write((
+        "GET /a HTTP/1.1\r\n\r\n" +
+          "GET /b HTTP/1.1\r\n\r\n" +
+          "GET /c HTTP/1.1\r\nConnection: close\r\n\r\n"
+      ).getBytes(CharsetUtil.UTF_8))
+      flush()
+    }
+    def received = socket.inputStream.getText(CharsetUtil.UTF_8.name())
+
+    then:
+    received.count("HTTP/1.1 200 OK") == 3
+    received.indexOf("hello a") < received.indexOf("hello b")
+    received.indexOf("hello b") < received.indexOf("hello c")
+
+    cleanup:
+    socket?.close()
+  }
+
+}
@@ -16,6 +16,11 @@
 
 package ratpack.http
 
+import io.netty.buffer.ByteBuf
+import io.netty.handler.codec.TooLongFrameException
+import ratpack.error.ServerErrorHandler
+import ratpack.form.Form
+import ratpack.handling.Context
 import ratpack.http.client.RequestSpec
 import ratpack.test.internal.RatpackGroovyDslSpec
 
@@ -79,4 +84,162 @@ class RequestBodyReadingSpec extends RatpackGroovyDslSpec {
     putText() == "0"
   }
 
+  def "can get request body as stream when not streaming request bodies"() {
+    when:
+    handlers {
+      post {
+        request.bodyStream.toList().then { List<ByteBuf> buffers ->
+          response.send buffers.collect { String s = it.toString("utf8"); it.release(); s }.join("")
+        }
+      }
+    }
+
+    then:
+    requestSpec { it.body.stream { it << "foo".getBytes("utf8") } }
+    postText() == "foo"
+  }
+
+  def "can stream large request body"() {
+    given:
+    def string = "a" * 1024 * 64
+
+    when:
+    serverConfig { streamRequestBodies(true) }
+    handlers {
+      post {
+        request.bodyStream.toList().then { List<ByteBuf> buffers ->
+          response.send buffers.collect { String s = it.toString("utf8"); it.release(); s }.join("")
+        }
+      }
+    }
+
+    then:
+    requestSpec { it.body.stream { it << string.getBytes("utf8") } }
+    postText() == string
+  }
+
+  def "unread streamed request body is discarded"() {
+    when:
+    serverConfig { streamRequestBodies(true) }
+    handlers {
+      post {
+        response.send "ok"
+      }
+    }
+
+    then:
+    requestSpec { it.body.stream { it << ("a" * 1024 * 64).getBytes("utf8") } }
+    postText() == "ok"
+    postText() == "ok"
+  }
+
+  def "cannot get request body as typed data when streaming request bodies"() {
+    when:
+    serverConfig { streamRequestBodies(true) }
+    handlers {
+      post {
+        request.body
+      }
+    }
+
+    then:
+    requestSpec { it.body.stream { it << "foo".getBytes("utf8") } }
+    post().statusCode == 500
+  }
+
+  def "can read streamed request body and then get it as typed data"() {
+    when:
+    serverConfig { streamRequestBodies(true) }
+    handlers {
+      post {
+        request.readBody().then { TypedData body ->
+          response.send "$body.text:$request.body.text"
+        }
+      }
+    }
+
+    then:
+    requestSpec { it.body.stream { it << ("a" * 1024 * 64).getBytes("utf8") } }
+    postText() == ("a" * 1024 * 64) + ":" + ("a" * 1024 * 64)
+  }
+
+  def "can parse streamed request body once read"() {
+    when:
+    serverConfig { streamRequestBodies(true) }
+    handlers {
+      post {
+        request.readBody().then {
+          response.send parse(Form).foo
+        }
+      }
+    }
+
+    then:
+    requestSpec {
+      it.headers.set("Content-Type", "application/x-www-form-urlencoded")
+      it.body.stream { it << "foo=bar".getBytes("utf8") }
+    }
+    postText() == "bar"
+  }
+
+  def "can read request body when not streaming request bodies"() {
+    when:
+    handlers {
+      post {
+        request.readBody().then { TypedData body ->
+          response.send body.text
+        }
+      }
+    }
+
+    then:
+    requestSpec { it.body.stream { it << "foo".getBytes("utf8") } }
+    postText() == "foo"
+  }
+
+  def "request body stream can only be subscribed to once when not streaming request bodies"() {
+    when:
+    handlers {
+      post {
+        request.bodyStream.toList().then { List<ByteBuf> buffers ->
+          buffers*.release()
+          request.bodyStream.toList().onError {
+            response.send it.class.name
+          } then {
+            response.send "read twice"
+          }
+        }
+      }
+    }
+
+    then:
+    requestSpec { it.body.stream { it << "foo".getBytes("utf8") } }
+    postText() == IllegalStateException.name
+  }
+
+  def "streamed request body that exceeds max content length is errored"() {
+    when:
+    serverConfig {
+      streamRequestBodies(true)
+      maxContentLength(16)
+    }
+    bindings {
+      bindInstance ServerErrorHandler, { Context context, Throwable throwable ->
+        context.response.status(413).send(throwable.class.name)
+      } as ServerErrorHandler
+    }
+    handlers {
+      post {
+        request.bodyStream.toList().then { List<ByteBuf> buffers ->
+          buffers*.release()
+          response.send "read"
+        }
+      }
+    }
+
+    then:
+    requestSpec { it.body.stream { it << ("a" * 32).getBytes("utf8") } }
+    postText() == TooLongFrameException.name
+  }
+
 }
@@ -16,14 +16,18 @@
 
 package ratpack.http.client
 
+import io.netty.buffer.ByteBufAllocator
 import io.netty.buffer.Unpooled
+import io.netty.handler.codec.PrematureChannelClosureException
 import io.netty.handler.codec.http.HttpHeaders
 import io.netty.handler.timeout.ReadTimeoutException
 import io.netty.util.CharsetUtil
+import ratpack.exec.ExecController
 import ratpack.http.internal.HttpHeaderConstants
 import ratpack.stream.Streams
 
 import java.time.Duration
+import java.util.concurrent.TimeoutException
 
 import static ratpack.http.ResponseChunks.stringChunks
 import static ratpack.sse.ServerSentEvents.serverSentEvents
@@ -517,4 +521,278 @@ BAR
     text == "bar"
   }
 
+  def "reuses connections for subsequent requests to the same host"() {
+    given:
+    otherApp {
+      get("foo") {
+        render "bar"
+      }
+    }
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.get(otherAppUrl("foo")).flatMap {
+          httpClient.get(otherAppUrl("foo"))
+        } then { ReceivedResponse response ->
+          def stats = httpClient.connectionPoolStats
+          render "$response.body.text:$stats.createdCount:$stats.reusedCount"
+        }
+      }
+    }
+
+    then:
+    text == "bar:1:1"
+  }
+
+  def "closes connections after each request when not pooling"() {
+    given:
+    otherApp {
+      get("foo") {
+        render "bar"
+      }
+    }
+
+    when:
+    handlers {
+      get {
+        def httpClient = HttpClient.httpClient(get(ExecController), get(ByteBufAllocator)) { it.poolSize(0) }
+        httpClient.get(otherAppUrl("foo")).flatMap {
+          httpClient.get(otherAppUrl("foo"))
+        } then { ReceivedResponse response ->
+          def stats = httpClient.connectionPoolStats
+          render "$response.body.text:$stats.createdCount:$stats.reusedCount"
+        }
+      }
+    }
+
+    then:
+    text == "bar:2:0"
+  }
+
+  def "can stream request body from publisher using chunked encoding"() {
+    given:
+    otherApp {
+      post {
+        render "${request.headers.get("Transfer-Encoding")}:${request.headers.get("Content-Length")}:$request.body.text"
+      }
+    }
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.post(otherAppUrl()) {
+          it.body.publisher(publish(["a", "b", "c"]).map { Unpooled.copiedBuffer(it, CharsetUtil.UTF_8) })
+        } then {
+          render it.body.text
+        }
+      }
+    }
+
+    then:
+    text == "chunked:null:abc"
+  }
+
+  def "can stream request body from publisher of known length"() {
+    given:
+    otherApp {
+      post {
+        render "${request.headers.get("Transfer-Encoding")}:${request.headers.get("Content-Length")}:$request.body.text"
+      }
+    }
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.post(otherAppUrl()) {
+          it.body.publisher(publish(["a", "b", "c"]).map { Unpooled.copiedBuffer(it, CharsetUtil.UTF_8) }, 3)
+        } then {
+          render it.body.text
+        }
+      }
+    }
+
+    then:
+    text == "null:3:abc"
+  }
+
+  def "fails when request body publisher does not emit the declared length"() {
+    given:
+    otherApp {
+      post {
+        render request.body.text
+      }
+    }
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.post(otherAppUrl()) {
+          it.body.publisher(publish(["a", "b", "c"]).map { Unpooled.copiedBuffer(it, CharsetUtil.UTF_8) }, 4)
+        } onError {
+          render it.class.name
+        } then {
+          render it.body.text
+        }
+      }
+    }
+
+    then:
+    text == IllegalStateException.name
+  }
+
+  def "can send file as request body"() {
+    given:
+    def file = temporaryFolder.newFile().toPath()
+    file.text = "a" * 100000
+
+    otherApp {
+      post {
+        render "${request.headers.get("Content-Length")}:${request.body.text.length()}"
+      }
+    }
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.post(otherAppUrl()) {
+          it.body.file(file)
+        } then {
+          render it.body.text
+        }
+      }
+    }
+
+    then:
+    text == "100000:100000"
+  }
+
+  def "reuses connections after streaming request body"() {
+    given:
+    otherApp {
+      post("foo") {
+        render request.body.text
+      }
+    }
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        def body = publish(["a", "b"]).map { Unpooled.copiedBuffer(it, CharsetUtil.UTF_8) }
+        httpClient.post(otherAppUrl("foo")) { it.body.publisher(body) }.flatMap {
+          httpClient.post(otherAppUrl("foo")) { it.body.publisher(body) }
+        } then { ReceivedResponse response ->
+          def stats = httpClient.connectionPoolStats
+          render "$response.body.text:$stats.createdCount:$stats.reusedCount"
+        }
+      }
+    }
+
+    then:
+    text == "ab:1:1"
+  }
+
+  def "fails requests that wait too long for a pooled connection"() {
+    given:
+    otherApp {
+      get("foo") {
+        render "bar"
+      }
+    }
+
+    when:
+    handlers {
+      get {
+        def httpClient = HttpClient.httpClient(get(ExecController), get(ByteBufAllocator)) { it.poolSize(1).acquireTimeout(Duration.ofMillis(100)) }
+        // the connection stays in use until the streamed body is read, which it never is
+        httpClient.requestStream(otherAppUrl("foo")) {}.flatMap {
+          httpClient.get(otherAppUrl("foo"))
+        } onError {
+          render "$it.class.name:$httpClient.connectionPoolStats.pendingAcquireCount"
+        } then { ReceivedResponse response ->
+          render response.body.text
+        }
+      }
+    }
+
+    then:
+    text == "$TimeoutException.name:0"
+  }
+
+  def "retries request on a new connection when a pooled connection was closed by the server"() {
+    given:
+    def server = new ServerSocket(0)
+    Thread.start {
+      def first = server.accept()
+      def firstReader = first.inputStream.newReader("UTF-8")
+      readRequestHead(firstReader)
+      first.outputStream << "HTTP/1.1 200 OK\r\nContent-Length: 3\r\n\r\nbar"
+      readRequestHead(firstReader)
+      first.close()
+
+      def second = server.accept()
+      readRequestHead(second.inputStream.newReader("UTF-8"))
+      second.outputStream << "HTTP/1.1 200 OK\r\nContent-Length: 3\r\nConnection: close\r\n\r\nbaz"
+      second.close()
+    }
+    def serverUrl = new URI("http://localhost:$server.localPort/")
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.get(serverUrl).flatMap {
+          httpClient.get(serverUrl)
+        } then { ReceivedResponse response ->
+          def stats = httpClient.connectionPoolStats
+          render "$response.body.text:$stats.createdCount:$stats.reusedCount"
+        }
+      }
+    }
+
+    then:
+    text == "baz:2:1"
+
+    cleanup:
+    server.close()
+  }
+
+  def "does not retry non idempotent request when a pooled connection was closed by the server"() {
+    given:
+    def server = new ServerSocket(0)
+    Thread.start {
+      def connection = server.accept()
+      def reader = connection.inputStream.newReader("UTF-8")
+      readRequestHead(reader)
+      connection.outputStream << "HTTP/1.1 200 OK\r\nContent-Length: 3\r\n\r\nbar"
+      readRequestHead(reader)
+      connection.close()
+    }
+    def serverUrl = new URI("http://localhost:$server.localPort/")
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.get(serverUrl).flatMap {
+          httpClient.post(serverUrl) {}
+        } onError {
+          render "$it.class.name:$httpClient.connectionPoolStats.createdCount"
+        } then { ReceivedResponse response ->
+          render response.body.text
+        }
+      }
+    }
+
+    then:
+    text == "$PrematureChannelClosureException.name:1"
+
+    cleanup:
+    server.close()
+  }
+
+  private static void readRequestHead(BufferedReader reader) {
+    while (reader.readLine()) {
+      // skip to the end of the headers
+    }
+  }
+
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.client.internal
+
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.Executor
+
+class HostResolverSpec extends Specification {
+
+  def lookups = 0
+  def executor = { Runnable runnable -> ++lookups; runnable.run() } as Executor
+
+  def "caches resolved addresses for the ttl"() {
+    given:
+    def resolver = new HostResolver(executor, Duration.ofMinutes(1).toNanos())
+
+    when:
+    def first = resolver.resolve("localhost").get()
+    def second = resolver.resolve("localhost").get()
+
+    then:
+    first.is(second)
+    lookups == 1
+  }
+
+  def "resolves again once the ttl has passed"() {
+    given:
+    def resolver = new HostResolver(executor, Duration.ofMillis(1).toNanos())
+
+    when:
+    resolver.resolve("localhost").get()
+    sleep 10
+    resolver.resolve("localhost").get()
+
+    then:
+    lookups == 2
+  }
+
+  def "does not cache when ttl is zero"() {
+    given:
+    def resolver = new HostResolver(executor, 0)
+
+    when:
+    resolver.resolve("localhost").get()
+    resolver.resolve("localhost").get()
+
+    then:
+    lookups == 2
+  }
+
+  def "does not look up address literals"() {
+    given:
+    def resolver = new HostResolver(executor, Duration.ofMinutes(1).toNanos())
+
+    when:
+    def address = resolver.resolve("127.0.0.1").getNow(null)
+
+    then:
+    address.hostAddress == "127.0.0.1"
+    lookups == 0
+  }
+
+  def "does not cache failed lookups"() {
+    given:
+    def resolver = new HostResolver(executor, Duration.ofMinutes(1).toNanos())
+
+    when:
+    def first = resolver.resolve("unresolvable.invalid")
+    def second = resolver.resolve("unresolvable.invalid")
+
+    then:
+    first.completedExceptionally
+    second.completedExceptionally
+    lookups == 2
+  }
+
+}
@@ -18,7 +18,9 @@ package ratpack.http.stream
 
 import io.netty.buffer.Unpooled
 import io.netty.util.CharsetUtil
+import ratpack.http.SentResponse
 import ratpack.test.internal.RatpackGroovyDslSpec
+import spock.util.concurrent.BlockingVariable
 
 import java.nio.charset.Charset
 
@@ -107,4 +109,62 @@ abcü
     }
   }
 
+  def "can batch flushes of streamed responses"() {
+    given:
+    def sentResponse = new BlockingVariable<SentResponse>()
+    serverConfig {
+      responseFlushThreshold(1024)
+    }
+
+    handlers {
+      all {
+        onClose { sentResponse.set(it.response) }
+        render stringChunks(
+          publish(["a" * 10] * 1000)
+        )
+      }
+    }
+
+    expect:
+    text == "a" * 10000
+    sentResponse.get().bytesWritten == 10000
+    sentResponse.get().flushes < 1000
+  }
+
+  def "flushes each item of streamed responses by default"() {
+    given:
+    def sentResponse = new BlockingVariable<SentResponse>()
+
+    handlers {
+      all {
+        onClose { sentResponse.set(it.response) }
+        render stringChunks(
+          publish(["a"] * 10)
+        )
+      }
+    }
+
+    expect:
+    text == "a" * 10
+    sentResponse.get().bytesWritten == 10
+    // the flushes of the headers and the last chunk are coalesced into one if the response is sent while the request is being read
+    sentResponse.get().flushes in [11, 12]
+  }
+
+  def "counts a single flush for responses sent in one message"() {
+    given:
+    def sentResponse = new BlockingVariable<SentResponse>()
+
+    handlers {
+      all {
+        onClose { sentResponse.set(it.response) }
+        render "a"
+      }
+    }
+
+    expect:
+    text == "a"
+    sentResponse.get().flushes == 1
+  }
+
 }
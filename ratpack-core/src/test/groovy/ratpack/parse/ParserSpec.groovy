@@ -18,7 +18,9 @@ package ratpack.parse
 
 import com.google.common.reflect.TypeToken
 import ratpack.handling.Context
+import ratpack.handling.ResolutionCacheStats
 import ratpack.http.TypedData
+import ratpack.registry.Registries
 import ratpack.test.internal.RatpackGroovyDslSpec
 
 class ParserSpec extends RatpackGroovyDslSpec {
@@ -55,4 +57,34 @@ class ParserSpec extends RatpackGroovyDslSpec {
     postText() == Integer.toString()
   }
 
+  def "parser resolutions are cached unless the request registry provides parsers"() {
+    when:
+    bindings {
+      bind IntParser
+    }
+    handlers {
+      post("server") {
+        response.send parse(Integer).toString()
+      }
+      prefix("request") {
+        register(Registries.just(new IntParser())) {
+          post {
+            response.send parse(Integer).toString()
+          }
+        }
+      }
+      get("stats") {
+        def stats = get(ResolutionCacheStats).parsers
+        response.send "$stats.hitCount:$stats.missCount:$stats.bypassCount"
+      }
+    }
+
+    then:
+    requestSpec { it.body.stream { it << "123" } }
+    postText("server") == "123"
+    postText("server") == "123"
+    postText("request") == "123"
+    getText("stats") == "1:1:1"
+  }
+
 }
@@ -352,4 +352,39 @@ class PathRoutingSpec extends RatpackGroovyDslSpec {
     getText("bar/") == "0"
     //    getText("bar//") == "1" // The httpurl spec under the covers will fix this bar// before it is ever passed to ratpack
   }
+
+  def "routes are tried in declaration order and can fall through to later routes"() {
+    when:
+    handlers {
+      path("a/b") {
+        response.headers.add("X-Route", "a/b")
+        next()
+      }
+      path(":x/b") {
+        response.headers.add("X-Route", ":x/b")
+        next()
+      }
+      path("c") {
+        response.send "c"
+      }
+      prefix("a") {
+        all {
+          response.headers.add("X-Route", "a")
+          next()
+        }
+      }
+      path("a/:y") {
+        response.send "a/:y:" + pathTokens.y + ":" + response.headers.getAll("X-Route").join(",")
+      }
+    }
+
+    then:
+    getText("a/b") == "a/:y:b:a/b,:x/b,a"
+    resetRequest()
+    getText("c") == "c"
+    resetRequest()
+    getText("a/z") == "a/:y:z:a"
+    resetRequest()
+    get("b/b").statusCode == NOT_FOUND.code()
+  }
 }
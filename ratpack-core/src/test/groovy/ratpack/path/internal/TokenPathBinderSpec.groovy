@@ -38,6 +38,8 @@ class TokenPathBinderSpec extends Specification {
     bind("a/b", "a/b/c").boundTo == "a/b"
     bind("a/b", "a/b/c").pastBinding == "c"
     bind("a/b", "a/b/c").childPath("f") == "a/b/f"
+    bind("a/:b", "a/x/y").boundTo == "a/x"
+    bind("a/:b", "a/x/y").pastBinding == "y"
   }
 
   def tokens() {
@@ -72,6 +74,13 @@ class TokenPathBinderSpec extends Specification {
     tokens("a/:b?", "a") == [:]
     tokens("a/:b?", "a/") == [b: ""]
     tokens(":a/:b?/:c?", "1//3") == [a: "1", b: "", c: "3"]
+    tokens(":a/b", "x/b/c") == [a: "x"]
+    tokens(":a/b", "x/b/c", true) == null
+    tokens(":a/b", "x/b/", true) == [a: "x"]
+    tokens(":a.json", "x.json") == [a: "x"]
+    tokens("a/:b/c", "a/x%2Fy/c") == [b: "x/y"]
+    tokens("a/:b/c", "a//c") == null
+    tokens("a/:b", "a/x&y") == null
 
     when:
     tokens(":a/:b?/:c", "abc/def/ghi")
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.registry.internal
+
+import com.google.common.reflect.TypeToken
+import ratpack.func.Action
+import ratpack.registry.Registries
+import ratpack.registry.Registry
+import ratpack.registry.RegistrySpec
+import ratpack.test.internal.registry.RegistryContractSpec
+
+import java.util.function.Supplier
+
+class FlatRegistrySpec extends RegistryContractSpec {
+
+  static class JoiningRegistrySpec implements RegistrySpec {
+    Registry registry = Registries.empty()
+
+    @Override
+    def <O> RegistrySpec add(TypeToken<? super O> type, O object) {
+      registry = registry.join(Registries.registry().add(type, object).build())
+      this
+    }
+
+    @Override
+    def <O> RegistrySpec addLazy(TypeToken<O> type, Supplier<? extends O> supplier) {
+      registry = registry.join(Registries.registry().addLazy(type, supplier).build())
+      this
+    }
+  }
+
+  @Override
+  Registry build(Action<? super RegistrySpec> spec) {
+    def joining = new JoiningRegistrySpec()
+    spec.execute(joining)
+    joining.registry
+  }
+
+  def "joining small registries produces a flat registry"() {
+    when:
+    def registry = Registries.just(Integer, 1).join(Registries.just(String, "a")).join(Registries.registry().add(Long, 2L).add(String, "b").build())
+
+    then:
+    registry instanceof FlatRegistry
+    registry.get(String) == "b"
+    registry.getAll(Object).toList() == ["b", 2L, "a", 1]
+  }
+
+  def "small registries joined to a large registry are flattened into a single layer"() {
+    given:
+    def large = Registries.registry { spec -> (0..FlatRegistry.MAX_ENTRIES).each { spec.add(Integer, it) } }
+
+    when:
+    def registry = large.join(Registries.just(String, "a")).join(Registries.just(String, "b")).join(Registries.just(Long, 1L))
+
+    then:
+    registry instanceof HierarchicalRegistry
+    registry.parent.is large
+    registry.child instanceof FlatRegistry
+    registry.getAll(String).toList() == ["b", "a"]
+    registry.get(Integer) == FlatRegistry.MAX_ENTRIES
+    registry.getAll(Number).toList().take(2) == [1L, FlatRegistry.MAX_ENTRIES]
+  }
+
+  def "registries that are too large are not flattened"() {
+    given:
+    def large = Registries.registry { spec -> (0..FlatRegistry.MAX_ENTRIES).each { spec.add(Integer, it) } }
+
+    when:
+    def registry = Registries.just(String, "a").join(large)
+
+    then:
+    registry instanceof HierarchicalRegistry
+    registry.get(Integer) == FlatRegistry.MAX_ENTRIES
+    registry.get(String) == "a"
+  }
+
+  def "parameterized types are matched on their type arguments"() {
+    when:
+    def registry = Registries.registry().add(new TypeToken<List<Integer>>() {}, [1]).build()
+      .join(Registries.registry().add(new TypeToken<List<String>>() {}, ["a"]).build())
+
+    then:
+    registry instanceof FlatRegistry
+    registry.get(new TypeToken<List<Integer>>() {}) == [1]
+    registry.get(new TypeToken<List<String>>() {}) == ["a"]
+    registry.get(List) == ["a"]
+    registry.getAll(new TypeToken<List<? extends Number>>() {}).toList() == [[1]]
+  }
+
+}
@@ -19,6 +19,7 @@ package ratpack.render
 import ratpack.error.ServerErrorHandler
 import ratpack.error.internal.DefaultDevelopmentErrorHandler
 import ratpack.handling.Context
+import ratpack.handling.ResolutionCacheStats
 import ratpack.registry.Registries
 import ratpack.test.internal.RatpackGroovyDslSpec
 
@@ -75,4 +76,35 @@ class RenderingSpec extends RatpackGroovyDslSpec {
       body.text.contains NoSuchRendererException.name
     }
   }
+
+  def "renderer resolutions are cached unless the request registry provides renderers"() {
+    when:
+    bindings {
+      bindInstance ThingRenderer, new ThingRenderer()
+    }
+    handlers {
+      get("server") {
+        render new Thing("server")
+      }
+      prefix("request") {
+        register(Registries.just(new ThingRenderer())) {
+          get {
+            render new Thing("request")
+          }
+        }
+      }
+      get("stats") {
+        def stats = get(ResolutionCacheStats).renderers
+        response.send "$stats.hitCount:$stats.missCount:$stats.bypassCount"
+      }
+    }
+
+    then:
+    getText("server") == "thing: server"
+    getText("server") == "thing: server"
+    getText("request") == "thing: request"
+
+    // each request resolves the renderers for both the thing and the string it renders
+    getText("stats") == "2:2:2"
+  }
 }
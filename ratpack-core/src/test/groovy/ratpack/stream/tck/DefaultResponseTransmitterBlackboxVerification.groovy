@@ -28,6 +28,7 @@ import org.reactivestreams.tck.SubscriberBlackboxVerification
 import org.reactivestreams.tck.TestEnvironment
 import ratpack.event.internal.DefaultEventController
 import ratpack.handling.RequestOutcome
+import ratpack.server.internal.CoalescingFlusher
 import ratpack.server.internal.DefaultResponseTransmitter
 
 import java.util.concurrent.atomic.AtomicBoolean
@@ -61,7 +62,7 @@ class DefaultResponseTransmitterBlackboxVerification extends SubscriberBlackboxV
     when(eventController.hasListeners).thenReturn(false)
 
     new DefaultResponseTransmitter(
-      new AtomicBoolean(), null, channel, nettyRequest, null, responseHeaders, eventController
+      new AtomicBoolean(), null, channel, new CoalescingFlusher(channel), nettyRequest, null, responseHeaders, eventController, 0, 0
     ).transmitter(HttpResponseStatus.OK)
   }
 
@@ -16,6 +16,7 @@
 
 package ratpack.websocket
 
+import org.java_websocket.framing.Framedata
 import org.reactivestreams.Publisher
 import org.reactivestreams.Subscriber
 import ratpack.exec.ExecController
@@ -24,6 +25,7 @@ import ratpack.test.internal.RatpackGroovyDslSpec
 import spock.lang.Timeout
 import spock.util.concurrent.BlockingVariable
 
+import java.nio.ByteBuffer
 import java.time.Duration
 import java.util.concurrent.CountDownLatch
 import java.util.concurrent.LinkedBlockingQueue
@@ -90,17 +92,96 @@ class WebSocketTestSpec extends RatpackGroovyDslSpec {
     client?.closeBlocking()
   }
 
+  def "can send and receive binary websockets"() {
+    when:
+    def serverReceived = new LinkedBlockingQueue<Boolean>()
+
+    handlers {
+      get {
+        websocket(context) {
+          2
+        } connect {
+          it.onMessage {
+            serverReceived.put it.isText()
+            it.connection.sendBinary(it.buffer.retain())
+          }
+        }
+      }
+    }
+
+    and:
+    server.start()
+    def client = openWsClient()
+
+    then:
+    client.connectBlocking()
+    client.send([1, 2, 3] as byte[])
+
+    and:
+    serverReceived.poll(5, TimeUnit.SECONDS) == false
+
+    when:
+    def received = client.receivedBinary.poll(5, TimeUnit.SECONDS)
+    def bytes = new byte[received.remaining()]
+    received.get(bytes)
+
+    then:
+    bytes == [1, 2, 3] as byte[]
+
+    cleanup:
+    client?.closeBlocking()
+  }
+
+  def "decodes characters that are split across fragments of a text message"() {
+    when:
+    def serverReceived = new LinkedBlockingQueue<String>()
+
+    handlers {
+      get {
+        websocket(context) {
+          2
+        } connect {
+          it.onMessage {
+            serverReceived.put it.text
+          }
+        }
+      }
+    }
+
+    and:
+    server.start()
+    def client = openWsClient()
+    def bytes = "aé€b".getBytes("UTF-8")
+
+    then:
+    client.connectBlocking()
+    client.sendFragmentedFrame(Framedata.Opcode.TEXT, ByteBuffer.wrap(bytes, 0, 2), false)
+    client.sendFragmentedFrame(Framedata.Opcode.TEXT, ByteBuffer.wrap(bytes, 2, 2), false)
+    client.sendFragmentedFrame(Framedata.Opcode.TEXT, ByteBuffer.wrap(bytes, 4, bytes.length - 4), true)
+
+    and:
+    serverReceived.poll(5, TimeUnit.SECONDS) == "a"
+    serverReceived.poll(5, TimeUnit.SECONDS) == "é"
+    serverReceived.poll(5, TimeUnit.SECONDS) == "€b"
+
+    cleanup:
+    client?.closeBlocking()
+  }
+
   def RecordingWebSocketClient openWsClient() {
     new RecordingWebSocketClient(new URI("ws://localhost:$server.bindPort"))
   }
 
   def "client receives error when exception thrown during server open"() {
     when:
+    def serverReceived = new LinkedBlockingQueue<WebSocketMessage<?>>()
     handlers {
       get {
         websocket(context) {
           throw new Exception("!")
-        }.connect {}
+        }.connect {
+          it.onMessage { serverReceived.put(it) }
+        }
       }
     }
     server.start()
@@ -108,10 +189,16 @@ class WebSocketTestSpec extends RatpackGroovyDslSpec {
     and:
     def client = openWsClient()
     client.connectBlocking()
+    try {
+      client.send("foo")
+    } catch (ignore) {
+      // the connection may already be closing
+    }
 
     then:
     client.waitForClose()
     client.closeCode == 1011
+    serverReceived.empty
 
     cleanup:
     client?.closeBlocking()
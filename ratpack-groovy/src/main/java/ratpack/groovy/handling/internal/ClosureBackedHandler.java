@@ -42,6 +42,11 @@ public class ClosureBackedHandler implements DescribingHandler {
     invoker.invoke(new HierarchicalRegistry(context.getRequest(), context), Groovy.context(context), Closure.DELEGATE_FIRST);
   }
 
+  @Override
+  public Class<?> getDescribedClass() {
+    return invoker.getClosure().getClass();
+  }
+
   @Override
   public void describeTo(StringBuilder stringBuilder) {
     ClosureUtil.SourceInfo sourceInfo = ClosureUtil.getSourceInfo(invoker.getClosure());
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.guice.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.reflect.TypeToken;
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+import ratpack.util.Types;
+
+import java.util.Set;
+
+/**
+ * An index of the explicit bindings of an injector and its parents, by the raw types that each binding's type is assignable to.
+ * <p>
+ * The explicit bindings of an injector cannot change after it is created, so the index only needs to be built once.
+ * Finding the bindings of a type only considers bindings whose raw type is a subtype of the type's raw type,
+ * instead of checking every binding of the injector.
+ * <p>
+ * The order of the bindings is the same as that of {@link GuiceUtil#search}, that is the injector's bindings in order followed by those of its parents.
+ */
+public class InjectorBindingIndex {
+
+  private final ImmutableListMultimap<Class<?>, Binding<?>> bindingsByRawType;
+
+  public InjectorBindingIndex(Injector injector) {
+    ImmutableListMultimap.Builder<Class<?>, Binding<?>> builder = ImmutableListMultimap.builder();
+    for (Injector current = injector; current != null; current = current.getParent()) {
+      for (Binding<?> binding : current.getBindings().values()) {
+        Set<Class<?>> rawTypes = TypeToken.of(binding.getKey().getTypeLiteral().getType()).getTypes().rawTypes();
+        for (Class<?> rawType : rawTypes) {
+          builder.put(rawType, binding);
+        }
+        // the supertypes of interfaces do not include Object, which everything is assignable to
+        if (!rawTypes.contains(Object.class)) {
+          builder.put(Object.class, binding);
+        }
+      }
+    }
+    this.bindingsByRawType = builder.build();
+  }
+
+  public <T> ImmutableList<Provider<? extends T>> providers(TypeToken<T> type) {
+    ImmutableList.Builder<Provider<? extends T>> providers = ImmutableList.builder();
+    for (Binding<?> binding : bindingsByRawType.get(type.getRawType())) {
+      if (type.isAssignableFrom(GuiceUtil.toTypeToken(binding.getKey().getTypeLiteral()))) {
+        Provider<? extends T> provider = Types.cast(binding.getProvider());
+        providers.add(provider);
+      }
+    }
+    return providers.build();
+  }
+
+}
@@ -17,6 +17,7 @@
 package ratpack.guice.internal;
 
 import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.reflect.TypeToken;
@@ -26,14 +27,16 @@ import ratpack.registry.RegistryBacking;
 
 public class InjectorRegistryBacking implements RegistryBacking {
   private final Injector injector;
+  private final Supplier<InjectorBindingIndex> bindingIndex;
 
   public InjectorRegistryBacking(Injector injector) {
     this.injector = injector;
+    this.bindingIndex = Suppliers.memoize(() -> new InjectorBindingIndex(injector));
   }
 
   @Override
   public <T> Iterable<Supplier<? extends T>> provide(TypeToken<T> type) {
-    ImmutableList<Provider<? extends T>> providers = GuiceUtil.allProvidersOfType(injector, type);
+    ImmutableList<Provider<? extends T>> providers = bindingIndex.get().providers(type);
     return FluentIterable
       .from(providers.reverse())
       .transform(provider -> provider::get);
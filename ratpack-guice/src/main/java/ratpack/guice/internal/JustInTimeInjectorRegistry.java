@@ -16,18 +16,27 @@
 
 package ratpack.guice.internal;
 
+import com.google.common.collect.Sets;
 import com.google.common.reflect.TypeToken;
-import com.google.inject.ConfigurationException;
-import com.google.inject.Injector;
-import com.google.inject.Key;
-import com.google.inject.TypeLiteral;
+import com.google.inject.*;
 import ratpack.registry.internal.CachingBackedRegistry;
 
+import java.lang.reflect.Modifier;
 import java.util.Optional;
+import java.util.Set;
 
+/**
+ * A registry over an injector, that can also provide objects that are not bound but can be created by the injector just in time.
+ * <p>
+ * Lookups are resolved without exceptions where possible, as registry misses are routine (e.g. when falling through from request registries).
+ * Bound types are found via {@link Injector#getExistingBinding(Key)}.
+ * Abstract types without a Guice default implementation can never be created just in time, and are not attempted.
+ * Other types are attempted once, and remembered if they can't be created just in time so that further lookups don't incur the cost of a failure.
+ */
 public class JustInTimeInjectorRegistry extends CachingBackedRegistry {
 
   private final Injector injector;
+  private final Set<TypeToken<?>> unavailable = Sets.newConcurrentHashSet();
 
   public JustInTimeInjectorRegistry(Injector injector) {
     super(new InjectorRegistryBacking(injector));
@@ -35,12 +44,29 @@ public class JustInTimeInjectorRegistry extends CachingBackedRegistry {
   }
 
   public <T> Optional<T> maybeGet(TypeToken<T> type) {
-    @SuppressWarnings("unchecked") TypeLiteral<T> typeLiteral = (TypeLiteral<T>) TypeLiteral.get(type.getType());
+    if (unavailable.contains(type)) {
+      return Optional.empty();
+    }
+
     try {
-      return Optional.of(injector.getInstance(Key.get(typeLiteral)));
+      Key<T> key = Key.get(GuiceUtil.toTypeLiteral(type));
+      Binding<T> binding = injector.getExistingBinding(key);
+      if (binding != null) {
+        return Optional.of(binding.getProvider().get());
+      } else if (canCreateJustInTime(type.getRawType())) {
+        return Optional.of(injector.getInstance(key));
+      }
     } catch (ConfigurationException e) {
-      return Optional.empty();
+      // fall through
     }
+
+    unavailable.add(type);
+    return Optional.empty();
+  }
+
+  private static boolean canCreateJustInTime(Class<?> type) {
+    boolean isAbstract = type.isInterface() || Modifier.isAbstract(type.getModifiers());
+    return !isAbstract || type.isAnnotationPresent(ImplementedBy.class) || type.isAnnotationPresent(ProvidedBy.class);
   }
 
 }
@@ -26,6 +26,8 @@ import io.netty.buffer.ByteBufAllocator;
 import org.reactivestreams.Publisher;
 import ratpack.error.ClientErrorHandler;
 import ratpack.error.ServerErrorHandler;
+import ratpack.exec.BlockingExecutorStats;
+import ratpack.exec.EventLoopStallStats;
 import ratpack.exec.ExecControl;
 import ratpack.exec.ExecController;
 import ratpack.exec.Execution;
@@ -37,6 +39,7 @@ import ratpack.guice.ExecutionScoped;
 import ratpack.handling.Redirector;
 import ratpack.http.Request;
 import ratpack.http.Response;
+import ratpack.http.client.ConnectionPoolStats;
 import ratpack.http.client.HttpClient;
 import ratpack.registry.Registry;
 import ratpack.render.Renderable;
@@ -69,7 +72,8 @@ public class RatpackBaseRegistryModule extends AbstractModule {
 
     List<Class<?>> simpleTypes = ImmutableList.of(
       ServerConfig.class, ByteBufAllocator.class, ExecController.class, MimeTypes.class, PublicAddress.class,
-      Redirector.class, ClientErrorHandler.class, ServerErrorHandler.class, RatpackServer.class
+      Redirector.class, ClientErrorHandler.class, ServerErrorHandler.class, RatpackServer.class,
+      HttpClient.class, ConnectionPoolStats.class, BlockingExecutorStats.class, EventLoopStallStats.class
     );
     List<TypeToken<?>> genericTypes = ImmutableList.of(
       new TypeToken<Renderer<Path>>() {}, new TypeToken<Renderer<Promise>>() {}, new TypeToken<Renderer<Publisher>>() {},
@@ -111,11 +115,6 @@ public class RatpackBaseRegistryModule extends AbstractModule {
     return execController.getControl();
   }
 
-  @Provides
-  HttpClient httpClient(ExecController execController, ByteBufAllocator byteBufAllocator, ServerConfig serverConfig) {
-    return HttpClient.httpClient(execController, byteBufAllocator, serverConfig.getMaxContentLength());
-  }
-
   @Provides
   ServerSentEventStreamClient sseClient(ExecController execController, ByteBufAllocator byteBufAllocator) {
     return ServerSentEventStreamClient.sseStreamClient(execController, byteBufAllocator);
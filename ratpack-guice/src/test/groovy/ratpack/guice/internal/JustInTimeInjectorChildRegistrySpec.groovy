@@ -17,6 +17,7 @@
 package ratpack.guice.internal
 
 import com.google.inject.Guice
+import com.google.inject.Module
 import ratpack.registry.Registries
 import ratpack.server.ServerConfig
 import spock.lang.Specification
@@ -27,6 +28,10 @@ class JustInTimeInjectorChildRegistrySpec extends Specification {
 
   static class Thing {}
 
+  static interface Service {}
+
+  static class DefaultService implements Service {}
+
   def "delegates to parent when no bound instance"() {
     when:
     def serverConfig = Mock(ServerConfig)
@@ -39,4 +44,24 @@ class JustInTimeInjectorChildRegistrySpec extends Specification {
     registry.get(ServerConfig).is serverConfig
   }
 
+  def "misses for types that cannot be created just in time are empty"() {
+    when:
+    def registry = justInTimeRegistry(Guice.createInjector())
+
+    then:
+    !registry.maybeGet(Service).present
+    !registry.maybeGet(Service).present
+    registry.maybeGet(Thing).present
+  }
+
+  def "finds bound instances of supertypes"() {
+    when:
+    def registry = justInTimeRegistry(Guice.createInjector({ it.bind(DefaultService) } as Module))
+
+    then:
+    registry.get(Service) instanceof DefaultService
+    registry.getAll(Service)*.class == [DefaultService]
+    registry.getAll(Object).any { it instanceof DefaultService }
+  }
+
 }
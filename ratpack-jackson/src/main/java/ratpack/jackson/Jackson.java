@@ -16,15 +16,16 @@
 
 package ratpack.jackson;
 
-import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.common.reflect.TypeToken;
-import io.netty.buffer.Unpooled;
 import org.reactivestreams.Publisher;
 import ratpack.api.Nullable;
+import ratpack.exec.Promise;
 import ratpack.func.Function;
+import ratpack.handling.Context;
 import ratpack.http.ResponseChunks;
 import ratpack.http.internal.HttpHeaderConstants;
 import ratpack.jackson.internal.*;
@@ -35,10 +36,7 @@ import ratpack.registry.Registry;
 import ratpack.registry.RegistrySpec;
 import ratpack.render.Renderer;
 import ratpack.stream.Streams;
-import ratpack.stream.WriteStream;
-
-import java.io.IOException;
-import java.io.OutputStream;
+import ratpack.stream.TransformablePublisher;
 
 /**
  * Provides key integration points with the Jackson support for dealing with JSON.
@@ -284,6 +282,8 @@ import java.io.OutputStream;
  */
 public abstract class Jackson {
 
+  private static final String NDJSON = "application/x-ndjson";
+
   private Jackson() {
   }
 
@@ -292,6 +292,8 @@ public abstract class Jackson {
    * <p>
    * The given object will be converted to JSON using an {@link ObjectWriter} obtained from the context registry.
    * <p>
+   * If the object is a {@link Publisher}, it is rendered as a JSON list that is streamed as items are emitted, as per {@link #chunkedJsonList(ObjectWriter, Publisher)}.
+   * <p>
    * See the <a href="#rendering">rendering</a> section for usage examples.
    *
    * @param object the object to render as JSON
@@ -421,6 +423,125 @@ public abstract class Jackson {
     return Parse.<T, JsonParseOpts>of(type, new DefaultJsonParseOpts(objectMapper));
   }
 
+  /**
+   * Parses the request body as JSON into the given type, incrementally as it is received.
+   * <p>
+   * This method differs from parsing with {@link #fromJson(Class)} in that the body is consumed via {@link ratpack.http.Request#getBodyStream()},
+   * and is scanned as each buffer is received instead of being read once fully received.
+   * When the server is {@link ratpack.server.ServerConfig#isStreamRequestBodies() streaming request bodies}, this avoids aggregating the body before parsing begins.
+   * <p>
+   * The body will be parsed using an {@link ObjectMapper} obtained from the context registry.
+   * The content type of the request is not checked.
+   * Only standard JSON syntax is supported, regardless of the parser features enabled on the object mapper.
+   * The number of tokens in the body is only limited by the {@link ratpack.server.ServerConfig#getMaxContentLength() max content length}.
+   *
+   * @param context the context of the request to parse the body of
+   * @param type the type of object to deserialize the JSON into
+   * @param <T> the type of object to deserialize the JSON into
+   * @return a promise for the parsed object
+   * @see #fromJsonStream(Context, TypeToken, ObjectMapper, int)
+   */
+  public static <T> Promise<T> fromJsonStream(Context context, Class<T> type) {
+    return fromJsonStream(context, TypeToken.of(type), null, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Parses the request body as JSON into the given type, incrementally as it is received.
+   * <p>
+   * Identical to {@link #fromJsonStream(Context, Class)}, except that the given {@link ObjectMapper} is used if not {@code null},
+   * and the body may consist of at most {@code maxTokens} JSON tokens.
+   * If the body exceeds this limit, the promise fails with a {@link com.fasterxml.jackson.core.JsonParseException} as soon as the limit is reached.
+   *
+   * @param context the context of the request to parse the body of
+   * @param type the type of object to deserialize the JSON into
+   * @param objectMapper the object mapper to use to convert the JSON into a Java object
+   * @param maxTokens the maximum number of JSON tokens to buffer before the object is complete
+   * @param <T> the type of object to deserialize the JSON into
+   * @return a promise for the parsed object
+   */
+  public static <T> Promise<T> fromJsonStream(Context context, TypeToken<T> type, @Nullable ObjectMapper objectMapper, int maxTokens) {
+    return Streams.toPromise(context, jsonBody(context, type, objectMapper, maxTokens, false));
+  }
+
+  /**
+   * Parses the request body as a JSON array, emitting each element as soon as it has been received.
+   * <p>
+   * Only the element currently being received is held in memory, so arrays of any size can be processed in constant memory
+   * when the server is {@link ratpack.server.ServerConfig#isStreamRequestBodies() streaming request bodies}.
+   * The body is only read from the client as elements are requested from the returned publisher.
+   * <pre class="java">{@code
+   * import ratpack.guice.Guice;
+   * import ratpack.test.embed.EmbeddedApp;
+   * import ratpack.jackson.JacksonModule;
+   * import ratpack.http.client.ReceivedResponse;
+   * import ratpack.stream.Streams;
+   *
+   * import static ratpack.jackson.Jackson.jsonElements;
+   * import static org.junit.Assert.*;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     EmbeddedApp.of(s -> s
+   *       .registry(Guice.registry(b -> b.module(JacksonModule.class)))
+   *       .handlers(chain ->
+   *         chain.post(ctx ->
+   *           Streams.toList(jsonElements(ctx, Integer.class)).then(ints ->
+   *             ctx.render(Integer.toString(ints.stream().mapToInt(Integer::intValue).sum()))
+   *           )
+   *         )
+   *       )
+   *     ).test(httpClient -> {
+   *       ReceivedResponse response = httpClient.requestSpec(s ->
+   *         s.body(b -> b.type("application/json").text("[1, 2, 3]"))
+   *       ).post();
+   *       assertEquals("6", response.getBody().getText());
+   *     });
+   *   }
+   * }
+   * }</pre>
+   * <p>
+   * The elements will be parsed using an {@link ObjectMapper} obtained from the context registry.
+   * If the body is not a JSON array, the stream fails with a {@link com.fasterxml.jackson.core.JsonParseException}.
+   * Elements that are JSON {@code null} cannot be emitted, and fail the stream unless the type maps {@code null} to a non null value (e.g. {@link JsonNode}).
+   *
+   * @param context the context of the request to parse the body of
+   * @param type the type of object to deserialize each element into
+   * @param <T> the type of object to deserialize each element into
+   * @return a publisher of the elements of the array
+   * @see #jsonElements(Context, TypeToken, ObjectMapper, int)
+   */
+  public static <T> TransformablePublisher<T> jsonElements(Context context, Class<T> type) {
+    return jsonElements(context, TypeToken.of(type), null, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Parses the request body as a JSON array, emitting each element as soon as it has been received.
+   * <p>
+   * Identical to {@link #jsonElements(Context, Class)}, except that the given {@link ObjectMapper} is used if not {@code null},
+   * and each element may consist of at most {@code maxTokens} JSON tokens.
+   * This bounds the amount of the body that is buffered while waiting for an element to be complete, regardless of the size of the array.
+   * If an element exceeds this limit, the stream fails with a {@link com.fasterxml.jackson.core.JsonParseException} as soon as the limit is reached.
+   *
+   * @param context the context of the request to parse the body of
+   * @param type the type of object to deserialize each element into
+   * @param objectMapper the object mapper to use to convert each element into a Java object
+   * @param maxTokens the maximum number of JSON tokens to buffer before an element is complete
+   * @param <T> the type of object to deserialize each element into
+   * @return a publisher of the elements of the array
+   */
+  public static <T> TransformablePublisher<T> jsonElements(Context context, TypeToken<T> type, @Nullable ObjectMapper objectMapper, int maxTokens) {
+    return jsonBody(context, type, objectMapper, maxTokens, true);
+  }
+
+  private static <T> JsonBodyPublisher<T> jsonBody(Context context, TypeToken<T> type, @Nullable ObjectMapper objectMapper, int maxTokens, boolean elements) {
+    if (maxTokens < 1) {
+      throw new IllegalArgumentException("maxTokens must be greater than 0 (was " + maxTokens + ")");
+    }
+    ObjectMapper mapper = objectMapper == null ? context.get(ObjectMapper.class) : objectMapper;
+    ObjectReader reader = mapper.reader(mapper.getTypeFactory().constructType(type.getType()));
+    return new JsonBodyPublisher<>(reader, context.getRequest().getBodyStream(), elements, maxTokens);
+  }
+
   /**
    * Renders a data stream as a JSON list, directly streaming the JSON.
    * <p>
@@ -464,13 +585,15 @@ public abstract class Jackson {
    * <p>
    * Items of the stream will be converted to JSON by an {@link ObjectMapper} obtained from the given registry.
    * <p>
-   * This method uses {@link Streams#streamMap(Publisher, ratpack.func.Function)} to consume the given stream.
+   * Each item is serialized as it is emitted by the stream, into a pooled buffer that is written to the response as a chunk.
+   * Items are only requested from the stream as the response can be written to the client, so memory use is constant regardless of the size of the stream.
+   * Items can also be streamed as <a href="http://ndjson.org" target="_blank">newline delimited JSON</a> via {@link #chunkedJsonLines(Registry, Publisher)}.
    *
    * @param registry the registry to obtain the object mapper from
    * @param stream the stream to render
    * @param <T> the type of item in the stream
    * @return a renderable object
-   * @see Streams#streamMap(Publisher, ratpack.func.Function)
+   * @see #chunkedJsonLines(Registry, Publisher)
    */
   public static <T> ResponseChunks chunkedJsonList(Registry registry, Publisher<T> stream) {
     return chunkedJsonList(registry.get(ObjectWriter.class), stream);
@@ -488,48 +611,74 @@ public abstract class Jackson {
    * @see #chunkedJsonList(Registry, Publisher)
    */
   public static <T> ResponseChunks chunkedJsonList(ObjectWriter objectWriter, Publisher<T> stream) {
-    return ResponseChunks.bufferChunks(HttpHeaderConstants.JSON, Streams.streamMap(stream, out -> {
-      JsonGenerator generator = objectWriter.getFactory().createGenerator(new OutputStream() {
-        @Override
-        public void write(int b) throws IOException {
-          throw new UnsupportedOperationException();
-        }
-
-        @Override
-        public void write(@SuppressWarnings("NullableProblems") byte[] b, int off, int len) throws IOException {
-          out.item(Unpooled.copiedBuffer(b, off, len));
-        }
-      });
-
-      generator.writeStartArray();
-
-      return new WriteStream<T>() {
-        @Override
-        public void item(T item) {
-          try {
-            generator.writeObject(item);
-          } catch (Exception e) {
-            out.error(e);
-          }
-        }
+    return ResponseChunks.allocatedBufferChunks(HttpHeaderConstants.JSON, allocator -> new JsonStreamPublisher<>(objectWriter, allocator, stream, false));
+  }
 
-        @Override
-        public void error(Throwable throwable) {
-          out.error(throwable);
-        }
+  /**
+   * Renders a data stream as <a href="http://ndjson.org" target="_blank">newline delimited JSON</a>, directly streaming the JSON.
+   * <p>
+   * Each item of the stream is written as a single line of JSON, followed by a newline character.
+   * The content type of the response is {@code "application/x-ndjson"}.
+   * <p>
+   * As with {@link #chunkedJsonList(Registry, Publisher)}, items are serialized as they are emitted by the stream, so very large streams can be rendered without using considerable memory.
+   * Unlike a JSON list, the output is valid up to the last complete line if the stream fails midway through, and each line can be processed as it is received by the client.
+   * <pre class="java">{@code
+   * import ratpack.guice.Guice;
+   * import ratpack.test.embed.EmbeddedApp;
+   * import ratpack.jackson.JacksonModule;
+   * import ratpack.http.client.ReceivedResponse;
+   * import ratpack.stream.Streams;
+   * import org.reactivestreams.Publisher;
+   *
+   * import java.util.Arrays;
+   *
+   * import static ratpack.jackson.Jackson.chunkedJsonLines;
+   * import static org.junit.Assert.*;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     EmbeddedApp.of(s -> s
+   *       .registry(Guice.registry(b -> b.module(JacksonModule.class)))
+   *       .handlers(chain ->
+   *         chain.get(ctx -> {
+   *           Publisher<Integer> ints = Streams.publish(Arrays.asList(1, 2, 3));
+   *           ctx.render(chunkedJsonLines(ctx, ints));
+   *         })
+   *       )
+   *     ).test(httpClient -> {
+   *       ReceivedResponse response = httpClient.get();
+   *       assertEquals("1\n2\n3\n", response.getBody().getText());
+   *       assertEquals("application/x-ndjson", response.getBody().getContentType().getType());
+   *     });
+   *   }
+   * }
+   * }</pre>
+   * <p>
+   * Items of the stream will be converted to JSON by an {@link ObjectWriter} obtained from the given registry.
+   * The object mapper of the writer must not be configured to indent output, as each item must be written on a single line.
+   *
+   * @param registry the registry to obtain the object writer from
+   * @param stream the stream to render
+   * @param <T> the type of item in the stream
+   * @return a renderable object
+   */
+  public static <T> ResponseChunks chunkedJsonLines(Registry registry, Publisher<T> stream) {
+    return chunkedJsonLines(registry.get(ObjectWriter.class), stream);
+  }
 
-        @Override
-        public void complete() {
-          try {
-            generator.writeEndArray();
-            generator.close();
-            out.complete();
-          } catch (IOException e) {
-            out.error(e);
-          }
-        }
-      };
-    }));
+  /**
+   * Renders a data stream as newline delimited JSON, directly streaming the JSON.
+   * <p>
+   * Identical to {@link #chunkedJsonLines(Registry, Publisher)}, except uses the given object writer instead of obtaining one from the registry.
+   *
+   * @param objectWriter the object writer to use to convert stream items to their JSON representation
+   * @param stream the stream to render
+   * @param <T> the type of item in the stream
+   * @return a renderable object
+   * @see #chunkedJsonLines(Registry, Publisher)
+   */
+  public static <T> ResponseChunks chunkedJsonLines(ObjectWriter objectWriter, Publisher<T> stream) {
+    return ResponseChunks.allocatedBufferChunks(NDJSON, allocator -> new JsonStreamPublisher<>(objectWriter, allocator, stream, true));
   }
 
   /**
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.jackson.internal;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.CompositeByteBuf;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import ratpack.stream.TransformablePublisher;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parses a JSON document from a stream of buffers incrementally, as the buffers are received.
+ * <p>
+ * Jackson's parser reads from a blocking source, so the buffers are not fed to it directly.
+ * Instead, each buffer is scanned for the boundaries of the values to bind, which only requires tracking nesting and strings.
+ * As soon as a value is complete, its bytes are bound by the object reader and released.
+ * Only the bytes of the value being received are held, which for an array is a single element instead of the whole document.
+ * The scanner only understands standard JSON, so parser features that relax the syntax (e.g. single quoted strings or comments) are not supported.
+ * <p>
+ * If {@code elements} is {@code true}, the document must be an array and each of its elements is emitted.
+ * Otherwise, the document is emitted as a single item.
+ * <p>
+ * A buffer is only requested from upstream when there is demand and no bound values waiting to be emitted.
+ * The number of tokens of a value that has not been completely received is limited to {@code maxTokens}.
+ *
+ * @param <T> the type of value to bind
+ */
+public class JsonBodyPublisher<T> implements TransformablePublisher<T> {
+
+  private static final int NONE = -1;
+
+  private final ObjectReader reader;
+  private final Publisher<? extends ByteBuf> upstream;
+  private final boolean elements;
+  private final int maxTokens;
+
+  public JsonBodyPublisher(ObjectReader reader, Publisher<? extends ByteBuf> upstream, boolean elements, int maxTokens) {
+    this.reader = reader;
+    this.upstream = upstream;
+    this.elements = elements;
+    this.maxTokens = maxTokens;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> downstream) {
+    upstream.subscribe(new Subscriber<ByteBuf>() {
+      private final Queue<T> values = new ConcurrentLinkedQueue<>();
+      private final Scanner scanner = new Scanner(values);
+      private final AtomicLong demand = new AtomicLong();
+      private final AtomicInteger wip = new AtomicInteger();
+      private final AtomicBoolean requested = new AtomicBoolean();
+
+      private Subscription upstreamSubscription;
+      private volatile boolean upstreamComplete;
+      private volatile Throwable error;
+      private volatile boolean done;
+
+      @Override
+      public void onSubscribe(Subscription subscription) {
+        upstreamSubscription = subscription;
+        downstream.onSubscribe(new Subscription() {
+          @Override
+          public void request(long n) {
+            if (n < 1) {
+              fail(new IllegalArgumentException("3.9 While the Subscription is not cancelled, Subscription.request(long n) MUST throw a java.lang.IllegalArgumentException if the argument is <= 0."));
+            } else if (demand.addAndGet(n) < 0) {
+              demand.set(Long.MAX_VALUE);
+            }
+            drain();
+          }
+
+          @Override
+          public void cancel() {
+            done = true;
+            upstreamSubscription.cancel();
+            scanner.dispose();
+          }
+        });
+      }
+
+      @Override
+      public void onNext(ByteBuf buffer) {
+        requested.set(false);
+        if (done || error != null) {
+          buffer.release();
+          return;
+        }
+
+        try {
+          scanner.feed(buffer);
+        } catch (Exception e) {
+          fail(e);
+        }
+        drain();
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        if (error == null) {
+          error = t;
+        }
+        drain();
+      }
+
+      @Override
+      public void onComplete() {
+        if (error == null) {
+          try {
+            scanner.end();
+          } catch (Exception e) {
+            error = e;
+          }
+        }
+        upstreamComplete = true;
+        drain();
+      }
+
+      private void fail(Throwable throwable) {
+        if (error == null) {
+          error = throwable;
+        }
+        upstreamSubscription.cancel();
+      }
+
+      // Serializes signals to downstream, which may request on a different thread to the one upstream emits on.
+      private void drain() {
+        if (wip.getAndIncrement() != 0) {
+          return;
+        }
+
+        do {
+          while (!done) {
+            if (error != null) {
+              done = true;
+              scanner.dispose();
+              values.clear();
+              downstream.onError(error);
+            } else if (!values.isEmpty()) {
+              if (demand.get() == 0) {
+                break;
+              }
+              if (demand.get() != Long.MAX_VALUE) {
+                demand.decrementAndGet();
+              }
+              downstream.onNext(values.poll());
+            } else if (upstreamComplete) {
+              done = true;
+              downstream.onComplete();
+            } else {
+              if (demand.get() > 0 && requested.compareAndSet(false, true)) {
+                upstreamSubscription.request(1);
+              }
+              break;
+            }
+          }
+        } while (wip.decrementAndGet() != 0);
+      }
+    });
+  }
+
+  private class Scanner {
+
+    private final Queue<T> values;
+    private final int valueDepth = elements ? 1 : 0;
+
+    private CompositeByteBuf pending;
+    private int index;
+    private int valueStart = NONE;
+    private int tokens;
+    private int depth;
+    private boolean started;
+    private boolean ended;
+    private boolean expectingValue;
+    private boolean first;
+    private boolean inString;
+    private boolean escaped;
+    private boolean inScalar;
+    private boolean disposed;
+
+    Scanner(Queue<T> values) {
+      this.values = values;
+    }
+
+    synchronized void feed(ByteBuf buffer) throws IOException {
+      if (disposed || !buffer.isReadable()) {
+        buffer.release();
+        return;
+      }
+
+      if (pending == null) {
+        // unbounded, as consolidating at the default limit would copy everything held so far each time it is reached
+        pending = buffer.alloc().compositeBuffer(Integer.MAX_VALUE);
+      }
+      pending.addComponent(buffer);
+      pending.writerIndex(pending.writerIndex() + buffer.readableBytes());
+
+      scan();
+      compact();
+    }
+
+    synchronized void end() throws IOException {
+      if (disposed) {
+        return;
+      }
+
+      try {
+        if (inScalar) {
+          inScalar = false;
+          if (depth == valueDepth) {
+            complete(index);
+          }
+        }
+        if (!ended) {
+          throw new JsonParseException("Unexpected end of JSON input", JsonLocation.NA);
+        }
+      } finally {
+        dispose();
+      }
+    }
+
+    synchronized void dispose() {
+      disposed = true;
+      if (pending != null) {
+        pending.release();
+        pending = null;
+      }
+    }
+
+    private void scan() throws IOException {
+      int end = pending.writerIndex();
+      while (index < end) {
+        byte b = pending.getByte(index);
+
+        if (inString) {
+          if (escaped) {
+            escaped = false;
+          } else if (b == '\\') {
+            escaped = true;
+          } else if (b == '"') {
+            inString = false;
+            if (depth == valueDepth) {
+              complete(index + 1);
+            }
+          }
+          ++index;
+          continue;
+        }
+
+        if (inScalar) {
+          if (!isScalarEnd(b)) {
+            ++index;
+            continue;
+          }
+          inScalar = false;
+          if (depth == valueDepth) {
+            complete(index);
+          }
+        }
+
+        if (isWhitespace(b)) {
+          ++index;
+          continue;
+        }
+
+        if (ended) {
+          throw unexpected(b);
+        }
+
+        if (elements && depth == 0) {
+          if (b != '[') {
+            throw new JsonParseException("Expected a JSON array but found '" + (char) b + "'", JsonLocation.NA);
+          }
+          depth = 1;
+          expectingValue = true;
+          first = true;
+          ++index;
+          continue;
+        }
+
+        if (depth == valueDepth) {
+          if (elements) {
+            if (b == ']' && (!expectingValue || first)) {
+              depth = 0;
+              ended = true;
+              ++index;
+              continue;
+            } else if (b == ',' && !expectingValue) {
+              expectingValue = true;
+              ++index;
+              continue;
+            } else if (!expectingValue || !isValueStart(b)) {
+              throw unexpected(b);
+            }
+            expectingValue = false;
+            first = false;
+          } else if (started || !isValueStart(b)) {
+            throw unexpected(b);
+          }
+          started = true;
+          valueStart = index;
+          tokens = 0;
+        }
+
+        if (++tokens > maxTokens) {
+          throw new JsonParseException("JSON value exceeded the maximum of " + maxTokens + " tokens", JsonLocation.NA);
+        }
+
+        if (b == '"') {
+          inString = true;
+        } else if (b == '{' || b == '[') {
+          ++depth;
+        } else if (b == '}' || b == ']') {
+          if (--depth == valueDepth) {
+            complete(index + 1);
+          }
+        } else if (b != ',' && b != ':') {
+          inScalar = true;
+        }
+        ++index;
+      }
+    }
+
+    private void complete(int end) throws IOException {
+      T value = reader.readValue(new ByteBufInputStream(pending.slice(valueStart, end - valueStart)));
+      valueStart = NONE;
+      if (value == null) {
+        throw new JsonMappingException("Cannot emit a null value for JSON null");
+      }
+      values.add(value);
+      if (!elements) {
+        ended = true;
+      }
+    }
+
+    // Releases the bytes before the value being received.
+    private void compact() {
+      int readerIndex = valueStart == NONE ? index : valueStart;
+      pending.readerIndex(readerIndex);
+      pending.discardReadComponents();
+      int shift = readerIndex - pending.readerIndex();
+      index -= shift;
+      if (valueStart != NONE) {
+        valueStart -= shift;
+      }
+    }
+
+    private JsonParseException unexpected(byte b) {
+      return new JsonParseException("Unexpected character '" + (char) b + "' in JSON input", JsonLocation.NA);
+    }
+
+    private boolean isWhitespace(byte b) {
+      return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private boolean isValueStart(byte b) {
+      return b != ',' && b != ':' && b != ']' && b != '}';
+    }
+
+    private boolean isScalarEnd(byte b) {
+      return isWhitespace(b) || b == ',' || b == ':' || b == ']' || b == '}' || b == '[' || b == '{' || b == '"';
+    }
+  }
+
+}
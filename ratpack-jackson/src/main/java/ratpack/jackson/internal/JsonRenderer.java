@@ -21,8 +21,10 @@ import com.fasterxml.jackson.databind.ObjectWriter;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufOutputStream;
+import org.reactivestreams.Publisher;
 import ratpack.handling.Context;
 import ratpack.http.internal.HttpHeaderConstants;
+import ratpack.jackson.Jackson;
 import ratpack.jackson.JsonRender;
 import ratpack.render.RendererSupport;
 
@@ -45,6 +47,11 @@ public class JsonRenderer extends RendererSupport<JsonRender> {
       writer = defaultObjectWriter;
     }
 
+    if (object.getObject() instanceof Publisher) {
+      context.render(Jackson.chunkedJsonList(writer, (Publisher<?>) object.getObject()));
+      return;
+    }
+
     ByteBuf buffer = context.get(ByteBufAllocator.class).buffer();
     OutputStream outputStream = new ByteBufOutputStream(buffer);
 
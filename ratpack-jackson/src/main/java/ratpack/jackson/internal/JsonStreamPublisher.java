@@ -0,0 +1,198 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.jackson.internal;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import ratpack.stream.TransformablePublisher;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serializes the items of a stream to JSON as they are emitted, as either a JSON array or newline delimited JSON.
+ * <p>
+ * A single generator is used for the whole stream, which writes each item into its own buffer from the given allocator.
+ * Exactly one buffer is emitted per item, so that demand from downstream is passed through to the stream unchanged.
+ * <p>
+ * For a JSON array, the closing bracket is emitted after the stream completes, once there is demand for it.
+ * For newline delimited JSON, each item is followed by a newline and nothing is emitted after the stream completes.
+ *
+ * @param <T> the type of item in the stream
+ */
+public class JsonStreamPublisher<T> implements TransformablePublisher<ByteBuf> {
+
+  private final ObjectWriter objectWriter;
+  private final ByteBufAllocator allocator;
+  private final Publisher<T> upstream;
+  private final boolean lines;
+
+  public JsonStreamPublisher(ObjectWriter objectWriter, ByteBufAllocator allocator, Publisher<T> upstream, boolean lines) {
+    this.objectWriter = objectWriter;
+    this.allocator = allocator;
+    this.upstream = upstream;
+    this.lines = lines;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super ByteBuf> downstream) {
+    upstream.subscribe(new Subscriber<T>() {
+      private final BufferOutputStream out = new BufferOutputStream();
+      private final AtomicLong demand = new AtomicLong();
+      private final AtomicBoolean endWritten = new AtomicBoolean();
+
+      private Subscription upstreamSubscription;
+      private JsonGenerator generator;
+      private volatile boolean upstreamComplete;
+      private volatile boolean done;
+
+      @Override
+      public void onSubscribe(Subscription subscription) {
+        upstreamSubscription = subscription;
+        try {
+          generator = objectWriter.getFactory().createGenerator(out);
+          if (lines) {
+            generator.setRootValueSeparator(null);
+          } else {
+            // buffered by the generator until the first item or the end of the array is flushed
+            generator.writeStartArray();
+          }
+        } catch (Exception e) {
+          done = true;
+          subscription.cancel();
+          downstream.onError(e);
+          return;
+        }
+
+        downstream.onSubscribe(new Subscription() {
+          @Override
+          public void request(long n) {
+            if (n > 0 && demand.addAndGet(n) < 0) {
+              demand.set(Long.MAX_VALUE);
+            }
+            if (upstreamComplete) {
+              writeEnd();
+            } else {
+              upstreamSubscription.request(n);
+            }
+          }
+
+          @Override
+          public void cancel() {
+            done = true;
+            upstreamSubscription.cancel();
+          }
+        });
+      }
+
+      @Override
+      public void onNext(T item) {
+        if (done) {
+          return;
+        }
+
+        ByteBuf buffer = allocator.buffer();
+        out.buffer = buffer;
+        try {
+          objectWriter.writeValue(generator, item);
+          if (lines) {
+            generator.writeRaw('\n');
+          }
+          generator.flush();
+        } catch (Exception e) {
+          buffer.release();
+          done = true;
+          upstreamSubscription.cancel();
+          downstream.onError(e);
+          return;
+        } finally {
+          out.buffer = null;
+        }
+
+        demand.decrementAndGet();
+        downstream.onNext(buffer);
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        if (!done) {
+          done = true;
+          downstream.onError(t);
+        }
+      }
+
+      @Override
+      public void onComplete() {
+        if (done) {
+          return;
+        }
+
+        upstreamComplete = true;
+        if (lines) {
+          done = true;
+          downstream.onComplete();
+        } else {
+          writeEnd();
+        }
+      }
+
+      // Emits the end of the array, which requires demand beyond that for the items.
+      private void writeEnd() {
+        if (!done && demand.get() > 0 && endWritten.compareAndSet(false, true)) {
+          done = true;
+          ByteBuf buffer = allocator.buffer();
+          out.buffer = buffer;
+          try {
+            generator.writeEndArray();
+            generator.close();
+          } catch (IOException e) {
+            buffer.release();
+            downstream.onError(e);
+            return;
+          } finally {
+            out.buffer = null;
+          }
+
+          downstream.onNext(buffer);
+          downstream.onComplete();
+        }
+      }
+    });
+  }
+
+  private static class BufferOutputStream extends OutputStream {
+    private ByteBuf buffer;
+
+    @Override
+    public void write(int b) throws IOException {
+      buffer.writeByte(b);
+    }
+
+    @Override
+    public void write(@SuppressWarnings("NullableProblems") byte[] b, int off, int len) throws IOException {
+      buffer.writeBytes(b, off, len);
+    }
+  }
+
+}
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.core.JsonParser
 import com.fasterxml.jackson.databind.JsonNode
 import com.google.common.reflect.TypeToken
 import ratpack.http.client.RequestSpec
+import ratpack.stream.Streams
 import ratpack.test.internal.RatpackGroovyDslSpec
 import spock.lang.Unroll
 
@@ -133,4 +134,78 @@ class JacksonParsingSpec extends RatpackGroovyDslSpec {
     postText() == "[java.lang.Integer]"
   }
 
+
+  def "can parse elements of json array as they are received"() {
+    when:
+    serverConfig { streamRequestBodies(true) }
+    handlers {
+      post {
+        Streams.toList(Jackson.jsonElements(context, JsonNode)).then { List<JsonNode> nodes ->
+          render nodes.join("|")
+        }
+      }
+    }
+
+    and:
+    requestSpec { RequestSpec requestSpec ->
+      requestSpec.body.type("application/json")
+      requestSpec.body.stream({ it << /[{"value": 1, "s": "a]\"}"}, 2, "x,y", [3, 4], true, null]/ })
+    }
+
+    then:
+    postText() == /{"value":1,"s":"a]\"}"}|2|"x,y"|[3,4]|true|null/
+  }
+
+  def "can parse json body as it is received"() {
+    when:
+    serverConfig { streamRequestBodies(true) }
+    handlers {
+      post {
+        Jackson.fromJsonStream(context, Pogo).then { Pogo pogo ->
+          render "${pogo.value}:${pogo.foo.value}"
+        }
+      }
+    }
+
+    and:
+    requestSpec { RequestSpec requestSpec ->
+      requestSpec.body.type("application/json")
+      requestSpec.body.stream({ it << /{"value": 1, "foo": {"value": 2}}/ })
+    }
+
+    then:
+    postText() == "1:2"
+  }
+
+  @Unroll
+  def "fails to parse elements of #requestBody"() {
+    when:
+    handlers {
+      post {
+        Streams.toList(Jackson.jsonElements(context, TypeToken.of(JsonNode), null, 5)).onError { Throwable t ->
+          render "${t.class.simpleName}: ${t.originalMessage}"
+        }.then { List<JsonNode> nodes ->
+          render nodes.join("|")
+        }
+      }
+    }
+
+    and:
+    requestSpec { RequestSpec requestSpec ->
+      requestSpec.body.type("application/json")
+      requestSpec.body.stream({ it << requestBody })
+    }
+
+    then:
+    postText() == response
+
+    where:
+    requestBody            | response
+    /[[1, 2], [1, 2]]/     | "[1,2]|[1,2]"
+    /[[1, 2], [1, 2, 3]]/  | "JsonParseException: JSON value exceeded the maximum of 5 tokens"
+    /{"value": 1}/         | "JsonParseException: Expected a JSON array but found '{'"
+    /[1, 2,]/              | "JsonParseException: Unexpected character ']' in JSON input"
+    /[1, 2/                | "JsonParseException: Unexpected end of JSON input"
+  }
+
 }
@@ -16,6 +16,8 @@
 
 package ratpack.jackson
 
+import com.fasterxml.jackson.annotation.JsonView
+import com.fasterxml.jackson.databind.ObjectMapper
 import com.google.common.base.StandardSystemProperty
 import ratpack.stream.Streams
 import ratpack.test.internal.RatpackGroovyDslSpec
@@ -23,6 +25,7 @@ import ratpack.test.internal.RatpackGroovyDslSpec
 import java.time.Duration
 
 import static Jackson.json
+import static ratpack.jackson.Jackson.chunkedJsonLines
 import static ratpack.jackson.Jackson.chunkedJsonList
 
 class JacksonRenderingSpec extends RatpackGroovyDslSpec {
@@ -32,6 +35,17 @@ class JacksonRenderingSpec extends RatpackGroovyDslSpec {
     String password
   }
 
+  static class PublicView {}
+
+  static class InternalView {}
+
+  static class ViewUser {
+    @JsonView(PublicView)
+    String username
+    @JsonView(InternalView)
+    String password
+  }
+
   def "can render custom objects as json"() {
     when:
     bindings {
@@ -134,4 +148,86 @@ class JacksonRenderingSpec extends RatpackGroovyDslSpec {
     text == "[" + data.collect { "\"$it\"" }.join(",") + "]"
   }
 
+  def "can stream empty list"() {
+    when:
+    bindings {
+      module JacksonModule
+    }
+    handlers {
+      get {
+        render chunkedJsonList(context, Streams.publish([]))
+      }
+    }
+
+    then:
+    text == "[]"
+  }
+
+  def "can stream list of many items"() {
+    when:
+    bindings {
+      module JacksonModule
+    }
+    handlers {
+      get {
+        render chunkedJsonList(context, Streams.yield { it.requestNum < 10000 ? it.requestNum : null })
+      }
+    }
+
+    then:
+    text == "[" + (0..<10000).join(",") + "]"
+  }
+
+  def "can render publisher as json list"() {
+    when:
+    bindings {
+      module JacksonModule
+    }
+    handlers {
+      get {
+        render json(Streams.publish([1, 2, [foo: "bar"], 4]))
+      }
+    }
+
+    then:
+    with(get()) {
+      body.text == '[1,2,{"foo":"bar"},4]'
+      body.contentType.type == "application/json"
+    }
+  }
+
+  def "can render publisher as json list with object writer"() {
+    when:
+    bindings {
+      module JacksonModule
+    }
+    handlers {
+      get {
+        def user = new ViewUser(username: "foo", password: "bar")
+        render json(Streams.publish([user, user]), new ObjectMapper().writerWithView(PublicView))
+      }
+    }
+
+    then:
+    text == '[{"username":"foo"},{"username":"foo"}]'
+  }
+
+  def "can stream json lines"() {
+    when:
+    bindings {
+      module JacksonModule
+    }
+    handlers {
+      get {
+        render chunkedJsonLines(context, Streams.publish([1, 2, [foo: "bar"], 4]))
+      }
+    }
+
+    then:
+    with(get()) {
+      body.text == '1\n2\n{"foo":"bar"}\n4\n'
+      body.contentType.type == "application/x-ndjson"
+    }
+  }
+
 }
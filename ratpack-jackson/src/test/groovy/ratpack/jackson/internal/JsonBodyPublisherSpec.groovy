@@ -0,0 +1,130 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.jackson.internal
+
+import com.fasterxml.jackson.core.JsonParseException
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectMapper
+import io.netty.buffer.ByteBuf
+import io.netty.buffer.Unpooled
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
+import ratpack.stream.Streams
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class JsonBodyPublisherSpec extends Specification {
+
+  static final String ARRAY = /[{"a": "x\"]}\\", "b": [1, 2.5e3, null]}, "s\\\\", "é€", true, -12, {}, [], null]/
+  static final String OBJECT = /{"a": [1, "x\"}\\"], "b": {"c": -1.5E+2}, "d": "é€"}/
+
+  def mapper = new ObjectMapper()
+
+  @Unroll
+  def "emits array elements when body is split at byte #split"() {
+    given:
+    def bytes = ARRAY.getBytes("UTF-8")
+    def buffers = [Unpooled.wrappedBuffer(bytes, 0, split), Unpooled.wrappedBuffer(bytes, split, bytes.length - split)]
+
+    expect:
+    parse(buffers, true) == mapper.readTree(ARRAY).collect()
+    buffers.every { it.refCnt() == 0 }
+
+    where:
+    split << (0..ARRAY.getBytes("UTF-8").length)
+  }
+
+  @Unroll
+  def "emits value when body is split at byte #split"() {
+    given:
+    def bytes = OBJECT.getBytes("UTF-8")
+    def buffers = [Unpooled.wrappedBuffer(bytes, 0, split), Unpooled.wrappedBuffer(bytes, split, bytes.length - split)]
+
+    expect:
+    parse(buffers, false) == [mapper.readTree(OBJECT)]
+    buffers.every { it.refCnt() == 0 }
+
+    where:
+    split << (0..OBJECT.getBytes("UTF-8").length)
+  }
+
+  def "emits array elements when each byte of body is a separate buffer"() {
+    given:
+    def bytes = ARRAY.getBytes("UTF-8")
+    def buffers = bytes.collect { byte b -> Unpooled.wrappedBuffer([b] as byte[]) }
+
+    expect:
+    parse(buffers, true) == mapper.readTree(ARRAY).collect()
+    buffers.every { it.refCnt() == 0 }
+  }
+
+  def "emits scalar value that ends with the body"() {
+    given:
+    def buffers = ["-1", "2.", "5"].collect { Unpooled.wrappedBuffer(it.getBytes("UTF-8")) }
+
+    expect:
+    parse(buffers, false)*.asText() == ["-12.5"]
+  }
+
+  def "fails when element spans more than max tokens across buffers"() {
+    given:
+    def buffers = ["[[1, 2]", ", [1, ", "2, 3]]"].collect { Unpooled.wrappedBuffer(it.getBytes("UTF-8")) }
+
+    when:
+    parse(buffers, true, 5)
+
+    then:
+    def e = thrown(JsonParseException)
+    e.originalMessage == "JSON value exceeded the maximum of 5 tokens"
+    buffers.every { it.refCnt() == 0 }
+  }
+
+  private List<JsonNode> parse(List<ByteBuf> buffers, boolean elements, int maxTokens = Integer.MAX_VALUE) {
+    def publisher = new JsonBodyPublisher<JsonNode>(mapper.reader(JsonNode), Streams.publish(buffers), elements, maxTokens)
+    def items = []
+    Throwable error = null
+    boolean complete = false
+    publisher.subscribe(new Subscriber<JsonNode>() {
+      @Override
+      void onSubscribe(Subscription s) {
+        s.request(Long.MAX_VALUE)
+      }
+
+      @Override
+      void onNext(JsonNode item) {
+        items << item
+      }
+
+      @Override
+      void onError(Throwable t) {
+        error = t
+      }
+
+      @Override
+      void onComplete() {
+        complete = true
+      }
+    })
+
+    if (error) {
+      throw error
+    }
+    assert complete
+    items
+  }
+
+}
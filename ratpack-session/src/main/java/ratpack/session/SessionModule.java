@@ -56,7 +56,11 @@ import java.util.function.Consumer;
  * Objects must be serialized to be stored in the session.
  * The get/set methods {@link SessionData} allow supplying a {@link SessionSerializer} to be used for the specific value.
  * For variants of the get/set methods where a serializer is not provided, the implementation of {@link SessionSerializer} bound with Guice will be used.
- * The default implementation provided by this module uses Java's in built serialization mechanism.
+ * The default implementation provided by this module writes strings, integers, longs, booleans, doubles and byte arrays in a compact binary form,
+ * and uses the bound {@link JavaSessionSerializer} for all other values.
+ * <p>
+ * The session as a whole is stored in a compact binary form, independent of the serializer.
+ * Each value is only deserialized when it is retrieved.
  * Users of this module may choose to override this binding with an alternative serialization strategy.
  * <p>
  * However, other Ratpack extensions may require session storage any rely on Java serialization.
@@ -66,7 +70,7 @@ import java.util.function.Consumer;
  * but this implementation must be able to serialize any object implementing {@link Serializable}.
  *
  * It is also often desirable to provide alternative implementations for {@link SessionSerializer} and {@link JavaSessionSerializer}.
- * The default binding for both types is an implementation that uses out-of-the-box Java serialization (which is neither fast nor efficient).
+ * The default binding for {@link JavaSessionSerializer}, which is also used by the default {@link SessionSerializer} for uncommon types, uses out-of-the-box Java serialization (which is neither fast nor efficient).
  *
  * <h3>Example usage</h3>
  * <pre class="java">{@code
@@ -207,7 +211,7 @@ public class SessionModule extends ConfigurableModule<SessionIdCookieConfig> {
 
   @Provides
   SessionSerializer sessionValueSerializer(JavaSessionSerializer sessionSerializer) {
-    return sessionSerializer;
+    return new CompactSessionSerializer(sessionSerializer);
   }
 
   @Provides
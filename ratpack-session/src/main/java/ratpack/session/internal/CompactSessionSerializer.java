@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.session.internal;
+
+import ratpack.session.JavaSessionSerializer;
+import ratpack.session.SessionSerializer;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A serializer that writes common value types in a compact binary form, and all other values with a Java serializer.
+ * <p>
+ * Compactly written values are prefixed with a single byte tag that identifies their type.
+ * Values written by the Java serializer are prefixed with a tag that delegates the rest of the value to it,
+ * as a custom Java serializer may write output that starts with any byte.
+ * Values that do not start with a known tag are read by the Java serializer,
+ * so that values written by it before this serializer was used can still be read.
+ * This includes all values written with the builtin Java serialization format, which starts with {@code 0xAC}.
+ */
+public class CompactSessionSerializer implements SessionSerializer {
+
+  private static final int STRING = 1;
+  private static final int INTEGER = 2;
+  private static final int LONG = 3;
+  private static final int BOOLEAN = 4;
+  private static final int DOUBLE = 5;
+  private static final int BYTES = 6;
+  private static final int DELEGATED = 7;
+
+  private final JavaSessionSerializer javaSerializer;
+
+  public CompactSessionSerializer(JavaSessionSerializer javaSerializer) {
+    this.javaSerializer = javaSerializer;
+  }
+
+  @Override
+  public <T> void serialize(Class<T> type, T value, OutputStream out) throws IOException {
+    DataOutputStream data = new DataOutputStream(out);
+    if (value instanceof String) {
+      byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+      data.writeByte(STRING);
+      data.writeInt(bytes.length);
+      data.write(bytes);
+    } else if (value instanceof Integer) {
+      data.writeByte(INTEGER);
+      data.writeInt((Integer) value);
+    } else if (value instanceof Long) {
+      data.writeByte(LONG);
+      data.writeLong((Long) value);
+    } else if (value instanceof Boolean) {
+      data.writeByte(BOOLEAN);
+      data.writeBoolean((Boolean) value);
+    } else if (value instanceof Double) {
+      data.writeByte(DOUBLE);
+      data.writeDouble((Double) value);
+    } else if (value instanceof byte[]) {
+      byte[] bytes = (byte[]) value;
+      data.writeByte(BYTES);
+      data.writeInt(bytes.length);
+      data.write(bytes);
+    } else {
+      data.writeByte(DELEGATED);
+      data.flush();
+      javaSerializer.serialize(type, value, out);
+      return;
+    }
+    data.flush();
+  }
+
+  @Override
+  public <T> T deserialize(Class<T> type, InputStream in) throws IOException {
+    PushbackInputStream pushback = new PushbackInputStream(in);
+    int tag = pushback.read();
+    if (tag == DELEGATED) {
+      return javaSerializer.deserialize(type, pushback);
+    } else if (tag < STRING || tag > BYTES) {
+      // untagged, as written by the Java serializer alone
+      if (tag != -1) {
+        pushback.unread(tag);
+      }
+      return javaSerializer.deserialize(type, pushback);
+    }
+
+    DataInputStream data = new DataInputStream(pushback);
+    Object value;
+    switch (tag) {
+      case STRING:
+        byte[] stringBytes = new byte[data.readInt()];
+        data.readFully(stringBytes);
+        value = new String(stringBytes, StandardCharsets.UTF_8);
+        break;
+      case INTEGER:
+        value = data.readInt();
+        break;
+      case LONG:
+        value = data.readLong();
+        break;
+      case BOOLEAN:
+        value = data.readBoolean();
+        break;
+      case DOUBLE:
+        value = data.readDouble();
+        break;
+      default:
+        byte[] bytes = new byte[data.readInt()];
+        data.readFully(bytes);
+        value = bytes;
+    }
+
+    if (type.isInstance(value)) {
+      return type.cast(value);
+    } else {
+      throw new ClassCastException("Expected to read object of type " + type.getName() + " but got: " + value.getClass().getName());
+    }
+  }
+
+}
@@ -17,13 +17,11 @@
 package ratpack.session.internal;
 
 import com.google.common.collect.FluentIterable;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufInputStream;
-import io.netty.buffer.ByteBufOutputStream;
 import ratpack.exec.Operation;
 import ratpack.exec.Promise;
 import ratpack.http.Response;
@@ -56,6 +54,7 @@ public class DefaultSession implements Session {
 
   private final SessionData data = new Data();
 
+  // the form of sessions stored before SessionEntriesFormat, only read for compatibility
   private static class SerializedForm implements Serializable {
     private static final long serialVersionUID = 1;
     Map<SessionKey<?>, byte[]> entries;
@@ -97,9 +96,14 @@ public class DefaultSession implements Session {
   }
 
   private void hydrate(ByteBuf bytes) {
-    if (bytes.readableBytes() > 0) {
+    if (SessionEntriesFormat.isBinary(bytes)) {
+      entries.clear();
+      SessionEntriesFormat.read(bytes, entries);
+    } else if (bytes.readableBytes() > 0) {
+      // sessions stored before the binary format was introduced, written by what was then the default serializer
+      SessionSerializer legacySerializer = defaultSerializer instanceof CompactSessionSerializer ? javaSerializer : defaultSerializer;
       try {
-        SerializedForm deserialized = defaultSerializer.deserialize(SerializedForm.class, new ByteBufInputStream(bytes));
+        SerializedForm deserialized = legacySerializer.deserialize(SerializedForm.class, new ByteBufInputStream(bytes));
         entries.clear();
         entries.putAll(deserialized.entries);
       } catch (Exception e) {
@@ -124,12 +128,9 @@ public class DefaultSession implements Session {
   }
 
   private ByteBuf serialize() {
-    SerializedForm serializable = new SerializedForm(ImmutableMap.copyOf(this.entries));
     ByteBuf buffer = bufferAllocator.buffer();
-    OutputStream outputStream = new ByteBufOutputStream(buffer);
     try {
-      defaultSerializer.serialize(SerializedForm.class, serializable, outputStream);
-      outputStream.close();
+      SessionEntriesFormat.write(entries, buffer);
       return buffer;
     } catch (Throwable e) {
       buffer.release();
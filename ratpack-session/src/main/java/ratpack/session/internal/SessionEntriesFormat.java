@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.session.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.CharsetUtil;
+import ratpack.api.Nullable;
+import ratpack.session.SessionKey;
+import ratpack.util.Exceptions;
+
+import java.util.Map;
+
+/**
+ * The binary format of the entries of a session.
+ * <p>
+ * The format is a two byte header, followed by the number of entries and then each entry.
+ * Each entry is the key name, the key type name and the value bytes, each prefixed with its length.
+ * Lengths and counts are written as unsigned variable length integers.
+ * The names of the key are written with a length of one more than their byte length, so that {@code 0} can denote {@code null}.
+ * <p>
+ * The value bytes are those produced by the session's serializer, and are only deserialized when the value is retrieved.
+ * The header distinguishes this format from the Java serialized form that was previously used, which starts with {@code 0xACED}.
+ */
+abstract class SessionEntriesFormat {
+
+  private static final byte MAGIC = 'R';
+  private static final byte VERSION = 1;
+
+  static boolean isBinary(ByteBuf in) {
+    return in.readableBytes() >= 2 && in.getByte(in.readerIndex()) == MAGIC && in.getByte(in.readerIndex() + 1) == VERSION;
+  }
+
+  static void write(Map<SessionKey<?>, byte[]> entries, ByteBuf out) {
+    out.writeByte(MAGIC).writeByte(VERSION);
+    writeVarInt(out, entries.size());
+    for (Map.Entry<SessionKey<?>, byte[]> entry : entries.entrySet()) {
+      SessionKey<?> key = entry.getKey();
+      writeNullableString(out, key.getName());
+      writeNullableString(out, key.getType() == null ? null : key.getType().getName());
+      byte[] value = entry.getValue();
+      writeVarInt(out, value.length);
+      out.writeBytes(value);
+    }
+  }
+
+  static void read(ByteBuf in, Map<SessionKey<?>, byte[]> entries) {
+    in.skipBytes(2);
+    int size = readVarInt(in);
+    for (int i = 0; i < size; ++i) {
+      String name = readNullableString(in);
+      String typeName = readNullableString(in);
+      byte[] value = new byte[readLength(in)];
+      in.readBytes(value);
+      entries.put(SessionKey.of(name, typeName == null ? null : loadClass(typeName)), value);
+    }
+  }
+
+  private static Class<?> loadClass(String name) {
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    if (classLoader == null) {
+      classLoader = SessionEntriesFormat.class.getClassLoader();
+    }
+    try {
+      return Class.forName(name, false, classLoader);
+    } catch (ClassNotFoundException e) {
+      throw Exceptions.uncheck(e);
+    }
+  }
+
+  private static void writeNullableString(ByteBuf out, @Nullable String string) {
+    if (string == null) {
+      writeVarInt(out, 0);
+    } else {
+      byte[] bytes = string.getBytes(CharsetUtil.UTF_8);
+      writeVarInt(out, bytes.length + 1);
+      out.writeBytes(bytes);
+    }
+  }
+
+  @Nullable
+  private static String readNullableString(ByteBuf in) {
+    int length = readVarInt(in);
+    if (length == 0) {
+      return null;
+    }
+    --length;
+    checkLength(in, length);
+    String string = in.toString(in.readerIndex(), length, CharsetUtil.UTF_8);
+    in.skipBytes(length);
+    return string;
+  }
+
+  private static int readLength(ByteBuf in) {
+    int length = readVarInt(in);
+    checkLength(in, length);
+    return length;
+  }
+
+  private static void checkLength(ByteBuf in, int length) {
+    if (length < 0 || length > in.readableBytes()) {
+      throw new IllegalStateException("Session data is corrupt, length " + length + " exceeds the remaining " + in.readableBytes() + " bytes");
+    }
+  }
+
+  private static void writeVarInt(ByteBuf out, int value) {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  private static int readVarInt(ByteBuf in) {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte b = in.readByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalStateException("Session data is corrupt, malformed length");
+  }
+
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.session.redis;
+
+import java.time.Duration;
+
+/**
+ * Configuration for storing sessions in a Redis server.
+ *
+ * @see RedisSessionModule
+ */
+public class RedisSessionConfig {
+
+  private String host = "localhost";
+  private int port = 6379;
+  private String password;
+  private String keyPrefix = "ratpack:session:";
+  private Duration expiry = Duration.ofMinutes(30);
+  private Duration connectTimeout = Duration.ofSeconds(5);
+  private int nearCacheMaxSize = 1000;
+  private Duration nearCacheTtl = Duration.ofSeconds(1);
+
+  /**
+   * The host of the Redis server.
+   * <p>
+   * <b>Defaults to: </b> {@code localhost}
+   *
+   * @return the host of the Redis server
+   */
+  public String getHost() {
+    return host;
+  }
+
+  /**
+   * Set the host of the Redis server.
+   *
+   * @param host the host of the Redis server
+   */
+  public void setHost(String host) {
+    this.host = host;
+  }
+
+  /**
+   * The port of the Redis server.
+   * <p>
+   * <b>Defaults to: </b> {@code 6379}
+   *
+   * @return the port of the Redis server
+   */
+  public int getPort() {
+    return port;
+  }
+
+  /**
+   * Set the port of the Redis server.
+   *
+   * @param port the port of the Redis server
+   */
+  public void setPort(int port) {
+    this.port = port;
+  }
+
+  /**
+   * The password used to authenticate each connection, with the {@code AUTH} command.
+   * <p>
+   * <b>Defaults to: </b> {@code null}, which means connections are not authenticated
+   *
+   * @return the password used to authenticate connections
+   */
+  public String getPassword() {
+    return password;
+  }
+
+  /**
+   * Set the password used to authenticate each connection.
+   *
+   * @param password the password used to authenticate connections
+   */
+  public void setPassword(String password) {
+    this.password = password;
+  }
+
+  /**
+   * The prefix of the keys that session data is stored under.
+   * <p>
+   * <b>Defaults to: </b> {@code ratpack:session:}
+   *
+   * @return the prefix of the keys that session data is stored under
+   */
+  public String getKeyPrefix() {
+    return keyPrefix;
+  }
+
+  /**
+   * Set the prefix of the keys that session data is stored under.
+   *
+   * @param keyPrefix the prefix of the keys that session data is stored under
+   */
+  public void setKeyPrefix(String keyPrefix) {
+    this.keyPrefix = keyPrefix;
+  }
+
+  /**
+   * The time that a session is kept in the server after it was last stored or loaded.
+   * <p>
+   * <b>Defaults to: </b> 30 minutes
+   *
+   * @return the time that an inactive session is kept for
+   */
+  public Duration getExpiry() {
+    return expiry;
+  }
+
+  /**
+   * Set the time that a session is kept in the server after it was last stored or loaded.
+   *
+   * @param expiry the time that an inactive session is kept for
+   */
+  public void setExpiry(Duration expiry) {
+    this.expiry = expiry;
+  }
+
+  /**
+   * The time to wait for a connection to the server to be established.
+   * <p>
+   * <b>Defaults to: </b> 5 seconds
+   *
+   * @return the time to wait for a connection to be established
+   */
+  public Duration getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  /**
+   * Set the time to wait for a connection to the server to be established.
+   *
+   * @param connectTimeout the time to wait for a connection to be established
+   */
+  public void setConnectTimeout(Duration connectTimeout) {
+    this.connectTimeout = connectTimeout;
+  }
+
+  /**
+   * The max number of sessions held in the near cache of each application instance.
+   * <p>
+   * The near cache holds the most recently used sessions in local memory, along with the version of the session that was read or written.
+   * If {@code 0}, there is no near cache and every load reads the session from the server.
+   * <p>
+   * <b>Defaults to: </b> {@code 1000}
+   *
+   * @return the max number of sessions held in the near cache
+   * @see #getNearCacheTtl()
+   */
+  public int getNearCacheMaxSize() {
+    return nearCacheMaxSize;
+  }
+
+  /**
+   * Set the max number of sessions held in the near cache of each application instance.
+   *
+   * @param nearCacheMaxSize the max number of sessions held in the near cache
+   */
+  public void setNearCacheMaxSize(int nearCacheMaxSize) {
+    this.nearCacheMaxSize = nearCacheMaxSize;
+  }
+
+  /**
+   * The time that a near cached session is used without checking its version with the server.
+   * <p>
+   * Within this time, loading a near cached session involves no communication with the server.
+   * As such, changes made to the session by other application instances may not be seen for up to this long.
+   * After this time, loading the session checks that its version in the server is unchanged, and only reads the whole session if it has changed.
+   * If zero, the version is checked each time the session is loaded.
+   * <p>
+   * <b>Defaults to: </b> 1 second
+   *
+   * @return the time that a near cached session is used without checking its version
+   */
+  public Duration getNearCacheTtl() {
+    return nearCacheTtl;
+  }
+
+  /**
+   * Set the time that a near cached session is used without checking its version with the server.
+   *
+   * @param nearCacheTtl the time that a near cached session is used without checking its version
+   */
+  public void setNearCacheTtl(Duration nearCacheTtl) {
+    this.nearCacheTtl = nearCacheTtl;
+  }
+
+}
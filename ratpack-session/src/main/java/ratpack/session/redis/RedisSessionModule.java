@@ -0,0 +1,73 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.session.redis;
+
+import com.google.common.primitives.Ints;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import ratpack.exec.ExecControl;
+import ratpack.guice.ConfigurableModule;
+import ratpack.session.SessionStore;
+import ratpack.session.redis.internal.RedisClient;
+import ratpack.session.redis.internal.RedisSessionStore;
+
+/**
+ * Stores sessions in a Redis server, so that they can be shared between application instances.
+ * <p>
+ * This module overrides the {@link SessionStore} binding of the {@link ratpack.session.SessionModule}, which must also be used.
+ * The server is communicated with directly from the event loop of the execution that uses the session, without blocking.
+ * Each event loop has its own connection to the server, over which commands are pipelined.
+ * <p>
+ * Each session is stored as a hash of its serialized data and a version, which expires after a period of inactivity (see {@link RedisSessionConfig#getExpiry()}).
+ * Recently used sessions are also held in a near cache in local memory.
+ * Loading a near cached session does not communicate with the server at all for a short time after it was read or written (see {@link RedisSessionConfig#getNearCacheTtl()}),
+ * and after that only checks that the version of the session is unchanged before using the near cached data.
+ *
+ * <pre class="java">{@code
+ * import ratpack.guice.Guice;
+ * import ratpack.session.SessionModule;
+ * import ratpack.session.redis.RedisSessionModule;
+ *
+ * public class Example {
+ *   public static void main(String... args) {
+ *     Guice.registry(b -> b
+ *         .module(SessionModule.class)
+ *         .module(RedisSessionModule.class, c -> {
+ *           c.setHost("sessions.example.com");
+ *           c.setExpiry(java.time.Duration.ofHours(1));
+ *         })
+ *     );
+ *   }
+ * }
+ * }</pre>
+ *
+ * @see RedisSessionConfig
+ */
+public class RedisSessionModule extends ConfigurableModule<RedisSessionConfig> {
+
+  @Override
+  protected void configure() {
+  }
+
+  @Provides
+  @Singleton
+  SessionStore sessionStore(RedisSessionConfig config, ExecControl execControl) {
+    RedisClient client = new RedisClient(execControl, config.getHost(), config.getPort(), config.getPassword(), Ints.saturatedCast(config.getConnectTimeout().toMillis()));
+    return new RedisSessionStore(client, execControl, config);
+  }
+
+}
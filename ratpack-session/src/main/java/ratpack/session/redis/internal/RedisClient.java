@@ -0,0 +1,269 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.session.redis.internal;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.*;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.util.CharsetUtil;
+import ratpack.exec.ExecControl;
+import ratpack.exec.Promise;
+import ratpack.exec.Result;
+import ratpack.util.internal.ChannelImplDetector;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * A minimal, non blocking, Redis client.
+ * <p>
+ * Each event loop has its own connection to the server, which is only used by executions bound to that event loop.
+ * All state of a connection is therefore confined to its event loop, and commands are pipelined without synchronisation.
+ * Connections are opened lazily, and reopened by the next command after they are closed.
+ */
+public class RedisClient implements AutoCloseable {
+
+  private static final byte[] CRLF = {'\r', '\n'};
+
+  private final ExecControl execControl;
+  private final String host;
+  private final int port;
+  private final String password;
+  private final int connectTimeoutMillis;
+  private final ConcurrentMap<EventLoop, Connection> connections = new ConcurrentHashMap<>();
+
+  public RedisClient(ExecControl execControl, String host, int port, String password, int connectTimeoutMillis) {
+    this.execControl = execControl;
+    this.host = host;
+    this.port = port;
+    this.password = password;
+    this.connectTimeoutMillis = connectTimeoutMillis;
+  }
+
+  /**
+   * Sends the given commands, in order and without interleaving with other commands, and promises their replies.
+   * <p>
+   * Command arguments may be {@code byte[]}, or any other object whose string form is sent as UTF-8.
+   * If any reply is an error, the promise fails with the first error.
+   *
+   * @param commands the commands to send
+   * @return a promise for the reply to each command
+   */
+  public Promise<List<Object>> execute(Object[]... commands) {
+    return execControl.promise(fulfiller -> {
+      EventLoop eventLoop = execControl.getExecution().getEventLoop();
+      connections.computeIfAbsent(eventLoop, Connection::new).send(new Batch(commands, fulfiller::accept));
+    });
+  }
+
+  /**
+   * Convenience for building a command.
+   *
+   * @param args the command name and its arguments
+   * @return the command
+   */
+  public static Object[] command(Object... args) {
+    return args;
+  }
+
+  @Override
+  public void close() {
+    for (Connection connection : connections.values()) {
+      connection.eventLoop.execute(connection::close);
+    }
+    connections.clear();
+  }
+
+  private final class Connection {
+    private final EventLoop eventLoop;
+    private Channel channel;
+
+    // batches sent while connecting, non null only while connecting
+    private Queue<Batch> connecting;
+
+    private Connection(EventLoop eventLoop) {
+      this.eventLoop = eventLoop;
+    }
+
+    private void send(Batch batch) {
+      if (channel != null && channel.isActive()) {
+        write(batch);
+      } else if (connecting != null) {
+        connecting.add(batch);
+      } else {
+        connect(batch);
+      }
+    }
+
+    private void connect(Batch first) {
+      connecting = new ArrayDeque<>();
+      connecting.add(first);
+
+      ChannelFuture connectFuture = new Bootstrap()
+        .group(eventLoop)
+        .channel(ChannelImplDetector.getSocketChannelImpl())
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+        .option(ChannelOption.TCP_NODELAY, true)
+        .handler(new ChannelInitializer<SocketChannel>() {
+          @Override
+          protected void initChannel(SocketChannel ch) throws Exception {
+            ch.pipeline().addLast("decoder", new RedisReplyDecoder());
+            ch.pipeline().addLast("replies", new ReplyHandler());
+          }
+        })
+        .connect(host, port);
+
+      connectFuture.addListener(f -> {
+        Queue<Batch> batches = connecting;
+        connecting = null;
+        if (connectFuture.isSuccess()) {
+          channel = connectFuture.channel();
+          if (password != null) {
+            write(new Batch(new Object[][]{command("AUTH", password)}, result -> {
+              if (result.isError()) {
+                connectFuture.channel().close();
+              }
+            }));
+          }
+          batches.forEach(this::write);
+        } else {
+          batches.forEach(batch -> batch.failed(connectFuture.cause()));
+        }
+      });
+    }
+
+    private void write(Batch batch) {
+      ReplyHandler replyHandler = channel.pipeline().get(ReplyHandler.class);
+      if (replyHandler == null) {
+        batch.failed(new ClosedChannelException());
+        return;
+      }
+
+      Channel channel = this.channel;
+      replyHandler.pending.add(batch);
+      channel.writeAndFlush(batch.encode(channel.alloc())).addListener(f -> {
+        if (!f.isSuccess()) {
+          // fails all pending batches
+          channel.close();
+        }
+      });
+    }
+
+    private void close() {
+      if (channel != null) {
+        channel.close();
+      }
+    }
+  }
+
+  private static final class ReplyHandler extends ChannelInboundHandlerAdapter {
+    private final Queue<Batch> pending = new ArrayDeque<>();
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+      Batch batch = pending.peek();
+      if (batch == null) {
+        ctx.close();
+        return;
+      }
+      batch.reply(msg == RedisReplyDecoder.NIL ? null : msg);
+      if (batch.isComplete()) {
+        pending.poll();
+      }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+      Batch batch = pending.poll();
+      while (batch != null) {
+        batch.failed(new ClosedChannelException());
+        batch = pending.poll();
+      }
+      super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+      ctx.close();
+    }
+  }
+
+  private static final class Batch {
+    private final Object[][] commands;
+    private final Object[] replies;
+    private final Consumer<? super Result<List<Object>>> callback;
+    private int received;
+    private boolean done;
+
+    private Batch(Object[][] commands, Consumer<? super Result<List<Object>>> callback) {
+      this.commands = commands;
+      this.replies = new Object[commands.length];
+      this.callback = callback;
+    }
+
+    private ByteBuf encode(ByteBufAllocator allocator) {
+      ByteBuf buffer = allocator.buffer();
+      for (Object[] command : commands) {
+        writeHeader(buffer, '*', command.length);
+        for (Object arg : command) {
+          byte[] bytes = arg instanceof byte[] ? (byte[]) arg : arg.toString().getBytes(CharsetUtil.UTF_8);
+          writeHeader(buffer, '$', bytes.length);
+          buffer.writeBytes(bytes).writeBytes(CRLF);
+        }
+      }
+      return buffer;
+    }
+
+    private static void writeHeader(ByteBuf buffer, char type, int length) {
+      buffer.writeByte(type).writeBytes(Integer.toString(length).getBytes(CharsetUtil.US_ASCII)).writeBytes(CRLF);
+    }
+
+    private boolean isComplete() {
+      return received == replies.length;
+    }
+
+    private void reply(Object reply) {
+      replies[received++] = reply;
+      if (isComplete() && !done) {
+        done = true;
+        for (Object r : replies) {
+          if (r instanceof RedisErrorException) {
+            callback.accept(Result.error((RedisErrorException) r));
+            return;
+          }
+        }
+        callback.accept(Result.success(Arrays.asList(replies)));
+      }
+    }
+
+    private void failed(Throwable throwable) {
+      if (!done) {
+        done = true;
+        callback.accept(Result.error(throwable));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.session.redis.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.DecoderException;
+import io.netty.util.CharsetUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes replies in the Redis serialization protocol (RESP).
+ * <p>
+ * Replies are decoded as follows:
+ * <ul>
+ * <li>simple strings to {@link String}</li>
+ * <li>errors to {@link RedisErrorException}, which is emitted rather than thrown</li>
+ * <li>integers to {@link Long}</li>
+ * <li>bulk strings to {@code byte[]}</li>
+ * <li>arrays to {@link List}, with nil elements as {@code null}</li>
+ * <li>nil bulk strings and arrays to {@link #NIL}</li>
+ * </ul>
+ * Bulk strings are copied out of the received buffers, as session data is small and held beyond the life of the buffer.
+ */
+class RedisReplyDecoder extends ByteToMessageDecoder {
+
+  static final Object NIL = new Object();
+
+  private static final Object INCOMPLETE = new Object();
+
+  @Override
+  protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+    while (in.isReadable()) {
+      int start = in.readerIndex();
+      Object reply = parse(in);
+      if (reply == INCOMPLETE) {
+        in.readerIndex(start);
+        return;
+      }
+      out.add(reply);
+    }
+  }
+
+  private static Object parse(ByteBuf in) {
+    if (!in.isReadable()) {
+      return INCOMPLETE;
+    }
+
+    byte type = in.readByte();
+    String line = readLine(in);
+    if (line == null) {
+      return INCOMPLETE;
+    }
+
+    switch (type) {
+      case '+':
+        return line;
+      case '-':
+        return new RedisErrorException(line);
+      case ':':
+        return Long.parseLong(line);
+      case '$':
+        return parseBulkString(in, Integer.parseInt(line));
+      case '*':
+        return parseArray(in, Integer.parseInt(line));
+      default:
+        throw new DecoderException("Unexpected Redis reply type: " + (char) type);
+    }
+  }
+
+  private static Object parseBulkString(ByteBuf in, int length) {
+    if (length < 0) {
+      return NIL;
+    }
+    if (in.readableBytes() < length + 2) {
+      return INCOMPLETE;
+    }
+    byte[] bytes = new byte[length];
+    in.readBytes(bytes);
+    in.skipBytes(2);
+    return bytes;
+  }
+
+  private static Object parseArray(ByteBuf in, int size) {
+    if (size < 0) {
+      return NIL;
+    }
+    List<Object> elements = new ArrayList<>(size);
+    for (int i = 0; i < size; ++i) {
+      Object element = parse(in);
+      if (element == INCOMPLETE) {
+        return INCOMPLETE;
+      }
+      elements.add(element == NIL ? null : element);
+    }
+    return elements;
+  }
+
+  private static String readLine(ByteBuf in) {
+    int lf = in.indexOf(in.readerIndex(), in.writerIndex(), (byte) '\n');
+    if (lf < 0) {
+      return null;
+    }
+    String line = in.toString(in.readerIndex(), lf - 1 - in.readerIndex(), CharsetUtil.US_ASCII);
+    in.readerIndex(lf + 1);
+    return line;
+  }
+
+}
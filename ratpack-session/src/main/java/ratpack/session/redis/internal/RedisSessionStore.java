@@ -0,0 +1,212 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.session.redis.internal;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.BaseEncoding;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.AsciiString;
+import io.netty.util.CharsetUtil;
+import ratpack.exec.ExecControl;
+import ratpack.exec.Operation;
+import ratpack.exec.Promise;
+import ratpack.server.StopEvent;
+import ratpack.session.SessionStore;
+import ratpack.session.redis.RedisSessionConfig;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static ratpack.session.redis.internal.RedisClient.command;
+
+/**
+ * Stores each session as a Redis hash, of its data and a version that changes each time it is stored.
+ * <p>
+ * Recently used sessions are kept in a near cache along with their version.
+ * A near cached session is used as is while it is younger than the near cache ttl.
+ * After that, its version is compared with the server's, and the data is only read again if the version has changed.
+ */
+public class RedisSessionStore implements SessionStore {
+
+  private static final String DATA_FIELD = "d";
+  private static final String VERSION_FIELD = "v";
+
+  private final RedisClient client;
+  private final ExecControl execControl;
+  private final String keyPrefix;
+  private final long expiryMillis;
+  private final long nearCacheTtlNanos;
+  private final Cache<AsciiString, NearCacheEntry> nearCache;
+
+  public RedisSessionStore(RedisClient client, ExecControl execControl, RedisSessionConfig config) {
+    this.client = client;
+    this.execControl = execControl;
+    this.keyPrefix = config.getKeyPrefix();
+    this.expiryMillis = config.getExpiry().toMillis();
+    this.nearCacheTtlNanos = config.getNearCacheTtl().toNanos();
+    if (config.getNearCacheMaxSize() > 0) {
+      this.nearCache = CacheBuilder.newBuilder()
+        .maximumSize(config.getNearCacheMaxSize())
+        .expireAfterAccess(expiryMillis, TimeUnit.MILLISECONDS)
+        .build();
+    } else {
+      this.nearCache = null;
+    }
+  }
+
+  @Override
+  public Operation store(AsciiString sessionId, ByteBuf sessionData) {
+    byte[] data = new byte[sessionData.readableBytes()];
+    sessionData.getBytes(sessionData.readerIndex(), data);
+    byte[] version = newVersion();
+    String key = key(sessionId);
+
+    return client.execute(
+      command("MULTI"),
+      command("HMSET", key, DATA_FIELD, data, VERSION_FIELD, version),
+      command("PEXPIRE", key, expiryMillis),
+      command("EXEC")
+    ).map(replies -> {
+      List<?> results = (List<?>) replies.get(3);
+      if (results == null) {
+        throw new IllegalStateException("Redis transaction to store session " + sessionId + " was aborted");
+      }
+      for (Object result : results) {
+        if (result instanceof RedisErrorException) {
+          throw (RedisErrorException) result;
+        }
+      }
+      nearCachePut(sessionId, data, version);
+      return null;
+    }).operation();
+  }
+
+  @Override
+  public Promise<ByteBuf> load(AsciiString sessionId) {
+    NearCacheEntry entry = nearCache == null ? null : nearCache.getIfPresent(sessionId);
+    if (entry == null) {
+      return read(sessionId);
+    } else if (System.nanoTime() - entry.validatedAt < nearCacheTtlNanos) {
+      return execControl.promiseOf(Unpooled.wrappedBuffer(entry.data));
+    } else {
+      String key = key(sessionId);
+      return client.execute(
+        command("HGET", key, VERSION_FIELD),
+        command("PEXPIRE", key, expiryMillis)
+      ).flatMap(replies -> {
+        if (Arrays.equals(entry.version, (byte[]) replies.get(0))) {
+          nearCachePut(sessionId, entry.data, entry.version);
+          return execControl.promiseOf(Unpooled.wrappedBuffer(entry.data));
+        } else {
+          return read(sessionId);
+        }
+      });
+    }
+  }
+
+  private Promise<ByteBuf> read(AsciiString sessionId) {
+    String key = key(sessionId);
+    return client.execute(
+      command("HMGET", key, DATA_FIELD, VERSION_FIELD),
+      command("PEXPIRE", key, expiryMillis)
+    ).map(replies -> {
+      List<?> fields = (List<?>) replies.get(0);
+      byte[] data = (byte[]) fields.get(0);
+      byte[] version = (byte[]) fields.get(1);
+      if (data == null || version == null) {
+        nearCacheInvalidate(sessionId);
+        return Unpooled.buffer(0, 0);
+      } else {
+        nearCachePut(sessionId, data, version);
+        return Unpooled.wrappedBuffer(data);
+      }
+    });
+  }
+
+  @Override
+  public Operation remove(AsciiString sessionId) {
+    return client.execute(command("DEL", key(sessionId)))
+      .map(replies -> {
+        nearCacheInvalidate(sessionId);
+        return null;
+      })
+      .operation();
+  }
+
+  @Override
+  public Promise<Long> size() {
+    return countFrom("0", 0);
+  }
+
+  private Promise<Long> countFrom(String cursor, long count) {
+    return client.execute(command("SCAN", cursor, "MATCH", keyPrefix + "*", "COUNT", 1000))
+      .flatMap(replies -> {
+        List<?> reply = (List<?>) replies.get(0);
+        String nextCursor = new String((byte[]) reply.get(0), CharsetUtil.US_ASCII);
+        long total = count + ((List<?>) reply.get(1)).size();
+        return nextCursor.equals("0") ? execControl.promiseOf(total) : countFrom(nextCursor, total);
+      });
+  }
+
+  @Override
+  public void onStop(StopEvent event) throws Exception {
+    if (nearCache != null) {
+      nearCache.invalidateAll();
+    }
+    client.close();
+  }
+
+  private String key(AsciiString sessionId) {
+    return keyPrefix + sessionId;
+  }
+
+  private void nearCachePut(AsciiString sessionId, byte[] data, byte[] version) {
+    if (nearCache != null) {
+      nearCache.put(sessionId, new NearCacheEntry(data, version, System.nanoTime()));
+    }
+  }
+
+  private void nearCacheInvalidate(AsciiString sessionId) {
+    if (nearCache != null) {
+      nearCache.invalidate(sessionId);
+    }
+  }
+
+  private static byte[] newVersion() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    byte[] bytes = new byte[16];
+    random.nextBytes(bytes);
+    return BaseEncoding.base16().lowerCase().encode(bytes).getBytes(CharsetUtil.US_ASCII);
+  }
+
+  private static final class NearCacheEntry {
+    private final byte[] data;
+    private final byte[] version;
+    private final long validatedAt;
+
+    private NearCacheEntry(byte[] data, byte[] version, long validatedAt) {
+      this.data = data;
+      this.version = version;
+      this.validatedAt = validatedAt;
+    }
+  }
+
+}
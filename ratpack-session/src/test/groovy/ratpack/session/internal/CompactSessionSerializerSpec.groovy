@@ -0,0 +1,136 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.session.internal
+
+import io.netty.buffer.Unpooled
+import ratpack.session.JavaSessionSerializer
+import ratpack.session.SessionKey
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class CompactSessionSerializerSpec extends Specification {
+
+  def javaSerializer = new JavaBuiltinSessionSerializer()
+  def serializer = new CompactSessionSerializer(javaSerializer)
+
+  @Unroll
+  def "can round trip #value"() {
+    when:
+    def out = new ByteArrayOutputStream()
+    serializer.serialize(type, value, out)
+
+    then:
+    serializer.deserialize(type, new ByteArrayInputStream(out.toByteArray())) == value
+    out.size() < javaSize(value)
+
+    where:
+    value                 | type
+    "føø"                 | String
+    1                     | Integer
+    Long.MAX_VALUE        | Long
+    true                  | Boolean
+    1.5d                  | Double
+    [1, 2, 3] as byte[]   | byte[]
+  }
+
+  def "uses java serialization for other types"() {
+    when:
+    def out = new ByteArrayOutputStream()
+    serializer.serialize(ArrayList, ["a"] as ArrayList, out)
+
+    then:
+    out.toByteArray() == [7] as byte[] + javaBytes(["a"] as ArrayList)
+    serializer.deserialize(ArrayList, new ByteArrayInputStream(out.toByteArray())) == ["a"]
+  }
+
+  def "can delegate to a java serializer whose output starts with a tag"() {
+    given:
+    def delegate = Mock(JavaSessionSerializer) {
+      serialize(_, _, _) >> { Class type, Object value, OutputStream out -> out.write([1, 2, 3] as byte[]) }
+      deserialize(_, _) >> { Class type, InputStream input -> input.bytes.toList() }
+    }
+    def serializer = new CompactSessionSerializer(delegate)
+    def out = new ByteArrayOutputStream()
+
+    when:
+    serializer.serialize(List, ["a"], out)
+
+    then:
+    serializer.deserialize(List, new ByteArrayInputStream(out.toByteArray())) == [1, 2, 3]
+  }
+
+  def "delegates untagged values to the java serializer"() {
+    given:
+    def delegate = Mock(JavaSessionSerializer) {
+      deserialize(_, _) >> { Class type, InputStream input -> input.bytes.toList() }
+    }
+    def serializer = new CompactSessionSerializer(delegate)
+
+    expect:
+    serializer.deserialize(List, new ByteArrayInputStream([42, 43] as byte[])) == [42, 43]
+  }
+
+  def "can read values written with java serialization"() {
+    expect:
+    serializer.deserialize(String, new ByteArrayInputStream(javaBytes("foo"))) == "foo"
+  }
+
+  def "fails if value is not of expected type"() {
+    given:
+    def out = new ByteArrayOutputStream()
+    serializer.serialize(String, "foo", out)
+
+    when:
+    serializer.deserialize(Integer, new ByteArrayInputStream(out.toByteArray()))
+
+    then:
+    thrown ClassCastException
+  }
+
+  def "can round trip session entries"() {
+    given:
+    def entries = [
+      (SessionKey.of("a", String)): [1] as byte[],
+      (SessionKey.of(Integer)): [] as byte[],
+      (SessionKey.of("c", null)): [2, 3] as byte[]
+    ]
+    def buffer = Unpooled.buffer()
+
+    when:
+    SessionEntriesFormat.write(entries, buffer)
+    def binary = SessionEntriesFormat.isBinary(buffer)
+    def read = [:]
+    SessionEntriesFormat.read(buffer, read)
+
+    then:
+    binary
+    read.keySet() == entries.keySet()
+    read.every { k, v -> v == entries[k] }
+    !buffer.readable
+  }
+
+  private byte[] javaBytes(Object value) {
+    def out = new ByteArrayOutputStream()
+    javaSerializer.serialize(value.getClass(), value, out)
+    out.toByteArray()
+  }
+
+  private int javaSize(Object value) {
+    javaBytes(value).length
+  }
+
+}
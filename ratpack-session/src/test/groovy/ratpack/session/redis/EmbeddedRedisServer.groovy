@@ -0,0 +1,193 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.session.redis
+
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+
+/**
+ * A stand in for a Redis server, that implements just the commands used by the session store, over blocking sockets.
+ * <p>
+ * Keys never expire.
+ */
+class EmbeddedRedisServer implements Closeable {
+
+  private static class Status {
+    final String value
+
+    Status(String value) {
+      this.value = value
+    }
+  }
+
+  private static final Status OK = new Status("OK")
+
+  final Map<String, Map<String, byte[]>> hashes = new ConcurrentHashMap<>()
+  final List<String> commands = new CopyOnWriteArrayList<>()
+
+  private final ServerSocket serverSocket = new ServerSocket(0)
+  private final List<Socket> sockets = new CopyOnWriteArrayList<>()
+
+  EmbeddedRedisServer() {
+    Thread.start {
+      while (!serverSocket.closed) {
+        Socket socket
+        try {
+          socket = serverSocket.accept()
+        } catch (IOException ignore) {
+          return
+        }
+        sockets << socket
+        Thread.start { serve(socket) }
+      }
+    }
+  }
+
+  int getPort() {
+    serverSocket.localPort
+  }
+
+  List<String> commandNames() {
+    commands.findAll { it != "AUTH" }
+  }
+
+  private void serve(Socket socket) {
+    def input = new BufferedInputStream(socket.inputStream)
+    def output = new BufferedOutputStream(socket.outputStream)
+    List<Object> queued = null
+    try {
+      while (true) {
+        def args = readCommand(input)
+        if (args == null) {
+          return
+        }
+        def name = string(args[0]).toUpperCase()
+        commands << name
+        if (name == "MULTI") {
+          queued = []
+          write(output, OK)
+        } else if (name == "EXEC") {
+          write(output, queued)
+          queued = null
+        } else if (queued != null) {
+          queued << execute(name, args)
+          write(output, new Status("QUEUED"))
+        } else {
+          write(output, execute(name, args))
+        }
+        if (input.available() == 0) {
+          output.flush()
+        }
+      }
+    } catch (IOException ignore) {
+      // closed
+    } finally {
+      socket.close()
+    }
+  }
+
+  private Object execute(String name, List<byte[]> args) {
+    switch (name) {
+      case "AUTH":
+      case "PING":
+        return OK
+      case "HMSET":
+        def hash = hashes.computeIfAbsent(string(args[1])) { new ConcurrentHashMap<>() }
+        for (int i = 2; i < args.size(); i += 2) {
+          hash[string(args[i])] = args[i + 1]
+        }
+        return OK
+      case "HGET":
+        return hashes[string(args[1])]?.get(string(args[2]))
+      case "HMGET":
+        def hash = hashes[string(args[1])]
+        return args.drop(2).collect { hash?.get(string(it)) }
+      case "PEXPIRE":
+        return hashes.containsKey(string(args[1])) ? 1L : 0L
+      case "DEL":
+        return args.drop(1).count { hashes.remove(string(it)) != null } as Long
+      case "SCAN":
+        def prefix = string(args[3])
+        prefix = prefix.substring(0, prefix.length() - 1)
+        return ["0".bytes, hashes.keySet().findAll { it.startsWith(prefix) }.collect { it.bytes }]
+      default:
+        return new IllegalArgumentException("ERR unknown command '$name'")
+    }
+  }
+
+  private static List<byte[]> readCommand(InputStream input) {
+    def header = readLine(input)
+    if (header == null) {
+      return null
+    }
+    assert header.startsWith("*")
+    (1..header.substring(1).toInteger()).collect {
+      def length = readLine(input).substring(1).toInteger()
+      def bytes = new byte[length]
+      new DataInputStream(input).readFully(bytes)
+      input.read()
+      input.read()
+      bytes
+    }
+  }
+
+  private static String readLine(InputStream input) {
+    def line = new ByteArrayOutputStream()
+    int b
+    while ((b = input.read()) != 10) {
+      if (b == -1) {
+        return null
+      }
+      line.write(b)
+    }
+    def string = line.toString("US-ASCII")
+    string.substring(0, string.length() - 1)
+  }
+
+  private static void write(OutputStream output, Object reply) {
+    if (reply == null) {
+      output << "\$-1\r\n"
+    } else if (reply instanceof Status) {
+      output << "+$reply.value\r\n"
+    } else if (reply instanceof Exception) {
+      output << "-$reply.message\r\n"
+    } else if (reply instanceof Long) {
+      output << ":$reply\r\n"
+    } else if (reply instanceof byte[]) {
+      output << "\$$reply.length\r\n"
+      output.write(reply)
+      output << "\r\n"
+    } else if (reply instanceof List) {
+      output << "*${reply.size()}\r\n"
+      reply.each { write(output, it) }
+    } else {
+      throw new IllegalArgumentException("Can't write $reply")
+    }
+  }
+
+  private static String string(byte[] bytes) {
+    new String(bytes, StandardCharsets.UTF_8)
+  }
+
+  @Override
+  void close() {
+    serverSocket.close()
+    sockets*.close()
+  }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.session.redis
+
+import ratpack.session.Session
+import ratpack.session.SessionSpec
+
+import java.time.Duration
+
+class RedisSessionSpec extends SessionSpec {
+
+  def server = new EmbeddedRedisServer()
+  def config = new RedisSessionConfig(port: server.port, password: "secret")
+
+  def setup() {
+    modules << new RedisSessionModule(config: config)
+  }
+
+  def cleanup() {
+    server.close()
+  }
+
+  def setHandlers() {
+    handlers {
+      get("set/:value") { Session session ->
+        session.data.then {
+          it.set("value", pathTokens.value)
+          render pathTokens.value
+        }
+      }
+      get { Session session ->
+        render session.data.map { it.require("value") }
+      }
+    }
+  }
+
+  def "stores session data in server"() {
+    when:
+    setHandlers()
+
+    then:
+    getText("set/foo") == "foo"
+    server.hashes.size() == 1
+    server.hashes.keySet().first().startsWith("ratpack:session:")
+    server.hashes.values().first().keySet() == ["d", "v"] as Set
+  }
+
+  def "near cached sessions are loaded without contacting the server"() {
+    given:
+    config.nearCacheTtl = Duration.ofMinutes(1)
+
+    when:
+    setHandlers()
+    getText("set/foo")
+    server.commands.clear()
+
+    then:
+    getText() == "foo"
+    server.commandNames().empty
+  }
+
+  def "only the version of near cached session is read after the near cache ttl"() {
+    given:
+    config.nearCacheTtl = Duration.ZERO
+
+    when:
+    setHandlers()
+    getText("set/foo")
+    server.commands.clear()
+
+    then:
+    getText() == "foo"
+    server.commandNames() == ["HGET", "PEXPIRE"]
+  }
+
+  def "session is read again when its version has changed"() {
+    given:
+    config.nearCacheTtl = Duration.ZERO
+
+    when:
+    setHandlers()
+    getText("set/foo")
+    server.hashes.values().first()["v"] = "changed".bytes
+    server.commands.clear()
+
+    then:
+    getText() == "foo"
+    server.commandNames() == ["HGET", "PEXPIRE", "HMGET", "PEXPIRE"]
+  }
+
+  def "session is always read from server without near cache"() {
+    given:
+    config.nearCacheMaxSize = 0
+
+    when:
+    setHandlers()
+    getText("set/foo")
+    server.commands.clear()
+
+    then:
+    getText() == "foo"
+    server.commandNames() == ["HMGET", "PEXPIRE"]
+  }
+
+}
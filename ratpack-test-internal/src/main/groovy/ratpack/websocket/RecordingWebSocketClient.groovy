@@ -20,6 +20,7 @@ import groovy.transform.CompileStatic
 import org.java_websocket.client.WebSocketClient
 import org.java_websocket.handshake.ServerHandshake
 
+import java.nio.ByteBuffer
 import java.util.concurrent.CountDownLatch
 import java.util.concurrent.LinkedBlockingQueue
 import java.util.concurrent.TimeUnit
@@ -28,6 +29,7 @@ import java.util.concurrent.TimeUnit
 class RecordingWebSocketClient extends WebSocketClient {
 
   final LinkedBlockingQueue<String> received = new LinkedBlockingQueue<String>()
+  final LinkedBlockingQueue<ByteBuffer> receivedBinary = new LinkedBlockingQueue<ByteBuffer>()
   Exception exception
   int closeCode
   String closeReason
@@ -50,6 +52,11 @@ class RecordingWebSocketClient extends WebSocketClient {
     received.put message
   }
 
+  @Override
+  void onMessage(ByteBuffer bytes) {
+    receivedBinary.put bytes
+  }
+
   @Override
   void onClose(int code, String reason, boolean remote) {
     this.closeCode = code
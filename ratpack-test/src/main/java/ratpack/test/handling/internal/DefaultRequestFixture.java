@@ -245,7 +245,7 @@ public class DefaultRequestFixture implements RequestFixture {
       build();
     return Exceptions.uncheck(() -> {
       ServerConfig serverConfig = serverConfigBuilder.build();
-      DefaultExecController execController = new DefaultExecController(serverConfig.getThreads());
+      DefaultExecController execController = new DefaultExecController(serverConfig.getThreads(), serverConfig.getMaxBlockingThreads(), serverConfig.getBlockingQueueSize(), serverConfig.getStallThreshold());
       return ServerRegistry.serverRegistry(new TestServer(), execController, serverConfig, r -> userRegistry.join(registryBuilder.build()));
     });
   }
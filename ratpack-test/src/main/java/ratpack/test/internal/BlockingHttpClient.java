@@ -82,7 +82,8 @@ public class BlockingHttpClient {
 
     @Override
     public void execute(Execution execution) throws Exception {
-      HttpClient.httpClient(execController, UnpooledByteBufAllocator.DEFAULT, Integer.MAX_VALUE)
+      // a client per request, so don't keep connections alive
+      HttpClient.httpClient(execController, UnpooledByteBufAllocator.DEFAULT, spec -> spec.maxContentLength(Integer.MAX_VALUE).poolSize(0))
         .request(uri, Action.join(s -> s.readTimeout(Duration.ofHours(1)), action))
         .then(response -> {
           TypedData responseBody = response.getBody();